@@ -37,4 +37,30 @@ public @interface Paginate {
      * @return the maximum limit
      */
     int maxLimit() default 10000;
+
+    /**
+     * How page totals are computed when they are requested.
+     * @return the totals strategy
+     */
+    TotalsStrategy totalsStrategy() default TotalsStrategy.QUERY;
+
+    /**
+     * How page totals are computed.
+     */
+    enum TotalsStrategy {
+        /**
+         * A separate count query before the page is fetched.
+         */
+        QUERY,
+        /**
+         * The page is fetched with one extra record. When it is the last page, the totals follow from its size and
+         * no count query runs.
+         */
+        PEEK,
+        /**
+         * Every fetched record carries the total count of the query, when the data store supports it (a windowed
+         * {@code COUNT(*) OVER()}). Falls back to {@link #PEEK} otherwise.
+         */
+        WINDOW
+    }
 }
@@ -0,0 +1,25 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.annotation;
+
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Marks an inline check that may be evaluated for several objects of one request at the same time.
+ *
+ * The check must not touch the data store transaction (e.g. by loading lazy relationships) or other state that is
+ * not safe to share between threads. User checks are always considered thread-safe.
+ */
+@Target({TYPE})
+@Retention(RUNTIME)
+@Inherited
+public @interface ThreadSafeCheck {
+}
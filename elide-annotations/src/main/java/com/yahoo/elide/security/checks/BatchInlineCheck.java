@@ -0,0 +1,41 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.security.checks;
+
+import com.yahoo.elide.security.ChangeSpec;
+import com.yahoo.elide.security.RequestScope;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Operation check evaluated over many objects at once.
+ * @see OperationCheck
+ *
+ * When a collection is read, Elide hands every candidate object of the collection to a single call of
+ * {@link #ok(List, RequestScope)}, so a check that needs e.g. a lookup per object can do one lookup for the whole
+ * page instead. Objects that are checked on their own (a single object, or a write) are passed as a list of one.
+ *
+ * <b>NOTE:</b> The change spec is not available to batch checks.
+ *
+ * @param <T> Type parameter
+ */
+public abstract class BatchInlineCheck<T> extends OperationCheck<T> {
+    /**
+     * Determines whether the user can access each of the resources.
+     *
+     * @param objects the objects to check
+     * @param requestScope Request scope object
+     * @return one result per object, in the order of {@code objects}
+     */
+    public abstract List<Boolean> ok(List<T> objects, RequestScope requestScope);
+
+    @Override
+    public final boolean ok(T object, RequestScope requestScope, Optional<ChangeSpec> changeSpec) {
+        return ok(Collections.singletonList(object), requestScope).get(0);
+    }
+}
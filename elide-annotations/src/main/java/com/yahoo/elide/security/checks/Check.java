@@ -14,6 +14,10 @@ import java.util.Optional;
 /**
  * Custom security access that verifies whether a user belongs to a role.
  * Permissions are assigned as a set of checks that grant access to the permission.
+ *
+ * Checks should be stateless: a check class without mutable instance fields (every instance field is final) is
+ * instantiated once per entity dictionary and shared by all requests and threads. Any other check is instantiated
+ * each time a permission expression is evaluated.
  * @param <T> Type of record for Check
  */
 public interface Check<T> {
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.benchmarks;
+
+import com.yahoo.elide.Elide;
+import com.yahoo.elide.ElideSettings;
+import com.yahoo.elide.ElideSettingsBuilder;
+import com.yahoo.elide.benchmarks.models.Author;
+import com.yahoo.elide.benchmarks.models.Book;
+import com.yahoo.elide.benchmarks.models.Chapter;
+import com.yahoo.elide.benchmarks.models.Checks;
+import com.yahoo.elide.benchmarks.models.Publisher;
+import com.yahoo.elide.benchmarks.models.Tag;
+import com.yahoo.elide.benchmarks.models.Widget;
+import com.yahoo.elide.core.DataStoreTransaction;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.datastore.inmemory.InMemoryDataStore;
+import com.yahoo.elide.security.User;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds an in-memory Elide instance and seeds it deterministically with the benchmark models.
+ *
+ * All ids are assigned explicitly (1..n per type) and all attribute values come from a fixed seed so that
+ * every fork of every benchmark sees the same data.
+ */
+public class BenchmarkFixtures {
+    public static final long SEED = 20170901L;
+    public static final int TAGS = 100;
+    public static final int WIDGETS = 100;
+    public static final int PUBLISHERS = 5;
+    public static final int BOOKS_PER_PUBLISHER = 20;
+    public static final int AUTHORS = 50;
+    public static final int AUTHORS_PER_BOOK = 2;
+    public static final int CHAPTERS_PER_BOOK = 10;
+    public static final String OWNER = "owner";
+
+    @Getter private final InMemoryDataStore dataStore;
+    @Getter private final ElideSettings settings;
+    @Getter private final Elide elide;
+
+    public BenchmarkFixtures() {
+        dataStore = new InMemoryDataStore(Tag.class.getPackage());
+        settings = new ElideSettingsBuilder(dataStore)
+                .withEntityDictionary(new EntityDictionary(Checks.mappings()))
+                .build();
+        elide = new Elide(settings);
+        seed(new Random(SEED));
+    }
+
+    public EntityDictionary getDictionary() {
+        return settings.getDictionary();
+    }
+
+    /**
+     * Create a fresh request scope over a new transaction, as Elide does for each request.
+     *
+     * @param principal opaque user
+     * @return request scope
+     */
+    public RequestScope newRequestScope(Object principal) {
+        return new RequestScope(null, null, dataStore.beginReadTransaction(), new User(principal), null, settings,
+                false);
+    }
+
+    private void seed(Random random) {
+        try (DataStoreTransaction tx = dataStore.beginTransaction()) {
+            for (long id = 1; id <= TAGS; id++) {
+                Tag tag = new Tag();
+                tag.setId(id);
+                tag.setName("tag-" + random.nextInt(1000));
+                tx.save(tag, null);
+            }
+
+            for (long id = 1; id <= WIDGETS; id++) {
+                tx.save(newWidget(id, random), null);
+            }
+
+            List<Author> authors = new ArrayList<>();
+            for (long id = 1; id <= AUTHORS; id++) {
+                Author author = new Author();
+                author.setId(id);
+                author.setName("author-" + random.nextInt(1000));
+                authors.add(author);
+            }
+
+            long bookId = 1;
+            long chapterId = 1;
+            for (long id = 1; id <= PUBLISHERS; id++) {
+                Publisher publisher = new Publisher();
+                publisher.setId(id);
+                publisher.setName("publisher-" + id);
+                for (int b = 0; b < BOOKS_PER_PUBLISHER; b++) {
+                    Book book = new Book();
+                    book.setId(bookId++);
+                    book.setTitle("book-" + random.nextInt(100000));
+                    book.setGenre(random.nextBoolean() ? "fiction" : "science");
+                    book.setPublishDate(random.nextInt(Integer.MAX_VALUE));
+                    book.setPublisher(publisher);
+                    publisher.getBooks().add(book);
+                    for (int a = 0; a < AUTHORS_PER_BOOK; a++) {
+                        Author author = authors.get(random.nextInt(AUTHORS));
+                        author.getBooks().add(book);
+                        book.getAuthors().add(author);
+                    }
+                    for (int c = 0; c < CHAPTERS_PER_BOOK; c++) {
+                        Chapter chapter = new Chapter();
+                        chapter.setId(chapterId++);
+                        chapter.setTitle("chapter-" + c);
+                        chapter.setPageCount(1 + random.nextInt(40));
+                        chapter.setBook(book);
+                        book.getChapters().add(chapter);
+                        tx.save(chapter, null);
+                    }
+                    tx.save(book, null);
+                }
+                tx.save(publisher, null);
+            }
+            authors.forEach(author -> tx.save(author, null));
+            tx.commit(null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Widget newWidget(long id, Random random) {
+        Widget widget = new Widget();
+        widget.id = id;
+        widget.owner = (id % 2 == 0) ? OWNER : "other-" + id;
+        widget.secret = "secret-" + random.nextInt();
+        widget.cost = random.nextInt(10000);
+        widget.label01 = label(random);
+        widget.label02 = label(random);
+        widget.label03 = label(random);
+        widget.label04 = label(random);
+        widget.label05 = label(random);
+        widget.label06 = label(random);
+        widget.label07 = label(random);
+        widget.label08 = label(random);
+        widget.label09 = label(random);
+        widget.label10 = label(random);
+        widget.label11 = label(random);
+        widget.label12 = label(random);
+        widget.label13 = label(random);
+        widget.label14 = label(random);
+        widget.label15 = label(random);
+        widget.label16 = label(random);
+        widget.count1 = random.nextInt(1000);
+        widget.count2 = random.nextInt(1000);
+        widget.count3 = random.nextInt(1000);
+        widget.count4 = random.nextInt(1000);
+        widget.active = random.nextBoolean();
+        return widget;
+    }
+
+    private static String label(Random random) {
+        return Long.toString(random.nextLong() & Long.MAX_VALUE, 36);
+    }
+}
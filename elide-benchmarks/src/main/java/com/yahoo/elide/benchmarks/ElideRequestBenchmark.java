@@ -0,0 +1,79 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.benchmarks;
+
+import com.yahoo.elide.ElideResponse;
+import com.yahoo.elide.benchmarks.models.Checks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+
+/**
+ * End to end GET, POST and PATCH requests against the seeded in-memory store.
+ */
+@State(Scope.Benchmark)
+public class ElideRequestBenchmark extends AbstractBenchmark {
+    private static final String JSON_API = "application/vnd.api+json";
+
+    @Param
+    public ModelShape shape;
+
+    private BenchmarkFixtures fixtures;
+    private MultivaluedMap<String, String> noParams;
+    private MultivaluedMap<String, String> includeParams;
+    private int counter;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        // Rebuilt per iteration so that POSTs do not grow the store without bound.
+        fixtures = new BenchmarkFixtures();
+        noParams = new MultivaluedHashMap<>();
+        includeParams = new MultivaluedHashMap<>();
+        if (shape.getInclude() != null) {
+            includeParams.putSingle("include", shape.getInclude());
+        }
+    }
+
+    @Benchmark
+    public ElideResponse getCollection() {
+        return check(fixtures.getElide().get(shape.getCollectionPath(), noParams, Checks.ADMIN));
+    }
+
+    @Benchmark
+    public ElideResponse getResource() {
+        return check(fixtures.getElide().get(shape.getResourcePath(), noParams, Checks.ADMIN));
+    }
+
+    @Benchmark
+    public ElideResponse getResourceWithInclude() {
+        return check(fixtures.getElide().get(shape.getResourcePath(), includeParams, Checks.ADMIN));
+    }
+
+    @Benchmark
+    public ElideResponse post() {
+        return check(fixtures.getElide().post(shape.getPostPath(), shape.getPostDocument(), Checks.ADMIN));
+    }
+
+    @Benchmark
+    public ElideResponse patch() {
+        String document = shape.patchDocument("value-" + (counter++ & 1));
+        return check(fixtures.getElide().patch(JSON_API, JSON_API, shape.getResourcePath(), document, Checks.ADMIN));
+    }
+
+    private static ElideResponse check(ElideResponse response) {
+        if (response.getResponseCode() >= 300) {
+            throw new IllegalStateException("Unexpected response " + response.getResponseCode()
+                    + ": " + response.getBody());
+        }
+        return response;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.benchmarks;
+
+import com.yahoo.elide.benchmarks.models.Checks;
+import com.yahoo.elide.benchmarks.models.Tag;
+import com.yahoo.elide.core.DataStoreTransaction;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.datastore.inmemory.InMemoryDataStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Measures the durable {@link InMemoryDataStore}: the latency of a logged commit (run with {@code -t} to see
+ * concurrent commits share an fsync) and the time to recover a store from a snapshot or from the log alone.
+ */
+@State(Scope.Benchmark)
+public class InMemoryDurabilityBenchmark extends AbstractBenchmark {
+    private static final int SEED_BATCH = 10_000;
+
+    private Path directory;
+    private InMemoryDataStore dataStore;
+
+    /**
+     * Where recovery reads the objects from.
+     */
+    public enum Source {
+        SNAPSHOT,
+        LOG
+    }
+
+    /**
+     * A directory holding a store of {@code objects} tags.
+     */
+    @State(Scope.Benchmark)
+    public static class RecoveryState {
+        @Param({"1000000"})
+        public int objects;
+
+        @Param
+        public Source source;
+
+        private Path directory;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            directory = Files.createTempDirectory("elide-recovery");
+            try (InMemoryDataStore store = open(directory)) {
+                for (int seeded = 0; seeded < objects; seeded += SEED_BATCH) {
+                    try (DataStoreTransaction tx = store.beginTransaction()) {
+                        for (int i = seeded; i < Math.min(objects, seeded + SEED_BATCH); i++) {
+                            Tag tag = new Tag();
+                            tag.setName("tag-" + i);
+                            tx.createObject(tag, null);
+                        }
+                        tx.commit(null);
+                    }
+                }
+                if (source == Source.SNAPSHOT) {
+                    store.snapshot();
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            delete(directory);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("elide-commit");
+        dataStore = open(directory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        dataStore.close();
+        delete(directory);
+    }
+
+    @Benchmark
+    public Tag commit() throws IOException {
+        Tag tag = new Tag();
+        tag.setName("tag");
+        try (DataStoreTransaction tx = dataStore.beginTransaction()) {
+            tx.createObject(tag, null);
+            tx.commit(null);
+        }
+        return tag;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public InMemoryDataStore recover(RecoveryState state) throws IOException {
+        try (InMemoryDataStore store = open(state.directory)) {
+            return store;
+        }
+    }
+
+    private static InMemoryDataStore open(Path directory) {
+        InMemoryDataStore store = new InMemoryDataStore(Tag.class.getPackage()).withDurability(directory, null);
+        store.populateEntityDictionary(new EntityDictionary(Checks.mappings()));
+        return store;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+}
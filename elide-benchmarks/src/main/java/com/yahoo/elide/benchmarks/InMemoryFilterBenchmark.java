@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.benchmarks;
+
+import com.yahoo.elide.benchmarks.models.Book;
+import com.yahoo.elide.benchmarks.models.Checks;
+import com.yahoo.elide.benchmarks.models.Publisher;
+import com.yahoo.elide.benchmarks.models.Widget;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.filter.FilterPredicate;
+import com.yahoo.elide.core.filter.FilterPredicate.PathElement;
+import com.yahoo.elide.core.filter.Operator;
+import com.yahoo.elide.core.filter.expression.AndFilterExpression;
+import com.yahoo.elide.core.filter.expression.FilterExpression;
+import com.yahoo.elide.core.filter.expression.InMemoryFilterVisitor;
+import com.yahoo.elide.core.filter.expression.OrFilterExpression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Measures {@link InMemoryFilterVisitor} predicate construction and evaluation over the seeded collections.
+ */
+@State(Scope.Benchmark)
+public class InMemoryFilterBenchmark extends AbstractBenchmark {
+    private RequestScope scope;
+    private List<Object> widgets;
+    private List<Object> books;
+    private FilterExpression widgetFilter;
+    private FilterExpression bookPathFilter;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures();
+        scope = fixtures.newRequestScope(Checks.ADMIN);
+        widgets = load(Widget.class);
+        books = load(Book.class);
+
+        widgetFilter = new AndFilterExpression(
+                new FilterPredicate(new PathElement(Widget.class, Long.class, "count1"), Operator.GE,
+                        Collections.singletonList(100L)),
+                new OrFilterExpression(
+                        new FilterPredicate(new PathElement(Widget.class, String.class, "label01"),
+                                Operator.INFIX_CASE_INSENSITIVE, Collections.singletonList("a")),
+                        new FilterPredicate(new PathElement(Widget.class, String.class, "owner"),
+                                Operator.IN, Arrays.asList(BenchmarkFixtures.OWNER, Checks.ADMIN))));
+
+        bookPathFilter = new FilterPredicate(Arrays.asList(
+                new PathElement(Book.class, Publisher.class, "publisher"),
+                new PathElement(Publisher.class, String.class, "name")),
+                Operator.IN, Collections.singletonList("publisher-3"));
+    }
+
+    @Benchmark
+    public Predicate buildPredicate() {
+        return widgetFilter.accept(new InMemoryFilterVisitor(scope));
+    }
+
+    @Benchmark
+    public int filterWide() {
+        return count(widgets, widgetFilter);
+    }
+
+    @Benchmark
+    public int filterRelationshipPath() {
+        return count(books, bookPathFilter);
+    }
+
+    private int count(List<Object> objects, FilterExpression filter) {
+        Predicate predicate = filter.accept(new InMemoryFilterVisitor(scope));
+        int matched = 0;
+        for (Object object : objects) {
+            if (predicate.test(object)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    private List<Object> load(Class<?> cls) {
+        List<Object> objects = new ArrayList<>();
+        scope.getTransaction().loadObjects(cls, Optional.empty(), Optional.empty(), Optional.empty(), scope)
+                .forEach(objects::add);
+        return objects;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.benchmarks;
+
+import com.yahoo.elide.benchmarks.models.Checks;
+import com.yahoo.elide.jsonapi.JsonApiMapper;
+import com.yahoo.elide.jsonapi.models.JsonApiDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+
+/**
+ * Measures JSON API document (de)serialization through {@link JsonApiMapper}.
+ */
+@State(Scope.Benchmark)
+public class JsonApiMapperBenchmark extends AbstractBenchmark {
+    @Param
+    public ModelShape shape;
+
+    private JsonApiMapper mapper;
+    private String collectionBody;
+    private JsonApiDocument collectionDocument;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures();
+        mapper = fixtures.getSettings().getMapper();
+        MultivaluedMap<String, String> params = new MultivaluedHashMap<>();
+        if (shape.getInclude() != null) {
+            params.putSingle("include", shape.getInclude());
+        }
+        collectionBody = fixtures.getElide().get(shape.getCollectionPath(), params, Checks.ADMIN).getBody();
+        collectionDocument = mapper.readJsonApiDocument(collectionBody);
+    }
+
+    @Benchmark
+    public JsonApiDocument readCollection() throws IOException {
+        return mapper.readJsonApiDocument(collectionBody);
+    }
+
+    @Benchmark
+    public JsonApiDocument readPost() throws IOException {
+        return mapper.readJsonApiDocument(shape.getPostDocument());
+    }
+
+    @Benchmark
+    public String writeCollection() throws IOException {
+        return mapper.writeJsonApiDocument(collectionDocument);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.benchmarks;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The seeded model shapes exercised by the request benchmarks, along with canned paths and documents.
+ */
+@AllArgsConstructor
+public enum ModelShape {
+    SMALL("tag", "tag/1", null,
+            "{\"data\":{\"type\":\"tag\",\"attributes\":{\"name\":\"new-tag\"}}}",
+            "{\"data\":{\"type\":\"tag\",\"id\":\"1\",\"attributes\":{\"name\":\"%s\"}}}"),
+    WIDE("widget", "widget/2", null,
+            "{\"data\":{\"type\":\"widget\",\"attributes\":{\"owner\":\"owner\",\"label01\":\"a\","
+                    + "\"label02\":\"b\",\"label03\":\"c\",\"label04\":\"d\",\"count1\":1,\"active\":true}}}",
+            "{\"data\":{\"type\":\"widget\",\"id\":\"2\",\"attributes\":{\"label01\":\"%s\"}}}"),
+    DEEP("publisher", "publisher/1", "books.authors,books.chapters",
+            "{\"data\":{\"type\":\"book\",\"attributes\":{\"title\":\"new-book\"},"
+                    + "\"relationships\":{\"publisher\":{\"data\":{\"type\":\"publisher\",\"id\":\"1\"}}}}}",
+            "{\"data\":{\"type\":\"publisher\",\"id\":\"1\",\"attributes\":{\"name\":\"%s\"}}}");
+
+    @Getter private final String collectionPath;
+    @Getter private final String resourcePath;
+    @Getter private final String include;
+    @Getter private final String postDocument;
+    private final String patchTemplate;
+
+    /**
+     * Path new resources of this shape are posted to.
+     *
+     * @return the path new resources of this shape are posted to
+     */
+    public String getPostPath() {
+        return this == DEEP ? "book" : collectionPath;
+    }
+
+    /**
+     * Build a patch document for this shape.
+     *
+     * @param value new attribute value
+     * @return patch document updating a single attribute of the resource path
+     */
+    public String patchDocument(String value) {
+        return String.format(patchTemplate, value);
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.benchmarks;
+
+import com.yahoo.elide.Elide;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures URL path parsing ({@link Elide#parse(String)}).
+ */
+@State(Scope.Benchmark)
+public class ParseBenchmark extends AbstractBenchmark {
+    @Param({"book", "book/1", "book/1/authors", "publisher/1/books/2/relationships/authors",
+            "/publisher/1/books/2/chapters/3/"})
+    public String path;
+
+    @Benchmark
+    public ParseTree parse() {
+        return Elide.parse(path);
+    }
+}
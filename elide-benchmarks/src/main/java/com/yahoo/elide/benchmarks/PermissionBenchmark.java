@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.benchmarks;
+
+import com.yahoo.elide.annotation.ReadPermission;
+import com.yahoo.elide.annotation.UpdatePermission;
+import com.yahoo.elide.benchmarks.models.Checks;
+import com.yahoo.elide.benchmarks.models.Widget;
+import com.yahoo.elide.core.PersistentResource;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.security.permissions.ExpressionResult;
+import com.yahoo.elide.security.permissions.ExpressionResultCache;
+import com.yahoo.elide.security.permissions.PermissionExpressionBuilder;
+import com.yahoo.elide.security.permissions.expressions.Expression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Optional;
+
+/**
+ * Measures permission expression construction and evaluation through
+ * {@link PermissionExpressionBuilder} and {@link com.yahoo.elide.security.executors.ActivePermissionExecutor}.
+ *
+ * Each invocation starts from a new request scope (and therefore a new executor and result cache), which is what
+ * a single request pays.
+ */
+@State(Scope.Benchmark)
+public class PermissionBenchmark extends AbstractBenchmark {
+    @Param({BenchmarkFixtures.OWNER, Checks.ADMIN})
+    public String principal;
+
+    private BenchmarkFixtures fixtures;
+    private Widget widget;
+
+    @Setup
+    public void setup() {
+        fixtures = new BenchmarkFixtures();
+        RequestScope scope = fixtures.newRequestScope(principal);
+        widget = (Widget) scope.getTransaction().loadObject(Widget.class, 2L, Optional.empty(), scope);
+    }
+
+    @Benchmark
+    public Expression buildFieldExpression() {
+        RequestScope scope = fixtures.newRequestScope(principal);
+        PersistentResource<Widget> resource = new PersistentResource<>(widget, null, scope.getUUIDFor(widget), scope);
+        PermissionExpressionBuilder builder =
+                new PermissionExpressionBuilder(new ExpressionResultCache(), fixtures.getDictionary());
+        return builder.buildSpecificFieldExpressions(resource, ReadPermission.class, "secret", null);
+    }
+
+    @Benchmark
+    public ExpressionResult checkEntityPermission() {
+        RequestScope scope = fixtures.newRequestScope(principal);
+        PersistentResource<Widget> resource = new PersistentResource<>(widget, null, scope.getUUIDFor(widget), scope);
+        return scope.getPermissionExecutor().checkPermission(UpdatePermission.class, resource);
+    }
+
+    @Benchmark
+    public ExpressionResult checkFieldPermission() {
+        RequestScope scope = fixtures.newRequestScope(principal);
+        PersistentResource<Widget> resource = new PersistentResource<>(widget, null, scope.getUUIDFor(widget), scope);
+        return scope.getPermissionExecutor()
+                .checkSpecificFieldPermissions(resource, null, ReadPermission.class, "secret");
+    }
+
+    @Benchmark
+    public int checkAllFieldsSharedScope() {
+        // One request reading every field of the same entity: exercises the per-request result cache.
+        RequestScope scope = fixtures.newRequestScope(principal);
+        PersistentResource<Widget> resource = new PersistentResource<>(widget, null, scope.getUUIDFor(widget), scope);
+        int passed = 0;
+        for (String field : fixtures.getDictionary().getAttributes(Widget.class)) {
+            try {
+                scope.getPermissionExecutor()
+                        .checkSpecificFieldPermissions(resource, null, ReadPermission.class, field);
+                passed++;
+            } catch (RuntimeException e) {
+                // Forbidden fields are skipped, as the serializer does.
+            }
+        }
+        return passed;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.benchmarks;
+
+import com.yahoo.elide.benchmarks.models.Book;
+import com.yahoo.elide.benchmarks.models.Checks;
+import com.yahoo.elide.benchmarks.models.Widget;
+import com.yahoo.elide.core.PersistentResource;
+import com.yahoo.elide.core.RequestScope;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Optional;
+
+/**
+ * Measures reflective attribute access on {@link PersistentResource}: getter methods (book), public fields (widget)
+ * and the setter path used by updates.
+ */
+@State(Scope.Benchmark)
+public class PersistentResourceBenchmark extends AbstractBenchmark {
+    private RequestScope scope;
+    private Book book;
+    private Widget widget;
+    private WritableResource<Book> bookResource;
+    private WritableResource<Widget> widgetResource;
+    private int counter;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures();
+        scope = fixtures.newRequestScope(Checks.ADMIN);
+        book = (Book) scope.getTransaction().loadObject(Book.class, 1L, Optional.empty(), scope);
+        widget = (Widget) scope.getTransaction().loadObject(Widget.class, 2L, Optional.empty(), scope);
+        bookResource = new WritableResource<>(book, scope);
+        widgetResource = new WritableResource<>(widget, scope);
+    }
+
+    @Benchmark
+    public Object getValueMethod() {
+        return PersistentResource.getValue(book, "title", scope);
+    }
+
+    @Benchmark
+    public Object getValueField() {
+        return PersistentResource.getValue(widget, "label08", scope);
+    }
+
+    @Benchmark
+    public Object getAttributeChecked() {
+        return widgetResource.getAttribute("label08");
+    }
+
+    @Benchmark
+    public void setValueMethod() {
+        bookResource.setValue("genre", (counter++ & 1) == 0 ? "fiction" : "science");
+    }
+
+    @Benchmark
+    public void setValueField() {
+        widgetResource.setValue("label08", (counter++ & 1) == 0 ? "a" : "b");
+    }
+
+    @Benchmark
+    public boolean updateAttribute() {
+        return bookResource.updateAttribute("genre", (counter++ & 1) == 0 ? "fiction" : "science");
+    }
+
+    /**
+     * Exposes the unchecked setter path.
+     *
+     * @param <T> resource type
+     */
+    private static class WritableResource<T> extends PersistentResource<T> {
+        WritableResource(T obj, RequestScope scope) {
+            super(obj, null, scope.getUUIDFor(obj), scope);
+        }
+
+        @Override
+        public void setValue(String fieldName, Object value) {
+            super.setValue(fieldName, value);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.benchmarks.models;
+
+import com.yahoo.elide.security.ChangeSpec;
+import com.yahoo.elide.security.RequestScope;
+import com.yahoo.elide.security.User;
+import com.yahoo.elide.security.checks.Check;
+import com.yahoo.elide.security.checks.OperationCheck;
+import com.yahoo.elide.security.checks.UserCheck;
+import com.yahoo.elide.security.checks.prefab.Role;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Checks referenced by the benchmark models. The opaque user is the principal name as a string.
+ */
+public final class Checks {
+    public static final String ADMIN = "admin";
+
+    private Checks() {
+    }
+
+    /**
+     * Check mappings for the benchmark models.
+     *
+     * @return check mappings to register with the entity dictionary
+     */
+    public static Map<String, Class<? extends Check>> mappings() {
+        Map<String, Class<? extends Check>> checks = new HashMap<>();
+        checks.put("allow all", Role.ALL.class);
+        checks.put("deny all", Role.NONE.class);
+        checks.put("is admin", IsAdmin.class);
+        checks.put("is owner", IsOwner.class);
+        return checks;
+    }
+
+    /**
+     * Passes when the principal is the administrator.
+     */
+    public static class IsAdmin extends UserCheck {
+        @Override
+        public boolean ok(User user) {
+            return ADMIN.equals(user.getOpaqueUser());
+        }
+    }
+
+    /**
+     * Passes when the principal owns the widget.
+     */
+    public static class IsOwner extends OperationCheck<Widget> {
+        @Override
+        public boolean ok(Widget widget, RequestScope requestScope, Optional<ChangeSpec> changeSpec) {
+            return widget.owner != null && widget.owner.equals(requestScope.getUser().getOpaqueUser());
+        }
+    }
+}
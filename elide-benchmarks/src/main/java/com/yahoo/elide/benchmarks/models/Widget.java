@@ -0,0 +1,78 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.benchmarks.models;
+
+import com.yahoo.elide.annotation.Include;
+import com.yahoo.elide.annotation.ReadPermission;
+import com.yahoo.elide.annotation.SharePermission;
+import com.yahoo.elide.annotation.UpdatePermission;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+
+/**
+ * Wide model: many attributes, exposed as public fields, some of which carry field level permissions.
+ */
+@Entity
+@Include(rootLevel = true)
+@SharePermission(expression = "allow all")
+@UpdatePermission(expression = "is owner OR is admin")
+public class Widget {
+    @Id
+    @GeneratedValue
+    public long id;
+
+    public String owner;
+
+    @ReadPermission(expression = "is owner OR is admin")
+    public String secret;
+
+    @ReadPermission(expression = "is admin")
+    public long cost;
+
+    public String label01;
+
+    public String label02;
+
+    public String label03;
+
+    public String label04;
+
+    public String label05;
+
+    public String label06;
+
+    public String label07;
+
+    public String label08;
+
+    public String label09;
+
+    public String label10;
+
+    public String label11;
+
+    public String label12;
+
+    public String label13;
+
+    public String label14;
+
+    public String label15;
+
+    public String label16;
+
+    public long count1;
+
+    public long count2;
+
+    public long count3;
+
+    public long count4;
+
+    public boolean active;
+}
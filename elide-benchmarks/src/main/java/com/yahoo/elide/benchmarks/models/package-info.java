@@ -0,0 +1,11 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+/**
+ * Seeded benchmark models: a small entity ({@link com.yahoo.elide.benchmarks.models.Tag}), a wide entity
+ * ({@link com.yahoo.elide.benchmarks.models.Widget}) and a deeply related graph rooted at
+ * {@link com.yahoo.elide.benchmarks.models.Publisher}.
+ */
+package com.yahoo.elide.benchmarks.models;
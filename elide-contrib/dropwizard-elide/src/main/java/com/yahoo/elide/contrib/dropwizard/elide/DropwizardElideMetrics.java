@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+
+package com.yahoo.elide.contrib.dropwizard.elide;
+
+import com.codahale.metrics.MetricRegistry;
+import com.yahoo.elide.metrics.ElideMetrics;
+import com.yahoo.elide.security.checks.Check;
+import com.yahoo.elide.security.permissions.ExpressionResult;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * {@link ElideMetrics} backed by a Dropwizard {@link MetricRegistry}.
+ *
+ * Records these timers, each also counting its events:
+ * <ul>
+ * <li>{@code <prefix>.request.<method>} and {@code <prefix>.request.<method>.<type>} for whole requests</li>
+ * <li>{@code <prefix>.phase.<phase>.<method>} and {@code <prefix>.phase.<phase>.<method>.<type>} per phase</li>
+ * <li>{@code <prefix>.datastore.<operation>.<type>} per data store call</li>
+ * <li>{@code <prefix>.check.<check class>} per permission check</li>
+ * </ul>
+ * plus the meters {@code <prefix>.responses.<status>}, {@code <prefix>.usercheck-cache.hit|miss},
+ * {@code <prefix>.read-filter.pushed|not-pushed.<type>} and {@code <prefix>.post-filter.loaded|kept.<type>}, and the
+ * counters {@code <prefix>.check.<check class>.failed}.
+ * The type is the collection the request path starts at; it is left out when there is none.
+ */
+public class DropwizardElideMetrics implements ElideMetrics {
+    public static final String DEFAULT_PREFIX = "elide";
+
+    private final MetricRegistry registry;
+    private final String prefix;
+
+    public DropwizardElideMetrics(MetricRegistry registry) {
+        this(registry, DEFAULT_PREFIX);
+    }
+
+    public DropwizardElideMetrics(MetricRegistry registry, String prefix) {
+        this.registry = registry;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public void recordPhase(String method, String type, Phase phase, long nanos) {
+        String phaseName = phase.name().toLowerCase(Locale.ENGLISH);
+        registry.timer(name(prefix, "phase", phaseName, method)).update(nanos, TimeUnit.NANOSECONDS);
+        if (type != null) {
+            registry.timer(name(prefix, "phase", phaseName, method, type)).update(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void recordRequest(String method, String type, int status, long nanos) {
+        registry.timer(name(prefix, "request", method)).update(nanos, TimeUnit.NANOSECONDS);
+        if (type != null) {
+            registry.timer(name(prefix, "request", method, type)).update(nanos, TimeUnit.NANOSECONDS);
+        }
+        registry.meter(name(prefix, "responses", String.valueOf(status))).mark();
+    }
+
+    @Override
+    public void recordDataStoreCall(Operation operation, String type, long nanos) {
+        registry.timer(name(prefix, "datastore", operation.name().toLowerCase(Locale.ENGLISH), type))
+                .update(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordPermissionCheck(Class<? extends Check> check, ExpressionResult result, long nanos) {
+        String checkName = name(prefix, "check", check.getName());
+        registry.timer(checkName).update(nanos, TimeUnit.NANOSECONDS);
+        if (result == ExpressionResult.FAIL) {
+            registry.counter(name(checkName, "failed")).inc();
+        }
+    }
+
+    @Override
+    public void recordUserCheckCacheLookup(Class<? extends Check> check, boolean hit) {
+        registry.meter(name(prefix, "usercheck-cache", hit ? "hit" : "miss")).mark();
+    }
+
+    @Override
+    public void recordReadPermissionFilter(String type, boolean pushedDown) {
+        registry.meter(name(prefix, "read-filter", pushedDown ? "pushed" : "not-pushed", type)).mark();
+    }
+
+    @Override
+    public void recordPostFilter(String type, int loaded, int kept) {
+        registry.meter(name(prefix, "post-filter", "loaded", type)).mark(loaded);
+        registry.meter(name(prefix, "post-filter", "kept", type)).mark(kept);
+    }
+}
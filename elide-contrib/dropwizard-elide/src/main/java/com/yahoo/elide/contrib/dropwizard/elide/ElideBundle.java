@@ -15,6 +15,7 @@ import com.yahoo.elide.core.EntityDictionary;
 import com.yahoo.elide.core.RequestScope;
 import com.yahoo.elide.datastores.hibernate5.HibernateStore;
 import com.yahoo.elide.jsonapi.JsonApiMapper;
+import com.yahoo.elide.metrics.ElideMetrics;
 import com.yahoo.elide.resources.DefaultOpaqueUserFunction;
 import com.yahoo.elide.security.PermissionExecutor;
 import io.dropwizard.Configuration;
@@ -91,6 +92,7 @@ public abstract class ElideBundle<T extends Configuration>
         final JsonApiMapper jsonApiMapper = getJsonApiMapper(configuration, environment);
         final Function<RequestScope, PermissionExecutor> permissionExecutor
                 = getPermissionExecutor(configuration, environment);
+        final ElideMetrics elideMetrics = getElideMetrics(configuration, environment);
 
         final DefaultOpaqueUserFunction getUserFn = getUserFn(configuration, environment);
 
@@ -113,6 +115,10 @@ public abstract class ElideBundle<T extends Configuration>
                 if (permissionExecutor != null) {
                     builder = builder.withPermissionExecutor(permissionExecutor);
                 }
+
+                if (elideMetrics != null) {
+                    builder = builder.withMetrics(elideMetrics);
+                }
                 bind(new Elide(builder.build())).to(Elide.class).named("elide");
 
                 bind(getUserFn)
@@ -11,6 +11,7 @@ import com.yahoo.elide.core.DataStore;
 import com.yahoo.elide.core.EntityDictionary;
 import com.yahoo.elide.core.RequestScope;
 import com.yahoo.elide.jsonapi.JsonApiMapper;
+import com.yahoo.elide.metrics.ElideMetrics;
 import com.yahoo.elide.resources.DefaultOpaqueUserFunction;
 import com.yahoo.elide.security.PermissionExecutor;
 import io.dropwizard.Configuration;
@@ -95,4 +96,18 @@ public interface ElideConfiguration<T extends Configuration> {
     default Function<RequestScope, PermissionExecutor> getPermissionExecutor(T configuration, Environment environment) {
         return null;
     }
+
+    /**
+     * Get the {@link ElideMetrics}.
+     *
+     * Override this method to record Elide's request metrics, e.g. with
+     * {@code new DropwizardElideMetrics(environment.metrics())}
+     *
+     * @param configuration Dropwizard Configuration
+     * @param environment Dropwizard Environment
+     * @return metrics to be used in Elide
+     */
+    default ElideMetrics getElideMetrics(T configuration, Environment environment) {
+        return null;
+    }
 }
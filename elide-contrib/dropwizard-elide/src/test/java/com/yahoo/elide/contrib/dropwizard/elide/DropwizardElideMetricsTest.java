@@ -0,0 +1,44 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+
+package com.yahoo.elide.contrib.dropwizard.elide;
+
+import com.codahale.metrics.MetricRegistry;
+import com.yahoo.elide.metrics.ElideMetrics;
+import com.yahoo.elide.security.checks.prefab.Role;
+import com.yahoo.elide.security.permissions.ExpressionResult;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class DropwizardElideMetricsTest {
+    @Test
+    public void testRecordsTimersByMethodAndType() {
+        MetricRegistry registry = new MetricRegistry();
+        ElideMetrics metrics = new DropwizardElideMetrics(registry);
+
+        metrics.recordPhase("GET", "book", ElideMetrics.Phase.LOAD, 1000);
+        metrics.recordPhase("GET", null, ElideMetrics.Phase.LOAD, 1000);
+        metrics.recordRequest("GET", "book", 200, 5000);
+        metrics.recordDataStoreCall(ElideMetrics.Operation.LOAD_OBJECTS, "book", 500);
+        metrics.recordPermissionCheck(Role.NONE.class, ExpressionResult.FAIL, 10);
+        metrics.recordUserCheckCacheLookup(Role.NONE.class, true);
+        metrics.recordReadPermissionFilter("book", true);
+        metrics.recordPostFilter("book", 10, 4);
+
+        Assert.assertEquals(registry.timer("elide.phase.load.GET").getCount(), 2);
+        Assert.assertEquals(registry.timer("elide.phase.load.GET.book").getCount(), 1);
+        Assert.assertEquals(registry.timer("elide.request.GET.book").getCount(), 1);
+        Assert.assertEquals(registry.meter("elide.responses.200").getCount(), 1);
+        Assert.assertEquals(registry.timer("elide.datastore.load_objects.book").getCount(), 1);
+        String check = "elide.check." + Role.NONE.class.getName();
+        Assert.assertEquals(registry.timer(check).getCount(), 1);
+        Assert.assertEquals(registry.counter(check + ".failed").getCount(), 1);
+        Assert.assertEquals(registry.meter("elide.usercheck-cache.hit").getCount(), 1);
+        Assert.assertEquals(registry.meter("elide.read-filter.pushed.book").getCount(), 1);
+        Assert.assertEquals(registry.meter("elide.post-filter.loaded.book").getCount(), 10);
+        Assert.assertEquals(registry.meter("elide.post-filter.kept.book").getCount(), 4);
+    }
+}
@@ -6,6 +6,7 @@
 package com.yahoo.elide;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.yahoo.elide.audit.AuditLogger;
 import com.yahoo.elide.core.DataStore;
@@ -24,11 +25,15 @@ import com.yahoo.elide.generated.parsers.CoreLexer;
 import com.yahoo.elide.generated.parsers.CoreParser;
 import com.yahoo.elide.jsonapi.JsonApiMapper;
 import com.yahoo.elide.jsonapi.models.JsonApiDocument;
+import com.yahoo.elide.metrics.ElideMetrics;
+import com.yahoo.elide.metrics.MeteredTransaction;
+import com.yahoo.elide.metrics.RequestTimer;
 import com.yahoo.elide.parsers.BaseVisitor;
 import com.yahoo.elide.parsers.DeleteVisitor;
 import com.yahoo.elide.parsers.GetVisitor;
 import com.yahoo.elide.parsers.PatchVisitor;
 import com.yahoo.elide.parsers.PostVisitor;
+import com.yahoo.elide.parsers.RoutePlan;
 import com.yahoo.elide.security.User;
 import lombok.extern.slf4j.Slf4j;
 import org.antlr.v4.runtime.ANTLRInputStream;
@@ -48,6 +53,9 @@ import javax.ws.rs.core.MultivaluedMap;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Supplier;
 
 /**
@@ -59,6 +67,8 @@ public class Elide {
     private final AuditLogger auditLogger;
     private final DataStore dataStore;
     private final JsonApiMapper mapper;
+    private final Executor executor;
+    private final ElideMetrics metrics;
 
     /**
      * Instantiates a new Elide instance.
@@ -71,6 +81,8 @@ public class Elide {
         this.dataStore = elideSettings.getDataStore();
         this.dataStore.populateEntityDictionary(elideSettings.getDictionary());
         this.mapper = elideSettings.getMapper();
+        this.executor = elideSettings.getExecutor();
+        this.metrics = elideSettings.getMetrics();
     }
 
     /**
@@ -82,18 +94,23 @@ public class Elide {
      * @return Elide response object
      */
     public ElideResponse get(String path, MultivaluedMap<String, String> queryParams, Object opaqueUser) {
-        return handleRequest(true, opaqueUser, dataStore::beginReadTransaction, (tx, user) -> {
+        RequestTimer timer = newTimer("GET", path);
+        Handler<DataStoreTransaction, User, HandlerResult> handler = (tx, user) -> {
             JsonApiDocument jsonApiDoc = new JsonApiDocument();
             RequestScope requestScope = new RequestScope(path, jsonApiDoc, tx, user, queryParams, elideSettings);
             BaseVisitor visitor = new GetVisitor(requestScope);
             try {
-                Supplier<Pair<Integer, JsonNode>> responder = visitor.visit(parse(path));
+                Supplier<Pair<Integer, JsonNode>> responder = visit(visitor, path, timer);
                 return new HandlerResult(requestScope, responder);
             } catch (RuntimeException e) {
                 return new HandlerResult(requestScope, e);
             }
-        });
+        };
 
+        if (elideSettings.isStreamingResponses()) {
+            return handleStreamingRequest(opaqueUser, dataStore::beginReadTransaction, timer, handler);
+        }
+        return handleRequest(true, opaqueUser, dataStore::beginReadTransaction, timer, handler);
     }
 
     /**
@@ -105,12 +122,13 @@ public class Elide {
      * @return Elide response object
      */
     public ElideResponse post(String path, String jsonApiDocument, Object opaqueUser) {
-        return handleRequest(false, opaqueUser, dataStore::beginTransaction, (tx, user) -> {
+        RequestTimer timer = newTimer("POST", path);
+        return handleRequest(false, opaqueUser, dataStore::beginTransaction, timer, (tx, user) -> {
             JsonApiDocument jsonApiDoc = mapper.readJsonApiDocument(jsonApiDocument);
             RequestScope requestScope = new RequestScope(path, jsonApiDoc, tx, user, null, elideSettings);
             BaseVisitor visitor = new PostVisitor(requestScope);
             try {
-                Supplier<Pair<Integer, JsonNode>> responder = visitor.visit(parse(path));
+                Supplier<Pair<Integer, JsonNode>> responder = visit(visitor, path, timer);
                 return new HandlerResult(requestScope, responder);
             } catch (RuntimeException e) {
                 return new HandlerResult(requestScope, e);
@@ -131,6 +149,7 @@ public class Elide {
     public ElideResponse patch(String contentType, String accept,
                                String path, String jsonApiDocument, Object opaqueUser) {
 
+        RequestTimer timer = newTimer("PATCH", path);
         Handler<DataStoreTransaction, User, HandlerResult> handler;
         if (JsonApiPatch.isPatchExtension(contentType) && JsonApiPatch.isPatchExtension(accept)) {
             handler = (tx, user) -> {
@@ -138,6 +157,7 @@ public class Elide {
                 try {
                     Supplier<Pair<Integer, JsonNode>> responder =
                             JsonApiPatch.processJsonPatch(dataStore, path, jsonApiDocument, requestScope);
+                    timer.lap(ElideMetrics.Phase.LOAD);
                     return new HandlerResult(requestScope, responder);
                 } catch (RuntimeException e) {
                     return new HandlerResult(requestScope, e);
@@ -149,7 +169,7 @@ public class Elide {
                 RequestScope requestScope = new RequestScope(path, jsonApiDoc, tx, user, null, elideSettings);
                 BaseVisitor visitor = new PatchVisitor(requestScope);
                 try {
-                    Supplier<Pair<Integer, JsonNode>> responder = visitor.visit(parse(path));
+                    Supplier<Pair<Integer, JsonNode>> responder = visit(visitor, path, timer);
                     return new HandlerResult(requestScope, responder);
                 } catch (RuntimeException e) {
                     return new HandlerResult(requestScope, e);
@@ -157,7 +177,7 @@ public class Elide {
             };
         }
 
-        return handleRequest(false, opaqueUser, dataStore::beginTransaction, handler);
+        return handleRequest(false, opaqueUser, dataStore::beginTransaction, timer, handler);
     }
 
     /**
@@ -169,14 +189,15 @@ public class Elide {
      * @return Elide response object
      */
     public ElideResponse delete(String path, String jsonApiDocument, Object opaqueUser) {
-        return handleRequest(false, opaqueUser, dataStore::beginTransaction, (tx, user) -> {
+        RequestTimer timer = newTimer("DELETE", path);
+        return handleRequest(false, opaqueUser, dataStore::beginTransaction, timer, (tx, user) -> {
             JsonApiDocument jsonApiDoc = StringUtils.isEmpty(jsonApiDocument)
                     ? new JsonApiDocument()
                     : mapper.readJsonApiDocument(jsonApiDocument);
             RequestScope requestScope = new RequestScope(path, jsonApiDoc, tx, user, null, elideSettings);
             BaseVisitor visitor = new DeleteVisitor(requestScope);
             try {
-                Supplier<Pair<Integer, JsonNode>> responder = visitor.visit(parse(path));
+                Supplier<Pair<Integer, JsonNode>> responder = visit(visitor, path, timer);
                 return new HandlerResult(requestScope, responder);
             } catch (RuntimeException e) {
                 return new HandlerResult(requestScope, e);
@@ -184,84 +205,334 @@ public class Elide {
         });
     }
 
+    /**
+     * Handle GET on the executor configured with {@link ElideSettingsBuilder#withExecutor}.
+     *
+     * @param path the path
+     * @param queryParams the query params
+     * @param opaqueUser the opaque user
+     * @return future Elide response object
+     */
+    public CompletableFuture<ElideResponse> getAsync(String path, MultivaluedMap<String, String> queryParams,
+                                                     Object opaqueUser) {
+        return supplyAsync(() -> get(path, queryParams, opaqueUser));
+    }
+
+    /**
+     * Handle POST on the executor configured with {@link ElideSettingsBuilder#withExecutor}.
+     *
+     * @param path the path
+     * @param jsonApiDocument the json api document
+     * @param opaqueUser the opaque user
+     * @return future Elide response object
+     */
+    public CompletableFuture<ElideResponse> postAsync(String path, String jsonApiDocument, Object opaqueUser) {
+        return supplyAsync(() -> post(path, jsonApiDocument, opaqueUser));
+    }
+
+    /**
+     * Handle PATCH on the executor configured with {@link ElideSettingsBuilder#withExecutor}.
+     *
+     * @param contentType the content type
+     * @param accept the accept
+     * @param path the path
+     * @param jsonApiDocument the json api document
+     * @param opaqueUser the opaque user
+     * @return future Elide response object
+     */
+    public CompletableFuture<ElideResponse> patchAsync(String contentType, String accept,
+                                                       String path, String jsonApiDocument, Object opaqueUser) {
+        return supplyAsync(() -> patch(contentType, accept, path, jsonApiDocument, opaqueUser));
+    }
+
+    /**
+     * Handle DELETE on the executor configured with {@link ElideSettingsBuilder#withExecutor}.
+     *
+     * @param path the path
+     * @param jsonApiDocument the json api document
+     * @param opaqueUser the opaque user
+     * @return future Elide response object
+     */
+    public CompletableFuture<ElideResponse> deleteAsync(String path, String jsonApiDocument, Object opaqueUser) {
+        return supplyAsync(() -> delete(path, jsonApiDocument, opaqueUser));
+    }
+
+    /**
+     * Run a whole request, transaction included, on one thread of the configured executor.
+     *
+     * @param request the request
+     * @return the future response
+     */
+    private CompletableFuture<ElideResponse> supplyAsync(Supplier<ElideResponse> request) {
+        try {
+            return CompletableFuture.supplyAsync(request, executor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<ElideResponse> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(e);
+            return rejected;
+        }
+    }
+
     /**
      * Handle JSON API requests.
      *
      * @param isReadOnly if the transaction is read only
      * @param opaqueUser the user object from the container
      * @param transaction a transaction supplier
+     * @param timer the timer of the request
      * @param handler a function that creates the request scope and request handler
      * @return the response
      */
     protected ElideResponse handleRequest(boolean isReadOnly, Object opaqueUser,
                                           Supplier<DataStoreTransaction> transaction,
+                                          RequestTimer timer,
                                           Handler<DataStoreTransaction, User, HandlerResult> handler) {
         boolean isVerbose = false;
-        try (DataStoreTransaction tx = transaction.get()) {
+        ElideResponse response = null;
+        try (DataStoreTransaction tx = meter(transaction.get())) {
             final User user = tx.accessUser(opaqueUser);
+            timer.lap(ElideMetrics.Phase.BEGIN);
             HandlerResult result = handler.handle(tx, user);
             RequestScope requestScope = result.getRequestScope();
             isVerbose = requestScope.getPermissionExecutor().isVerbose();
             Supplier<Pair<Integer, JsonNode>> responder = result.getResponder();
-            tx.preCommit();
-            requestScope.runQueuedPreSecurityTriggers();
-            requestScope.getPermissionExecutor().executeCommitChecks();
-            if (!isReadOnly) {
-                requestScope.saveOrCreateObjects();
-            }
-            tx.flush(requestScope);
+            runCommitPhases(isReadOnly, tx, requestScope, timer);
 
-            ElideResponse response = buildResponse(responder.get());
+            response = buildResponse(responder.get());
+            timer.lap(ElideMetrics.Phase.RESPONSE);
 
-            requestScope.runQueuedPreCommitTriggers();
-            auditLogger.commit(requestScope);
-            tx.commit(requestScope);
-            requestScope.runQueuedPostCommitTriggers();
+            completeRequest(tx, requestScope, timer);
 
-            if (log.isTraceEnabled()) {
-                requestScope.getPermissionExecutor().printCheckStats();
-            }
+            return response;
 
+        } catch (Exception e) {
+            response = handleException(e, isVerbose);
             return response;
 
-        } catch (WebApplicationException e) {
+        } catch (Error e) {
+            log.error("Error uncaught by Elide", e);
             throw e;
 
-        } catch (ForbiddenAccessException e) {
-            log.debug("{}", e.getLoggedMessage());
-            return buildErrorResponse(e, isVerbose);
-
-        } catch (JsonPatchExtensionException e) {
-            return buildResponse(e.getResponse());
-
-        } catch (HttpStatusException e) {
-            return buildErrorResponse(e, isVerbose);
+        } finally {
+            auditLogger.clear();
+            if (response != null) {
+                timer.stop(response.getResponseCode());
+            }
+        }
+    }
 
-        } catch (IOException e) {
-            return buildErrorResponse(new TransactionException(e), isVerbose);
+    /**
+     * Handle a read-only request whose response body is serialized as it is written. Everything up to the response
+     * status is evaluated eagerly, exactly as in {@link #handleRequest}, including loading and filtering the records
+     * of the response. Their serialization, and the remainder of the request (pre-commit triggers, audit, commit and
+     * post-commit triggers), run when the returned response's body is written, so the transaction stays open until
+     * then.
+     *
+     * Failures after the body has started can no longer change the response status; they are logged and surface as
+     * an {@link IOException} from the writer.
+     *
+     * @param opaqueUser the user object from the container
+     * @param transaction a transaction supplier
+     * @param timer the timer of the request
+     * @param handler a function that creates the request scope and request handler
+     * @return the response
+     */
+    protected ElideResponse handleStreamingRequest(Object opaqueUser,
+                                                   Supplier<DataStoreTransaction> transaction,
+                                                   RequestTimer timer,
+                                                   Handler<DataStoreTransaction, User, HandlerResult> handler) {
+        boolean isVerbose = false;
+        boolean isHandedOff = false;
+        ElideResponse errorResponse = null;
+        DataStoreTransaction tx = null;
+        try {
+            tx = meter(transaction.get());
+            final User user = tx.accessUser(opaqueUser);
+            timer.lap(ElideMetrics.Phase.BEGIN);
+            HandlerResult result = handler.handle(tx, user);
+            RequestScope requestScope = result.getRequestScope();
+            isVerbose = requestScope.getPermissionExecutor().isVerbose();
+            Supplier<Pair<Integer, JsonNode>> responder = result.getResponder();
+            runCommitPhases(true, tx, requestScope, timer);
 
-        } catch (ParseCancellationException e) {
-            return buildErrorResponse(new InvalidURLException(e), isVerbose);
+            Pair<Integer, JsonNode> response = responder.get();
+            JsonNode responseNode = response.getRight();
+            DataStoreTransaction openTransaction = tx;
+
+            ElideResponse streamingResponse = ElideResponse.streaming(response.getLeft(), outputStream -> {
+                try (DataStoreTransaction writeTx = openTransaction) {
+                    if (responseNode != null) {
+                        mapper.writeJsonApiDocument(responseNode, outputStream);
+                    }
+                    timer.lap(ElideMetrics.Phase.RESPONSE);
+                    completeRequest(writeTx, requestScope, timer);
+                } catch (IOException e) {
+                    log.debug("Failed to stream response", e);
+                    throw e;
+                } catch (RuntimeException e) {
+                    log.error("Failed to stream response", e);
+                    throw new IOException(e);
+                } finally {
+                    auditLogger.clear(requestScope);
+                    timer.stop(response.getLeft());
+                }
+            });
+            isHandedOff = true;
+            return streamingResponse;
 
         } catch (Exception e) {
-            return buildErrorResponse(new InternalServerErrorException(e), isVerbose);
+            errorResponse = handleException(e, isVerbose);
+            return errorResponse;
 
         } catch (Error e) {
             log.error("Error uncaught by Elide", e);
             throw e;
 
         } finally {
+            // The body may be written on another thread, which clears the messages of the request scope
             auditLogger.clear();
+            if (!isHandedOff) {
+                closeQuietly(tx);
+                if (errorResponse != null) {
+                    timer.stop(errorResponse.getResponseCode());
+                }
+            }
+        }
+    }
+
+    /**
+     * Run the phases of a request between handling it and building the response: pre-commit, pre-security
+     * triggers, commit checks, saving the changed objects and the flush.
+     *
+     * @param isReadOnly if the transaction is read only, in which case nothing is saved
+     * @param tx the transaction
+     * @param requestScope the request scope
+     * @param timer the timer of the request
+     */
+    private void runCommitPhases(boolean isReadOnly, DataStoreTransaction tx, RequestScope requestScope,
+                                 RequestTimer timer) {
+        tx.preCommit();
+        timer.lap(ElideMetrics.Phase.PRE_COMMIT);
+        requestScope.runQueuedPreSecurityTriggers();
+        timer.lap(ElideMetrics.Phase.PRE_SECURITY_TRIGGERS);
+        requestScope.getPermissionExecutor().executeCommitChecks();
+        timer.lap(ElideMetrics.Phase.COMMIT_CHECKS);
+        if (!isReadOnly) {
+            requestScope.saveOrCreateObjects();
+            timer.lap(ElideMetrics.Phase.SAVE);
+        }
+        tx.flush(requestScope);
+        timer.lap(ElideMetrics.Phase.FLUSH);
+    }
+
+    /**
+     * Run the post-response phases of a request: pre-commit triggers, audit logging, commit and post-commit triggers.
+     *
+     * @param tx the transaction
+     * @param requestScope the request scope
+     * @param timer the timer of the request
+     * @throws IOException if the audit logger fails
+     */
+    private void completeRequest(DataStoreTransaction tx, RequestScope requestScope, RequestTimer timer)
+            throws IOException {
+        requestScope.runQueuedPreCommitTriggers();
+        timer.lap(ElideMetrics.Phase.PRE_COMMIT_TRIGGERS);
+        auditLogger.commit(requestScope);
+        timer.lap(ElideMetrics.Phase.AUDIT);
+        tx.commit(requestScope);
+        timer.lap(ElideMetrics.Phase.COMMIT);
+        requestScope.runQueuedPostCommitTriggers();
+        timer.lap(ElideMetrics.Phase.POST_COMMIT_TRIGGERS);
+
+        if (log.isTraceEnabled()) {
+            requestScope.getPermissionExecutor().printCheckStats();
+        }
+    }
+
+    private ElideResponse handleException(Exception e, boolean isVerbose) {
+        if (e instanceof WebApplicationException) {
+            throw (WebApplicationException) e;
+        }
+        if (e instanceof ForbiddenAccessException) {
+            log.debug("{}", ((ForbiddenAccessException) e).getLoggedMessage());
+            return buildErrorResponse((ForbiddenAccessException) e, isVerbose);
+        }
+        if (e instanceof JsonPatchExtensionException) {
+            return buildResponse(((JsonPatchExtensionException) e).getResponse());
+        }
+        if (e instanceof HttpStatusException) {
+            return buildErrorResponse((HttpStatusException) e, isVerbose);
+        }
+        if (e instanceof IOException) {
+            return buildErrorResponse(new TransactionException(e), isVerbose);
+        }
+        if (e instanceof ParseCancellationException) {
+            return buildErrorResponse(new InvalidURLException((ParseCancellationException) e), isVerbose);
+        }
+        return buildErrorResponse(new InternalServerErrorException(e), isVerbose);
+    }
+
+    /**
+     * Start timing a request.
+     *
+     * @param method the HTTP method
+     * @param path the request path
+     * @return the timer
+     */
+    private RequestTimer newTimer(String method, String path) {
+        String collection = StringUtils.substringBefore(StringUtils.strip(path, "/"), "/");
+        String type = elideSettings.getDictionary().getEntityClass(collection) == null ? null : collection;
+        return new RequestTimer(metrics, method, type);
+    }
+
+    private DataStoreTransaction meter(DataStoreTransaction tx) {
+        if (metrics == ElideMetrics.NONE) {
+            return tx;
+        }
+        return new MeteredTransaction(tx, metrics, elideSettings.getDictionary());
+    }
+
+    /**
+     * Parse a path and walk it.
+     *
+     * @param visitor the visitor of the request
+     * @param path the request path
+     * @param timer the timer of the request
+     * @return the responder
+     */
+    private static Supplier<Pair<Integer, JsonNode>> visit(BaseVisitor visitor, String path, RequestTimer timer) {
+        ParseTree tree = parse(path);
+        timer.lap(ElideMetrics.Phase.PARSE);
+        Supplier<Pair<Integer, JsonNode>> responder = visitor.visit(tree);
+        timer.lap(ElideMetrics.Phase.LOAD);
+        return responder;
+    }
+
+    private static void closeQuietly(DataStoreTransaction tx) {
+        if (tx == null) {
+            return;
+        }
+        try {
+            tx.close();
+        } catch (IOException | RuntimeException e) {
+            log.debug("Failed to close transaction", e);
         }
     }
 
     /**
      * Compile request to AST.
      *
+     * Common path shapes are bound through a cached {@link RoutePlan}; everything else goes through the ANTLR parser.
+     *
      * @param path request
      * @return AST parse tree
      */
     public static ParseTree parse(String path) {
+        ParseTree planned = RoutePlan.parse(path);
+        if (planned != null) {
+            return planned;
+        }
+
         String normalizedPath = Paths.get(path).normalize().toString().replace(File.separatorChar, '/');
         if (normalizedPath.startsWith("/")) {
             normalizedPath = normalizedPath.substring(1);
@@ -294,6 +565,12 @@ public class Elide {
             Integer responseCode = response.getLeft();
             String body = responseNode == null ? null : mapper.writeJsonApiDocument(responseNode);
             return new ElideResponse(responseCode, body);
+        } catch (JsonMappingException e) {
+            // Lazily serialized documents convert resources while writing; surface those failures as-is
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            return new ElideResponse(HttpStatus.SC_INTERNAL_SERVER_ERROR, e.toString());
         } catch (JsonProcessingException e) {
             return new ElideResponse(HttpStatus.SC_INTERNAL_SERVER_ERROR, e.toString());
         }
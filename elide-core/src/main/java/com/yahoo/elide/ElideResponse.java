@@ -7,12 +7,17 @@ package com.yahoo.elide;
 
 import lombok.Getter;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Elide response object.
  */
 public class ElideResponse {
     @Getter private final int responseCode;
     @Getter private final String body;
+    private final BodyWriter bodyWriter;
 
     /**
      * Constructor.
@@ -21,7 +26,56 @@ public class ElideResponse {
      * @param body returned body string
      */
     public ElideResponse(int responseCode, String body) {
+        this(responseCode, body, null);
+    }
+
+    private ElideResponse(int responseCode, String body, BodyWriter bodyWriter) {
         this.responseCode = responseCode;
         this.body = body;
+        this.bodyWriter = bodyWriter;
+    }
+
+    /**
+     * Create a response whose body is written on demand by {@link #writeBody(OutputStream)}.
+     * The body of a streaming response is not available through {@code getBody()}.
+     *
+     * @param responseCode HTTP response code
+     * @param bodyWriter writer producing the body
+     * @return streaming response
+     */
+    public static ElideResponse streaming(int responseCode, BodyWriter bodyWriter) {
+        return new ElideResponse(responseCode, null, bodyWriter);
+    }
+
+    /**
+     * Whether the body is streamed rather than held as a String.
+     *
+     * @return true if this is a streaming response
+     */
+    public boolean isStreaming() {
+        return bodyWriter != null;
+    }
+
+    /**
+     * Write the response body. A streaming body must be written exactly once: writing it is what completes the
+     * request (and its transaction) inside Elide.
+     *
+     * @param outputStream the stream to write to; it is not closed
+     * @throws IOException if writing fails
+     */
+    public void writeBody(OutputStream outputStream) throws IOException {
+        if (bodyWriter != null) {
+            bodyWriter.write(outputStream);
+        } else if (body != null) {
+            outputStream.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Writes a response body to an output stream.
+     */
+    @FunctionalInterface
+    public interface BodyWriter {
+        void write(OutputStream outputStream) throws IOException;
     }
 }
@@ -12,11 +12,15 @@ import com.yahoo.elide.core.RequestScope;
 import com.yahoo.elide.core.filter.dialect.JoinFilterDialect;
 import com.yahoo.elide.core.filter.dialect.SubqueryFilterDialect;
 import com.yahoo.elide.jsonapi.JsonApiMapper;
+import com.yahoo.elide.metrics.ElideMetrics;
 import com.yahoo.elide.security.PermissionExecutor;
+import com.yahoo.elide.security.permissions.UserCheckCache;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 /**
@@ -35,4 +39,10 @@ public class ElideSettings {
     @Getter private final int defaultPageSize;
     @Getter private final boolean useFilterExpressions;
     @Getter private final int updateStatusCode;
+    @Getter private final boolean streamingResponses;
+    @Getter private final Executor executor;
+    @Getter private final ElideMetrics metrics;
+    @Getter private final UserCheckCache userCheckCache;
+    @Getter private final ForkJoinPool permissionCheckPool;
+    @Getter private final int parallelPermissionCheckThreshold;
 }
@@ -16,14 +16,18 @@ import com.yahoo.elide.core.filter.dialect.JoinFilterDialect;
 import com.yahoo.elide.core.filter.dialect.SubqueryFilterDialect;
 import com.yahoo.elide.core.pagination.Pagination;
 import com.yahoo.elide.jsonapi.JsonApiMapper;
+import com.yahoo.elide.metrics.ElideMetrics;
 import com.yahoo.elide.security.PermissionExecutor;
 import com.yahoo.elide.security.executors.ActivePermissionExecutor;
+import com.yahoo.elide.security.permissions.UserCheckCache;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 /**
@@ -41,6 +45,12 @@ public class ElideSettingsBuilder {
     private int defaultPageSize = Pagination.DEFAULT_PAGE_LIMIT;
     private boolean useFilterExpressions;
     private int updateStatusCode;
+    private boolean streamingResponses;
+    private Executor executor = Runnable::run;
+    private ElideMetrics metrics = ElideMetrics.NONE;
+    private UserCheckCache userCheckCache;
+    private ForkJoinPool permissionCheckPool;
+    private int parallelPermissionCheckThreshold;
 
     /**
      * A new builder used to generate Elide instances. Instantiates an {@link EntityDictionary} without
@@ -77,7 +87,13 @@ public class ElideSettingsBuilder {
                 defaultMaxPageSize,
                 defaultPageSize,
                 useFilterExpressions,
-                updateStatusCode);
+                updateStatusCode,
+                streamingResponses,
+                executor,
+                metrics,
+                userCheckCache,
+                permissionCheckPool,
+                parallelPermissionCheckThreshold);
     }
 
     public ElideSettingsBuilder withAuditLogger(AuditLogger auditLogger) {
@@ -156,4 +172,66 @@ public class ElideSettingsBuilder {
         this.useFilterExpressions = useFilterExpressions;
         return this;
     }
+
+    /**
+     * Serialize GET response bodies straight to the output instead of materializing them as a String. This defers
+     * serialization only: the records of the response are still loaded and permission filtered before the response
+     * status is known, and are converted to JSON one at a time as the body is written.
+     *
+     * @param streamingResponses whether to stream GET responses
+     * @return the builder
+     * @see ElideResponse#isStreaming()
+     */
+    public ElideSettingsBuilder withStreamingResponses(boolean streamingResponses) {
+        this.streamingResponses = streamingResponses;
+        return this;
+    }
+
+    /**
+     * Run the requests of the asynchronous API ({@link Elide#getAsync} and friends) on an executor. Each request
+     * runs start to finish on one of its threads. By default requests run on the calling thread.
+     *
+     * @param executor the executor, e.g. a fixed thread pool or a virtual thread per task executor
+     * @return the builder
+     */
+    public ElideSettingsBuilder withExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Record request phase timings, data store calls and permission checks.
+     *
+     * @param metrics the metrics binding
+     * @return the builder
+     */
+    public ElideSettingsBuilder withMetrics(ElideMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * Reuse the results of user checks across the requests of the same principal. Disabled by default.
+     *
+     * @param userCheckCache the cache
+     * @return the builder
+     */
+    public ElideSettingsBuilder withUserCheckCache(UserCheckCache userCheckCache) {
+        this.userCheckCache = userCheckCache;
+        return this;
+    }
+
+    /**
+     * Evaluate the read permission of large collections on a pool when all of its checks are user checks or marked
+     * {@link com.yahoo.elide.annotation.ThreadSafeCheck}. The order of the collection is kept. Disabled by default.
+     *
+     * @param pool the pool, its parallelism bounds the threads used by all requests together
+     * @param threshold the minimum number of objects for which a collection is checked in parallel
+     * @return the builder
+     */
+    public ElideSettingsBuilder withParallelPermissionChecks(ForkJoinPool pool, int threshold) {
+        this.permissionCheckPool = pool;
+        this.parallelPermissionCheckThreshold = threshold;
+        return this;
+    }
 }
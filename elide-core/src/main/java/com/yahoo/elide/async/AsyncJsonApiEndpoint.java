@@ -0,0 +1,171 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.async;
+
+import com.yahoo.elide.Elide;
+import com.yahoo.elide.ElideResponse;
+import com.yahoo.elide.annotation.PATCH;
+import com.yahoo.elide.resources.DefaultOpaqueUserFunction;
+import com.yahoo.elide.resources.JsonApiEndpoint;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.core.UriInfo;
+
+/**
+ * Endpoint/servlet for using Elide and JSONAPI that suspends requests while Elide handles them on the executor set
+ * through {@link com.yahoo.elide.ElideSettingsBuilder#withExecutor}, freeing the container thread in the meantime.
+ *
+ * This is an opt-in alternative to {@link JsonApiEndpoint}: register one or the other, never both. The servlet that
+ * hosts it must support asynchronous requests (e.g. {@code ServletHolder.setAsyncSupported(true)}).
+ */
+@Singleton
+@Produces("application/vnd.api+json")
+@Path("/")
+public class AsyncJsonApiEndpoint {
+    protected final Elide elide;
+    protected final Function<SecurityContext, Object> getUser;
+
+    @Inject
+    public AsyncJsonApiEndpoint(@Named("elide") Elide elide,
+                                @Named("elideUserExtractionFunction") DefaultOpaqueUserFunction getUser) {
+        this.elide = elide;
+        this.getUser = getUser == null ? v -> null : getUser;
+    }
+
+    /**
+     * Create handler.
+     *
+     * @param path request path
+     * @param securityContext security context
+     * @param jsonapiDocument post data as jsonapi document
+     * @param asyncResponse resumed with the response
+     */
+    @POST
+    @Path("{path:.*}")
+    @Consumes("application/vnd.api+json")
+    public void post(
+        @PathParam("path") String path,
+        @Context SecurityContext securityContext,
+        String jsonapiDocument,
+        @Suspended AsyncResponse asyncResponse) {
+        resume(asyncResponse, elide.postAsync(path, jsonapiDocument, getUser.apply(securityContext)));
+    }
+
+    /**
+     * Read handler.
+     *
+     * @param path request path
+     * @param uriInfo URI info
+     * @param securityContext security context
+     * @param asyncResponse resumed with the response
+     */
+    @GET
+    @Path("{path:.*}")
+    public void get(
+        @PathParam("path") String path,
+        @Context UriInfo uriInfo,
+        @Context SecurityContext securityContext,
+        @Suspended AsyncResponse asyncResponse) {
+        MultivaluedMap<String, String> queryParams = uriInfo.getQueryParameters();
+        resume(asyncResponse, elide.getAsync(path, queryParams, getUser.apply(securityContext)));
+    }
+
+    /**
+     * Update handler.
+     *
+     * @param contentType document MIME type
+     * @param accept response MIME type
+     * @param path request path
+     * @param securityContext security context
+     * @param jsonapiDocument patch data as jsonapi document
+     * @param asyncResponse resumed with the response
+     */
+    @PATCH
+    @Path("{path:.*}")
+    @Consumes("application/vnd.api+json")
+    public void patch(
+        @HeaderParam("Content-Type") String contentType,
+        @HeaderParam("accept") String accept,
+        @PathParam("path") String path,
+        @Context SecurityContext securityContext,
+        String jsonapiDocument,
+        @Suspended AsyncResponse asyncResponse) {
+        resume(asyncResponse,
+                elide.patchAsync(contentType, accept, path, jsonapiDocument, getUser.apply(securityContext)));
+    }
+
+    /**
+     * Delete relationship handler (expects body with resource ids and types).
+     *
+     * @param path request path
+     * @param securityContext security context
+     * @param jsonApiDocument DELETE document
+     * @param asyncResponse resumed with the response
+     */
+    @DELETE
+    @Path("{path:.*}")
+    @Consumes("application/vnd.api+json")
+    public void delete(
+        @PathParam("path") String path,
+        @Context SecurityContext securityContext,
+        String jsonApiDocument,
+        @Suspended AsyncResponse asyncResponse) {
+        resume(asyncResponse, elide.deleteAsync(path, jsonApiDocument, getUser.apply(securityContext)));
+    }
+
+    /**
+     * Resume a suspended request once Elide has handled it. A request the executor rejects is answered with 503.
+     *
+     * @param asyncResponse the suspended response
+     * @param response the future Elide response
+     */
+    protected static void resume(AsyncResponse asyncResponse, CompletableFuture<ElideResponse> response) {
+        response.whenComplete((result, error) -> {
+            if (error == null) {
+                asyncResponse.resume(build(result));
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+            if (cause instanceof RejectedExecutionException) {
+                asyncResponse.resume(Response.status(Response.Status.SERVICE_UNAVAILABLE).build());
+            } else {
+                asyncResponse.resume(cause);
+            }
+        });
+    }
+
+    private static Response build(ElideResponse response) {
+        if (response.isStreaming()) {
+            StreamingOutput body = response::writeBody;
+            return Response.status(response.getResponseCode()).entity(body).build();
+        }
+        return Response.status(response.getResponseCode()).entity(response.getBody()).build();
+    }
+}
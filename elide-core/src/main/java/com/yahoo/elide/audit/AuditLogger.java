@@ -14,9 +14,17 @@ import java.util.List;
 /**
  * Base Audit Logger
  * <p>
- * This class uses ThreadLocal list to be thread safe.
+ * Messages are buffered on the {@link RequestScope} of the record they were logged for, so a request can move
+ * between threads. They are also added to a ThreadLocal list, which is all a request that stays on one thread needs.
  */
 public abstract class AuditLogger {
+    /**
+     * Messages logged on the current thread, including those of a request scope.
+     *
+     * @deprecated use {@link #getMessages(RequestScope)}, which also holds the messages of requests that move between
+     *             threads
+     */
+    @Deprecated
     protected final ThreadLocal<List<LogMessage>> messages;
 
     public AuditLogger() {
@@ -25,14 +33,41 @@ public abstract class AuditLogger {
 
     public void log(LogMessage message) {
         messages.get().add(message);
+        RequestScope requestScope = message.getRequestScope();
+        if (requestScope != null) {
+            requestScope.getAuditMessages().add(message);
+        }
+    }
+
+    /**
+     * The messages buffered for a request.
+     *
+     * @param requestScope the request scope, or null for the messages logged on the current thread
+     * @return the buffered messages
+     */
+    protected List<LogMessage> getMessages(RequestScope requestScope) {
+        return requestScope == null ? messages.get() : requestScope.getAuditMessages();
     }
 
     public abstract void commit(RequestScope requestScope) throws IOException;
 
-    public void clear() {
-        List<LogMessage> remainingMessages = messages.get();
-        if (remainingMessages != null) {
-            remainingMessages.clear();
+    /**
+     * Drop the messages buffered for a request. Messages of other requests logged on the current thread are kept,
+     * since the request may be completed on another thread than the one that handled it.
+     *
+     * @param requestScope the request scope, or null to drop all messages logged on the current thread
+     */
+    public void clear(RequestScope requestScope) {
+        if (requestScope == null) {
+            messages.get().clear();
+            return;
         }
+        List<LogMessage> requestMessages = requestScope.getAuditMessages();
+        messages.get().removeAll(requestMessages);
+        requestMessages.clear();
+    }
+
+    public void clear() {
+        clear(null);
     }
 }
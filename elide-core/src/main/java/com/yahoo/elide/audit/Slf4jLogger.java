@@ -19,11 +19,11 @@ public class Slf4jLogger extends AuditLogger {
     @Override
     public void commit(RequestScope requestScope) throws IOException {
         try {
-            for (LogMessage message : messages.get()) {
+            for (LogMessage message : getMessages(requestScope)) {
                 log.info("{} {} {}", System.currentTimeMillis(), message.getOperationCode(), message.getMessage());
             }
         } finally {
-            messages.get().clear();
+            clear(requestScope);
         }
     }
 }
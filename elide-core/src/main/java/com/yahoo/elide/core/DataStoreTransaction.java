@@ -12,6 +12,12 @@ import com.yahoo.elide.security.User;
 
 import java.io.Closeable;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -164,6 +170,68 @@ public interface DataStoreTransaction extends Closeable {
         return PersistentResource.getValue(entity, relationName, requestScope);
     }
 
+    /**
+     * Retrieve the identifiers of the objects in a relation.
+     *
+     * Used to build relationship linkage when the related objects themselves are not needed. Data stores that
+     * can answer this without loading the related objects (e.g. with an id projection) should override this.
+     * By default the relation is loaded with {@link #getRelation} and the ids are read from its objects.
+     *
+     * @param relationTx - The datastore that governs objects of the relationhip's type.
+     * @param entity - The object which owns the relationship.
+     * @param relationName - name of the relationship.
+     * @param filterExpression - filtering which can be pushed down to the data store.
+     * It is optional for the data store to attempt evaluation.
+     * @param scope - contains request level metadata.
+     * @return the ids of the object(s) in the relation
+     */
+    default Collection<Object> getRelationIds(
+            DataStoreTransaction relationTx,
+            Object entity,
+            String relationName,
+            Optional<FilterExpression> filterExpression,
+            RequestScope scope) {
+        Object val = getRelation(relationTx, entity, relationName,
+                filterExpression, Optional.empty(), Optional.empty(), scope);
+        if (val == null) {
+            return Collections.emptyList();
+        }
+        Collection<?> related = val instanceof Collection ? (Collection<?>) val : Collections.singletonList(val);
+        List<Object> ids = new ArrayList<>(related.size());
+        for (Object object : related) {
+            ids.add(scope.getDictionary().getId(object));
+        }
+        return ids;
+    }
+
+    /**
+     * Retrieve a relation from a batch of objects of the same type.
+     *
+     * Data stores that can load a relationship for many owners at once (e.g. with a single IN query) should
+     * override this. By default the relation of every object is loaded with {@link #getRelation}.
+     *
+     * @param relationTx - The datastore that governs objects of the relationhip's type.
+     * @param entities - The objects which own the relationship.
+     * @param relationName - name of the relationship.
+     * @param filterExpression - filtering which can be pushed down to the data store.
+     * It is optional for the data store to attempt evaluation.
+     * @param scope - contains request level metadata.
+     * @return the object(s) in the relation of each entity, keyed by entity identity
+     */
+    default Map<Object, Object> getRelations(
+            DataStoreTransaction relationTx,
+            Collection<?> entities,
+            String relationName,
+            Optional<FilterExpression> filterExpression,
+            RequestScope scope) {
+        Map<Object, Object> relations = new IdentityHashMap<>();
+        for (Object entity : entities) {
+            relations.put(entity, getRelation(relationTx, entity, relationName,
+                    filterExpression, Optional.empty(), Optional.empty(), scope));
+        }
+        return relations;
+    }
+
 
     /**
      * Elide core will update the in memory representation of the objects to the requested state.
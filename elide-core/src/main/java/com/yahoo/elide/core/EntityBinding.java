@@ -81,6 +81,7 @@ class EntityBinding {
     public final ConcurrentHashMap<String, String> relationshipToInverse = new ConcurrentHashMap<>();
     public final ConcurrentHashMap<String, CascadeType[]> relationshipToCascadeTypes = new ConcurrentHashMap<>();
     public final ConcurrentHashMap<String, AccessibleObject> fieldsToValues = new ConcurrentHashMap<>();
+    public final ConcurrentHashMap<String, FieldAccessor> fieldsToAccessors = new ConcurrentHashMap<>();
     public final MultiValuedMap<Pair<Class, String>, Method> fieldsToTriggers = new HashSetValuedHashMap<>();
     public final ConcurrentHashMap<String, Class<?>> fieldsToTypes = new ConcurrentHashMap<>();
     public final ConcurrentHashMap<String, String> aliasesToFields = new ConcurrentHashMap<>();
@@ -185,7 +186,7 @@ class EntityBinding {
         idType = fieldType;
         idFieldName = fieldName;
 
-        fieldsToValues.put(fieldName, fieldOrMethod);
+        bindValue(fieldOrMethod, fieldName, fieldType);
 
         if (idField != null && !fieldOrMethod.equals(idField)) {
             throw new DuplicateMappingException(type + " " + cls.getName() + ":" + fieldName);
@@ -266,16 +267,33 @@ class EntityBinding {
         relationshipToCascadeTypes.put(fieldName, cascadeTypes);
 
         relationshipsDeque.push(fieldName);
-        fieldsToValues.put(fieldName, fieldOrMethod);
+        bindValue(fieldOrMethod, fieldName, fieldType);
         fieldsToTypes.put(fieldName, fieldType);
     }
 
     private void bindAttr(AccessibleObject fieldOrMethod, String fieldName, Class<?> fieldType) {
         attributesDeque.push(fieldName);
-        fieldsToValues.put(fieldName, fieldOrMethod);
+        bindValue(fieldOrMethod, fieldName, fieldType);
         fieldsToTypes.put(fieldName, fieldType);
     }
 
+    /**
+     * Bind the field or getter of a value along with its compiled accessor.
+     *
+     * @param fieldOrMethod Field or method to bind
+     * @param fieldName Field name
+     * @param fieldType Field type
+     */
+    private void bindValue(AccessibleObject fieldOrMethod, String fieldName, Class<?> fieldType) {
+        fieldsToValues.put(fieldName, fieldOrMethod);
+        FieldAccessor accessor = FieldAccessor.of(entityClass, fieldName, fieldOrMethod, fieldType);
+        if (accessor != null) {
+            fieldsToAccessors.put(fieldName, accessor);
+        } else {
+            fieldsToAccessors.remove(fieldName);
+        }
+    }
+
     /**
      * Returns name of field whether public member or method.
      *
@@ -13,15 +13,21 @@ import com.yahoo.elide.annotation.ComputedRelationship;
 import com.yahoo.elide.annotation.Exclude;
 import com.yahoo.elide.annotation.Include;
 import com.yahoo.elide.annotation.SharePermission;
+import com.yahoo.elide.annotation.ThreadSafeCheck;
 import com.yahoo.elide.core.exceptions.DuplicateMappingException;
+import com.yahoo.elide.core.exceptions.InvalidAttributeException;
+import com.yahoo.elide.security.checks.BatchInlineCheck;
 import com.yahoo.elide.security.checks.Check;
+import com.yahoo.elide.security.checks.UserCheck;
 import com.yahoo.elide.security.checks.prefab.Collections.AppendOnly;
 import com.yahoo.elide.security.checks.prefab.Collections.RemoveOnly;
 import com.yahoo.elide.security.checks.prefab.Common;
 import com.yahoo.elide.security.checks.prefab.Role;
+import com.yahoo.elide.security.permissions.PermissionExpressionPlan;
 import lombok.extern.slf4j.Slf4j;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Entity;
@@ -39,11 +45,13 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -60,6 +68,16 @@ public class EntityDictionary {
     protected final CopyOnWriteArrayList<Class<?>> bindEntityRoots = new CopyOnWriteArrayList<>();
     protected final ConcurrentHashMap<Class<?>, List<Class<?>>> subclassingEntities = new ConcurrentHashMap<>();
     protected final BiMap<String, Class<? extends Check>> checkNames;
+    protected final ConcurrentHashMap<Class<? extends Check>, Check> checkInstances = new ConcurrentHashMap<>();
+    protected final ConcurrentHashMap<Class<? extends Check>, Boolean> statelessChecks = new ConcurrentHashMap<>();
+    protected final ConcurrentHashMap<Pair<Class<?>, Class<? extends Annotation>>, Boolean> userCheckOnlyPermissions =
+            new ConcurrentHashMap<>();
+    protected final ConcurrentHashMap<Pair<Class<?>, Class<? extends Annotation>>, List<BatchInlineCheck<?>>>
+            batchChecks = new ConcurrentHashMap<>();
+    protected final ConcurrentHashMap<Pair<Class<?>, Class<? extends Annotation>>, Boolean> threadSafePermissions =
+            new ConcurrentHashMap<>();
+
+    private static final CheckInstantiator CHECK_INSTANTIATOR = new CheckInstantiator() { };
 
     /**
      * Instantiate a new EntityDictionary with the provided set of checks. In addition all of the checks
@@ -193,6 +211,110 @@ public class EntityDictionary {
         return binding.entityPermissions.getFieldChecksForPermission(field, annotationClass);
     }
 
+    /**
+     * Gets the compiled permission expression (if any) at the class level.
+     *
+     * @param resourceClass the entity to check
+     * @param annotationClass the permission to look for
+     * @return the compiled expression or {@code null} if the permission is not specified at a class level
+     */
+    public PermissionExpressionPlan getPermissionPlanForClass(Class<?> resourceClass,
+                                                              Class<? extends Annotation> annotationClass) {
+        EntityBinding binding = getEntityBinding(resourceClass);
+        return binding.entityPermissions.getClassPlanForPermission(annotationClass);
+    }
+
+    /**
+     * Gets the compiled permission expression (if any) for a field.
+     *
+     * @param resourceClass the entity to check
+     * @param field the field to inspect
+     * @param annotationClass the permission to look for
+     * @return the compiled expression or {@code null} if the permission is not specified on the field
+     */
+    public PermissionExpressionPlan getPermissionPlanForField(Class<?> resourceClass,
+                                                              String field,
+                                                              Class<? extends Annotation> annotationClass) {
+        EntityBinding binding = getEntityBinding(resourceClass);
+        return binding.entityPermissions.getFieldPlanForPermission(field, annotationClass);
+    }
+
+    /**
+     * Whether a permission on an entity, at the class level and on every field, only consists of user checks.
+     * The outcome of such a permission is the same for every instance of the entity.
+     *
+     * @param resourceClass the entity to check
+     * @param annotationClass the permission to look for
+     * @return true if no check of the permission depends on the resource
+     */
+    public boolean hasOnlyUserChecks(Class<?> resourceClass, Class<? extends Annotation> annotationClass) {
+        return userCheckOnlyPermissions.computeIfAbsent(Pair.of(resourceClass, annotationClass), (unused) -> {
+            PermissionExpressionPlan classPlan = getPermissionPlanForClass(resourceClass, annotationClass);
+            if (classPlan != null && !classPlan.isUserChecksOnly()) {
+                return false;
+            }
+            for (String field : getAllFields(resourceClass)) {
+                PermissionExpressionPlan fieldPlan = getPermissionPlanForField(resourceClass, field, annotationClass);
+                if (fieldPlan != null && !fieldPlan.isUserChecksOnly()) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Whether every check of a permission on an entity, at the class level and on every field, is a user check or
+     * marked {@link ThreadSafeCheck}, so that the permission can be evaluated for several instances at once.
+     *
+     * @param resourceClass the entity to check
+     * @param annotationClass the permission to look for
+     * @return true if the permission is safe to evaluate concurrently
+     */
+    public boolean hasOnlyThreadSafeChecks(Class<?> resourceClass, Class<? extends Annotation> annotationClass) {
+        return threadSafePermissions.computeIfAbsent(Pair.of(resourceClass, annotationClass), (unused) -> {
+            Predicate<PermissionExpressionPlan> threadSafe = (plan) -> plan == null || plan.getChecks().stream()
+                    .allMatch(check -> check instanceof UserCheck
+                            || check.getClass().isAnnotationPresent(ThreadSafeCheck.class));
+            return threadSafe.test(getPermissionPlanForClass(resourceClass, annotationClass))
+                    && getAllFields(resourceClass).stream()
+                    .map(field -> getPermissionPlanForField(resourceClass, field, annotationClass))
+                    .allMatch(threadSafe);
+        });
+    }
+
+    /**
+     * Gets the batch checks a permission on an entity refers to, at the class level or on any field.
+     *
+     * @param resourceClass the entity to check
+     * @param annotationClass the permission to look for
+     * @return the batch checks, empty if there are none; checks that are not stateless are instantiated per call
+     */
+    public List<BatchInlineCheck<?>> getBatchChecks(Class<?> resourceClass,
+                                                    Class<? extends Annotation> annotationClass) {
+        return batchChecks.computeIfAbsent(Pair.of(resourceClass, annotationClass), (unused) -> {
+            Set<Check> checks = new LinkedHashSet<>();
+            PermissionExpressionPlan classPlan = getPermissionPlanForClass(resourceClass, annotationClass);
+            if (classPlan != null) {
+                checks.addAll(classPlan.getChecks());
+            }
+            for (String field : getAllFields(resourceClass)) {
+                PermissionExpressionPlan fieldPlan = getPermissionPlanForField(resourceClass, field, annotationClass);
+                if (fieldPlan != null) {
+                    checks.addAll(fieldPlan.getChecks());
+                }
+            }
+            return checks.stream()
+                    .filter(BatchInlineCheck.class::isInstance)
+                    .map(check -> (BatchInlineCheck<?>) check)
+                    .collect(Collectors.toList());
+        }).stream()
+                .map(check -> isStatelessCheck(check.getClass())
+                        ? check
+                        : (BatchInlineCheck<?>) CHECK_INSTANTIATOR.instantiateCheck(check.getClass()))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Returns the check mapped to a particular identifier.
      *
@@ -220,6 +342,44 @@ public class EntityDictionary {
         return checkCls;
     }
 
+    /**
+     * Returns an instance of the check mapped to a particular identifier.  A stateless check (see
+     * {@link #isStatelessCheck(Class)}) is instantiated once and shared by every request and thread; any other check
+     * is instantiated on every call.
+     *
+     * @param checkIdentifier the name from the expression string
+     * @return the check instance
+     * @throws IllegalArgumentException if the identifier is unmapped or the check cannot be instantiated
+     */
+    public Check getCheckInstance(String checkIdentifier) {
+        Class<? extends Check> checkCls = getCheck(checkIdentifier);
+        if (!isStatelessCheck(checkCls)) {
+            return CHECK_INSTANTIATOR.instantiateCheck(checkCls);
+        }
+        return checkInstances.computeIfAbsent(checkCls, CHECK_INSTANTIATOR::instantiateCheck);
+    }
+
+    /**
+     * Whether a check class is stateless, i.e. neither it nor any of its superclasses declares an instance field
+     * that is not final.  Only stateless checks are shared between requests.
+     *
+     * @param checkCls the check class
+     * @return true if the check can be shared
+     */
+    public boolean isStatelessCheck(Class<? extends Check> checkCls) {
+        return statelessChecks.computeIfAbsent(checkCls, (unused) -> {
+            for (Class<?> cls = checkCls; cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+                for (Field field : cls.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        });
+    }
+
     /**
      * Get inherited entity names for a particular entity.
      *
@@ -837,8 +997,16 @@ public class EntityDictionary {
         }
         try {
             AccessibleObject idField = null;
+            FieldAccessor idAccessor = null;
             for (Class<?> cls = value.getClass(); idField == null && cls != null; cls = cls.getSuperclass()) {
-                idField = getEntityBinding(cls).getIdField();
+                EntityBinding binding = getEntityBinding(cls);
+                idField = binding.getIdField();
+                if (idField != null) {
+                    idAccessor = binding.fieldsToAccessors.get(binding.getIdFieldName());
+                }
+            }
+            if (idAccessor != null) {
+                return String.valueOf(idAccessor.get(value, null));
             }
             if (idField instanceof Field) {
                 return String.valueOf(((Field) idField).get(value));
@@ -918,6 +1086,65 @@ public class EntityDictionary {
         return getEntityBinding(targetClass).fieldsToValues.get(fieldName);
     }
 
+    /**
+     * Retrieve the compiled accessor for a field.
+     *
+     * @param targetClass the entity class
+     * @param fieldName   the field name
+     * @return the accessor, or null if the field is not bound or cannot be accessed
+     */
+    FieldAccessor getAccessor(Class<?> targetClass, String fieldName) {
+        return getEntityBinding(targetClass).fieldsToAccessors.get(fieldName);
+    }
+
+    /**
+     * Read a field of an entity through its compiled accessor, without any permission checks.
+     *
+     * @param target       the entity
+     * @param fieldName    the field name
+     * @param requestScope request scope handed to request scoped computed getters
+     * @return the value
+     * @throws InvalidAttributeException if the field is not bound
+     * @throws InvocationTargetException if the getter throws
+     */
+    public Object getValue(Object target, String fieldName, RequestScope requestScope)
+            throws InvocationTargetException {
+        FieldAccessor accessor = getAccessor(target.getClass(), fieldName);
+        if (accessor == null) {
+            throw new InvalidAttributeException(fieldName, getJsonAliasFor(target.getClass()));
+        }
+        return accessor.get(target, requestScope);
+    }
+
+    /**
+     * Whether a field of an entity type can be written through its compiled accessor.
+     *
+     * @param targetClass the entity class
+     * @param fieldName   the field name
+     * @return true if the field has a setter or is a writable public field
+     */
+    public boolean isWritable(Class<?> targetClass, String fieldName) {
+        FieldAccessor accessor = getAccessor(targetClass, fieldName);
+        return accessor != null && accessor.isWritable();
+    }
+
+    /**
+     * Write a field of an entity through its compiled accessor, without any permission checks or coercion.
+     *
+     * @param target    the entity
+     * @param fieldName the field name
+     * @param value     the value, already of the field type
+     * @throws InvalidAttributeException if the field is not bound or cannot be written
+     * @throws InvocationTargetException if the setter throws
+     */
+    public void setValue(Object target, String fieldName, Object value) throws InvocationTargetException {
+        FieldAccessor accessor = getAccessor(target.getClass(), fieldName);
+        if (accessor == null || !accessor.isWritable()) {
+            throw new InvalidAttributeException(fieldName, getJsonAliasFor(target.getClass()));
+        }
+        accessor.set(target, value);
+    }
+
     /**
      * Retrieve fields from an object containing a particular type.
      *
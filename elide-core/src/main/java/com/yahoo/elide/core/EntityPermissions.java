@@ -13,6 +13,7 @@ import com.yahoo.elide.annotation.UpdatePermission;
 import com.yahoo.elide.generated.parsers.ExpressionLexer;
 import com.yahoo.elide.generated.parsers.ExpressionParser;
 import com.yahoo.elide.security.checks.Check;
+import com.yahoo.elide.security.permissions.PermissionExpressionPlan;
 import lombok.extern.slf4j.Slf4j;
 import org.antlr.v4.runtime.ANTLRInputStream;
 import org.antlr.v4.runtime.BaseErrorListener;
@@ -51,10 +52,11 @@ public class EntityPermissions implements CheckInstantiator {
     private final HashMap<Class<? extends Annotation>, AnnotationBinding> bindings = new HashMap<>();
 
     private static class AnnotationBinding {
-        final ParseTree classPermission;
-        final Map<String, ParseTree> fieldPermissions;
+        final PermissionExpressionPlan classPermission;
+        final Map<String, PermissionExpressionPlan> fieldPermissions;
 
-        public AnnotationBinding(ParseTree classPermission, Map<String, ParseTree> fieldPermissions) {
+        public AnnotationBinding(PermissionExpressionPlan classPermission,
+                                 Map<String, PermissionExpressionPlan> fieldPermissions) {
             this.classPermission = classPermission;
             this.fieldPermissions = fieldPermissions.isEmpty() ? Collections.emptyMap() : fieldPermissions;
         }
@@ -75,8 +77,8 @@ public class EntityPermissions implements CheckInstantiator {
                              Collection<AccessibleObject> fieldOrMethodList)  {
         this.dictionary = dictionary;
         for (Class<? extends Annotation> annotationClass : PERMISSION_ANNOTATIONS) {
-            ParseTree classPermission = bindClassPermissions(cls, annotationClass);
-            final Map<String, ParseTree> fieldPermissions = new HashMap<>();
+            PermissionExpressionPlan classPermission = bindClassPermissions(cls, annotationClass);
+            final Map<String, PermissionExpressionPlan> fieldPermissions = new HashMap<>();
             fieldOrMethodList.stream()
                     .forEach(member -> bindMemberPermissions(fieldPermissions, member, annotationClass));
             if (classPermission != null || !fieldPermissions.isEmpty()) {
@@ -85,20 +87,24 @@ public class EntityPermissions implements CheckInstantiator {
         }
     }
 
-    private ParseTree bindClassPermissions(Class<?> cls, Class<? extends Annotation> annotationClass) {
+    private PermissionExpressionPlan bindClassPermissions(Class<?> cls, Class<? extends Annotation> annotationClass) {
         Annotation annotation = EntityDictionary.getFirstAnnotation(cls, Arrays.asList(annotationClass));
-        return (annotation == null) ? null : getPermissionExpressionTree(annotationClass, annotation);
+        return (annotation == null) ? null : compile(getPermissionExpressionTree(annotationClass, annotation));
     }
 
-    private void bindMemberPermissions(Map<String, ParseTree> fieldPermissions,
+    private void bindMemberPermissions(Map<String, PermissionExpressionPlan> fieldPermissions,
             AccessibleObject field, Class<? extends Annotation> annotationClass) {
         Annotation annotation = field.getAnnotation(annotationClass);
         if (annotation != null) {
             ParseTree permissions = getPermissionExpressionTree(annotationClass, annotation);
-            fieldPermissions.put(EntityBinding.getFieldName(field), permissions);
+            fieldPermissions.put(EntityBinding.getFieldName(field), compile(permissions));
         }
     }
 
+    private PermissionExpressionPlan compile(ParseTree permissions) {
+        return PermissionExpressionPlan.compile(dictionary, permissions);
+    }
+
     private ParseTree getPermissionExpressionTree(Class<? extends Annotation> annotationClass, Annotation annotation) {
         try {
             String expression = (String) annotationClass.getMethod("expression").invoke(annotation);
@@ -162,6 +168,16 @@ public class EntityPermissions implements CheckInstantiator {
      * @return entity permission ParseTree or null if none
      */
     public ParseTree getClassChecksForPermission(Class<? extends Annotation> annotationClass) {
+        PermissionExpressionPlan plan = getClassPlanForPermission(annotationClass);
+        return plan == null ? null : plan.getParseTree();
+    }
+
+    /**
+     * Get the compiled entity permission.
+     * @param annotationClass permission class
+     * @return compiled entity permission or null if none
+     */
+    public PermissionExpressionPlan getClassPlanForPermission(Class<? extends Annotation> annotationClass) {
         return bindings.getOrDefault(annotationClass, EMPTY_BINDING).classPermission;
     }
 
@@ -172,6 +188,18 @@ public class EntityPermissions implements CheckInstantiator {
      * @return entity permission ParseTree or null if none
      */
     public ParseTree getFieldChecksForPermission(String field, Class<? extends Annotation> annotationClass) {
+        PermissionExpressionPlan plan = getFieldPlanForPermission(field, annotationClass);
+        return plan == null ? null : plan.getParseTree();
+    }
+
+    /**
+     * Get the compiled field permission for provided name.
+     * @param field provided field name
+     * @param annotationClass permission class
+     * @return compiled field permission or null if none
+     */
+    public PermissionExpressionPlan getFieldPlanForPermission(String field,
+                                                              Class<? extends Annotation> annotationClass) {
         return bindings.getOrDefault(annotationClass, EMPTY_BINDING).fieldPermissions.get(field);
     }
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core;
+
+import com.google.common.primitives.Primitives;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Compiled getter and setter for a bound id, attribute or relationship.
+ *
+ * Accessors are resolved once per field when the entity is bound and wrap method handles, so reading and writing
+ * entity state does not go through {@link Method#invoke} or {@link Field#get} on every call.
+ */
+final class FieldAccessor {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SCOPED_GETTER_TYPE =
+            MethodType.methodType(Object.class, Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final MethodHandle getter;
+    private final boolean requestScoped;
+    private final MethodHandle setter;
+    private final Class<?> setterType;
+
+    private FieldAccessor(MethodHandle getter, boolean requestScoped, MethodHandle setter, Class<?> setterType) {
+        this.getter = getter;
+        this.requestScoped = requestScoped;
+        this.setter = setter;
+        this.setterType = setterType;
+    }
+
+    /**
+     * Build the accessor for a bound field or getter.
+     *
+     * The setter is resolved the same way {@link PersistentResource} always has: a public, non-abstract
+     * {@code set[FieldName]} method taking the field type, otherwise the public field itself.
+     *
+     * @param entityClass entity class
+     * @param fieldName bound field name
+     * @param fieldOrMethod bound field or getter
+     * @param fieldType type of the field
+     * @return accessor, or null if the member cannot be accessed
+     */
+    static FieldAccessor of(Class<?> entityClass, String fieldName, AccessibleObject fieldOrMethod,
+                            Class<?> fieldType) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            MethodHandle getter;
+            boolean requestScoped = false;
+            if (fieldOrMethod instanceof Method) {
+                Method method = (Method) fieldOrMethod;
+                requestScoped = EntityBinding.isRequestScopeableMethod(method);
+                getter = lookup.unreflect(accessible(method))
+                        .asType(requestScoped ? SCOPED_GETTER_TYPE : GETTER_TYPE);
+            } else {
+                getter = lookup.unreflectGetter(accessible((Field) fieldOrMethod)).asType(GETTER_TYPE);
+            }
+
+            MethodHandle setter = null;
+            Class<?> setterType = null;
+            Method setMethod = findSetter(entityClass, fieldName, fieldType);
+            if (setMethod != null) {
+                setter = lookup.unreflect(accessible(setMethod)).asType(SETTER_TYPE);
+                setterType = fieldType;
+            } else {
+                Field field = findField(entityClass, fieldName);
+                if (field != null) {
+                    setter = lookup.unreflectSetter(accessible(field)).asType(SETTER_TYPE);
+                    setterType = field.getType();
+                }
+            }
+            return new FieldAccessor(getter, requestScoped, setter, setterType);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Read the value from an entity.
+     *
+     * @param target entity instance
+     * @param requestScope request scope handed to request scoped computed getters
+     * @return the value
+     * @throws InvocationTargetException if the getter throws an exception; errors are rethrown as they are
+     */
+    Object get(Object target, RequestScope requestScope) throws InvocationTargetException {
+        try {
+            if (requestScoped) {
+                return getter.invokeExact(target, (Object) requestScope);
+            }
+            return getter.invokeExact(target);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * Whether the field has a setter method or a writable public field.
+     *
+     * @return true if {@link #set(Object, Object)} can be called
+     */
+    boolean isWritable() {
+        return setter != null;
+    }
+
+    /**
+     * Write a value to an entity.
+     *
+     * @param target entity instance
+     * @param value the value, already coerced to the field type
+     * @throws IllegalArgumentException if the value does not fit the setter type
+     * @throws InvocationTargetException if the setter throws an exception; errors are rethrown as they are
+     */
+    void set(Object target, Object value) throws InvocationTargetException {
+        if (value == null ? setterType.isPrimitive() : !Primitives.wrap(setterType).isInstance(value)) {
+            throw new IllegalArgumentException("Cannot assign " + value + " to " + setterType.getName());
+        }
+        try {
+            setter.invokeExact(target, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    private static Method findSetter(Class<?> entityClass, String fieldName, Class<?> fieldType) {
+        try {
+            return EntityDictionary.findMethod(entityClass, "set" + StringUtils.capitalize(fieldName), fieldType);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static Field findField(Class<?> entityClass, String fieldName) {
+        try {
+            Field field = entityClass.getField(fieldName);
+            return Modifier.isFinal(field.getModifiers()) ? null : field;
+        } catch (NoSuchFieldException e) {
+            return null;
+        }
+    }
+
+    private static <T extends AccessibleObject> T accessible(T member) {
+        try {
+            member.setAccessible(true);
+        } catch (SecurityException e) {
+            // fall back to the regular access checks of the lookup
+        }
+        return member;
+    }
+}
@@ -8,9 +8,13 @@ package com.yahoo.elide.core;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Sets;
+import com.yahoo.elide.ElideSettings;
 import com.yahoo.elide.annotation.Audit;
+import com.yahoo.elide.annotation.ComputedAttribute;
 import com.yahoo.elide.annotation.CreatePermission;
 import com.yahoo.elide.annotation.DeletePermission;
+import com.yahoo.elide.annotation.OnReadPostCommit;
+import com.yahoo.elide.annotation.OnReadPreCommit;
 import com.yahoo.elide.annotation.OnReadPreSecurity;
 import com.yahoo.elide.annotation.ReadPermission;
 import com.yahoo.elide.annotation.SharePermission;
@@ -29,6 +33,8 @@ import com.yahoo.elide.core.filter.Operator;
 import com.yahoo.elide.core.filter.expression.AndFilterExpression;
 import com.yahoo.elide.core.filter.expression.FilterExpression;
 import com.yahoo.elide.core.filter.expression.InMemoryFilterVisitor;
+import com.yahoo.elide.core.filter.expression.PredicateExtractionVisitor;
+import com.yahoo.elide.core.pagination.KeysetCursor;
 import com.yahoo.elide.core.pagination.Pagination;
 import com.yahoo.elide.core.sort.Sorting;
 import com.yahoo.elide.jsonapi.models.Data;
@@ -38,6 +44,9 @@ import com.yahoo.elide.jsonapi.models.ResourceIdentifier;
 import com.yahoo.elide.jsonapi.models.SingleElementSet;
 import com.yahoo.elide.parsers.expression.CanPaginateVisitor;
 import com.yahoo.elide.security.ChangeSpec;
+import com.yahoo.elide.security.FilterExpressionCheck;
+import com.yahoo.elide.security.checks.Check;
+import com.yahoo.elide.security.checks.UserCheck;
 import com.yahoo.elide.security.permissions.ExpressionResult;
 import com.yahoo.elide.utils.coerce.CoerceUtil;
 import lombok.NonNull;
@@ -52,16 +61,17 @@ import javax.ws.rs.core.Response;
 
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -70,6 +80,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -82,11 +93,13 @@ import java.util.stream.Collectors;
  */
 @Slf4j
 public class PersistentResource<T> implements com.yahoo.elide.security.PersistentResource<T> {
+    private static final String INCLUDE = "include";
+
     protected T obj;
     private final String type;
     private final ResourceLineage lineage;
-    private final Optional<String> uuid;
-    private final HashMap<Class, HashSet<String>> triggersRun = new HashMap<>();
+    private final String uuid;
+    private Map<Class, Set<String>> triggersRun;
     private final DataStoreTransaction transaction;
     private final RequestScope requestScope;
     private int hashCode = 0;
@@ -97,14 +110,14 @@ public class PersistentResource<T> implements com.yahoo.elide.security.Persisten
     protected final EntityDictionary dictionary;
 
     /* Sort strings first by length then contents */
-    private final Comparator<String> lengthFirstComparator = (string1, string2) -> {
+    private static final Comparator<String> LENGTH_FIRST_COMPARATOR = (string1, string2) -> {
         int diff = string1.length() - string2.length();
         return diff == 0 ? string1.compareTo(string2) : diff;
     };
 
     @Override
     public String toString() {
-        return String.format("PersistentResource{type=%s, id=%s}", type, uuid.orElse(getId()));
+        return String.format("PersistentResource{type=%s, id=%s}", type, uuid != null ? uuid : getId());
     }
 
     /**
@@ -174,8 +187,8 @@ public class PersistentResource<T> implements com.yahoo.elide.security.Persisten
      */
     public PersistentResource(@NonNull T obj, PersistentResource parent, String id, @NonNull RequestScope scope) {
         this.obj = obj;
-        this.uuid = Optional.ofNullable(id);
-        this.lineage = parent != null ? new ResourceLineage(parent.lineage, parent) : new ResourceLineage();
+        this.uuid = id;
+        this.lineage = parent != null ? new ResourceLineage(parent.lineage, parent) : ResourceLineage.EMPTY;
         this.dictionary = scope.getDictionary();
         this.type = dictionary.getJsonAliasFor(obj.getClass());
         this.transaction = scope.getTransaction();
@@ -234,7 +247,7 @@ public class PersistentResource<T> implements com.yahoo.elide.security.Persisten
     public boolean matchesId(String checkId) {
         if (checkId == null) {
             return false;
-        } else if (uuid.isPresent() && checkId.equals(uuid.get())) {
+        } else if (checkId.equals(uuid)) {
             return true;
         }
         String id = getId();
@@ -305,9 +318,7 @@ public class PersistentResource<T> implements com.yahoo.elide.security.Persisten
 
         list = tx.loadObjects(loadClass, filterExpression,
                 Optional.empty(), Optional.empty(), requestScope);
-        Set<PersistentResource> resources = new PersistentResourceSet(list, requestScope);
-        resources = filter(ReadPermission.class, resources, false);
-        return resources;
+        return filterLoaded(loadClass, list, requestScope);
     }
 
     /**
@@ -351,13 +362,121 @@ public class PersistentResource<T> implements com.yahoo.elide.security.Persisten
 
         Iterable list;
         Optional<FilterExpression> filterExpression = requestScope.getLoadFilterExpression(loadClass);
-        Optional<Pagination> pagination = Optional.ofNullable(requestScope.getPagination());
+        Optional<Pagination> pagination = Optional.ofNullable(requestScope.getPagination())
+                .map(p -> p.evaluate(loadClass));
         Optional<Sorting> sorting = Optional.ofNullable(requestScope.getSorting());
-        list = tx.loadObjects(loadClass, filterExpression, sorting,
-                pagination.map(p -> p.evaluate(loadClass)), requestScope);
-        Set<PersistentResource> resources = new PersistentResourceSet(list, requestScope);
-        resources = filter(ReadPermission.class, resources, false);
-        return resources;
+
+        Optional<KeysetCursor> cursor = pagination.flatMap(p ->
+                KeysetCursor.fromPagination(p, loadClass, sorting, dictionary));
+        if (cursor.isPresent()) {
+            filterExpression = cursor.get().withSeekPredicate(filterExpression);
+            list = cursor.get().order(tx.loadObjects(loadClass, filterExpression,
+                    Optional.of(cursor.get().getSorting()), pagination, requestScope));
+        } else {
+            list = tx.loadObjects(loadClass, filterExpression, sorting, pagination, requestScope);
+        }
+        return filterLoaded(loadClass, list, requestScope);
+    }
+
+    /**
+     * Get the attributes a request reads from the objects of a collection it loads, when they are known to be
+     * fewer than all of them. This is the case when the request asks for sparse fields and includes nothing: its
+     * objects then only need their id, the requested attributes, the attributes they are sorted by and the
+     * attributes referenced by the filter expression checks of their read permissions.
+     *
+     * Data stores may load only these attributes. Nothing is known if a requested field is a relationship or a
+     * computed attribute, if the type has read triggers, or if the read permissions of the type or of any of its
+     * fields use checks other than user checks and filter expression checks on its own attributes. The permissions
+     * of fields that are not requested count as well, since reading an object checks whether any field is readable.
+     *
+     * @param loadClass the loaded class
+     * @param requestScope the request scope
+     * @return the names of the required attributes, not including the id, or empty if every field may be read
+     */
+    public static Optional<Set<String>> getRequiredFields(Class<?> loadClass, RequestScope requestScope) {
+        Map<String, Set<String>> sparseFields = requestScope.getSparseFields();
+        boolean includes = requestScope.getQueryParams()
+                .map(params -> params.containsKey(INCLUDE))
+                .orElse(false);
+        EntityDictionary dictionary = requestScope.getDictionary();
+        if (sparseFields.isEmpty() || includes || hasReadTriggers(loadClass, "", dictionary)) {
+            return Optional.empty();
+        }
+
+        Set<String> requested = sparseFields.getOrDefault(dictionary.getJsonAliasFor(loadClass),
+                Collections.emptySet());
+        Optional<List<List<String>>> paths = getReadCheckPaths(loadClass, requestScope);
+        if (!paths.isPresent()
+                || !requested.stream().allMatch(field -> isStoredAttribute(loadClass, field, dictionary))) {
+            return Optional.empty();
+        }
+        Sorting sorting = requestScope.getSorting();
+        if (sorting != null && !sorting.isDefaultInstance()) {
+            sorting.getValidSortingRules(loadClass, dictionary).keySet()
+                    .forEach(path -> paths.get().add(path.getPathElements().stream()
+                            .map(Path.PathElement::getFieldName)
+                            .collect(Collectors.toList())));
+        }
+
+        Set<String> required = new LinkedHashSet<>(requested);
+        String idFieldName = dictionary.getIdFieldName(loadClass);
+        for (List<String> path : paths.get()) {
+            String field = path.get(0);
+            if (path.size() == 1 && dictionary.isAttribute(loadClass, field)) {
+                required.add(field);
+            } else if (path.size() != 1 || !field.equals(idFieldName)) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(required);
+    }
+
+    /**
+     * Get the field names along the paths of the filter expression checks evaluated when reading an object, which
+     * are the read checks of the type and of every one of its fields.
+     *
+     * @param loadClass the loaded class
+     * @param requestScope the request scope
+     * @return the paths, or empty if a read check is neither a user check nor a filter expression check
+     */
+    private static Optional<List<List<String>>> getReadCheckPaths(Class<?> loadClass, RequestScope requestScope) {
+        EntityDictionary dictionary = requestScope.getDictionary();
+        List<Check> checks = new ArrayList<>();
+        Optional.ofNullable(dictionary.getPermissionPlanForClass(loadClass, ReadPermission.class))
+                .ifPresent(plan -> checks.addAll(plan.getChecks()));
+        for (String field : dictionary.getAllFields(loadClass)) {
+            Optional.ofNullable(dictionary.getPermissionPlanForField(loadClass, field, ReadPermission.class))
+                    .ifPresent(plan -> checks.addAll(plan.getChecks()));
+        }
+
+        List<List<String>> paths = new ArrayList<>();
+        for (Check check : checks) {
+            if (check instanceof UserCheck) {
+                continue;
+            }
+            if (!(check instanceof FilterExpressionCheck)) {
+                return Optional.empty();
+            }
+            FilterExpression expression = ((FilterExpressionCheck) check).getFilterExpression(loadClass, requestScope);
+            if (expression != null) {
+                for (FilterPredicate predicate : expression.accept(new PredicateExtractionVisitor())) {
+                    paths.add(Arrays.asList(predicate.getFieldPath().split("\\.")));
+                }
+            }
+        }
+        return Optional.of(paths);
+    }
+
+    private static boolean isStoredAttribute(Class<?> loadClass, String field, EntityDictionary dictionary) {
+        return dictionary.isAttribute(loadClass, field)
+                && dictionary.getAttributeOrRelationAnnotation(loadClass, ComputedAttribute.class, field) == null
+                && !hasReadTriggers(loadClass, field, dictionary);
+    }
+
+    private static boolean hasReadTriggers(Class<?> loadClass, String fieldName, EntityDictionary dictionary) {
+        return !dictionary.getTriggers(loadClass, OnReadPreSecurity.class, fieldName).isEmpty()
+                || !dictionary.getTriggers(loadClass, OnReadPreCommit.class, fieldName).isEmpty()
+                || !dictionary.getTriggers(loadClass, OnReadPostCommit.class, fieldName).isEmpty();
     }
 
     /**
@@ -799,7 +918,7 @@ public class PersistentResource<T> implements com.yahoo.elide.security.Persisten
      */
     @Override
     public Optional<String> getUUID() {
-        return uuid;
+        return Optional.ofNullable(uuid);
     }
 
     /**
@@ -977,15 +1096,7 @@ public class PersistentResource<T> implements com.yahoo.elide.security.Persisten
         Optional<Sorting> sorting = sortedAndPaginated
                 ? Optional.ofNullable(requestScope.getSorting()) : Optional.empty();
 
-        Optional<FilterExpression> permissionFilter = getPermissionFilterExpression(relationClass, requestScope);
-        if (permissionFilter.isPresent() && filterExpression.isPresent()) {
-                FilterExpression mergedExpression =
-                        new AndFilterExpression(filterExpression.get(), permissionFilter.get());
-                filterExpression = Optional.of(mergedExpression);
-        } else if (permissionFilter.isPresent()) {
-                filterExpression = permissionFilter;
-        }
-
+        filterExpression = withPermissionFilter(relationClass, filterExpression);
 
         /* If we are mutating multiple entities, the data store transaction cannot perform filter & pagination directly.
          * It must be done in memory by Elide as some newly created entities have not yet been persisted.
@@ -999,10 +1110,53 @@ public class PersistentResource<T> implements com.yahoo.elide.security.Persisten
                 val = filterInMemory((Collection) val, filterExpression);
             }
         } else {
+            Optional<Sorting> requestedSorting = sorting;
+            Optional<KeysetCursor> cursor = type.isToMany()
+                    ? pagination.flatMap(p -> KeysetCursor.fromPagination(p, relationClass, requestedSorting,
+                            dictionary))
+                    : Optional.empty();
+            if (cursor.isPresent()) {
+                filterExpression = cursor.get().withSeekPredicate(filterExpression);
+                sorting = Optional.of(cursor.get().getSorting());
+            }
+
             val = transaction.getRelation(transaction, obj, relationName,
                     filterExpression, sorting, pagination, requestScope);
+
+            if (cursor.isPresent() && val instanceof Iterable) {
+                val = cursor.get().order((Iterable<Object>) val);
+            }
         }
 
+        return toRelationResources(type, val);
+    }
+
+    /**
+     * Merge the read permission filter of the relation type into a relationship filter.
+     *
+     * @param relationClass the type of the relationship
+     * @param filterExpression An optional filter expression
+     * @return the combined filter expression
+     */
+    private Optional<FilterExpression> withPermissionFilter(Class<?> relationClass,
+                                                            Optional<FilterExpression> filterExpression) {
+        Optional<FilterExpression> permissionFilter = getPermissionFilterExpression(relationClass, requestScope);
+        if (permissionFilter.isPresent() && filterExpression.isPresent()) {
+            return Optional.of(new AndFilterExpression(filterExpression.get(), permissionFilter.get()));
+        } else if (permissionFilter.isPresent()) {
+            return permissionFilter;
+        }
+        return filterExpression;
+    }
+
+    /**
+     * Wrap the value of a relationship loaded from the data store.
+     *
+     * @param type the relationship type
+     * @param val the object(s) in the relationship
+     * @return the resources in the relationship
+     */
+    private Set<PersistentResource> toRelationResources(RelationshipType type, Object val) {
         if (val == null) {
             return Collections.emptySet();
         }
@@ -1021,6 +1175,65 @@ public class PersistentResource<T> implements com.yahoo.elide.security.Persisten
         return resources;
     }
 
+    /**
+     * Get the readable resources of a relationship for many resources at once.
+     *
+     * The result for each resource is the same as {@link #getRelationCheckedFiltered(String)}, but resources of the
+     * same type load the relationship with a single {@link DataStoreTransaction#getRelations} call.
+     *
+     * @param resources the resources owning the relationship
+     * @param relationName field
+     * @return the relationship of each resource, keyed by resource identity
+     */
+    public static Map<PersistentResource, Set<PersistentResource>> getRelationsCheckedFiltered(
+            Collection<PersistentResource> resources, String relationName) {
+        Map<PersistentResource, Set<PersistentResource>> relations = new IdentityHashMap<>();
+
+        Map<Class<?>, List<PersistentResource>> byType = new LinkedHashMap<>();
+        for (PersistentResource resource : resources) {
+            byType.computeIfAbsent(resource.getResourceClass(), cls -> new ArrayList<>()).add(resource);
+        }
+
+        for (List<PersistentResource> sameType : byType.values()) {
+            PersistentResource<?> first = sameType.get(0);
+            RequestScope scope = first.getRequestScope();
+            if (scope.isMutatingMultipleEntities()) {
+                for (PersistentResource resource : sameType) {
+                    relations.put(resource, resource.getRelationCheckedFiltered(relationName));
+                }
+                continue;
+            }
+
+            List<PersistentResource> readable = new ArrayList<>(sameType.size());
+            List<Object> owners = new ArrayList<>(sameType.size());
+            for (PersistentResource resource : sameType) {
+                if (resource.checkRelation(relationName)) {
+                    readable.add(resource);
+                    owners.add(resource.getObject());
+                } else {
+                    relations.put(resource, Collections.emptySet());
+                }
+            }
+            if (readable.isEmpty()) {
+                continue;
+            }
+
+            Class<?> relationClass = first.dictionary.getParameterizedType(first.getObject(), relationName);
+            Optional<FilterExpression> filterExpression =
+                    first.withPermissionFilter(relationClass, first.getExpressionForRelation(relationName));
+            RelationshipType type = first.getRelationshipType(relationName);
+
+            Map<Object, Object> values = first.transaction.getRelations(first.transaction, owners, relationName,
+                    filterExpression, scope);
+
+            for (PersistentResource resource : readable) {
+                Set<PersistentResource> related = resource.toRelationResources(type, values.get(resource.getObject()));
+                relations.put(resource, filter(ReadPermission.class, related, false));
+            }
+        }
+        return relations;
+    }
+
     /**
      * Filters a relationship collection in memory for scenarios where the data store transaction cannot do it.
      *
@@ -1134,7 +1347,7 @@ public class PersistentResource<T> implements com.yahoo.elide.security.Persisten
             //         that newly created object within the context of the request. Thus, if any such action was
             //         required, the user would be forced to provide a UUID anyway.
             String id = dictionary.getId(getObject());
-            if (uuid.isPresent() && "0".equals(id)) {
+            if (uuid != null && "0".equals(id)) {
                 hashCode = Objects.hashCode(uuid);
             } else {
                 hashCode = Objects.hashCode(id);
@@ -1207,7 +1420,7 @@ public class PersistentResource<T> implements com.yahoo.elide.security.Persisten
     public Resource toResource(final Supplier<Map<String, Relationship>> relationshipSupplier,
                                final Supplier<Map<String, Object>> attributeSupplier) {
         final Resource resource = new Resource(type, (obj == null)
-                ? uuid.orElseThrow(
+                ? getUUID().orElseThrow(
                 () -> new InvalidEntityBodyException("No id found on object"))
                 : dictionary.getId(obj));
         resource.setRelationships(relationshipSupplier.get());
@@ -1221,7 +1434,7 @@ public class PersistentResource<T> implements com.yahoo.elide.security.Persisten
      * @return Relationship mapping
      */
     protected Map<String, Relationship> getRelationships() {
-        return getRelationshipsWithRelationshipFunction(this::getRelationCheckedFiltered);
+        return getRelationshipsWithLinkageFunction(this::getRelationLinkage);
     }
 
     /**
@@ -1242,17 +1455,16 @@ public class PersistentResource<T> implements com.yahoo.elide.security.Persisten
      */
     protected Map<String, Relationship> getRelationshipsWithRelationshipFunction(
             final Function<String, Set<PersistentResource>> relationshipFunction) {
+        return getRelationshipsWithLinkageFunction(field -> toLinkage(relationshipFunction.apply(field)));
+    }
+
+    private Map<String, Relationship> getRelationshipsWithLinkageFunction(
+            final Function<String, Collection<Resource>> linkageFunction) {
         final Map<String, Relationship> relationshipMap = new LinkedHashMap<>();
         final Set<String> relationshipFields = filterFields(dictionary.getRelationships(obj));
 
         for (String field : relationshipFields) {
-            TreeMap<String, Resource> orderedById = new TreeMap<>(lengthFirstComparator);
-            for (PersistentResource relationship : relationshipFunction.apply(field)) {
-                orderedById.put(relationship.getId(),
-                        new ResourceIdentifier(relationship.getType(), relationship.getId()).castToResource());
-
-            }
-            Collection<Resource> resources = orderedById.values();
+            Collection<Resource> resources = linkageFunction.apply(field);
 
             Data<Resource> data;
             RelationshipType relationshipType = getRelationshipType(field);
@@ -1268,6 +1480,81 @@ public class PersistentResource<T> implements com.yahoo.elide.security.Persisten
         return relationshipMap;
     }
 
+    private Collection<Resource> toLinkage(Set<PersistentResource> related) {
+        TreeMap<String, Resource> orderedById = new TreeMap<>(LENGTH_FIRST_COMPARATOR);
+        for (PersistentResource relationship : related) {
+            orderedById.put(relationship.getId(),
+                    new ResourceIdentifier(relationship.getType(), relationship.getId()).castToResource());
+
+        }
+        return orderedById.values();
+    }
+
+    /**
+     * Get the linkage of a relationship. Only the ids of the related objects are loaded unless the request
+     * needs the objects themselves (see {@link #canLinkByIdOnly(String)}).
+     *
+     * @param relationName field
+     * @return resource identifiers ordered by id
+     */
+    private Collection<Resource> getRelationLinkage(String relationName) {
+        if (!canLinkByIdOnly(relationName)) {
+            return toLinkage(getRelationCheckedFiltered(relationName));
+        }
+        if (!checkRelation(relationName)) {
+            return Collections.emptyList();
+        }
+
+        Class<?> relationClass = dictionary.getParameterizedType(obj, relationName);
+        String relationType = dictionary.getJsonAliasFor(relationClass);
+        Optional<FilterExpression> filterExpression =
+                withPermissionFilter(relationClass, getExpressionForRelation(relationName));
+
+        TreeMap<String, Resource> orderedById = new TreeMap<>(LENGTH_FIRST_COMPARATOR);
+        for (Object id : transaction.getRelationIds(transaction, obj, relationName, filterExpression, requestScope)) {
+            String relationId = String.valueOf(id);
+            orderedById.put(relationId, new ResourceIdentifier(relationType, relationId).castToResource());
+        }
+        return orderedById.values();
+    }
+
+    /**
+     * Whether relationship linkage can be built from the ids of the related objects alone.
+     *
+     * This is the case when the related objects are not part of the included block, cannot be of a subclass
+     * with a different type, and their read permission only consists of user checks (which
+     * {@link #checkRelation(String)} already evaluated for the whole collection).
+     *
+     * @param relationName field
+     * @return true if the related objects do not need to be loaded
+     */
+    private boolean canLinkByIdOnly(String relationName) {
+        if (requestScope.isMutatingMultipleEntities() || isIncluded(relationName)) {
+            return false;
+        }
+        Class<?> relationClass = dictionary.getParameterizedType(obj, relationName);
+        return relationClass != null
+                && dictionary.getSubclassingEntities(relationClass).isEmpty()
+                && dictionary.hasOnlyUserChecks(relationClass, ReadPermission.class);
+    }
+
+    private boolean isIncluded(String relationName) {
+        List<String> include = requestScope.getQueryParams()
+                .map(params -> params.get(INCLUDE))
+                .orElse(null);
+        if (include == null) {
+            return false;
+        }
+        for (String paths : include) {
+            for (String segment : paths.split("[,.]")) {
+                if (segment.equals(relationName)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Get attributes mapping from entity.
      *
@@ -1435,10 +1722,46 @@ public class PersistentResource<T> implements com.yahoo.elide.security.Persisten
     protected void setValue(String fieldName, Object value) {
         Class<?> targetClass = obj.getClass();
         final Object original = getValueUnchecked(fieldName);
+        Class<?> fieldClass = dictionary.getType(targetClass, fieldName);
+        String realName = dictionary.getNameFromAlias(obj, fieldName);
+        fieldName = (realName != null) ? realName : fieldName;
+        FieldAccessor accessor = dictionary.getAccessor(targetClass, fieldName);
+        if (!setValueWithAccessor(accessor, fieldName, fieldClass, value)) {
+            setValueReflectively(targetClass, fieldName, fieldClass, value);
+        }
+
+        // Queue the @*Update triggers iff this is not a newly created object (otherwise we run @*Create)
+        boolean isNewlyCreated = requestScope.getNewPersistentResources().contains(this);
+        requestScope.queueTriggers(this, fieldName, (isNewlyCreated) ? CRUDAction.CREATE : CRUDAction.UPDATE);
+        requestScope.queueTriggers(this, (isNewlyCreated) ? CRUDAction.CREATE : CRUDAction.UPDATE);
+        auditField(new ChangeSpec(this, fieldName, original, value));
+    }
+
+    /**
+     * Set a value through the compiled accessor of the field.
+     *
+     * @return false if there is no usable accessor and the value should be set reflectively
+     */
+    private boolean setValueWithAccessor(FieldAccessor accessor, String fieldName, Class<?> fieldClass,
+                                         Object value) {
+        if (accessor == null || !accessor.isWritable()) {
+            return false;
+        }
+        try {
+            accessor.set(obj, coerce(value, fieldName, fieldClass));
+            return true;
+        } catch (InvocationTargetException e) {
+            throw handleInvocationTargetException(e);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Invoke the set[fieldName] method OR set the public field by reflection.
+     */
+    private void setValueReflectively(Class<?> targetClass, String fieldName, Class<?> fieldClass, Object value) {
         try {
-            Class<?> fieldClass = dictionary.getType(targetClass, fieldName);
-            String realName = dictionary.getNameFromAlias(obj, fieldName);
-            fieldName = (realName != null) ? realName : fieldName;
             String setMethod = "set" + StringUtils.capitalize(fieldName);
             Method method = EntityDictionary.findMethod(targetClass, setMethod, fieldClass);
             method.invoke(obj, coerce(value, fieldName, fieldClass));
@@ -1454,24 +1777,16 @@ public class PersistentResource<T> implements com.yahoo.elide.security.Persisten
                 throw new InvalidAttributeException(fieldName, type, noField);
             }
         }
-
-        // Queue the @*Update triggers iff this is not a newly created object (otherwise we run @*Create)
-        boolean isNewlyCreated = requestScope.getNewPersistentResources().contains(this);
-        requestScope.queueTriggers(this, fieldName, (isNewlyCreated) ? CRUDAction.CREATE : CRUDAction.UPDATE);
-        requestScope.queueTriggers(this, (isNewlyCreated) ? CRUDAction.CREATE : CRUDAction.UPDATE);
-        auditField(new ChangeSpec(this, fieldName, original, value));
     }
 
     <A extends Annotation> void runTriggers(Class<A> annotationClass, String fieldName) {
-        // Only run a trigger once per request:
-        if (triggersRun.containsKey(annotationClass)) {
-            if (triggersRun.get(annotationClass).contains(fieldName)) {
-                return;
-            }
-        } else {
-            triggersRun.put(annotationClass, new HashSet<>());
+        // Only run a trigger once per request. Most resources never run one, so the bookkeeping is lazy.
+        if (triggersRun == null) {
+            triggersRun = new HashMap<>();
+        }
+        if (!triggersRun.computeIfAbsent(annotationClass, key -> new HashSet<>()).add(fieldName)) {
+            return;
         }
-        triggersRun.get(annotationClass).add(fieldName);
 
         Class<?> targetClass = obj.getClass();
 
@@ -1577,24 +1892,12 @@ public class PersistentResource<T> implements com.yahoo.elide.security.Persisten
      * @return the value
      */
     public static Object getValue(Object target, String fieldName, RequestScope requestScope) {
-        EntityDictionary dictionary = requestScope.getDictionary();
-        AccessibleObject accessor = dictionary.getAccessibleObject(target, fieldName);
         try {
-            if (accessor instanceof Method) {
-                // Pass RequestScope into @Computed fields if requested
-                if (dictionary.isMethodRequestScopeable(target, (Method) accessor)) {
-                    return ((Method) accessor).invoke(target, requestScope);
-                }
-                return ((Method) accessor).invoke(target);
-            } else if (accessor instanceof Field) {
-                return ((Field) accessor).get(target);
-            }
-        } catch (IllegalAccessException e) {
-            throw new InvalidAttributeException(fieldName, dictionary.getJsonAliasFor(target.getClass()), e);
+            // Request scoped @Computed getters receive the RequestScope
+            return requestScope.getDictionary().getValue(target, fieldName, requestScope);
         } catch (InvocationTargetException e) {
             throw handleInvocationTargetException(e);
         }
-        throw new InvalidAttributeException(fieldName, dictionary.getJsonAliasFor(target.getClass()));
     }
 
     /**
@@ -1717,8 +2020,38 @@ public class PersistentResource<T> implements com.yahoo.elide.security.Persisten
      */
     protected static Set<PersistentResource> filter(Class<? extends Annotation> permission,
                                                     Set<PersistentResource> resources, boolean skipNew) {
+        // Resources may be streamed from the data store, so they are only iterated once
+        List<PersistentResource> candidates = new ArrayList<>();
+        resources.forEach(candidates::add);
+        Set<PersistentResource> filteredSet = filter(permission, candidates, skipNew);
+        // keep original SingleElementSet
+        if (resources instanceof SingleElementSet && resources.equals(filteredSet)) {
+            return resources;
+        }
+        return filteredSet;
+    }
+
+    private static Set<PersistentResource> filter(Class<? extends Annotation> permission,
+                                                  List<PersistentResource> candidates, boolean skipNew) {
+        List<PersistentResource> checked = candidates.stream()
+                .filter(resource -> !skipNew || !resource.getRequestScope().getNewResources().contains(resource))
+                .collect(Collectors.toList());
+        if (checked.size() > 1) {
+            checked.get(0).getRequestScope().getPermissionExecutor().evaluateBatchChecks(permission, checked);
+        }
+
         Set<PersistentResource> filteredSet = new LinkedHashSet<>();
-        for (PersistentResource resource : resources) {
+        if (canFilterInParallel(permission, checked)) {
+            ForkJoinPool pool = checked.get(0).getRequestScope().getElideSettings().getPermissionCheckPool();
+            Set<PersistentResource> denied = pool.submit(() -> checked.parallelStream()
+                    .filter(resource -> !isAllowed(permission, resource))
+                    .collect(Collectors.toCollection(() -> Collections.newSetFromMap(new IdentityHashMap<>()))))
+                    .join();
+            candidates.stream().filter(resource -> !denied.contains(resource)).forEach(filteredSet::add);
+            return filteredSet;
+        }
+
+        for (PersistentResource resource : candidates) {
             try {
                 if (!skipNew || !resource.getRequestScope().getNewResources().contains(resource)) {
                     resource.checkFieldAwarePermissions(permission);
@@ -1728,13 +2061,65 @@ public class PersistentResource<T> implements com.yahoo.elide.security.Persisten
                 // Do nothing. Filter from set.
             }
         }
-        // keep original SingleElementSet
-        if (resources instanceof SingleElementSet && resources.equals(filteredSet)) {
-            return resources;
-        }
         return filteredSet;
     }
 
+    /**
+     * Whether a permission can be checked for each of the resources on the permission check pool.
+     *
+     * @param permission the permission
+     * @param resources the resources to check
+     * @return true if parallel checks are enabled, there are enough resources, and all checks are thread-safe
+     */
+    private static boolean canFilterInParallel(Class<? extends Annotation> permission,
+                                               List<PersistentResource> resources) {
+        if (resources.isEmpty()) {
+            return false;
+        }
+        RequestScope requestScope = resources.get(0).getRequestScope();
+        ElideSettings settings = requestScope.getElideSettings();
+        if (settings.getPermissionCheckPool() == null
+                || resources.size() < settings.getParallelPermissionCheckThreshold()) {
+            return false;
+        }
+        EntityDictionary dictionary = requestScope.getDictionary();
+        return resources.stream()
+                .map(PersistentResource::getResourceClass)
+                .distinct()
+                .allMatch(resourceClass -> dictionary.hasOnlyThreadSafeChecks(resourceClass, permission));
+    }
+
+    private static boolean isAllowed(Class<? extends Annotation> permission, PersistentResource resource) {
+        try {
+            resource.checkFieldAwarePermissions(permission);
+            return true;
+        } catch (ForbiddenAccessException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Filter a collection loaded from the data store by its read permission.
+     *
+     * @param loadClass the loaded class
+     * @param list the loaded objects
+     * @param requestScope the request scope
+     * @return Filtered set of resources
+     */
+    private static Set<PersistentResource> filterLoaded(Class<?> loadClass, Iterable list,
+                                                        RequestScope requestScope) {
+        Set<PersistentResource> loaded = new PersistentResourceSet(list, requestScope);
+        List<PersistentResource> candidates = new ArrayList<>();
+        loaded.forEach(candidates::add);
+        Set<PersistentResource> resources = filter(ReadPermission.class, candidates, false);
+        ElideSettings settings = requestScope.getElideSettings();
+        if (settings != null && settings.getMetrics() != null) {
+            settings.getMetrics().recordPostFilter(
+                    requestScope.getDictionary().getJsonAliasFor(loadClass), candidates.size(), resources.size());
+        }
+        return resources;
+    }
+
     /**
      * Filter a set of fields.
      *
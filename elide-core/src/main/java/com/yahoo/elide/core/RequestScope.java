@@ -19,6 +19,7 @@ import com.yahoo.elide.annotation.OnUpdatePostCommit;
 import com.yahoo.elide.annotation.OnUpdatePreCommit;
 import com.yahoo.elide.annotation.OnUpdatePreSecurity;
 import com.yahoo.elide.audit.AuditLogger;
+import com.yahoo.elide.audit.LogMessage;
 import com.yahoo.elide.core.exceptions.InternalServerErrorException;
 import com.yahoo.elide.core.exceptions.InvalidPredicateException;
 import com.yahoo.elide.core.filter.dialect.MultipleFilterDialect;
@@ -37,6 +38,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -59,6 +61,7 @@ public class RequestScope implements com.yahoo.elide.security.RequestScope {
     @Getter private final EntityDictionary dictionary;
     @Getter private final JsonApiMapper mapper;
     @Getter private final AuditLogger auditLogger;
+    @Getter private final List<LogMessage> auditMessages;
     @Getter private final Optional<MultivaluedMap<String, String>> queryParams;
     @Getter private final Map<String, Set<String>> sparseFields;
     @Getter private final Pagination pagination;
@@ -128,6 +131,7 @@ public class RequestScope implements com.yahoo.elide.security.RequestScope {
         this.dictionary = elideSettings.getDictionary();
         this.mapper = elideSettings.getMapper();
         this.auditLogger = elideSettings.getAuditLogger();
+        this.auditMessages = new ArrayList<>();
         this.filterDialect = new MultipleFilterDialect(elideSettings.getJoinFilterDialects(),
                 elideSettings.getSubqueryFilterDialects());
         this.elideSettings = elideSettings;
@@ -227,6 +231,7 @@ public class RequestScope implements com.yahoo.elide.security.RequestScope {
         this.dictionary = outerRequestScope.dictionary;
         this.mapper = outerRequestScope.mapper;
         this.auditLogger = outerRequestScope.auditLogger;
+        this.auditMessages = outerRequestScope.auditMessages;
         this.queryParams = Optional.empty();
         this.sparseFields = Collections.emptyMap();
         this.sorting = Sorting.getDefaultEmptyInstance();
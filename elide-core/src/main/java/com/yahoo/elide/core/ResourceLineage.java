@@ -5,26 +5,39 @@
  */
 package com.yahoo.elide.core;
 
-import org.apache.commons.collections4.map.LinkedMap;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Represents the path in an object relationship graph starting at an object
  * accessible from the root of the URL path and ending (exclusive) at this object.
  * These lineage paths are used for both security checks and audit logging.
+ *
+ * Lineages are immutable: an extended lineage only holds the new resource and points at the lineage it extends,
+ * so the resources along a path share their ancestors' lineage instead of copying it.
  */
 public class ResourceLineage {
-    private final LinkedMap<String, List<PersistentResource>> resourceMap;
+    /**
+     * Empty lineage shared by all resources rooted in the URL.
+     */
+    static final ResourceLineage EMPTY = new ResourceLineage();
+
+    private final ResourceLineage parent;
+    private final String alias;
+    private final PersistentResource resource;
 
     /**
      * Empty lineage for objects rooted in the URL.
      */
     public ResourceLineage() {
-        resourceMap = new LinkedMap<>();
+        this.parent = null;
+        this.alias = null;
+        this.resource = null;
     }
 
     /**
@@ -33,8 +46,7 @@ public class ResourceLineage {
      * @param next the next
      */
     public ResourceLineage(ResourceLineage sharedLineage, PersistentResource next) {
-        resourceMap = new LinkedMap<>(sharedLineage.resourceMap);
-        addRecord(next);
+        this(sharedLineage, next, next.getType());
     }
 
     /**
@@ -48,8 +60,9 @@ public class ResourceLineage {
      * @param nextAlias the next alias
      */
     public ResourceLineage(ResourceLineage sharedLineage, PersistentResource next, String nextAlias) {
-        resourceMap = new LinkedMap<>(sharedLineage.resourceMap);
-        addRecord(next, nextAlias);
+        this.parent = sharedLineage;
+        this.alias = nextAlias;
+        this.resource = next;
     }
 
     /**
@@ -59,8 +72,20 @@ public class ResourceLineage {
      * @return the record
      */
     public List<PersistentResource> getRecord(String name) {
-        List<PersistentResource> list = resourceMap.get(name);
-        return list == null ? Collections.emptyList() : list;
+        List<PersistentResource> list = null;
+        for (ResourceLineage node = this; node.resource != null; node = node.parent) {
+            if (node.alias.equals(name)) {
+                if (list == null) {
+                    list = new ArrayList<>(1);
+                }
+                list.add(node.resource);
+            }
+        }
+        if (list == null) {
+            return Collections.emptyList();
+        }
+        Collections.reverse(list);
+        return list;
     }
 
     /**
@@ -69,18 +94,19 @@ public class ResourceLineage {
      * @return the keys
      */
     public List<String> getKeys() {
-        return resourceMap.asList();
-    }
-
-    private void addRecord(PersistentResource latest) {
-        addRecord(latest, latest.getType());
+        List<String> aliases = new ArrayList<>();
+        for (ResourceLineage node = this; node.resource != null; node = node.parent) {
+            aliases.add(node.alias);
+        }
+        Collections.reverse(aliases);
+        Set<String> keys = new LinkedHashSet<>(aliases);
+        return new ArrayList<>(keys);
     }
 
     @Override
     public int hashCode() {
         return new HashCodeBuilder(13, 123)
             .append(getKeys())
-            .append(resourceMap.asList())
             .toHashCode();
     }
 
@@ -100,15 +126,4 @@ public class ResourceLineage {
         }
         return true;
     }
-
-    private void addRecord(PersistentResource latest, String alias) {
-        List<PersistentResource> resources;
-        if (resourceMap.containsKey(alias)) {
-            resources = resourceMap.get(alias);
-        } else {
-            resources = new ArrayList<>();
-            resourceMap.put(alias, resources);
-        }
-        resources.add(latest);
-    }
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.datastore.inmemory;
+
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.exceptions.TransactionException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Durability layer of the {@link InMemoryDataStore}: a write-ahead log of every commit plus periodic snapshots.
+ *
+ * A commit is applied and returns once its log record is forced to disk. A snapshot starts a new log segment,
+ * writes the objects as of that segment boundary and then deletes the older segments; recovery reads the snapshot
+ * and replays the segments written after it.
+ */
+@Slf4j
+class DurableStorage implements Closeable {
+    private static final String SNAPSHOT = "snapshot.bin";
+
+    private final Path directory;
+    private final EntityCodec codec;
+    private WriteAheadLog wal;
+    private ScheduledExecutorService scheduler;
+    private long snapshotted;
+
+    DurableStorage(Path directory, EntityDictionary dictionary) {
+        this.directory = directory;
+        this.codec = new EntityCodec(dictionary);
+    }
+
+    /**
+     * Read the last snapshot and replay the log written after it, then start a new log segment.
+     *
+     * @return the recovered objects with their relationships set, by type and the id they were logged with
+     * @throws IOException if the snapshot or the log cannot be read
+     */
+    Map<Pair<Class<?>, String>, Object> recover() throws IOException {
+        Files.createDirectories(directory);
+        Map<Pair<Class<?>, String>, EntityCodec.Decoded> state = new LinkedHashMap<>();
+        long firstSegment = SnapshotFile.read(directory.resolve(SNAPSHOT),
+                record -> codec.decodeEntity(record, state));
+        long lastSegment = WriteAheadLog.replay(directory, firstSegment,
+                record -> codec.decodeCommit(record, state));
+
+        wal = new WriteAheadLog(directory, lastSegment + 1);
+        // Left behind if the process stopped between writing a snapshot and deleting the log it covers
+        wal.deleteBefore(firstSegment);
+        return codec.link(state);
+    }
+
+    /**
+     * Log the writes of a transaction and apply them once they are durable.
+     *
+     * @param writes the new value of each touched object, null for deletions
+     * @param apply makes the writes visible; commits are applied in log order
+     * @throws TransactionException if the log cannot be written; the writes are not applied
+     */
+    void commit(Map<Pair<Class<?>, String>, Object> writes, Runnable apply) {
+        try {
+            wal.commit(codec.encodeCommit(writes), apply);
+        } catch (IOException e) {
+            throw new TransactionException(e);
+        }
+    }
+
+    /**
+     * Write a snapshot unless nothing was committed since the last one.
+     *
+     * @param boundary supplies the objects to write. It is called while no commit can be logged; the stream it
+     *                 returns is consumed and closed afterwards
+     * @throws IOException if the snapshot cannot be written
+     */
+    synchronized void snapshot(Supplier<Stream<Object>> boundary) throws IOException {
+        long appended = wal.getAppended();
+        if (appended == snapshotted) {
+            return;
+        }
+
+        AtomicReference<Stream<Object>> objects = new AtomicReference<>();
+        long firstSegment = wal.rotate(() -> objects.set(boundary.get()));
+        try (Stream<Object> stream = objects.get()) {
+            SnapshotFile.write(directory.resolve(SNAPSHOT), firstSegment,
+                    stream.map(codec::encodeEntity).iterator());
+        }
+        wal.deleteBefore(firstSegment);
+        snapshotted = appended;
+    }
+
+    /**
+     * Take snapshots in the background.
+     *
+     * @param interval the delay between snapshots
+     * @param boundary see {@link #snapshot}
+     */
+    void scheduleSnapshots(Duration interval, Supplier<Stream<Object>> boundary) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "elide-inmemory-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot(boundary);
+            } catch (IOException | RuntimeException e) {
+                log.error("Snapshot of {} failed", directory, e);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (wal != null) {
+            wal.close();
+        }
+    }
+}
@@ -0,0 +1,480 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.datastore.inmemory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.utils.coerce.CoerceUtil;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Binary encoding of entities for the write-ahead log and the snapshots of the {@link InMemoryDataStore}.
+ *
+ * An entity is written as its type alias, its id and its writable attributes by name; relationships are written
+ * as the ids of the related entities and linked again once every entity has been read. Strings, numbers, booleans,
+ * enums, dates, collections and maps have compact encodings; other attribute values are written as JSON.
+ */
+class EntityCodec {
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte BOOLEAN = 4;
+    private static final byte COLLECTION = 5;
+    private static final byte MAP = 6;
+    private static final byte JSON = 7;
+
+    private static final byte PUT = 0;
+    private static final byte DELETE = 1;
+
+    private static final byte NO_REFERENCE = 0;
+    private static final byte TO_ONE = 1;
+    private static final byte TO_MANY = 2;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final EntityDictionary dictionary;
+
+    /**
+     * An entity read back with its relationships still unresolved.
+     */
+    static final class Decoded {
+        private final Object entity;
+        private final Map<String, Object> references = new HashMap<>();
+
+        private Decoded(Object entity) {
+            this.entity = entity;
+        }
+    }
+
+    EntityCodec(EntityDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Encode the writes of a commit.
+     *
+     * @param writes the new value of each touched object, null for deletions
+     * @return the record
+     */
+    byte[] encodeCommit(Map<Pair<Class<?>, String>, Object> writes) {
+        return encode(out -> {
+            out.writeInt(writes.size());
+            for (Map.Entry<Pair<Class<?>, String>, Object> write : writes.entrySet()) {
+                if (write.getValue() == null) {
+                    out.writeByte(DELETE);
+                    out.writeUTF(dictionary.getJsonAliasFor(write.getKey().getLeft()));
+                    out.writeUTF(write.getKey().getRight());
+                } else {
+                    out.writeByte(PUT);
+                    writeEntity(out, write.getValue());
+                }
+            }
+        });
+    }
+
+    /**
+     * Apply a commit record to recovered state.
+     *
+     * @param record the record
+     * @param state the recovered entities by type and id
+     */
+    void decodeCommit(byte[] record, Map<Pair<Class<?>, String>, Decoded> state) {
+        decode(record, in -> {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                if (in.readByte() == DELETE) {
+                    Class<?> entityClass = dictionary.getEntityClass(in.readUTF());
+                    state.remove(Pair.of(entityClass, in.readUTF()));
+                } else {
+                    Decoded decoded = readEntity(in);
+                    state.put(getKey(decoded.entity), decoded);
+                }
+            }
+        });
+    }
+
+    byte[] encodeEntity(Object entity) {
+        return encode(out -> writeEntity(out, entity));
+    }
+
+    void decodeEntity(byte[] record, Map<Pair<Class<?>, String>, Decoded> state) {
+        decode(record, in -> {
+            Decoded decoded = readEntity(in);
+            state.put(getKey(decoded.entity), decoded);
+        });
+    }
+
+    /**
+     * Set the relationships of recovered entities. References to entities that no longer exist are dropped.
+     *
+     * @param state the recovered entities by type and id
+     * @return the linked entities by type and the id they were written with
+     */
+    Map<Pair<Class<?>, String>, Object> link(Map<Pair<Class<?>, String>, Decoded> state) {
+        Map<Pair<Class<?>, String>, Object> entities = new LinkedHashMap<>();
+        for (Map.Entry<Pair<Class<?>, String>, Decoded> entry : state.entrySet()) {
+            Decoded decoded = entry.getValue();
+            Class<?> entityClass = decoded.entity.getClass();
+            for (Map.Entry<String, Object> reference : decoded.references.entrySet()) {
+                Object value;
+                if (reference.getValue() instanceof List) {
+                    Collection<Object> related = newCollection(dictionary.getType(entityClass, reference.getKey()));
+                    for (Object key : (List<?>) reference.getValue()) {
+                        Decoded target = state.get(key);
+                        if (target != null) {
+                            related.add(target.entity);
+                        }
+                    }
+                    value = related;
+                } else {
+                    Decoded target = state.get(reference.getValue());
+                    value = target == null ? null : target.entity;
+                }
+                setValue(decoded.entity, reference.getKey(), value);
+            }
+            entities.put(entry.getKey(), decoded.entity);
+        }
+        return entities;
+    }
+
+    private void writeEntity(DataOutputStream out, Object entity) throws IOException {
+        Class<?> entityClass = entity.getClass();
+        out.writeUTF(dictionary.getJsonAliasFor(entityClass));
+        out.writeUTF(dictionary.getId(entity));
+
+        List<String> attributes = getWritable(entityClass, dictionary.getAttributes(entityClass));
+        out.writeShort(attributes.size());
+        for (String attribute : attributes) {
+            out.writeUTF(attribute);
+            writeValue(out, getValue(entity, attribute));
+        }
+
+        List<String> relationships = getWritable(entityClass, dictionary.getRelationships(entityClass));
+        out.writeShort(relationships.size());
+        for (String relationship : relationships) {
+            out.writeUTF(relationship);
+            Class<?> declared = dictionary.getParameterizedType(entityClass, relationship);
+            Object value = getValue(entity, relationship);
+            if (value instanceof Collection) {
+                Collection<?> related = (Collection<?>) value;
+                out.writeByte(TO_MANY);
+                out.writeInt(related.size());
+                for (Object target : related) {
+                    writeReference(out, declared, target);
+                }
+            } else if (value != null) {
+                out.writeByte(TO_ONE);
+                writeReference(out, declared, value);
+            } else {
+                out.writeByte(NO_REFERENCE);
+            }
+        }
+    }
+
+    /**
+     * The type alias is only written when the related entity is a subtype of the declared type.
+     */
+    private void writeReference(DataOutputStream out, Class<?> declared, Object target) throws IOException {
+        out.writeUTF(target.getClass() == declared ? "" : dictionary.getJsonAliasFor(target.getClass()));
+        out.writeUTF(dictionary.getId(target));
+    }
+
+    private Decoded readEntity(DataInputStream in) throws IOException {
+        Class<?> entityClass = dictionary.getEntityClass(in.readUTF());
+        String id = in.readUTF();
+        Object entity;
+        try {
+            entity = entityClass.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot instantiate " + entityClass.getName(), e);
+        }
+        setValue(entity, dictionary.getIdFieldName(entityClass),
+                CoerceUtil.coerce(id, dictionary.getIdType(entityClass)));
+        Decoded decoded = new Decoded(entity);
+
+        int attributes = in.readShort();
+        for (int i = 0; i < attributes; i++) {
+            String attribute = in.readUTF();
+            Object value = readValue(in);
+            // Attributes dropped from the model since the record was written are skipped
+            if (value != null && dictionary.isWritable(entityClass, attribute)) {
+                setValue(entity, attribute, toAttributeType(entityClass, attribute, value));
+            }
+        }
+
+        int relationships = in.readShort();
+        for (int i = 0; i < relationships; i++) {
+            String relationship = in.readUTF();
+            Class<?> declared = dictionary.getParameterizedType(entityClass, relationship);
+            byte kind = in.readByte();
+            Object references = null;
+            if (kind == TO_MANY) {
+                int size = in.readInt();
+                List<Pair<Class<?>, String>> targets = new ArrayList<>(size);
+                for (int j = 0; j < size; j++) {
+                    targets.add(readReference(in, declared));
+                }
+                references = targets;
+            } else if (kind == TO_ONE) {
+                references = readReference(in, declared);
+            }
+            if (references != null && dictionary.isWritable(entityClass, relationship)) {
+                decoded.references.put(relationship, references);
+            }
+        }
+        return decoded;
+    }
+
+    private Pair<Class<?>, String> readReference(DataInputStream in, Class<?> declared) throws IOException {
+        String alias = in.readUTF();
+        return Pair.of(alias.isEmpty() ? declared : dictionary.getEntityClass(alias), in.readUTF());
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (!writeScalar(out, value)) {
+            writeComposite(out, value);
+        }
+    }
+
+    private static void writeComposite(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof Collection) {
+            out.writeByte(COLLECTION);
+            out.writeInt(((Collection<?>) value).size());
+            for (Object element : (Collection<?>) value) {
+                writeValue(out, element);
+            }
+        } else if (value instanceof Map) {
+            out.writeByte(MAP);
+            out.writeInt(((Map<?, ?>) value).size());
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                writeValue(out, entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        } else {
+            byte[] json = MAPPER.writeValueAsBytes(value);
+            out.writeByte(JSON);
+            out.writeUTF(value.getClass().getName());
+            out.writeInt(json.length);
+            out.write(json);
+        }
+    }
+
+    /**
+     * Write a value of a type with a compact encoding.
+     *
+     * @return false if the value has no compact encoding and nothing was written
+     */
+    private static boolean writeScalar(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof String || value instanceof Character || value instanceof Enum) {
+            out.writeByte(STRING);
+            writeString(out, value instanceof Enum ? ((Enum<?>) value).name() : value.toString());
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte) {
+            out.writeByte(LONG);
+            out.writeLong(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Date) {
+            out.writeByte(LONG);
+            out.writeLong(((Date) value).getTime());
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(in);
+            case LONG:
+                return in.readLong();
+            case DOUBLE:
+                return in.readDouble();
+            case BOOLEAN:
+                return in.readBoolean();
+            case COLLECTION:
+                return readCollection(in);
+            case MAP:
+                return readMap(in);
+            case JSON:
+                return readJson(in);
+            default:
+                throw new IllegalStateException("Unknown value tag " + tag);
+        }
+    }
+
+    private static List<Object> readCollection(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<Object> elements = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            elements.add(readValue(in));
+        }
+        return elements;
+    }
+
+    private static Map<Object, Object> readMap(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        Map<Object, Object> entries = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            entries.put(readValue(in), readValue(in));
+        }
+        return entries;
+    }
+
+    private static Object readJson(DataInputStream in) throws IOException {
+        String className = in.readUTF();
+        byte[] json = new byte[in.readInt()];
+        in.readFully(json);
+        try {
+            return MAPPER.readValue(json, ClassUtils.getClass(className));
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Unknown attribute type " + className, e);
+        }
+    }
+
+    /**
+     * Attribute values may be longer than {@link DataOutputStream#writeUTF} allows.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decoded values only carry their encoding type; convert them back to the declared attribute type.
+     */
+    @SuppressWarnings("unchecked")
+    private Object toAttributeType(Class<?> entityClass, String attribute, Object value) {
+        Class<?> type = dictionary.getType(entityClass, attribute);
+        if (value instanceof List && Collection.class.isAssignableFrom(type)) {
+            Class<?> elementType = dictionary.getParameterizedType(entityClass, attribute);
+            Collection<Object> collection = newCollection(type);
+            for (Object element : (List<?>) value) {
+                collection.add(coerce(element, elementType));
+            }
+            return collection;
+        }
+        if (value instanceof Map && Map.class.isAssignableFrom(type)) {
+            Class<?> keyType = dictionary.getParameterizedType(entityClass, attribute, 0);
+            Class<?> valueType = dictionary.getParameterizedType(entityClass, attribute, 1);
+            Map<Object, Object> map = new LinkedHashMap<>();
+            ((Map<Object, Object>) value).forEach((k, v) -> map.put(coerce(k, keyType), coerce(v, valueType)));
+            return map;
+        }
+        return coerce(value, type);
+    }
+
+    private static Object coerce(Object value, Class<?> type) {
+        if (value == null || Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)) {
+            return value;
+        }
+        return CoerceUtil.coerce(value, type);
+    }
+
+    private static Collection<Object> newCollection(Class<?> type) {
+        if (SortedSet.class.isAssignableFrom(type)) {
+            return new TreeSet<>();
+        }
+        return Set.class.isAssignableFrom(type) ? new LinkedHashSet<>() : new ArrayList<>();
+    }
+
+    private List<String> getWritable(Class<?> entityClass, List<String> fields) {
+        List<String> writable = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            if (dictionary.isWritable(entityClass, field)) {
+                writable.add(field);
+            }
+        }
+        return writable;
+    }
+
+    private Pair<Class<?>, String> getKey(Object entity) {
+        return Pair.of(entity.getClass(), dictionary.getId(entity));
+    }
+
+    private Object getValue(Object entity, String field) {
+        try {
+            return dictionary.getValue(entity, field, null);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(e.getTargetException());
+        }
+    }
+
+    private void setValue(Object entity, String field, Object value) {
+        try {
+            dictionary.setValue(entity, field, value);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(e.getTargetException());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Reader {
+        void read(DataInputStream in) throws IOException;
+    }
+
+    private static byte[] encode(Writer writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void decode(byte[] record, Reader reader) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            reader.read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.datastore.inmemory;
+
+import com.yahoo.elide.core.filter.Operator;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Secondary index over one field of an entity type held by the {@link InMemoryDataStore}.
+ *
+ * Maps field values to the ids of the objects holding them. Null values are not indexed, so an index never answers
+ * predicates which match nulls. Candidates returned by an index are a superset of the matches at most: the
+ * transaction still evaluates the whole filter expression against them.
+ */
+public abstract class FieldIndex {
+    @Getter private final String field;
+
+    private final ConcurrentMap<Object, Set<String>> buckets;
+    private final ConcurrentHashMap<String, Object> indexedValues = new ConcurrentHashMap<>();
+
+    protected FieldIndex(String field, ConcurrentMap<Object, Set<String>> buckets) {
+        this.field = field;
+        this.buckets = buckets;
+    }
+
+    /**
+     * Index the current value of an object, replacing its previous value.
+     *
+     * @param id the object id
+     * @param value the field value, possibly null
+     */
+    public void update(String id, Object value) {
+        Object previous = value == null ? indexedValues.remove(id) : indexedValues.put(id, value);
+        if (previous != null) {
+            if (previous.equals(value)) {
+                return;
+            }
+            Set<String> ids = buckets.get(previous);
+            if (ids != null) {
+                ids.remove(id);
+            }
+        }
+        if (value != null) {
+            buckets.computeIfAbsent(value, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    /**
+     * Drop an object from the index.
+     *
+     * @param id the object id
+     */
+    public void remove(String id) {
+        update(id, null);
+    }
+
+    /**
+     * Look up the ids of the objects which may match a predicate on the indexed field.
+     *
+     * @param operator the predicate operator
+     * @param values the predicate values, coerced to the field type
+     * @return candidate ids, or empty if this index cannot answer the predicate
+     */
+    public Optional<Set<String>> lookup(Operator operator, List<Object> values) {
+        if (operator != Operator.IN || values.contains(null)) {
+            return Optional.empty();
+        }
+        if (values.size() == 1) {
+            return Optional.of(bucket(values.get(0)));
+        }
+        Set<String> ids = new HashSet<>();
+        values.forEach(value -> ids.addAll(bucket(value)));
+        return Optional.of(ids);
+    }
+
+    private Set<String> bucket(Object value) {
+        Set<String> ids = buckets.get(value);
+        return ids == null ? Collections.emptySet() : ids;
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.datastore.inmemory;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hash index answering IN (equality) predicates.
+ */
+public class HashIndex extends FieldIndex {
+    public HashIndex(String field) {
+        super(field, new ConcurrentHashMap<>());
+    }
+}
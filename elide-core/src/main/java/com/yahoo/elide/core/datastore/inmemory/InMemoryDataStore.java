@@ -16,21 +16,111 @@ import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
 
 import javax.persistence.Entity;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 /**
  * Simple in-memory only database.
+ *
+ * Filters are evaluated by scanning all objects of a type unless a secondary index is declared on a filtered field
+ * with {@link #withIndex(Class, FieldIndex)}. Transactions write straight into the shared maps unless snapshot
+ * isolation is turned on with {@link #withMvcc()}. Objects only live in memory unless a directory for a write-ahead
+ * log and snapshots is given with {@link #withDurability(Path)}.
  */
-public class InMemoryDataStore implements DataStore {
+public class InMemoryDataStore implements DataStore, Closeable {
+    public static final Duration DEFAULT_SNAPSHOT_INTERVAL = Duration.ofMinutes(5);
+
     private final ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, Object>> dataStore = new ConcurrentHashMap<>();
     @Getter private EntityDictionary dictionary;
     @Getter private final Package beanPackage;
+    private final ConcurrentHashMap<Class<?>, Map<String, FieldIndex>> indexes = new ConcurrentHashMap<>();
+    private MvccStore mvccStore;
+    private Path durableDirectory;
+    private Duration snapshotInterval;
+    private DurableStorage storage;
 
     public InMemoryDataStore(Package beanPackage) {
         this.beanPackage = beanPackage;
     }
 
+    /**
+     * Declare a secondary index on a field of an entity type.
+     * Indexes have to be declared before the first transaction commits objects of the type.
+     *
+     * @param entityClass the entity type
+     * @param index the index, e.g. {@link HashIndex} or {@link SortedIndex}
+     * @return this data store
+     */
+    public InMemoryDataStore withIndex(Class<?> entityClass, FieldIndex index) {
+        indexes.computeIfAbsent(entityClass, cls -> new ConcurrentHashMap<>()).put(index.getField(), index);
+        return this;
+    }
+
+    /**
+     * Keep multiple versions of every object: transactions read a snapshot taken when they begin, never block
+     * each other and publish their writes atomically. A commit touching an object that another transaction
+     * committed after the snapshot fails with a {@link com.yahoo.elide.core.exceptions.TransactionException}.
+     *
+     * @return this data store
+     */
+    public InMemoryDataStore withMvcc() {
+        mvccStore = new MvccStore();
+        return this;
+    }
+
+    /**
+     * Persist commits to a write-ahead log in a directory and snapshot the store every
+     * {@link #DEFAULT_SNAPSHOT_INTERVAL}. The store is recovered from the directory when the entity dictionary
+     * is populated.
+     *
+     * @param directory the directory for the log and the snapshots
+     * @return this data store
+     */
+    public InMemoryDataStore withDurability(Path directory) {
+        return withDurability(directory, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Persist commits to a write-ahead log in a directory. A commit returns once its log record is on disk;
+     * concurrent commits share one fsync. Snapshots bound the log that has to be replayed on recovery.
+     *
+     * @param directory the directory for the log and the snapshots
+     * @param snapshotInterval the delay between background snapshots, or null to only snapshot on {@link #snapshot()}
+     * @return this data store
+     */
+    public InMemoryDataStore withDurability(Path directory, Duration snapshotInterval) {
+        this.durableDirectory = directory;
+        this.snapshotInterval = snapshotInterval;
+        return this;
+    }
+
+    /**
+     * Write a snapshot of a durable store now. Without MVCC the objects are read while commits go on, so the
+     * snapshot may include some later changes; replaying the log written after it makes recovery exact either way.
+     *
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void snapshot() throws IOException {
+        if (storage == null) {
+            throw new IllegalStateException("Durability is not enabled");
+        }
+        storage.snapshot(this::streamSnapshot);
+    }
+
+    private Stream<Object> streamSnapshot() {
+        if (mvccStore != null) {
+            long version = mvccStore.pin();
+            return mvccStore.streamAll(version).onClose(() -> mvccStore.unpin(version));
+        }
+        return dataStore.values().stream().flatMap(objects -> objects.values().stream());
+    }
+
     @Override
     public void populateEntityDictionary(EntityDictionary dictionary) {
         Reflections reflections = new Reflections(new ConfigurationBuilder()
@@ -42,13 +132,61 @@ public class InMemoryDataStore implements DataStore {
                 .forEach((cls) -> {
                     dictionary.bindEntity(cls);
                     dataStore.put(cls, new ConcurrentHashMap<>());
+                    if (mvccStore != null) {
+                        mvccStore.register(cls);
+                    }
                 });
         this.dictionary = dictionary;
+
+        if (durableDirectory != null) {
+            recover();
+        }
+    }
+
+    private void recover() {
+        DurableStorage recovering = new DurableStorage(durableDirectory, dictionary);
+        try (InMemoryTransaction tx = newTransaction(false, null)) {
+            tx.restore(recovering.recover());
+            tx.commit(null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        storage = recovering;
+        if (snapshotInterval != null) {
+            storage.scheduleSnapshots(snapshotInterval, this::streamSnapshot);
+        }
     }
 
     @Override
     public DataStoreTransaction beginTransaction() {
-        return new InMemoryTransaction(dataStore, dictionary);
+        return newTransaction(false, storage);
+    }
+
+    @Override
+    public DataStoreTransaction beginReadTransaction() {
+        if (mvccStore != null) {
+            return newTransaction(true, storage);
+        }
+        return beginTransaction();
+    }
+
+    private InMemoryTransaction newTransaction(boolean readOnly, DurableStorage storage) {
+        if (mvccStore != null) {
+            return new MvccTransaction(mvccStore, dictionary, indexes, readOnly, storage);
+        }
+        return new InMemoryTransaction(dataStore, dictionary, indexes, storage);
+    }
+
+    /**
+     * Stop background snapshots and close the write-ahead log of a durable store.
+     *
+     * @throws IOException if the log cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (storage != null) {
+            storage.close();
+        }
     }
 
     @Override
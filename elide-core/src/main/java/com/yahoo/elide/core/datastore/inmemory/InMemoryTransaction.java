@@ -7,28 +7,42 @@ package com.yahoo.elide.core.datastore.inmemory;
 
 import com.yahoo.elide.core.DataStoreTransaction;
 import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.Path;
 import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.filter.FilterPredicate;
+import com.yahoo.elide.core.filter.expression.AndFilterExpression;
 import com.yahoo.elide.core.filter.expression.FilterExpression;
 import com.yahoo.elide.core.filter.expression.InMemoryFilterVisitor;
 import com.yahoo.elide.core.pagination.Pagination;
 import com.yahoo.elide.core.sort.Sorting;
 import com.yahoo.elide.utils.coerce.CoerceUtil;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.tuple.Pair;
 
 import javax.persistence.Id;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * InMemoryDataStore transaction handler.
@@ -36,15 +50,44 @@ import java.util.stream.Collectors;
 @Slf4j
 public class InMemoryTransaction implements DataStoreTransaction {
     private static final ConcurrentHashMap<Class<?>, AtomicLong> TYPEIDS = new ConcurrentHashMap<>();
+    private static final int HEAP_INITIAL_CAPACITY = 1024;
 
     private final ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, Object>> dataStore;
-    private final List<Operation> operations;
-    private final EntityDictionary dictionary;
+    protected final List<Operation> operations;
+    protected final EntityDictionary dictionary;
+    protected final Map<Class<?>, Map<String, FieldIndex>> indexes;
+    private final DurableStorage storage;
 
     public InMemoryTransaction(ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, Object>> dataStore,
                                EntityDictionary dictionary) {
+        this(dataStore, dictionary, Collections.emptyMap());
+    }
+
+    /**
+     * For transactions that keep objects elsewhere and override {@link #getObject}, {@link #streamObjects} and
+     * {@link #commit}.
+     *
+     * @param dictionary the entity dictionary
+     * @param indexes the secondary indexes by type and field
+     */
+    protected InMemoryTransaction(EntityDictionary dictionary, Map<Class<?>, Map<String, FieldIndex>> indexes) {
+        this(null, dictionary, indexes);
+    }
+
+    public InMemoryTransaction(ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, Object>> dataStore,
+                               EntityDictionary dictionary,
+                               Map<Class<?>, Map<String, FieldIndex>> indexes) {
+        this(dataStore, dictionary, indexes, null);
+    }
+
+    InMemoryTransaction(ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, Object>> dataStore,
+                        EntityDictionary dictionary,
+                        Map<Class<?>, Map<String, FieldIndex>> indexes,
+                        DurableStorage storage) {
         this.dataStore = dataStore;
         this.dictionary = dictionary;
+        this.indexes = indexes;
+        this.storage = storage;
         this.operations = new ArrayList<>();
     }
 
@@ -66,6 +109,15 @@ public class InMemoryTransaction implements DataStoreTransaction {
         operations.add(new Operation(id, object, object.getClass(), false));
     }
 
+    /**
+     * Queue recovered objects under the ids they were logged with. Unlike {@link #save}, this never assigns new ids.
+     *
+     * @param objects the objects by type and id
+     */
+    void restore(Map<Pair<Class<?>, String>, Object> objects) {
+        objects.forEach((key, object) -> operations.add(new Operation(key.getRight(), object, key.getLeft(), false)));
+    }
+
     @Override
     public void delete(Object object, RequestScope requestScope) {
         if (object == null) {
@@ -78,19 +130,38 @@ public class InMemoryTransaction implements DataStoreTransaction {
 
     @Override
     public void commit(RequestScope scope) {
+        Map<Pair<Class<?>, String>, Object> writes = getWrites();
+        operations.clear();
+        if (storage == null) {
+            apply(writes, scope);
+        } else if (!writes.isEmpty()) {
+            storage.commit(writes, () -> apply(writes, scope));
+        }
+    }
+
+    private void apply(Map<Pair<Class<?>, String>, Object> writes, RequestScope scope) {
+        writes.forEach((key, instance) -> {
+            ConcurrentHashMap<String, Object> data = dataStore.get(key.getLeft());
+            if (instance == null) {
+                data.remove(key.getRight());
+            } else {
+                data.put(key.getRight(), instance);
+            }
+            updateIndexes(key.getLeft(), key.getRight(), instance, scope);
+        });
+    }
+
+    /**
+     * Collapse the pending operations into the last write of each object.
+     *
+     * @return the new value of each touched object by type and id, null for deletions
+     */
+    protected Map<Pair<Class<?>, String>, Object> getWrites() {
+        Map<Pair<Class<?>, String>, Object> writes = new LinkedHashMap<>();
         operations.stream()
                 .filter(op -> op.getInstance() != null)
-                .forEach(op -> {
-                    Object instance = op.getInstance();
-                    String id = op.getId();
-                    ConcurrentHashMap<String, Object> data = dataStore.get(op.getType());
-                    if (op.getDelete()) {
-                        data.remove(id);
-                    } else {
-                        data.put(id, instance);
-                    }
-                });
-        operations.clear();
+                .forEach(op -> writes.put(Pair.of(op.getType(), op.getId()), op.getDelete() ? null : op.getInstance()));
+        return writes;
     }
 
     @Override
@@ -129,26 +200,222 @@ public class InMemoryTransaction implements DataStoreTransaction {
     @Override
     public Object loadObject(Class<?> entityClass, Serializable id,
                              Optional<FilterExpression> filterExpression, RequestScope scope) {
-        return dataStore.get(entityClass).get(id.toString());
+        return getObject(entityClass, id.toString());
+    }
+
+    /**
+     * Get a committed object.
+     *
+     * @param entityClass the object type
+     * @param id the object id
+     * @return the object, or null if there is none
+     */
+    protected Object getObject(Class<?> entityClass, String id) {
+        return dataStore.get(entityClass).get(id);
+    }
+
+    /**
+     * Stream all committed objects of a type.
+     *
+     * @param entityClass the object type
+     * @return the objects
+     */
+    protected Stream<Object> streamObjects(Class<?> entityClass) {
+        return dataStore.get(entityClass).values().stream();
     }
 
     @Override
     public Iterable<Object> loadObjects(Class<?> entityClass, Optional<FilterExpression> filterExpression,
                                         Optional<Sorting> sorting, Optional<Pagination> pagination,
                                         RequestScope scope) {
-        ConcurrentHashMap<String, Object> data = dataStore.get(entityClass);
+        Stream<Object> objects = streamObjects(entityClass);
 
         // Support for filtering
         if (filterExpression.isPresent()) {
             Predicate predicate = filterExpression.get().accept(new InMemoryFilterVisitor(scope));
-            return (Collection<Object>) data.values().stream()
-                    .filter(predicate::test)
+            Optional<Set<String>> candidates = lookupCandidates(entityClass, filterExpression.get());
+            if (candidates.isPresent()) {
+                objects = candidates.get().stream()
+                        .map(id -> getObject(entityClass, id))
+                        .filter(Objects::nonNull);
+            }
+            objects = objects.filter(predicate::test);
+        }
+
+        Optional<Comparator<Object>> comparator = sorting
+                .filter(s -> !s.isDefaultInstance())
+                .map(s -> getComparator(entityClass, s, scope));
+
+        if (pagination.isPresent()) {
+            return paginate(objects, comparator, pagination.get());
+        }
+        if (comparator.isPresent()) {
+            objects = objects.sorted(comparator.get());
+        }
+        return objects.collect(Collectors.toList());
+    }
+
+    /**
+     * Select one page of objects. With sorting only the first offset + limit objects are kept, in a bounded heap,
+     * and the total is counted while streaming instead of from a materialized list.
+     *
+     * @param objects the matching objects
+     * @param comparator the requested order, if any
+     * @param pagination the requested page
+     * @return the page
+     */
+    private static List<Object> paginate(Stream<Object> objects, Optional<Comparator<Object>> comparator,
+                                         Pagination pagination) {
+        int offset = pagination.getOffset();
+        int end = (int) Math.min((long) offset + pagination.getLimit(), Integer.MAX_VALUE);
+        long count = 0;
+        List<Object> page;
+
+        Iterator<Object> iterator = objects.iterator();
+        if (comparator.isPresent()) {
+            Comparator<Object> order = comparator.get();
+
+            // The head of the heap is the last of the objects kept so far
+            PriorityQueue<Object> heap = new PriorityQueue<>(Math.max(1, Math.min(end, HEAP_INITIAL_CAPACITY)),
+                    order.reversed());
+            while (iterator.hasNext()) {
+                Object object = iterator.next();
+                count++;
+                if (heap.size() < end) {
+                    heap.add(object);
+                } else if (end > 0 && order.compare(object, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(object);
+                }
+            }
+            List<Object> top = new ArrayList<>(heap);
+            top.sort(order);
+            page = top.subList(Math.min(offset, top.size()), top.size());
+        } else {
+            page = new ArrayList<>();
+            while (iterator.hasNext()) {
+                Object object = iterator.next();
+                if (count >= offset && count < end) {
+                    page.add(object);
+                }
+                count++;
+            }
+        }
+
+        if (pagination.isGenerateTotals()) {
+            pagination.setPageTotals(count);
+        }
+        return page;
+    }
+
+    /**
+     * Build a comparator over the valid sorting rules of a type.
+     *
+     * @param entityClass the type being sorted
+     * @param sorting the requested sorting
+     * @param scope the request scope
+     * @return comparator ordering nulls first
+     */
+    private Comparator<Object> getComparator(Class<?> entityClass, Sorting sorting, RequestScope scope) {
+        Comparator<Object> comparator = (left, right) -> 0;
+        for (Map.Entry<Path, Sorting.SortOrder> rule
+                : sorting.getValidSortingRules(entityClass, dictionary).entrySet()) {
+            Path path = rule.getKey();
+            List<Path.PathElement> elements = path.getPathElements();
+            Class<?> fieldType = ClassUtils.primitiveToWrapper(elements.get(elements.size() - 1).getFieldType());
+
+            Comparator<Object> values = Comparable.class.isAssignableFrom(fieldType)
+                    ? (left, right) -> ((Comparable) left).compareTo(right)
+                    : Comparator.comparing(String::valueOf);
+            Comparator<Object> byRule = Comparator.comparing(
+                    (Object entity) -> getPathValue(entity, path, scope), Comparator.nullsFirst(values));
+
+            comparator = comparator.thenComparing(
+                    rule.getValue() == Sorting.SortOrder.desc ? byRule.reversed() : byRule);
+        }
+        return comparator;
+    }
+
+    private Object getPathValue(Object entity, Path path, RequestScope scope) {
+        Object value = entity;
+        for (Path.PathElement element : path.getPathElements()) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                value = dictionary.getValue(value, element.getFieldName(), scope);
+            } catch (InvocationTargetException e) {
+                throw new IllegalStateException(e.getTargetException());
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Pick the most selective index answering one of the top level conjuncts of a filter expression.
+     *
+     * @param entityClass the type being loaded
+     * @param filterExpression the filter expression
+     * @return ids of the candidate objects, or empty if no index applies and the type has to be scanned
+     */
+    protected Optional<Set<String>> lookupCandidates(Class<?> entityClass, FilterExpression filterExpression) {
+        Map<String, FieldIndex> typeIndexes = indexes.get(entityClass);
+        if (typeIndexes == null || typeIndexes.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Optional<Set<String>> best = Optional.empty();
+        for (FilterPredicate predicate : getConjuncts(filterExpression, new ArrayList<>())) {
+            FieldIndex index = typeIndexes.get(predicate.getField());
+            if (index == null || predicate.getPath().size() != 1) {
+                continue;
+            }
+            Class<?> fieldType = dictionary.getType(entityClass, predicate.getField());
+            List<Object> values = predicate.getValues().stream()
+                    .map(value -> CoerceUtil.coerce(value, fieldType))
                     .collect(Collectors.toList());
+            Optional<Set<String>> ids = index.lookup(predicate.getOperator(), values);
+            if (ids.isPresent() && (!best.isPresent() || ids.get().size() < best.get().size())) {
+                best = ids;
+            }
+        }
+        return best;
+    }
+
+    private static List<FilterPredicate> getConjuncts(FilterExpression expression, List<FilterPredicate> conjuncts) {
+        if (expression instanceof AndFilterExpression) {
+            getConjuncts(((AndFilterExpression) expression).getLeft(), conjuncts);
+            getConjuncts(((AndFilterExpression) expression).getRight(), conjuncts);
+        } else if (expression instanceof FilterPredicate) {
+            conjuncts.add((FilterPredicate) expression);
         }
+        return conjuncts;
+    }
 
-        List<Object> results = new ArrayList<>();
-        data.forEachValue(1, results::add);
-        return results;
+    /**
+     * Bring the indexes of a type up to date with a committed object.
+     *
+     * @param entityClass the object type
+     * @param id the object id
+     * @param instance the committed object, or null if it was deleted
+     * @param scope the request scope
+     */
+    protected void updateIndexes(Class<?> entityClass, String id, Object instance, RequestScope scope) {
+        Map<String, FieldIndex> typeIndexes = indexes.get(entityClass);
+        if (typeIndexes == null) {
+            return;
+        }
+        for (FieldIndex index : typeIndexes.values()) {
+            if (instance == null) {
+                index.remove(id);
+                continue;
+            }
+            try {
+                index.update(id, dictionary.getValue(instance, index.getField(), scope));
+            } catch (InvocationTargetException e) {
+                throw new IllegalStateException(e.getTargetException());
+            }
+        }
     }
 
     @Override
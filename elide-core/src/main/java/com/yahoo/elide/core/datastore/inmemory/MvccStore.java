@@ -0,0 +1,246 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.datastore.inmemory;
+
+import com.yahoo.elide.core.exceptions.TransactionException;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Multi-version storage behind the MVCC mode of the {@link InMemoryDataStore}.
+ *
+ * Every object id maps to a chain of committed versions, newest first. A reader pins the last published version
+ * and resolves each chain to the newest version not after it, so it never blocks and never sees part of a commit.
+ * Writers are serialized only while committing: a commit fails if any id it touches was committed after its
+ * snapshot (first committer wins), otherwise it prepends its versions and publishes them with a single volatile
+ * write. Versions that no pinned snapshot can see any more are pruned by later commits.
+ */
+class MvccStore {
+    private final ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, Version>> chains = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, LongAdder> readers = new ConcurrentSkipListMap<>();
+    private final Set<Pair<Class<?>, String>> unpruned = new LinkedHashSet<>();
+    private final Set<Pair<Class<?>, String>> reserved = new HashSet<>();
+    private final Object commitLock = new Object();
+
+    private volatile long published;
+    private volatile long horizon;
+    private volatile long indexEpoch;
+
+    /**
+     * A committed version of an object. A null value marks a deletion.
+     */
+    private static final class Version {
+        private final long number;
+        private final Object value;
+        private volatile Version previous;
+
+        private Version(long number, Object value, Version previous) {
+            this.number = number;
+            this.value = value;
+            this.previous = previous;
+        }
+    }
+
+    void register(Class<?> entityClass) {
+        chains.putIfAbsent(entityClass, new ConcurrentHashMap<>());
+    }
+
+    boolean isRegistered(Class<?> entityClass) {
+        return chains.containsKey(entityClass);
+    }
+
+    /**
+     * Pin the last published version for a reader.
+     *
+     * Pruning publishes its horizon before it looks for pinned readers and a reader registers before it checks the
+     * horizon, so either the reader is seen or it retries on a newer version.
+     *
+     * @return the snapshot version
+     */
+    long pin() {
+        while (true) {
+            long version = published;
+            LongAdder pins = readers.computeIfAbsent(version, key -> new LongAdder());
+            pins.increment();
+            if (horizon <= version) {
+                return version;
+            }
+            pins.decrement();
+        }
+    }
+
+    void unpin(long version) {
+        LongAdder pins = readers.get(version);
+        if (pins != null) {
+            pins.decrement();
+        }
+    }
+
+    long getPublished() {
+        return published;
+    }
+
+    Object get(Class<?> entityClass, String id, long snapshot) {
+        return resolve(chains.get(entityClass).get(id), snapshot);
+    }
+
+    Stream<Object> stream(Class<?> entityClass, long snapshot) {
+        return chains.get(entityClass).values().stream()
+                .map(head -> resolve(head, snapshot))
+                .filter(Objects::nonNull);
+    }
+
+    Stream<Object> streamAll(long snapshot) {
+        return chains.keySet().stream().flatMap(entityClass -> stream(entityClass, snapshot));
+    }
+
+    /**
+     * Run an index lookup for a snapshot. Indexes only follow the last published version, so the lookup is only
+     * valid when no commit after the snapshot touched them; otherwise the caller has to scan.
+     *
+     * @param snapshot the snapshot version
+     * @param lookup the lookup
+     * @return a copy of the candidate ids, or empty
+     */
+    Optional<Set<String>> readIndexes(long snapshot, Supplier<Optional<Set<String>>> lookup) {
+        long epoch = indexEpoch;
+        if ((epoch & 1) != 0 || published != snapshot) {
+            return Optional.empty();
+        }
+        Optional<Set<String>> candidates = lookup.get().map(HashSet::new);
+        return indexEpoch == epoch ? candidates : Optional.empty();
+    }
+
+    /**
+     * Atomically publish the writes of a transaction.
+     *
+     * @param snapshot the snapshot version of the transaction
+     * @param writes the new value of each touched object, null for deletions
+     * @param indexUpdater brings the indexes up to date with a write
+     * @throws TransactionException if an object was committed by another transaction after the snapshot
+     */
+    void commit(long snapshot, Map<Pair<Class<?>, String>, Object> writes,
+                BiConsumer<Pair<Class<?>, String>, Object> indexUpdater) {
+        synchronized (commitLock) {
+            for (Pair<Class<?>, String> key : writes.keySet()) {
+                checkConflict(snapshot, key);
+            }
+
+            long next = published + 1;
+            indexEpoch++;
+            writes.forEach((key, value) -> {
+                chains.get(key.getLeft()).compute(key.getRight(), (id, head) -> new Version(next, value, head));
+                indexUpdater.accept(key, value);
+            });
+            published = next;
+            indexEpoch++;
+
+            unpruned.addAll(writes.keySet());
+            prune();
+        }
+    }
+
+    /**
+     * Reserve the objects of a commit while it is logged, so that a conflicting commit fails before it is logged.
+     * The reservation is released with {@link #release} once the commit is published or failed.
+     *
+     * @param snapshot the snapshot version of the transaction
+     * @param keys the objects the transaction writes
+     * @throws TransactionException if an object was committed after the snapshot or is reserved by another commit
+     */
+    void reserve(long snapshot, Set<Pair<Class<?>, String>> keys) {
+        synchronized (commitLock) {
+            for (Pair<Class<?>, String> key : keys) {
+                checkConflict(snapshot, key);
+                if (reserved.contains(key)) {
+                    throw conflict(key);
+                }
+            }
+            reserved.addAll(keys);
+        }
+    }
+
+    void release(Set<Pair<Class<?>, String>> keys) {
+        synchronized (commitLock) {
+            reserved.removeAll(keys);
+        }
+    }
+
+    private void checkConflict(long snapshot, Pair<Class<?>, String> key) {
+        Version head = chains.get(key.getLeft()).get(key.getRight());
+        if (head != null && head.number > snapshot) {
+            throw conflict(key);
+        }
+    }
+
+    private static TransactionException conflict(Pair<Class<?>, String> key) {
+        return new TransactionException(new IllegalStateException(
+                "Concurrent update of " + key.getLeft().getSimpleName() + " " + key.getRight()));
+    }
+
+    /**
+     * Drop the versions that are hidden from every pinned snapshot by a newer version.
+     */
+    private void prune() {
+        long current = published;
+        horizon = current;
+
+        long oldest = current;
+        Iterator<Map.Entry<Long, LongAdder>> pinned = readers.headMap(current).entrySet().iterator();
+        while (pinned.hasNext()) {
+            Map.Entry<Long, LongAdder> entry = pinned.next();
+            if (entry.getValue().sum() > 0) {
+                oldest = entry.getKey();
+                break;
+            }
+            readers.remove(entry.getKey(), entry.getValue());
+        }
+
+        Iterator<Pair<Class<?>, String>> keys = unpruned.iterator();
+        while (keys.hasNext()) {
+            Pair<Class<?>, String> key = keys.next();
+            ConcurrentHashMap<String, Version> chain = chains.get(key.getLeft());
+            Version head = chain.get(key.getRight());
+
+            Version visible = head;
+            while (visible != null && visible.number > oldest) {
+                visible = visible.previous;
+            }
+            if (visible == null) {
+                continue;
+            }
+            visible.previous = null;
+            if (visible == head) {
+                if (head.value == null) {
+                    chain.remove(key.getRight(), head);
+                }
+                keys.remove();
+            }
+        }
+    }
+
+    private static Object resolve(Version head, long snapshot) {
+        for (Version version = head; version != null; version = version.previous) {
+            if (version.number <= snapshot) {
+                return version.value;
+            }
+        }
+        return null;
+    }
+}
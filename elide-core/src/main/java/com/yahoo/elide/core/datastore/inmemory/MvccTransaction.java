@@ -0,0 +1,247 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.datastore.inmemory;
+
+import com.yahoo.elide.core.DataStoreTransaction;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.filter.expression.FilterExpression;
+import com.yahoo.elide.core.pagination.Pagination;
+import com.yahoo.elide.core.sort.Sorting;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Snapshot isolated transaction of the MVCC mode of the {@link InMemoryDataStore}.
+ *
+ * Reads see the objects committed when the transaction began; related objects are resolved by id in the same
+ * snapshot. Write transactions hand out private copies of the objects they read, so their changes stay invisible
+ * until commit publishes them atomically. Filters are evaluated against the snapshot, not against those copies.
+ * Read transactions share the committed objects and must not modify them.
+ */
+public class MvccTransaction extends InMemoryTransaction {
+    private final MvccStore store;
+    private final boolean readOnly;
+    private final DurableStorage storage;
+    private final Map<Pair<Class<?>, String>, Object> copies = new HashMap<>();
+    private long snapshot;
+    private boolean closed;
+
+    MvccTransaction(MvccStore store, EntityDictionary dictionary, Map<Class<?>, Map<String, FieldIndex>> indexes,
+                    boolean readOnly, DurableStorage storage) {
+        super(dictionary, indexes);
+        this.store = store;
+        this.readOnly = readOnly;
+        this.storage = storage;
+        this.snapshot = store.pin();
+    }
+
+    @Override
+    public void save(Object object, RequestScope requestScope) {
+        super.save(object, requestScope);
+        if (object != null) {
+            copies.put(getKey(object), object);
+        }
+    }
+
+    @Override
+    public void createObject(Object entity, RequestScope scope) {
+        super.createObject(entity, scope);
+        copies.put(getKey(entity), entity);
+    }
+
+    @Override
+    public void commit(RequestScope scope) {
+        Map<Pair<Class<?>, String>, Object> writes = getWrites();
+        operations.clear();
+
+        if (writes.isEmpty()) {
+            return;
+        }
+        Runnable publish = () -> store.commit(snapshot, writes,
+                (key, value) -> updateIndexes(key.getLeft(), key.getRight(), value, scope));
+        if (storage == null) {
+            publish.run();
+        } else {
+            // Conflicts are detected before the commit is logged, it is only published once it is durable
+            store.reserve(snapshot, writes.keySet());
+            try {
+                storage.commit(writes, publish);
+            } finally {
+                store.release(writes.keySet());
+            }
+        }
+
+        // Move on to a snapshot which includes our own writes
+        long previous = snapshot;
+        snapshot = store.pin();
+        store.unpin(previous);
+    }
+
+    @Override
+    public Object loadObject(Class<?> entityClass, Serializable id,
+                             Optional<FilterExpression> filterExpression, RequestScope scope) {
+        if (!readOnly) {
+            Object copy = copies.get(Pair.of(entityClass, id.toString()));
+            if (copy != null) {
+                return copy;
+            }
+        }
+        return toTransactionView(super.loadObject(entityClass, id, filterExpression, scope));
+    }
+
+    @Override
+    public Iterable<Object> loadObjects(Class<?> entityClass, Optional<FilterExpression> filterExpression,
+                                        Optional<Sorting> sorting, Optional<Pagination> pagination,
+                                        RequestScope scope) {
+        Iterable<Object> objects = super.loadObjects(entityClass, filterExpression, sorting, pagination, scope);
+        if (readOnly) {
+            return objects;
+        }
+        List<Object> views = new ArrayList<>();
+        objects.forEach(object -> views.add(toTransactionView(object)));
+        return views;
+    }
+
+    @Override
+    public Object getRelation(DataStoreTransaction relationTx, Object entity, String relationName,
+                              Optional<FilterExpression> filterExpression, Optional<Sorting> sorting,
+                              Optional<Pagination> pagination, RequestScope scope) {
+        Object value = super.getRelation(relationTx, entity, relationName, filterExpression, sorting, pagination,
+                scope);
+        if (value instanceof Collection) {
+            Stream<Object> related = ((Collection<?>) value).stream()
+                    .map(this::resolve)
+                    .filter(Objects::nonNull);
+            return value instanceof Set
+                    ? related.collect(Collectors.toCollection(LinkedHashSet::new))
+                    : related.collect(Collectors.toList());
+        }
+        return value == null ? null : resolve(value);
+    }
+
+    @Override
+    protected Object getObject(Class<?> entityClass, String id) {
+        return store.get(entityClass, id, snapshot);
+    }
+
+    @Override
+    protected Stream<Object> streamObjects(Class<?> entityClass) {
+        return store.stream(entityClass, snapshot);
+    }
+
+    @Override
+    protected Optional<Set<String>> lookupCandidates(Class<?> entityClass, FilterExpression filterExpression) {
+        return store.readIndexes(snapshot, () -> super.lookupCandidates(entityClass, filterExpression));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            store.unpin(snapshot);
+        }
+        super.close();
+    }
+
+    /**
+     * Resolve a related object to its version in this transaction.
+     */
+    private Object resolve(Object related) {
+        if (!store.isRegistered(related.getClass())) {
+            return related;
+        }
+        Pair<Class<?>, String> key = getKey(related);
+        if (!readOnly && copies.containsKey(key)) {
+            return copies.get(key);
+        }
+        return toTransactionView(store.get(key.getLeft(), key.getRight(), snapshot));
+    }
+
+    /**
+     * Write transactions work on private copies of the committed objects.
+     */
+    private Object toTransactionView(Object committed) {
+        if (readOnly || committed == null) {
+            return committed;
+        }
+        return copies.computeIfAbsent(getKey(committed), key -> copyOf(committed));
+    }
+
+    private Pair<Class<?>, String> getKey(Object object) {
+        return Pair.of(object.getClass(), dictionary.getId(object));
+    }
+
+    private Object copyOf(Object object) {
+        Class<?> entityClass = object.getClass();
+        Object copy = createNewObject(entityClass);
+        if (copy == null) {
+            throw new IllegalStateException("Cannot copy " + entityClass.getName());
+        }
+        try {
+            copyField(object, copy, dictionary.getIdFieldName(entityClass));
+            for (String field : dictionary.getAllFields(entityClass)) {
+                copyField(object, copy, field);
+            }
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(e.getTargetException());
+        }
+        return copy;
+    }
+
+    private void copyField(Object from, Object to, String field) throws InvocationTargetException {
+        if (dictionary.isWritable(from.getClass(), field)) {
+            dictionary.setValue(to, field, copyValue(dictionary.getValue(from, field, null)));
+        }
+    }
+
+    /**
+     * Collections and maps are copied so that the copy can be changed without touching the committed object.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object copyValue(Object value) {
+        if (value instanceof Collection) {
+            Collection<Object> copy = (Collection<Object>) newInstance(value);
+            if (copy == null) {
+                copy = value instanceof Set ? new LinkedHashSet<>() : new ArrayList<>();
+            }
+            copy.addAll((Collection<Object>) value);
+            return copy;
+        }
+        if (value instanceof Map) {
+            Map<Object, Object> copy = (Map<Object, Object>) newInstance(value);
+            if (copy == null) {
+                copy = new LinkedHashMap<>();
+            }
+            copy.putAll((Map<Object, Object>) value);
+            return copy;
+        }
+        return value;
+    }
+
+    private static Object newInstance(Object value) {
+        try {
+            return value.getClass().newInstance();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.datastore.inmemory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Memory mapped snapshot of the {@link InMemoryDataStore}: a header naming the first write-ahead log segment
+ * that is not covered by the snapshot, followed by one framed record per entity.
+ */
+final class SnapshotFile {
+    private static final int MAGIC = 0x454c4944;
+    private static final int VERSION = 1;
+    private static final int HEADER = 16;
+    private static final long REGION = 64L << 20;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Write a snapshot next to the target file and move it in place once it is durable.
+     *
+     * @param file the snapshot file
+     * @param firstSegment the first log segment to replay after this snapshot
+     * @param records the entity records
+     * @throws IOException if the snapshot cannot be written
+     */
+    static void write(Path file, long firstSegment, Iterator<byte[]> records) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long base = 0;
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE, base, REGION);
+            region.putInt(MAGIC).putInt(VERSION).putLong(firstSegment);
+
+            CRC32 crc = new CRC32();
+            while (records.hasNext()) {
+                byte[] record = records.next();
+                int length = WriteAheadLog.FRAME_HEADER + record.length;
+                if (region.remaining() < length) {
+                    region.force();
+                    base += region.position();
+                    region = channel.map(FileChannel.MapMode.READ_WRITE, base, Math.max(REGION, length));
+                }
+                crc.reset();
+                crc.update(record);
+                region.putInt(record.length).putInt((int) crc.getValue()).put(record);
+            }
+            region.force();
+
+            // Mapping grows the file by whole regions
+            channel.truncate(base + region.position());
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Read a snapshot.
+     *
+     * @param file the snapshot file
+     * @param handler receives the entity records
+     * @return the first log segment to replay after the snapshot, 0 if there is no snapshot
+     * @throws IOException if the snapshot cannot be read or is corrupt
+     */
+    static long read(Path file, Consumer<byte[]> handler) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER) {
+                throw new IOException("Corrupt snapshot " + file);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Unknown snapshot format " + file);
+            }
+            long firstSegment = header.getLong();
+            if (WriteAheadLog.readFrames(channel, HEADER, handler) != channel.size()) {
+                throw new IOException("Corrupt snapshot " + file);
+            }
+            return firstSegment;
+        }
+    }
+}
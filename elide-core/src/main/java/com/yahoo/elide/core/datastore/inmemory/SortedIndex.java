@@ -0,0 +1,74 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.datastore.inmemory;
+
+import com.yahoo.elide.core.filter.Operator;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Skip list index answering IN, range (LT, LE, GT, GE) and, on string fields, PREFIX predicates.
+ *
+ * The indexed field type must be {@link Comparable}.
+ */
+public class SortedIndex extends FieldIndex {
+    private final ConcurrentSkipListMap<Object, Set<String>> sorted;
+
+    public SortedIndex(String field) {
+        this(field, new ConcurrentSkipListMap<>());
+    }
+
+    private SortedIndex(String field, ConcurrentSkipListMap<Object, Set<String>> sorted) {
+        super(field, sorted);
+        this.sorted = sorted;
+    }
+
+    @Override
+    public Optional<Set<String>> lookup(Operator operator, List<Object> values) {
+        if (values.size() != 1 || values.get(0) == null) {
+            return super.lookup(operator, values);
+        }
+
+        Object value = values.get(0);
+        switch (operator) {
+            case LT:
+                return Optional.of(collect(sorted.headMap(value, false)));
+            case LE:
+                return Optional.of(collect(sorted.headMap(value, true)));
+            case GT:
+                return Optional.of(collect(sorted.tailMap(value, false)));
+            case GE:
+                return Optional.of(collect(sorted.tailMap(value, true)));
+            case PREFIX:
+                return value instanceof String ? Optional.of(prefix((String) value)) : Optional.empty();
+            default:
+                return super.lookup(operator, values);
+        }
+    }
+
+    private Set<String> prefix(String prefix) {
+        Set<String> ids = new HashSet<>();
+        for (Map.Entry<Object, Set<String>> entry : sorted.tailMap(prefix, true).entrySet()) {
+            if (!((String) entry.getKey()).startsWith(prefix)) {
+                break;
+            }
+            ids.addAll(entry.getValue());
+        }
+        return ids;
+    }
+
+    private static Set<String> collect(NavigableMap<Object, Set<String>> range) {
+        Set<String> ids = new HashSet<>();
+        range.values().forEach(ids::addAll);
+        return ids;
+    }
+}
@@ -0,0 +1,399 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.datastore.inmemory;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append only log of committed records, split into numbered segment files.
+ *
+ * Every record is framed by its length and CRC32. Appending only queues a record; {@link #sync} writes and forces
+ * everything queued so far, so concurrent committers share one fsync (group commit). The change a record describes
+ * is only published once the record is durable, in log order. A new segment is started when a snapshot is taken and
+ * the segments before it are deleted once the snapshot is durable.
+ *
+ * A failed write or fsync leaves the end of the segment in an unknown state, so the log fails every later record
+ * instead of appending after it.
+ */
+@Slf4j
+class WriteAheadLog implements Closeable {
+    static final int FRAME_HEADER = 8;
+    private static final int MAX_WINDOW = 1 << 30;
+
+    private static final String PREFIX = "wal-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final Object appendLock = new Object();
+    private final Object flushLock = new Object();
+    private final Object publishLock = new Object();
+
+    // Guarded by appendLock
+    private List<ByteBuffer> pending = new ArrayList<>();
+    private long appended;
+    private boolean rotating;
+
+    // Guarded by flushLock
+    private FileChannel segment;
+    private long segmentNumber;
+
+    private volatile long durable;
+    private volatile IOException failure;
+
+    // Guarded by publishLock
+    private long published;
+
+    WriteAheadLog(Path directory, long segmentNumber) throws IOException {
+        this.directory = directory;
+        this.segmentNumber = segmentNumber;
+        this.segment = open(segmentNumber);
+    }
+
+    /**
+     * Log a change and publish it once it is durable. Changes are published in log order, so the order in which
+     * they become visible matches the order in which they are replayed.
+     *
+     * @param record the record
+     * @param publish makes the change visible
+     * @throws IOException if the log cannot be written; the change is not published
+     */
+    void commit(byte[] record, Runnable publish) throws IOException {
+        long sequence = append(record);
+        boolean synced = false;
+        try {
+            sync(sequence);
+            synced = true;
+        } finally {
+            publish(sequence, synced ? publish : () -> { });
+        }
+    }
+
+    /**
+     * Queue a record.
+     *
+     * @param record the record
+     * @return the sequence number to {@link #sync} on
+     * @throws IOException if the log failed before
+     */
+    long append(byte[] record) throws IOException {
+        ByteBuffer frame = frame(record);
+        synchronized (appendLock) {
+            awaitRotation();
+            checkFailure();
+            pending.add(frame);
+            return ++appended;
+        }
+    }
+
+    /**
+     * Wait until a record is durable. The first waiter writes and forces every queued record on behalf of the
+     * others.
+     *
+     * @param sequence the sequence number of the record
+     * @throws IOException if the log cannot be written
+     */
+    void sync(long sequence) throws IOException {
+        if (durable >= sequence) {
+            return;
+        }
+        synchronized (flushLock) {
+            if (durable < sequence) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Wait for the records before a record to be published, then publish it.
+     */
+    private void publish(long sequence, Runnable publish) {
+        synchronized (publishLock) {
+            boolean interrupted = false;
+            while (published < sequence - 1) {
+                try {
+                    publishLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            try {
+                publish.run();
+            } finally {
+                published = sequence;
+                publishLock.notifyAll();
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void awaitPublished(long sequence) {
+        synchronized (publishLock) {
+            boolean interrupted = false;
+            while (published < sequence) {
+                try {
+                    publishLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Start a new segment. Queued records are flushed to the current segment first.
+     *
+     * New records are held back until the new segment is in place, but the flush lock is released while waiting for
+     * the records already logged to be published: their committers may still be waiting on it to sync.
+     *
+     * @param boundary runs while no record can be appended and once every logged change is published, so it sees
+     *                 exactly the changes logged before the new segment
+     * @return the number of the new segment
+     * @throws IOException if the log cannot be written
+     */
+    long rotate(Runnable boundary) throws IOException {
+        long last;
+        synchronized (appendLock) {
+            awaitRotation();
+            rotating = true;
+            last = appended;
+        }
+        try {
+            sync(last);
+            awaitPublished(last);
+            synchronized (flushLock) {
+                FileChannel next = open(segmentNumber + 1);
+                segment.close();
+                segment = next;
+                segmentNumber++;
+                boundary.run();
+                return segmentNumber;
+            }
+        } finally {
+            synchronized (appendLock) {
+                rotating = false;
+                appendLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Wait for a rotation in progress to finish. Must hold appendLock.
+     */
+    private void awaitRotation() {
+        boolean interrupted = false;
+        while (rotating) {
+            try {
+                appendLock.wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Delete the segments covered by a snapshot.
+     *
+     * @param segmentNumber the first segment to keep
+     * @throws IOException if a segment cannot be deleted
+     */
+    void deleteBefore(long segmentNumber) throws IOException {
+        for (Path file : listSegments(directory).headMap(segmentNumber).values()) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    long getAppended() {
+        synchronized (appendLock) {
+            return appended;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (flushLock) {
+            try {
+                flush();
+            } finally {
+                segment.close();
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        checkFailure();
+        List<ByteBuffer> batch;
+        long last;
+        synchronized (appendLock) {
+            batch = pending;
+            last = appended;
+            pending = new ArrayList<>();
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        ByteBuffer[] buffers = batch.toArray(new ByteBuffer[batch.size()]);
+        ByteBuffer tail = buffers[buffers.length - 1];
+        try {
+            while (tail.hasRemaining()) {
+                segment.write(buffers);
+            }
+            segment.force(false);
+        } catch (IOException e) {
+            // The records of this batch and every later one are failed rather than dropped
+            failure = e;
+            throw e;
+        }
+        durable = last;
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("The write-ahead log failed before", failure);
+        }
+    }
+
+    private FileChannel open(long number) throws IOException {
+        return FileChannel.open(directory.resolve(PREFIX + number + SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    static ByteBuffer frame(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER + record.length);
+        frame.putInt(record.length).putInt((int) crc.getValue()).put(record);
+        frame.flip();
+        return frame;
+    }
+
+    /**
+     * Read the record of the frame at the position of a buffer and move past it.
+     *
+     * @param buffer the buffer
+     * @return the record, or null if the buffer ends in a torn or corrupt frame
+     */
+    static byte[] unframe(ByteBuffer buffer) {
+        if (buffer.remaining() < FRAME_HEADER) {
+            return null;
+        }
+        int start = buffer.position();
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (length < 0 || buffer.remaining() < length) {
+            buffer.position(start);
+            return null;
+        }
+        byte[] record = new byte[length];
+        buffer.get(record);
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        if ((int) crc.getValue() != checksum) {
+            buffer.position(start);
+            return null;
+        }
+        return record;
+    }
+
+    /**
+     * Replay the records of every segment from a given one on. A torn write at the end of the last segment, left
+     * by a crash during a commit that was never acknowledged, is cut off.
+     *
+     * @param directory the log directory
+     * @param fromSegment the first segment to replay
+     * @param handler receives the records in log order
+     * @return the number of the last segment, or fromSegment - 1 if there is none
+     * @throws IOException if a segment cannot be read or is corrupt before its end
+     */
+    static long replay(Path directory, long fromSegment, Consumer<byte[]> handler) throws IOException {
+        TreeMap<Long, Path> segments = listSegments(directory);
+        long last = fromSegment - 1;
+        for (Map.Entry<Long, Path> entry : segments.tailMap(fromSegment).entrySet()) {
+            last = entry.getKey();
+            try (FileChannel channel = FileChannel.open(entry.getValue(),
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long end = readFrames(channel, 0, handler);
+                if (end < channel.size()) {
+                    if (!entry.getKey().equals(segments.lastKey())) {
+                        throw new IOException("Corrupt record in " + entry.getValue() + " at " + end);
+                    }
+                    log.warn("Truncating torn record at {} of {}", end, entry.getValue());
+                    channel.truncate(end);
+                }
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Read the frames of a file through memory mapped windows.
+     *
+     * @param channel the file
+     * @param start the position of the first frame
+     * @param handler receives the records
+     * @return the position after the last intact frame
+     * @throws IOException if the file cannot be read
+     */
+    static long readFrames(FileChannel channel, long start, Consumer<byte[]> handler) throws IOException {
+        long size = channel.size();
+        long position = start;
+        while (position < size) {
+            long length = Math.min(size - position, MAX_WINDOW);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            byte[] record;
+            while ((record = unframe(window)) != null) {
+                handler.accept(record);
+            }
+            boolean lastWindow = position + length == size;
+            if (!lastWindow && window.position() == 0) {
+                // No frame is ever larger than a window
+                return position;
+            }
+            position += window.position();
+            if (lastWindow) {
+                return position;
+            }
+        }
+        return position;
+    }
+
+    private static TreeMap<Long, Path> listSegments(Path directory) throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.startsWith(PREFIX) && name.endsWith(SUFFIX)) {
+                    segments.put(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())),
+                            file);
+                }
+            });
+        }
+        return segments;
+    }
+}
@@ -6,6 +6,7 @@
 package com.yahoo.elide.core.filter;
 
 import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.Path;
 import com.yahoo.elide.core.RelationshipType;
 import com.yahoo.elide.core.RequestScope;
 import com.yahoo.elide.core.exceptions.InvalidOperatorNegationException;
@@ -23,6 +24,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * Predicate class.
@@ -74,6 +76,16 @@ public class FilterPredicate implements FilterExpression, Function<RequestScope,
         this.values = values;
     }
 
+    public FilterPredicate(Path path, Operator op) {
+        this(path, op, Collections.emptyList());
+    }
+
+    public FilterPredicate(Path path, Operator op, List<Object> values) {
+        this(path.getPathElements().stream()
+                .map(element -> new PathElement(element.getType(), element.getFieldType(), element.getFieldName()))
+                .collect(Collectors.toList()), op, values);
+    }
+
     public FilterPredicate(FilterPredicate copy) {
         this.path = new ArrayList<>(copy.getPath());
         this.operator = copy.getOperator();
@@ -99,11 +111,24 @@ public class FilterPredicate implements FilterExpression, Function<RequestScope,
     /**
      * Get a unique name for this predicate to be used as a parameter name.
      * @return unique name
+     * @deprecated the name depends on the predicate values, so queries built with it cannot be reused; use
+     *             {@link #getParameterName(int)}
      */
+    @Deprecated
     public String getParameterName() {
         return getFieldPath().replace(PERIOD, UNDERSCORE) + UNDERSCORE + Integer.toHexString(hashCode());
     }
 
+    /**
+     * Get a name for this predicate to be used as a parameter name which depends only on the predicate path and
+     * its position in the enclosing filter expression, so equally shaped filters produce identical queries.
+     * @param position position of the predicate in the enclosing filter expression
+     * @return positional name
+     */
+    public String getParameterName(int position) {
+        return getFieldPath().replace(PERIOD, UNDERSCORE) + UNDERSCORE + position;
+    }
+
     /**
      * Returns an alias that uniquely identifies the last collection of entities in the path.
      * @return An alias for the path.
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.pagination;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.Path;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.exceptions.InvalidValueException;
+import com.yahoo.elide.core.filter.FilterPredicate;
+import com.yahoo.elide.core.filter.Operator;
+import com.yahoo.elide.core.filter.expression.AndFilterExpression;
+import com.yahoo.elide.core.filter.expression.FilterExpression;
+import com.yahoo.elide.core.filter.expression.OrFilterExpression;
+import com.yahoo.elide.core.sort.Sorting;
+import com.yahoo.elide.utils.coerce.CoerceUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keyset (seek) pagination over the active sort order.
+ *
+ * A cursor holds the sort key values of one record followed by its id, which breaks ties. The page after a cursor
+ * is selected with a predicate like {@code (a > :a) OR (a = :a AND id > :id)} that is added to the request filters,
+ * so a data store that can filter, sort and limit serves any page without reading the records before it.
+ * Records with a null sort key value cannot be seeked past on that key.
+ */
+public class KeysetCursor {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<Path, Sorting.SortOrder> keys;
+    private final List<Object> values;
+    private final boolean before;
+
+    private KeysetCursor(Map<Path, Sorting.SortOrder> keys, List<Object> values, boolean before) {
+        this.keys = keys;
+        this.values = values;
+        this.before = before;
+    }
+
+    /**
+     * Decode the page[after] or page[before] cursor of a request.
+     *
+     * @param pagination the evaluated pagination
+     * @param entityClass the type being paginated
+     * @param sorting the requested sort order
+     * @param dictionary the entity dictionary
+     * @return the cursor, or empty if the request is not keyset paginated
+     * @throws InvalidValueException if the cursor does not match the sort order
+     */
+    public static Optional<KeysetCursor> fromPagination(Pagination pagination, Class<?> entityClass,
+                                                        Optional<Sorting> sorting, EntityDictionary dictionary) {
+        if (!pagination.isKeyset()) {
+            return Optional.empty();
+        }
+
+        boolean before = pagination.getBefore().isPresent();
+        String cursor = before ? pagination.getBefore().get() : pagination.getAfter().get();
+        Map<Path, Sorting.SortOrder> keys = getKeys(entityClass, sorting, dictionary);
+
+        List<?> encoded = decode(cursor);
+        if (encoded.size() != keys.size()) {
+            throw new InvalidValueException("Pagination cursor does not match the sort order");
+        }
+
+        List<Object> values = new ArrayList<>(keys.size());
+        int index = 0;
+        for (Path path : keys.keySet()) {
+            Path.PathElement last = path.getPathElements().get(path.getPathElements().size() - 1);
+            values.add(CoerceUtil.coerce(encoded.get(index++), last.getFieldType()));
+        }
+        return Optional.of(new KeysetCursor(keys, values, before));
+    }
+
+    /**
+     * Build the cursor for a record.
+     *
+     * @param entity the record
+     * @param entityClass the type being paginated
+     * @param sorting the requested sort order
+     * @param requestScope the request scope
+     * @return the opaque cursor
+     */
+    public static String encode(Object entity, Class<?> entityClass, Optional<Sorting> sorting,
+                                RequestScope requestScope) {
+        List<Object> values = new ArrayList<>();
+        for (Path path : getKeys(entityClass, sorting, requestScope.getDictionary()).keySet()) {
+            values.add(Operator.getFieldValue(entity, path.getFieldPath(), requestScope));
+        }
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(values));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<?> decode(String cursor) {
+        try {
+            return MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), List.class);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidValueException("Invalid pagination cursor");
+        }
+    }
+
+    /**
+     * The sort keys of a keyset page: the requested sort order with the id appended as tie breaker.
+     */
+    private static Map<Path, Sorting.SortOrder> getKeys(Class<?> entityClass, Optional<Sorting> sorting,
+                                                       EntityDictionary dictionary) {
+        Map<Path, Sorting.SortOrder> keys = new LinkedHashMap<>();
+        if (sorting.isPresent() && !sorting.get().isDefaultInstance()) {
+            keys.putAll(sorting.get().getValidSortingRules(entityClass, dictionary));
+        }
+        String idFieldName = dictionary.getIdFieldName(entityClass);
+        if (keys.keySet().stream().noneMatch(path -> path.getFieldPath().equals(idFieldName))) {
+            keys.put(new Path(entityClass, dictionary, idFieldName), Sorting.SortOrder.asc);
+        }
+        return keys;
+    }
+
+    /**
+     * Whether the page ends before the cursor, i.e. the data store reads in the reverse sort order.
+     *
+     * @return true for page[before]
+     */
+    public boolean isBefore() {
+        return before;
+    }
+
+    /**
+     * The order the data store has to read records in: the sort keys, reversed for page[before].
+     *
+     * @return sorting to push down to the data store
+     */
+    public Sorting getSorting() {
+        Map<String, Sorting.SortOrder> rules = new LinkedHashMap<>();
+        keys.forEach((path, order) -> rules.put(path.getFieldPath(), before ? reverse(order) : order));
+        return new Sorting(rules);
+    }
+
+    /**
+     * The seek predicate selecting the records past the cursor in the read order.
+     *
+     * @return filter expression
+     */
+    public FilterExpression getSeekPredicate() {
+        FilterExpression seek = null;
+        FilterExpression equal = null;
+        int index = 0;
+        for (Map.Entry<Path, Sorting.SortOrder> key : keys.entrySet()) {
+            Path path = key.getKey();
+            Object value = values.get(index++);
+
+            if (value != null) {
+                boolean ascending = (key.getValue() == Sorting.SortOrder.asc) != before;
+                FilterExpression past = new FilterPredicate(path, ascending ? Operator.GT : Operator.LT,
+                        Collections.singletonList(value));
+                if (equal != null) {
+                    past = new AndFilterExpression(equal, past);
+                }
+                seek = seek == null ? past : new OrFilterExpression(seek, past);
+            }
+
+            FilterExpression same = value == null
+                    ? new FilterPredicate(path, Operator.ISNULL)
+                    : new FilterPredicate(path, Operator.IN, Collections.singletonList(value));
+            equal = equal == null ? same : new AndFilterExpression(equal, same);
+        }
+        return seek == null ? new FilterPredicate(keys.keySet().iterator().next(), Operator.FALSE) : seek;
+    }
+
+    /**
+     * Add the seek predicate to the filters of a request.
+     *
+     * @param filterExpression the request filters
+     * @return the combined filter expression
+     */
+    public Optional<FilterExpression> withSeekPredicate(Optional<FilterExpression> filterExpression) {
+        FilterExpression seek = getSeekPredicate();
+        return Optional.of(filterExpression.<FilterExpression>map(fe -> new AndFilterExpression(fe, seek))
+                .orElse(seek));
+    }
+
+    /**
+     * Put records read by the data store back into the requested sort order.
+     *
+     * @param records records in read order
+     * @param <T> record type
+     * @return records in the requested order
+     */
+    public <T> Iterable<T> order(Iterable<T> records) {
+        if (!before) {
+            return records;
+        }
+        List<T> reversed = new ArrayList<>();
+        records.forEach(reversed::add);
+        Collections.reverse(reversed);
+        return reversed;
+    }
+
+    private static Sorting.SortOrder reverse(Sorting.SortOrder order) {
+        return order == Sorting.SortOrder.asc ? Sorting.SortOrder.desc : Sorting.SortOrder.asc;
+    }
+}
@@ -12,8 +12,11 @@ import lombok.Getter;
 import lombok.ToString;
 
 import javax.ws.rs.core.MultivaluedMap;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -25,7 +28,7 @@ public class Pagination {
     /**
      * Denotes the internal field names for paging.
      */
-    public enum PaginationKey { offset, number, size, limit, totals }
+    public enum PaginationKey { offset, number, size, limit, totals, after, before }
 
     public static final int DEFAULT_OFFSET = 0;
     public static final int DEFAULT_PAGE_LIMIT = 500;
@@ -46,6 +49,15 @@ public class Pagination {
     // For requesting total pages/records be included in the response page meta data
     public static final String PAGE_TOTALS_KEY = "page[totals]";
 
+    // page[totals] value that accepts estimated totals from data stores that can estimate cheaply
+    public static final String APPROXIMATE_TOTALS = "approximate";
+
+    // For requesting the page of records that follow a cursor (keyset pagination)
+    public static final String PAGE_AFTER_KEY = "page[after]";
+
+    // For requesting the page of records that precede a cursor (keyset pagination)
+    public static final String PAGE_BEFORE_KEY = "page[before]";
+
     public static final Map<String, PaginationKey> PAGE_KEYS = new HashMap<>();
     static {
         PAGE_KEYS.put(PAGE_NUMBER_KEY, PaginationKey.number);
@@ -53,15 +65,22 @@ public class Pagination {
         PAGE_KEYS.put(PAGE_OFFSET_KEY, PaginationKey.offset);
         PAGE_KEYS.put(PAGE_LIMIT_KEY, PaginationKey.limit);
         PAGE_KEYS.put(PAGE_TOTALS_KEY, PaginationKey.totals);
+        PAGE_KEYS.put(PAGE_AFTER_KEY, PaginationKey.after);
+        PAGE_KEYS.put(PAGE_BEFORE_KEY, PaginationKey.before);
     }
 
     private long pageTotals = 0;
 
+    private boolean approximatePageTotals;
+
     private static final String PAGE_KEYS_CSV = PAGE_KEYS.keySet().stream().collect(Collectors.joining(", "));
 
     // For holding the page query parameters until they can be evaluated
     private Map<PaginationKey, Integer> pageData;
 
+    // The opaque page[after] / page[before] cursors
+    private final Map<PaginationKey, String> cursors = new EnumMap<>(PaginationKey.class);
+
     @Getter
     private int offset;
 
@@ -71,6 +90,12 @@ public class Pagination {
     @Getter
     private boolean generateTotals;
 
+    @Getter
+    private boolean approximateTotalsAllowed;
+
+    @Getter
+    private Paginate.TotalsStrategy totalsStrategy = Paginate.TotalsStrategy.QUERY;
+
     private final int defaultMaxPageSize;
     private final int defaultPageSize;
 
@@ -91,6 +116,7 @@ public class Pagination {
                                               ElideSettings elideSettings)
             throws InvalidValueException {
         final Map<PaginationKey, Integer> pageData = new HashMap<>();
+        final Map<PaginationKey, String> cursors = new HashMap<>();
         queryParams.entrySet()
                 .forEach(paramEntry -> {
                     final String queryParamKey = paramEntry.getKey();
@@ -98,8 +124,15 @@ public class Pagination {
                         PaginationKey paginationKey = PAGE_KEYS.get(queryParamKey);
                         if (paginationKey.equals(PaginationKey.totals)) {
                             // page[totals] is a valueless parameter, use value of 0 just so that its presence can
-                            // be recorded in the map
+                            // be recorded in the map, or 1 for page[totals]=approximate
+                            List<String> values = paramEntry.getValue();
+                            boolean approximate = values != null && values.contains(APPROXIMATE_TOTALS);
+                            pageData.put(paginationKey, approximate ? 1 : 0);
+                        } else if (paginationKey.equals(PaginationKey.after)
+                                || paginationKey.equals(PaginationKey.before)) {
+                            // cursors are opaque strings, record their presence like page[totals]
                             pageData.put(paginationKey, 0);
+                            cursors.put(paginationKey, paramEntry.getValue().get(0));
                         } else {
                             final String value = paramEntry.getValue().get(0);
                             try {
@@ -117,6 +150,7 @@ public class Pagination {
         // Decidedly default settings until evaluate is called (a call to evaluate from the datastore will update this):
         Pagination result = new Pagination(pageData,
                 elideSettings.getDefaultMaxPageSize(), elideSettings.getDefaultPageSize());
+        result.cursors.putAll(cursors);
         result.offset = 0;
         result.limit = elideSettings.getDefaultPageSize();
         return result;
@@ -128,6 +162,24 @@ public class Pagination {
      */
     public void setPageTotals(long total) {
         this.pageTotals = total;
+        this.approximatePageTotals = false;
+    }
+
+    /**
+     * Sets an estimate of the total number of records for the paginated query.
+     * @param estimate the estimated number of records
+     */
+    public void setApproximatePageTotals(long estimate) {
+        this.pageTotals = estimate;
+        this.approximatePageTotals = true;
+    }
+
+    /**
+     * Whether the page totals are an estimate.
+     * @return true if the totals were estimated
+     */
+    public boolean isApproximatePageTotals() {
+        return approximatePageTotals;
     }
 
     /**
@@ -138,6 +190,33 @@ public class Pagination {
         return pageTotals;
     }
 
+    /**
+     * Whether the page is selected with a page[after] or page[before] cursor instead of an offset.
+     *
+     * @return true for keyset pagination
+     */
+    public boolean isKeyset() {
+        return !cursors.isEmpty();
+    }
+
+    /**
+     * Fetches the page[after] cursor.
+     *
+     * @return the cursor of the record the page starts after, if any
+     */
+    public Optional<String> getAfter() {
+        return Optional.ofNullable(cursors.get(PaginationKey.after));
+    }
+
+    /**
+     * Fetches the page[before] cursor.
+     *
+     * @return the cursor of the record the page ends before, if any
+     */
+    public Optional<String> getBefore() {
+        return Optional.ofNullable(cursors.get(PaginationKey.before));
+    }
+
     /**
      * Evaluates the pagination variables for default limits.
      *
@@ -159,13 +238,20 @@ public class Pagination {
         }
 
         generateTotals = pageData.containsKey(PaginationKey.totals);
+        approximateTotalsAllowed = generateTotals && pageData.get(PaginationKey.totals) == 1;
 
         return this;
     }
 
     private boolean hasInvalidCombination(Map<PaginationKey, Integer> pageData) {
-        return (pageData.containsKey(PaginationKey.size) || pageData.containsKey(PaginationKey.number))
-                && (pageData.containsKey(PaginationKey.limit) || pageData.containsKey(PaginationKey.offset));
+        boolean keyset = pageData.containsKey(PaginationKey.after) || pageData.containsKey(PaginationKey.before);
+        return ((pageData.containsKey(PaginationKey.size) || pageData.containsKey(PaginationKey.number))
+                && (pageData.containsKey(PaginationKey.limit) || pageData.containsKey(PaginationKey.offset)))
+                // a cursor replaces the offset, and totals would count the records after the cursor only
+                || (keyset && (pageData.containsKey(PaginationKey.number)
+                        || pageData.containsKey(PaginationKey.offset)
+                        || pageData.containsKey(PaginationKey.totals)))
+                || (pageData.containsKey(PaginationKey.after) && pageData.containsKey(PaginationKey.before));
     }
 
     private void pageByOffset(int defaultLimit, int maxLimit) {
@@ -215,6 +301,8 @@ public class Pagination {
         evaluate(defaultLimit, maxLimit);
 
         generateTotals = generateTotals && (paginate == null || paginate.countable());
+        approximateTotalsAllowed = approximateTotalsAllowed && generateTotals;
+        totalsStrategy = paginate != null ? paginate.totalsStrategy() : Paginate.TotalsStrategy.QUERY;
 
         return this;
     }
@@ -12,6 +12,7 @@ import lombok.ToString;
 
 import javax.ws.rs.core.MultivaluedMap;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -106,6 +107,14 @@ public class Sorting {
         return true;
     }
 
+    /**
+     * Get the requested sort rules, as field path to sort order, in request order.
+     * @return unmodifiable sort rules
+     */
+    public Map<String, SortOrder> getSortRules() {
+        return Collections.unmodifiableMap(sortRules);
+    }
+
     /**
      * Informs if the structure is default instance.
      * @return true if this instance is empty - no sorting rules
@@ -5,15 +5,19 @@
  */
 package com.yahoo.elide.jsonapi;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.POJONode;
 import com.yahoo.elide.core.EntityDictionary;
 import com.yahoo.elide.jsonapi.models.JsonApiDocument;
 import com.yahoo.elide.jsonapi.models.Patch;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 /**
@@ -64,6 +68,31 @@ public class JsonApiMapper {
         return mapper.convertValue(jsonApiDocument, JsonNode.class);
     }
 
+    /**
+     * Wrap a document as a json node without converting it to a tree. The document is only serialized when
+     * the node is written, so resources are converted one at a time as they are written.
+     *
+     * @param jsonApiDocument the json api document
+     * @return the json node
+     */
+    public JsonNode toLazyJsonObject(JsonApiDocument jsonApiDocument) {
+        return new POJONode(jsonApiDocument);
+    }
+
+    /**
+     * Write json api document directly to an output stream.
+     *
+     * @param node the node
+     * @param outputStream the output stream; it is flushed but not closed
+     * @throws IOException the io exception
+     */
+    public void writeJsonApiDocument(JsonNode node, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            mapper.writeTree(generator, node);
+        }
+    }
+
     /**
      * Write json api document.
      *
@@ -5,19 +5,26 @@
  */
 package com.yahoo.elide.jsonapi.document.processors;
 
-import com.google.common.collect.Lists;
 import com.yahoo.elide.core.PersistentResource;
 import com.yahoo.elide.jsonapi.models.JsonApiDocument;
 
 import javax.ws.rs.core.MultivaluedMap;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 /**
  * A Document Processor that add requested relations to the include block of the JsonApiDocument.
+ *
+ * Relations are loaded one include level at a time for all resources of that level, and then added to the
+ * document in the same order as walking each resource's include paths depth first.
  */
 public class IncludedProcessor implements DocumentProcessor {
     private static final String RELATION_PATH_DELIMITER = "\\.";
@@ -32,7 +39,8 @@ public class IncludedProcessor implements DocumentProcessor {
     public void execute(JsonApiDocument jsonApiDocument, PersistentResource resource,
                         Optional<MultivaluedMap<String, String>> queryParams) {
         if (isPresent(queryParams, INCLUDE)) {
-            addIncludedResources(jsonApiDocument, resource, queryParams.get().get(INCLUDE));
+            addIncludedResources(jsonApiDocument, Collections.singletonList(resource),
+                    queryParams.get().get(INCLUDE));
         }
     }
 
@@ -44,27 +52,56 @@ public class IncludedProcessor implements DocumentProcessor {
     public void execute(JsonApiDocument jsonApiDocument, Set<PersistentResource> resources,
                         Optional<MultivaluedMap<String, String>> queryParams) {
         if (isPresent(queryParams, INCLUDE)) {
-
-            // Process include for each resource
-            resources.forEach(resource ->
-                    addIncludedResources(jsonApiDocument, resource, queryParams.get().get(INCLUDE)));
+            addIncludedResources(jsonApiDocument, resources, queryParams.get().get(INCLUDE));
         }
     }
 
     /**
      * Adds the requested relation resources to the included block of the JsonApiDocument.
      */
-    private void addIncludedResources(JsonApiDocument jsonApiDocument, PersistentResource rec,
+    private void addIncludedResources(JsonApiDocument jsonApiDocument, Collection<PersistentResource> records,
             List<String> requestedRelationPaths) {
-        // Process each include relation path
+        List<List<String>> relationPaths = new ArrayList<>();
+        IncludeNode includeTree = new IncludeNode();
         requestedRelationPaths.forEach(pathParam -> {
-            List<String> pathList = Arrays.asList(pathParam.split(RELATION_PATH_SEPARATOR));
-
-            pathList.forEach(requestedRelationPath -> {
-                List<String> relationPath = Lists.newArrayList(requestedRelationPath.split(RELATION_PATH_DELIMITER));
-                addResourcesForPath(jsonApiDocument, rec, relationPath);
+            Arrays.stream(pathParam.split(RELATION_PATH_SEPARATOR)).forEach(requestedRelationPath -> {
+                List<String> relationPath = Arrays.asList(requestedRelationPath.split(RELATION_PATH_DELIMITER));
+                relationPaths.add(relationPath);
+                includeTree.add(relationPath);
             });
         });
+
+        Map<PersistentResource, Map<String, Set<PersistentResource>>> loaded = new IdentityHashMap<>();
+        loadRelations(records, includeTree, loaded);
+
+        // Process each include relation path
+        for (PersistentResource rec : records) {
+            for (List<String> relationPath : relationPaths) {
+                addResourcesForPath(jsonApiDocument, rec, relationPath, 0, loaded);
+            }
+        }
+    }
+
+    /**
+     * Loads the relations of one include level for all resources at that level, then descends a level.
+     */
+    private void loadRelations(Collection<PersistentResource> records, IncludeNode node,
+                               Map<PersistentResource, Map<String, Set<PersistentResource>>> loaded) {
+        node.children.forEach((relation, child) -> {
+            Map<PersistentResource, Set<PersistentResource>> relations =
+                    PersistentResource.getRelationsCheckedFiltered(records, relation);
+
+            List<PersistentResource> nextLevel = new ArrayList<>();
+            for (PersistentResource rec : records) {
+                Set<PersistentResource> related = relations.get(rec);
+                loaded.computeIfAbsent(rec, key -> new LinkedHashMap<>()).put(relation, related);
+                nextLevel.addAll(related);
+            }
+
+            if (!child.children.isEmpty() && !nextLevel.isEmpty()) {
+                loadRelations(nextLevel, child, loaded);
+            }
+        });
     }
 
     /**
@@ -72,18 +109,16 @@ public class IncludedProcessor implements DocumentProcessor {
      * JsonApiDocument.
      */
     private void addResourcesForPath(JsonApiDocument jsonApiDocument, PersistentResource<?> rec,
-                                     List<String> relationPath) {
-
-        //Pop off a relation of relation path
-        String relation = relationPath.remove(0);
+                                     List<String> relationPath, int depth,
+                                     Map<PersistentResource, Map<String, Set<PersistentResource>>> loaded) {
+        String relation = relationPath.get(depth);
 
-        rec.getRelationCheckedFiltered(relation).forEach(resource -> {
+        loaded.get(rec).get(relation).forEach(resource -> {
             jsonApiDocument.addIncluded(resource.toResource());
 
             //If more relations left in the path, process a level deeper
-            if (!relationPath.isEmpty()) {
-                //Use a copy of the relationPath to preserve the path for remaining branches of the relationship tree
-                addResourcesForPath(jsonApiDocument, resource, new ArrayList<>(relationPath));
+            if (depth + 1 < relationPath.size()) {
+                addResourcesForPath(jsonApiDocument, resource, relationPath, depth + 1, loaded);
             }
         });
     }
@@ -91,4 +126,18 @@ public class IncludedProcessor implements DocumentProcessor {
     private static boolean isPresent(Optional<MultivaluedMap<String, String>> queryParams, String key) {
         return queryParams.isPresent() && queryParams.get().get(key) != null;
     }
+
+    /**
+     * Include paths merged into a tree, so shared prefixes are loaded once.
+     */
+    private static class IncludeNode {
+        private final Map<String, IncludeNode> children = new LinkedHashMap<>();
+
+        private void add(List<String> relationPath) {
+            IncludeNode node = this;
+            for (String relation : relationPath) {
+                node = node.children.computeIfAbsent(relation, key -> new IncludeNode());
+            }
+        }
+    }
 }
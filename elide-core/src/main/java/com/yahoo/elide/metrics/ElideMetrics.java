@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.metrics;
+
+import com.yahoo.elide.security.checks.Check;
+import com.yahoo.elide.security.permissions.ExpressionResult;
+import com.yahoo.elide.security.permissions.UserCheckCache;
+
+/**
+ * Receives the timings and counts of request processing.
+ *
+ * Calls are made on the request thread, from many requests at once, so implementations must be thread safe and
+ * cheap. Every method does nothing by default.
+ */
+public interface ElideMetrics {
+
+    /**
+     * Records nothing.
+     */
+    ElideMetrics NONE = new ElideMetrics() { };
+
+    /**
+     * The phases of a request, in the order they run.
+     */
+    enum Phase {
+        /** Starting the transaction and resolving the user. */
+        BEGIN,
+        /** Reading the request body and parsing the path. */
+        PARSE,
+        /** Walking the path: loading, creating, updating and deleting resources and their inline checks. */
+        LOAD,
+        PRE_COMMIT,
+        PRE_SECURITY_TRIGGERS,
+        COMMIT_CHECKS,
+        SAVE,
+        FLUSH,
+        /** Building and serializing the response document. */
+        RESPONSE,
+        PRE_COMMIT_TRIGGERS,
+        AUDIT,
+        COMMIT,
+        POST_COMMIT_TRIGGERS
+    }
+
+    /**
+     * The data store calls that are counted. Attribute reads and writes are not, they happen for every field.
+     */
+    enum Operation {
+        LOAD_OBJECT,
+        LOAD_OBJECTS,
+        GET_RELATION,
+        GET_RELATION_IDS,
+        GET_RELATIONS,
+        UPDATE_RELATION,
+        CREATE_OBJECT,
+        SAVE,
+        DELETE
+    }
+
+    /**
+     * A phase of a request completed.
+     *
+     * @param method the HTTP method
+     * @param type the type of the collection the path starts at, null if it does not start at one
+     * @param phase the phase
+     * @param nanos the time spent in the phase
+     */
+    default void recordPhase(String method, String type, Phase phase, long nanos) {
+    }
+
+    /**
+     * A request completed.
+     *
+     * @param method the HTTP method
+     * @param type the type of the collection the path starts at, null if it does not start at one
+     * @param status the response status
+     * @param nanos the time spent in the request
+     */
+    default void recordRequest(String method, String type, int status, long nanos) {
+    }
+
+    /**
+     * A data store call returned.
+     *
+     * @param operation the call
+     * @param type the type of the loaded or written objects, or of the owner of a relationship
+     * @param nanos the time spent in the call; for lazily loaded results only the time to return them
+     */
+    default void recordDataStoreCall(Operation operation, String type, long nanos) {
+    }
+
+    /**
+     * A permission check was evaluated. Results served from the per request cache are not recorded.
+     *
+     * @param check the check
+     * @param result the result, PASS or FAIL
+     * @param nanos the time spent in the check
+     */
+    default void recordPermissionCheck(Class<? extends Check> check, ExpressionResult result, long nanos) {
+    }
+
+    /**
+     * A user check result was looked up in the cross request {@link UserCheckCache}.
+     *
+     * @param check the check
+     * @param hit whether a result was found
+     */
+    default void recordUserCheckCacheLookup(Class<? extends Check> check, boolean hit) {
+    }
+
+    /**
+     * The read permission of a type was translated into a data store filter.
+     *
+     * @param type the type being loaded
+     * @param pushedDown whether any part of the permission could be pushed to the data store
+     */
+    default void recordReadPermissionFilter(String type, boolean pushedDown) {
+    }
+
+    /**
+     * A collection loaded from the data store was filtered in memory by its read permission.
+     *
+     * @param type the type of the collection
+     * @param loaded the number of objects the data store returned
+     * @param kept the number of objects that passed the read permission
+     */
+    default void recordPostFilter(String type, int loaded, int kept) {
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.metrics;
+
+import com.yahoo.elide.core.DataStoreTransaction;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.filter.expression.FilterExpression;
+import com.yahoo.elide.core.pagination.Pagination;
+import com.yahoo.elide.core.sort.Sorting;
+import com.yahoo.elide.metrics.ElideMetrics.Operation;
+import com.yahoo.elide.security.User;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Transaction that counts and times the data store calls of the transaction it wraps.
+ *
+ * Relationship calls pass the wrapped transaction on as the relationship's transaction, so data stores that compare
+ * transactions by identity see their own.
+ */
+public class MeteredTransaction implements DataStoreTransaction {
+    private final DataStoreTransaction tx;
+    private final ElideMetrics metrics;
+    private final EntityDictionary dictionary;
+
+    public MeteredTransaction(DataStoreTransaction tx, ElideMetrics metrics, EntityDictionary dictionary) {
+        this.tx = tx;
+        this.metrics = metrics;
+        this.dictionary = dictionary;
+    }
+
+    public DataStoreTransaction getWrappedTransaction() {
+        return tx;
+    }
+
+    @Override
+    public User accessUser(Object opaqueUser) {
+        return tx.accessUser(opaqueUser);
+    }
+
+    @Override
+    public void save(Object entity, RequestScope scope) {
+        long start = System.nanoTime();
+        tx.save(entity, scope);
+        record(Operation.SAVE, entity.getClass(), start);
+    }
+
+    @Override
+    public void delete(Object entity, RequestScope scope) {
+        long start = System.nanoTime();
+        tx.delete(entity, scope);
+        record(Operation.DELETE, entity.getClass(), start);
+    }
+
+    @Override
+    public void flush(RequestScope scope) {
+        tx.flush(scope);
+    }
+
+    @Override
+    public void commit(RequestScope scope) {
+        tx.commit(scope);
+    }
+
+    @Override
+    public void preCommit() {
+        tx.preCommit();
+    }
+
+    @Override
+    public void createObject(Object entity, RequestScope scope) {
+        long start = System.nanoTime();
+        tx.createObject(entity, scope);
+        record(Operation.CREATE_OBJECT, entity.getClass(), start);
+    }
+
+    @Override
+    public <T> T createNewObject(Class<T> entityClass) {
+        return tx.createNewObject(entityClass);
+    }
+
+    @Override
+    public Object loadObject(Class<?> entityClass, Serializable id, Optional<FilterExpression> filterExpression,
+                             RequestScope scope) {
+        long start = System.nanoTime();
+        Object object = tx.loadObject(entityClass, id, filterExpression, scope);
+        record(Operation.LOAD_OBJECT, entityClass, start);
+        return object;
+    }
+
+    @Override
+    public Iterable<Object> loadObjects(Class<?> entityClass, Optional<FilterExpression> filterExpression,
+                                        Optional<Sorting> sorting, Optional<Pagination> pagination,
+                                        RequestScope scope) {
+        long start = System.nanoTime();
+        Iterable<Object> objects = tx.loadObjects(entityClass, filterExpression, sorting, pagination, scope);
+        record(Operation.LOAD_OBJECTS, entityClass, start);
+        return objects;
+    }
+
+    @Override
+    public Object getRelation(DataStoreTransaction relationTx, Object entity, String relationName,
+                              Optional<FilterExpression> filterExpression, Optional<Sorting> sorting,
+                              Optional<Pagination> pagination, RequestScope scope) {
+        long start = System.nanoTime();
+        Object relation = tx.getRelation(unwrap(relationTx), entity, relationName, filterExpression, sorting,
+                pagination, scope);
+        record(Operation.GET_RELATION, entity.getClass(), start);
+        return relation;
+    }
+
+    @Override
+    public Collection<Object> getRelationIds(DataStoreTransaction relationTx, Object entity, String relationName,
+                                             Optional<FilterExpression> filterExpression, RequestScope scope) {
+        long start = System.nanoTime();
+        Collection<Object> ids = tx.getRelationIds(unwrap(relationTx), entity, relationName, filterExpression,
+                scope);
+        record(Operation.GET_RELATION_IDS, entity.getClass(), start);
+        return ids;
+    }
+
+    @Override
+    public Map<Object, Object> getRelations(DataStoreTransaction relationTx, Collection<?> entities,
+                                            String relationName, Optional<FilterExpression> filterExpression,
+                                            RequestScope scope) {
+        long start = System.nanoTime();
+        Map<Object, Object> relations = tx.getRelations(unwrap(relationTx), entities, relationName,
+                filterExpression, scope);
+        if (!entities.isEmpty()) {
+            record(Operation.GET_RELATIONS, entities.iterator().next().getClass(), start);
+        }
+        return relations;
+    }
+
+    @Override
+    public void updateToManyRelation(DataStoreTransaction relationTx, Object entity, String relationName,
+                                     Set<Object> newRelationships, Set<Object> deletedRelationships,
+                                     RequestScope scope) {
+        long start = System.nanoTime();
+        tx.updateToManyRelation(unwrap(relationTx), entity, relationName, newRelationships, deletedRelationships,
+                scope);
+        record(Operation.UPDATE_RELATION, entity.getClass(), start);
+    }
+
+    @Override
+    public void updateToOneRelation(DataStoreTransaction relationTx, Object entity, String relationName,
+                                    Object relationshipValue, RequestScope scope) {
+        long start = System.nanoTime();
+        tx.updateToOneRelation(unwrap(relationTx), entity, relationName, relationshipValue, scope);
+        record(Operation.UPDATE_RELATION, entity.getClass(), start);
+    }
+
+    @Override
+    public Object getAttribute(Object entity, String attributeName, RequestScope scope) {
+        return tx.getAttribute(entity, attributeName, scope);
+    }
+
+    @Override
+    public void setAttribute(Object entity, String attributeName, Object attributeValue, RequestScope scope) {
+        tx.setAttribute(entity, attributeName, attributeValue, scope);
+    }
+
+    @Override
+    public void close() throws IOException {
+        tx.close();
+    }
+
+    private DataStoreTransaction unwrap(DataStoreTransaction relationTx) {
+        return relationTx == this ? tx : relationTx;
+    }
+
+    private void record(Operation operation, Class<?> entityClass, long start) {
+        metrics.recordDataStoreCall(operation, dictionary.getJsonAliasFor(entityClass), System.nanoTime() - start);
+    }
+}
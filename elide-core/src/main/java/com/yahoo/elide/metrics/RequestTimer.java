@@ -0,0 +1,53 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.metrics;
+
+/**
+ * Times the phases of one request. Each lap records the time since the previous one, so phases are recorded in
+ * the order they run and a phase that is skipped costs nothing.
+ */
+public class RequestTimer {
+    private final ElideMetrics metrics;
+    private final String method;
+    private final String type;
+    private final long start;
+    private long lap;
+
+    /**
+     * Start timing a request.
+     *
+     * @param metrics the metrics to record to
+     * @param method the HTTP method
+     * @param type the type of the collection the path starts at, null if it does not start at one
+     */
+    public RequestTimer(ElideMetrics metrics, String method, String type) {
+        this.metrics = metrics;
+        this.method = method;
+        this.type = type;
+        this.start = System.nanoTime();
+        this.lap = start;
+    }
+
+    /**
+     * Record a phase that ended now.
+     *
+     * @param phase the phase
+     */
+    public void lap(ElideMetrics.Phase phase) {
+        long now = System.nanoTime();
+        metrics.recordPhase(method, type, phase, now - lap);
+        lap = now;
+    }
+
+    /**
+     * Record the whole request.
+     *
+     * @param status the response status
+     */
+    public void stop(int status) {
+        metrics.recordRequest(method, type, status, System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.parsers;
+
+import com.yahoo.elide.generated.parsers.CoreParser;
+import com.yahoo.elide.generated.parsers.CoreParser.EntityContext;
+import com.yahoo.elide.generated.parsers.CoreParser.IdContext;
+import com.yahoo.elide.generated.parsers.CoreParser.QueryContext;
+import com.yahoo.elide.generated.parsers.CoreParser.RelationshipContext;
+import com.yahoo.elide.generated.parsers.CoreParser.RootCollectionContext;
+import com.yahoo.elide.generated.parsers.CoreParser.RootCollectionLoadEntitiesContext;
+import com.yahoo.elide.generated.parsers.CoreParser.RootCollectionLoadEntityContext;
+import com.yahoo.elide.generated.parsers.CoreParser.RootCollectionRelationshipContext;
+import com.yahoo.elide.generated.parsers.CoreParser.RootCollectionSubCollectionContext;
+import com.yahoo.elide.generated.parsers.CoreParser.StartContext;
+import com.yahoo.elide.generated.parsers.CoreParser.SubCollectionContext;
+import com.yahoo.elide.generated.parsers.CoreParser.SubCollectionReadCollectionContext;
+import com.yahoo.elide.generated.parsers.CoreParser.SubCollectionReadEntityContext;
+import com.yahoo.elide.generated.parsers.CoreParser.SubCollectionRelationshipContext;
+import com.yahoo.elide.generated.parsers.CoreParser.SubCollectionSubCollectionContext;
+import com.yahoo.elide.generated.parsers.CoreParser.TermContext;
+import org.antlr.v4.runtime.CommonToken;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNodeImpl;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A reusable plan for one URL shape, e.g. {@code book/{id}/authors}: which segments are terms, which are id slots,
+ * and which grammar alternative applies at each level.
+ *
+ * The shape of a JSON API path depends only on how many segments it has and where the {@code relationships}
+ * keyword is, so plans are cached by those two numbers and the cache is bounded by {@link #MAX_SEGMENTS}.
+ * {@link #parse(String)} tokenizes the common shapes by hand and binds them into the same parse tree
+ * {@link CoreParser} would produce. Anything unusual is left to the ANTLR parser.
+ */
+public final class RoutePlan {
+    /** Paths with more segments than this always go through ANTLR. */
+    public static final int MAX_SEGMENTS = 32;
+
+    private static final String RELATIONSHIPS = "relationships";
+    private static final String SEPARATOR = "/";
+    private static final ConcurrentHashMap<Integer, RoutePlan> PLANS = new ConcurrentHashMap<>();
+
+    /**
+     * Grammar alternative taken at one level of the path.
+     */
+    enum Step {
+        /** {@code term}: read a collection. */
+        COLLECTION,
+        /** {@code term/id}: read a single record. */
+        RECORD,
+        /** {@code term/id/relationships/term}: read relationship linkage. */
+        RELATIONSHIP,
+        /** {@code term/id/...}: descend into a sub-collection. */
+        SUB_COLLECTION
+    }
+
+    private final Step[] steps;
+
+    private RoutePlan(Step[] steps) {
+        this.steps = steps;
+    }
+
+    /**
+     * Parse a request path into a parse tree without running the ANTLR lexer and parser.
+     *
+     * @param path request path
+     * @return parse tree, or null if the path is not a shape handled here and should be parsed by ANTLR
+     */
+    public static ParseTree parse(String path) {
+        String[] segments = tokenize(path);
+        if (segments == null) {
+            return null;
+        }
+        RoutePlan plan = planFor(segments);
+        return plan == null ? null : plan.bind(segments);
+    }
+
+    /**
+     * Split a path into segments, normalizing it the way {@link java.nio.file.Path#normalize()} would.
+     *
+     * @param path request path
+     * @return segments, or null if the path needs the full parser (dot segments, reserved characters, too long)
+     */
+    static String[] tokenize(String path) {
+        if (path == null) {
+            return null;
+        }
+
+        int length = path.length();
+        int count = 0;
+        boolean inSegment = false;
+        for (int i = 0; i < length; i++) {
+            char c = path.charAt(i);
+            if (c == '/') {
+                inSegment = false;
+            } else if (!isUnreserved(c)) {
+                return null;
+            } else if (!inSegment) {
+                inSegment = true;
+                count++;
+            }
+        }
+        if (count == 0 || count > MAX_SEGMENTS) {
+            return null;
+        }
+
+        String[] segments = new String[count];
+        int index = 0;
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || path.charAt(i) == '/') {
+                if (start >= 0) {
+                    String segment = path.substring(start, i);
+                    if (".".equals(segment) || "..".equals(segment)) {
+                        return null;
+                    }
+                    segments[index++] = segment;
+                    start = -1;
+                }
+            } else if (start < 0) {
+                start = i;
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Characters of the grammar's UNRESERVED token.
+     */
+    private static boolean isUnreserved(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '_' || c == '.' || c == '!' || c == '~' || c == '*' || c == '\''
+                || c == '(' || c == ')';
+    }
+
+    /**
+     * Find (or build and cache) the plan for a tokenized path.
+     *
+     * @param segments path segments
+     * @return the plan, or null if the segments do not form a valid path
+     */
+    static RoutePlan planFor(String[] segments) {
+        int relationshipsIndex = -1;
+        for (int i = 0; i < segments.length; i++) {
+            if (RELATIONSHIPS.equals(segments[i])) {
+                if (relationshipsIndex >= 0) {
+                    return null;
+                }
+                relationshipsIndex = i;
+            }
+        }
+
+        if (relationshipsIndex >= 0
+                && (relationshipsIndex < 2 || relationshipsIndex % 2 != 0
+                    || segments.length != relationshipsIndex + 2)) {
+            return null;
+        }
+
+        int key = segments.length * (MAX_SEGMENTS + 1) + relationshipsIndex + 1;
+        final int relationships = relationshipsIndex;
+        return PLANS.computeIfAbsent(key, unused -> compile(segments.length, relationships));
+    }
+
+    private static RoutePlan compile(int segmentCount, int relationshipsIndex) {
+        int levels = (relationshipsIndex >= 0 ? relationshipsIndex : segmentCount + 1) / 2;
+        Step[] steps = new Step[levels];
+        for (int level = 0; level < levels; level++) {
+            int next = 2 * level + 2;
+            if (2 * level == segmentCount - 1) {
+                steps[level] = Step.COLLECTION;
+            } else if (next == segmentCount) {
+                steps[level] = Step.RECORD;
+            } else if (next == relationshipsIndex) {
+                steps[level] = Step.RELATIONSHIP;
+            } else {
+                steps[level] = Step.SUB_COLLECTION;
+            }
+        }
+        return new RoutePlan(steps);
+    }
+
+    /**
+     * Bind the segments of a concrete path into a parse tree following this plan.
+     *
+     * @param segments path segments; terms and ids are taken by position
+     * @return the parse tree rooted at a {@link StartContext}
+     */
+    ParseTree bind(String[] segments) {
+        StartContext start = new StartContext(null, 0);
+        RootCollectionContext root = new RootCollectionContext(start, 16);
+        start.addChild(bindLevel(root, null, segments, 0));
+        start.addChild(new QueryContext(start, 17));
+        return start;
+    }
+
+    private ParserRuleContext bindLevel(RootCollectionContext root, SubCollectionContext sub,
+                                        String[] segments, int level) {
+        int index = 2 * level;
+        ParserRuleContext context;
+        switch (steps[level]) {
+            case COLLECTION:
+                context = root != null
+                        ? new RootCollectionLoadEntitiesContext(root)
+                        : new SubCollectionReadCollectionContext(sub);
+                context.addChild(term(context, segments[index]));
+                return context;
+
+            case RECORD:
+                context = root != null
+                        ? new RootCollectionLoadEntityContext(root)
+                        : new SubCollectionReadEntityContext(sub);
+                context.addChild(entity(context, segments[index], segments[index + 1]));
+                return context;
+
+            case RELATIONSHIP:
+                context = root != null
+                        ? new RootCollectionRelationshipContext(root)
+                        : new SubCollectionRelationshipContext(sub);
+                context.addChild(entity(context, segments[index], segments[index + 1]));
+                addToken(context, CoreParser.T__0, SEPARATOR);
+                RelationshipContext relationship = new RelationshipContext(context, 0);
+                addToken(relationship, CoreParser.RELATIONSHIPS, RELATIONSHIPS);
+                addToken(relationship, CoreParser.T__0, SEPARATOR);
+                relationship.addChild(term(relationship, segments[index + 3]));
+                context.addChild(relationship);
+                return context;
+
+            case SUB_COLLECTION:
+            default:
+                context = root != null
+                        ? new RootCollectionSubCollectionContext(root)
+                        : new SubCollectionSubCollectionContext(sub);
+                context.addChild(entity(context, segments[index], segments[index + 1]));
+                addToken(context, CoreParser.T__0, SEPARATOR);
+                context.addChild(bindLevel(null, new SubCollectionContext(context, 0), segments, level + 1));
+                return context;
+        }
+    }
+
+    private static EntityContext entity(ParserRuleContext parent, String term, String id) {
+        EntityContext entity = new EntityContext(parent, 0);
+        entity.addChild(term(entity, term));
+        addToken(entity, CoreParser.T__0, SEPARATOR);
+        IdContext idContext = new IdContext(entity, 0);
+        addToken(idContext, CoreParser.PATHSTR, id);
+        entity.addChild(idContext);
+        return entity;
+    }
+
+    private static TermContext term(ParserRuleContext parent, String text) {
+        TermContext term = new TermContext(parent, 0);
+        addToken(term, CoreParser.PATHSTR, text);
+        return term;
+    }
+
+    private static void addToken(ParserRuleContext parent, int type, String text) {
+        TerminalNodeImpl node = new TerminalNodeImpl(new CommonToken(type, text));
+        node.parent = parent;
+        parent.addChild(node);
+    }
+}
@@ -17,6 +17,7 @@ import com.yahoo.elide.core.filter.expression.AndFilterExpression;
 import com.yahoo.elide.core.filter.expression.NotFilterExpression;
 import com.yahoo.elide.generated.parsers.ExpressionBaseVisitor;
 import com.yahoo.elide.generated.parsers.ExpressionParser;
+import com.yahoo.elide.security.CompanionFilter;
 import com.yahoo.elide.security.FilterExpressionCheck;
 import com.yahoo.elide.security.RequestScope;
 import com.yahoo.elide.security.checks.Check;
@@ -27,6 +28,8 @@ import com.yahoo.elide.security.checks.UserCheck;
  * PermissionToFilterExpressionVisitor parses a permission parseTree and returns the corresponding FilterExpression
  * representation of it. This allows passing a security permission predicate down to datastore level to reduce
  * in-memory permission verification workload.
+ * Inline checks that implement {@link CompanionFilter} contribute their companion filter, which may match more
+ * than the check accepts; a negation containing such a filter is not pushed down.
  * A few cases is not allow and will throw exception:
  *      1. User define FilterExpressionCheck which returns null in getFilterExpression function.
  *      2. User put a FilterExpressionCheck with a non-userCheck type check in OR relation.
@@ -36,6 +39,7 @@ public class PermissionToFilterExpressionVisitor extends ExpressionBaseVisitor<F
     private final EntityDictionary dictionary;
     private final Class entityClass;
     private final RequestScope requestScope;
+    private int companionFilters;
 
     public static final FilterExpression NO_EVALUATION_EXPRESSION = new FilterExpression() {
         @Override
@@ -96,7 +100,13 @@ public class PermissionToFilterExpressionVisitor extends ExpressionBaseVisitor<F
 
     @Override
     public FilterExpression visitNOT(ExpressionParser.NOTContext ctx) {
-        return new NotFilterExpression(visit(ctx.expression()));
+        int before = companionFilters;
+        FilterExpression negated = visit(ctx.expression());
+        // The negation of a filter that matches too much would filter out too much
+        if (companionFilters != before) {
+            return NO_EVALUATION_EXPRESSION;
+        }
+        return new NotFilterExpression(negated);
     }
 
     @Override
@@ -112,6 +122,11 @@ public class PermissionToFilterExpressionVisitor extends ExpressionBaseVisitor<F
         } else if (UserCheck.class.isAssignableFrom(check.getClass())) {
             boolean userCheckResult = check.ok(requestScope.getUser());
             return userCheckResult ? NO_EVALUATION_EXPRESSION : FALSE_USER_CHECK_EXPRESSION;
+        } else if (check instanceof CompanionFilter) {
+            companionFilters++;
+            FilterExpression filterExpression =
+                    ((CompanionFilter) check).getCompanionFilter(entityClass, requestScope);
+            return filterExpression == null ? NO_EVALUATION_EXPRESSION : filterExpression;
         } else {
             return NO_EVALUATION_EXPRESSION;
         }
@@ -8,6 +8,7 @@ package com.yahoo.elide.parsers.state;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Collections2;
 import com.yahoo.elide.core.HttpStatus;
 import com.yahoo.elide.core.PersistentResource;
 import com.yahoo.elide.core.RequestScope;
@@ -17,7 +18,9 @@ import com.yahoo.elide.core.exceptions.InvalidEntityBodyException;
 import com.yahoo.elide.core.exceptions.InvalidObjectIdentifierException;
 import com.yahoo.elide.core.exceptions.InvalidValueException;
 import com.yahoo.elide.core.exceptions.UnknownEntityException;
+import com.yahoo.elide.core.pagination.KeysetCursor;
 import com.yahoo.elide.core.pagination.Pagination;
+import com.yahoo.elide.core.sort.Sorting;
 import com.yahoo.elide.jsonapi.JsonApiMapper;
 import com.yahoo.elide.jsonapi.document.processors.DocumentProcessor;
 import com.yahoo.elide.jsonapi.document.processors.IncludedProcessor;
@@ -32,12 +35,10 @@ import org.apache.commons.lang3.tuple.Pair;
 import javax.ws.rs.core.MultivaluedMap;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 /**
  * Collection State.
@@ -74,8 +75,12 @@ public class CollectionTerminalState extends BaseState {
         Pagination pagination = requestScope.getPagination();
         if (!pagination.isEmpty()) {
 
-            Map<String, Number> pageMetaData = new HashMap<>();
-            pageMetaData.put("number", (pagination.getOffset() / pagination.getLimit()) + 1);
+            Map<String, Object> pageMetaData = new HashMap<>();
+            if (pagination.isKeyset()) {
+                addCursors(pageMetaData, collection, requestScope);
+            } else {
+                pageMetaData.put("number", (pagination.getOffset() / pagination.getLimit()) + 1);
+            }
             pageMetaData.put("limit", pagination.getLimit());
 
             // Get total records if it has been requested and add to the page meta data
@@ -84,6 +89,9 @@ public class CollectionTerminalState extends BaseState {
                 pageMetaData.put("totalPages", totalRecords / pagination.getLimit()
                         + ((totalRecords % pagination.getLimit()) > 0 ? 1 : 0));
                 pageMetaData.put("totalRecords", totalRecords);
+                if (pagination.isApproximatePageTotals()) {
+                    pageMetaData.put("approximate", true);
+                }
             }
 
             Map<String, Object> allMetaData = new HashMap<>();
@@ -93,11 +101,35 @@ public class CollectionTerminalState extends BaseState {
             jsonApiDocument.setMeta(meta);
         }
 
-        JsonNode responseBody = requestScope.getMapper().toJsonObject(jsonApiDocument);
+        // Resources are converted as the body is written rather than held as a tree
+        JsonNode responseBody = requestScope.getMapper().toLazyJsonObject(jsonApiDocument);
 
         return () -> Pair.of(HttpStatus.SC_OK, responseBody);
     }
 
+    /**
+     * Add the cursors of the first and last record of a keyset page. They are passed back as page[before] and
+     * page[after] to read the previous and next page. They are not rendered as links.prev and links.next, because
+     * Elide renders no links and does not know the URL it is served under.
+     */
+    private void addCursors(Map<String, Object> pageMetaData, Set<PersistentResource> collection,
+                            RequestScope requestScope) {
+        if (collection.isEmpty()) {
+            return;
+        }
+        Optional<Sorting> sorting = Optional.ofNullable(requestScope.getSorting());
+        PersistentResource first = null;
+        PersistentResource last = null;
+        for (PersistentResource resource : collection) {
+            if (first == null) {
+                first = resource;
+            }
+            last = resource;
+        }
+        pageMetaData.put("before", KeysetCursor.encode(first.getObject(), entityClass, sorting, requestScope));
+        pageMetaData.put("after", KeysetCursor.encode(last.getObject(), entityClass, sorting, requestScope));
+    }
+
     @Override
     public Supplier<Pair<Integer, JsonNode>> handlePost(StateContext state) {
         RequestScope requestScope = state.getRequestScope();
@@ -138,7 +170,8 @@ public class CollectionTerminalState extends BaseState {
 
     private Data getData(Set<PersistentResource> collection) {
         Preconditions.checkNotNull(collection);
-        List<Resource> resources = collection.stream().map(PersistentResource::toResource).collect(Collectors.toList());
+        // A view: each resource is built when serialized and can be collected once written
+        Collection<Resource> resources = Collections2.transform(collection, PersistentResource::toResource);
         return new Data<>(resources);
     }
 
@@ -68,7 +68,7 @@ public class RelationshipTerminalState extends BaseState {
             DocumentProcessor includedProcessor = new IncludedProcessor();
             includedProcessor.execute(doc, record, queryParams);
 
-            return () -> Pair.of(HttpStatus.SC_OK, mapper.toJsonObject(doc));
+            return () -> Pair.of(HttpStatus.SC_OK, mapper.toLazyJsonObject(doc));
         }
 
         // Handle no data for relationship
@@ -79,7 +79,7 @@ public class RelationshipTerminalState extends BaseState {
         } else {
             throw new IllegalStateException("Failed to GET a relationship; relationship is neither toMany nor toOne");
         }
-        return () -> Pair.of(HttpStatus.SC_OK, mapper.toJsonObject(doc));
+        return () -> Pair.of(HttpStatus.SC_OK, mapper.toLazyJsonObject(doc));
     }
 
     @Override
@@ -26,6 +26,7 @@ import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
 /**
@@ -122,6 +123,10 @@ public class JsonApiEndpoint {
     }
 
     private static Response build(ElideResponse response) {
+        if (response.isStreaming()) {
+            StreamingOutput body = response::writeBody;
+            return Response.status(response.getResponseCode()).entity(body).build();
+        }
         return Response.status(response.getResponseCode()).entity(response.getBody()).build();
     }
 }
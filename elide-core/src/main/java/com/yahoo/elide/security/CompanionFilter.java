@@ -0,0 +1,30 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.security;
+
+import com.yahoo.elide.core.filter.expression.FilterExpression;
+
+/**
+ * Lets an in-memory check narrow what is loaded from the data store.
+ *
+ * An {@link com.yahoo.elide.security.checks.InlineCheck} that implements this interface still runs on every loaded
+ * object, but when the check is part of a read permission, its companion filter is pushed to the data store in
+ * its place. The filter may match more objects than the check accepts, but it must match every object the check
+ * accepts; objects it excludes are never loaded.
+ *
+ * Unlike a {@link FilterExpressionCheck}, whose filter is exact, a companion filter is not pushed down where the
+ * check is negated.
+ */
+public interface CompanionFilter {
+    /**
+     * Returns the filter matching at least every object the check accepts.
+     *
+     * @param entityClass entity type
+     * @param requestScope Request scope object
+     * @return the filter, or null if nothing can be filtered out for this request (e.g. for this user)
+     */
+    FilterExpression getCompanionFilter(Class<?> entityClass, RequestScope requestScope);
+}
@@ -9,6 +9,7 @@ import com.yahoo.elide.core.filter.expression.FilterExpression;
 import com.yahoo.elide.security.permissions.ExpressionResult;
 
 import java.lang.annotation.Annotation;
+import java.util.Collection;
 import java.util.Optional;
 
 /**
@@ -110,6 +111,18 @@ public interface PermissionExecutor {
      */
     Optional<FilterExpression> getReadPermissionFilter(Class<?> resourceClass);
 
+    /**
+     * Evaluate the {@link com.yahoo.elide.security.checks.BatchInlineCheck}s of a permission once for a whole
+     * collection, so that checking the permission on each resource afterwards reuses their results.
+     *
+     * @param <A> type parameter
+     * @param annotationClass annotation class
+     * @param resources the resources that are about to be checked
+     */
+    default <A extends Annotation> void evaluateBatchChecks(Class<A> annotationClass,
+                                                            Collection<? extends PersistentResource> resources) {
+    }
+
     /**
      * Execute commit checks.
      */
@@ -5,6 +5,7 @@
  */
 package com.yahoo.elide.security.executors;
 
+import com.yahoo.elide.ElideSettings;
 import com.yahoo.elide.annotation.DeletePermission;
 import com.yahoo.elide.annotation.ReadPermission;
 import com.yahoo.elide.annotation.SharePermission;
@@ -14,7 +15,9 @@ import com.yahoo.elide.core.exceptions.ForbiddenAccessException;
 import com.yahoo.elide.core.filter.expression.FilterExpression;
 import com.yahoo.elide.security.ChangeSpec;
 import com.yahoo.elide.security.PermissionExecutor;
+import com.yahoo.elide.metrics.ElideMetrics;
 import com.yahoo.elide.security.PersistentResource;
+import com.yahoo.elide.security.checks.BatchInlineCheck;
 import com.yahoo.elide.security.permissions.ExpressionResult;
 import com.yahoo.elide.security.permissions.ExpressionResultCache;
 import com.yahoo.elide.security.permissions.PermissionExpressionBuilder;
@@ -25,13 +28,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.Triple;
 
 import java.lang.annotation.Annotation;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static com.yahoo.elide.security.permissions.ExpressionResult.DEFERRED;
 import static com.yahoo.elide.security.permissions.ExpressionResult.FAIL;
@@ -40,12 +47,16 @@ import static com.yahoo.elide.security.permissions.ExpressionResult.PASS;
 /**
  * Default permission executor.
  * This executor executes all security checks as outlined in the documentation.
+ *
+ * Permissions of one request may be checked from several threads at once
+ * (see {@link com.yahoo.elide.ElideSettingsBuilder#withParallelPermissionChecks}).
  */
 @Slf4j
 public class ActivePermissionExecutor implements PermissionExecutor {
-    private final Queue<QueuedCheck> commitCheckQueue = new LinkedBlockingQueue<>();
+    private final Queue<QueuedCheck> commitCheckQueue = new ConcurrentLinkedQueue<>();
 
     private final RequestScope requestScope;
+    private final ExpressionResultCache cache;
     private final PermissionExpressionBuilder expressionBuilder;
     private final Map<Triple<Class<? extends Annotation>, Class, String>, ExpressionResult> userPermissionCheckCache;
     private final Map<String, Long> checkStats;
@@ -67,12 +78,11 @@ public class ActivePermissionExecutor implements PermissionExecutor {
      * @param requestScope Request scope
      */
     public ActivePermissionExecutor(boolean verbose, final com.yahoo.elide.core.RequestScope requestScope) {
-        ExpressionResultCache cache = new ExpressionResultCache();
-
+        this.cache = new ExpressionResultCache();
         this.requestScope = requestScope;
         this.expressionBuilder = new PermissionExpressionBuilder(cache, requestScope.getDictionary());
-        userPermissionCheckCache = new HashMap<>();
-        checkStats = new HashMap<>();
+        userPermissionCheckCache = new ConcurrentHashMap<>();
+        checkStats = new ConcurrentHashMap<>();
         this.verbose = verbose;
     }
 
@@ -375,9 +385,80 @@ public class ActivePermissionExecutor implements PermissionExecutor {
         FilterExpression filterExpression =
                 expressionBuilder.buildAnyFieldFilterExpression(resourceClass, requestScope);
 
+        getMetrics().recordReadPermissionFilter(
+                requestScope.getDictionary().getJsonAliasFor(resourceClass), filterExpression != null);
         return Optional.ofNullable(filterExpression);
     }
 
+    /**
+     * Evaluate the batch checks of a permission over a collection and store their results in the expression cache.
+     *
+     * @param <A> type parameter
+     * @param annotationClass annotation class
+     * @param resources the resources that are about to be checked
+     */
+    @Override
+    public <A extends Annotation> void evaluateBatchChecks(Class<A> annotationClass,
+                                                           Collection<? extends PersistentResource> resources) {
+        Map<Class<?>, List<PersistentResource>> byClass = resources.stream()
+                .collect(Collectors.groupingBy(PersistentResource::getResourceClass, LinkedHashMap::new,
+                        Collectors.toList()));
+
+        byClass.forEach((resourceClass, candidates) -> {
+            for (BatchInlineCheck<?> check
+                    : requestScope.getDictionary().getBatchChecks(resourceClass, annotationClass)) {
+                List<PersistentResource> unchecked = candidates.stream()
+                        .filter(resource -> !cache.hasStoredResultFor(check.getClass(), resource))
+                        .collect(Collectors.toList());
+                if (unchecked.isEmpty()) {
+                    continue;
+                }
+
+                List<Object> objects = unchecked.stream()
+                        .map(PersistentResource::getObject)
+                        .collect(Collectors.toList());
+                long start = System.nanoTime();
+                List<Boolean> results = evaluateBatchCheck(check, objects);
+                long nanos = System.nanoTime() - start;
+                if (results == null || results.size() != objects.size()) {
+                    throw new IllegalStateException(String.format("%s returned %s results for %d objects",
+                            check.getClass().getName(), results == null ? null : results.size(), objects.size()));
+                }
+
+                // The batch time is spread over its objects so that the check counts stay per object
+                ElideMetrics metrics = getMetrics();
+                for (int i = 0; i < unchecked.size(); i++) {
+                    ExpressionResult result = results.get(i) ? PASS : FAIL;
+                    cache.putResultFor(check.getClass(), unchecked.get(i), result);
+                    metrics.recordPermissionCheck(check.getClass(), result, nanos / objects.size());
+                }
+            }
+        });
+    }
+
+    /**
+     * Evaluate a batch check over objects of the entity it is declared on.
+     *
+     * @param check the batch check
+     * @param objects the objects to check
+     * @param <T> the type the check accepts
+     * @return one result per object
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<Boolean> evaluateBatchCheck(BatchInlineCheck<T> check, List<Object> objects) {
+        return check.ok((List<T>) objects, requestScope);
+    }
+
+    /**
+     * The metrics of the request, or {@link ElideMetrics#NONE} if there are no settings or no metrics.
+     *
+     * @return the metrics
+     */
+    private ElideMetrics getMetrics() {
+        ElideSettings settings = requestScope.getElideSettings();
+        return settings == null || settings.getMetrics() == null ? ElideMetrics.NONE : settings.getMetrics();
+    }
+
     /**
      * Execute commmit checks.
      */
@@ -421,8 +502,7 @@ public class ActivePermissionExecutor implements PermissionExecutor {
         // Record the check
         if (log.isTraceEnabled()) {
             String checkKey = expression.toString();
-            Long checkOccurrences = checkStats.getOrDefault(checkKey, 0L) + 1;
-            checkStats.put(checkKey, checkOccurrences);
+            checkStats.merge(checkKey, 1L, Long::sum);
         }
 
         if (result == DEFERRED) {
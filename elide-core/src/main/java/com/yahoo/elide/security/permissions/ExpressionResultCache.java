@@ -8,37 +8,36 @@ package com.yahoo.elide.security.permissions;
 import com.yahoo.elide.security.PersistentResource;
 import com.yahoo.elide.security.checks.Check;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Used to cache the results of checks so that if a check is not evaluated more than once for a given resource.
+ *
+ * Safe to use from the threads evaluating the permissions of one request in parallel.
  */
 public class ExpressionResultCache {
     private final Map<Class<? extends Check>, Map<PersistentResource, ExpressionResult>> computedResults;
 
     public ExpressionResultCache() {
-        computedResults = new HashMap<>();
+        computedResults = new ConcurrentHashMap<>();
     }
 
 
     public boolean hasStoredResultFor(Class<? extends Check> checkClass, PersistentResource resource) {
-        return computedResults.containsKey(checkClass)
-                && computedResults.get(checkClass).containsKey(resource);
+        return getResultFor(checkClass, resource) != null;
     }
 
     public void putResultFor(Class<? extends Check> checkClass, PersistentResource resource, ExpressionResult result) {
-        Map<PersistentResource, ExpressionResult> cache = computedResults.get(checkClass);
-        if (cache == null) {
-            cache = new IdentityHashMap<>();
-            computedResults.put(checkClass, cache);
-        }
-
-        cache.put(resource, result);
+        computedResults
+                .computeIfAbsent(checkClass, (unused) -> Collections.synchronizedMap(new IdentityHashMap<>()))
+                .put(resource, result);
     }
 
     public ExpressionResult getResultFor(Class<? extends Check> checkClass, PersistentResource resource) {
-        return computedResults.get(checkClass).get(resource);
+        Map<PersistentResource, ExpressionResult> cache = computedResults.get(checkClass);
+        return cache == null ? null : cache.get(resource);
     }
 }
@@ -13,7 +13,6 @@ import com.yahoo.elide.core.RequestScope;
 import com.yahoo.elide.core.filter.expression.FilterExpression;
 import com.yahoo.elide.core.filter.expression.OrFilterExpression;
 import com.yahoo.elide.parsers.expression.FilterExpressionNormalizationVisitor;
-import com.yahoo.elide.parsers.expression.PermissionExpressionVisitor;
 import com.yahoo.elide.parsers.expression.PermissionToFilterExpressionVisitor;
 import com.yahoo.elide.security.ChangeSpec;
 import com.yahoo.elide.security.PersistentResource;
@@ -118,9 +117,9 @@ public class PermissionExpressionBuilder implements CheckInstantiator {
 
         final Function<Function<Check, Expression>, Expression> expressionFunction =
                 (checkFn) -> {
-                    ParseTree classPermissions = entityDictionary.getPermissionsForClass(resourceClass,
-                            SharePermission.class);
-                    Expression entityExpression = expressionFromParseTree(classPermissions, checkFn);
+                    PermissionExpressionPlan classPermissions = entityDictionary.getPermissionPlanForClass(
+                            resourceClass, SharePermission.class);
+                    Expression entityExpression = expressionFromPlan(classPermissions, checkFn);
                     return new SharePermissionExpression(condition, entityExpression);
                 };
 
@@ -230,12 +229,14 @@ public class PermissionExpressionBuilder implements CheckInstantiator {
         Class<? extends Annotation> annotationClass = condition.getPermission();
         String field = condition.getField().isPresent() ? condition.getField().get() : null;
 
-        ParseTree classPermissions = entityDictionary.getPermissionsForClass(resourceClass, annotationClass);
-        ParseTree fieldPermissions = entityDictionary.getPermissionsForField(resourceClass, field, annotationClass);
+        PermissionExpressionPlan classPermissions =
+                entityDictionary.getPermissionPlanForClass(resourceClass, annotationClass);
+        PermissionExpressionPlan fieldPermissions =
+                entityDictionary.getPermissionPlanForField(resourceClass, field, annotationClass);
 
         return new SpecificFieldExpression(condition,
-                expressionFromParseTree(classPermissions, checkFn),
-                expressionFromParseTree(fieldPermissions, checkFn)
+                expressionFromPlan(classPermissions, checkFn),
+                expressionFromPlan(fieldPermissions, checkFn)
         );
     }
 
@@ -254,8 +255,9 @@ public class PermissionExpressionBuilder implements CheckInstantiator {
         Class<?> resourceClass = condition.getEntityClass();
         Class<? extends Annotation> annotationClass = condition.getPermission();
 
-        ParseTree classPermissions = entityDictionary.getPermissionsForClass(resourceClass, annotationClass);
-        Expression entityExpression = expressionFromParseTree(classPermissions, checkFn);
+        PermissionExpressionPlan classPermissions =
+                entityDictionary.getPermissionPlanForClass(resourceClass, annotationClass);
+        Expression entityExpression = expressionFromPlan(classPermissions, checkFn);
 
         OrExpression allFieldsExpression = new OrExpression(FAILURE, null);
         List<String> fields = entityDictionary.getAllFields(resourceClass);
@@ -267,8 +269,9 @@ public class PermissionExpressionBuilder implements CheckInstantiator {
                 continue;
             }
 
-            ParseTree fieldPermissions = entityDictionary.getPermissionsForField(resourceClass, field, annotationClass);
-            Expression fieldExpression = expressionFromParseTree(fieldPermissions, checkFn);
+            PermissionExpressionPlan fieldPermissions =
+                    entityDictionary.getPermissionPlanForField(resourceClass, field, annotationClass);
+            Expression fieldExpression = expressionFromPlan(fieldPermissions, checkFn);
 
             allFieldsExpression = new OrExpression(allFieldsExpression, fieldExpression);
         }
@@ -329,12 +332,12 @@ public class PermissionExpressionBuilder implements CheckInstantiator {
         return allFieldsFilterExpression;
     }
 
-    private Expression expressionFromParseTree(ParseTree permissions, Function<Check, Expression> checkFn) {
+    private Expression expressionFromPlan(PermissionExpressionPlan permissions, Function<Check, Expression> checkFn) {
         if (permissions == null) {
             return null;
         }
 
-        return new PermissionExpressionVisitor(entityDictionary, checkFn).visit(permissions);
+        return permissions.bind(checkFn);
     }
 
     private FilterExpression filterExpressionFromParseTree(ParseTree permissions, Class entityClass,
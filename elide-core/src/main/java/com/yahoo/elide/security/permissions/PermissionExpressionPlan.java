@@ -0,0 +1,174 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.security.permissions;
+
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.generated.parsers.ExpressionBaseVisitor;
+import com.yahoo.elide.generated.parsers.ExpressionParser;
+import com.yahoo.elide.security.checks.Check;
+import com.yahoo.elide.security.checks.UserCheck;
+import com.yahoo.elide.security.permissions.expressions.AndExpression;
+import com.yahoo.elide.security.permissions.expressions.Expression;
+import com.yahoo.elide.security.permissions.expressions.NotExpression;
+import com.yahoo.elide.security.permissions.expressions.OrExpression;
+import org.antlr.v4.runtime.tree.ParseTree;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A permission expression compiled once per entity, permission and field.
+ *
+ * The plan is an immutable tree of and/or/not nodes whose leaves hold the shared check instances from
+ * {@link EntityDictionary#getCheckInstance(String)}. Binding it for a resource only creates the (stateful)
+ * {@link Expression} nodes; the ANTLR tree is not walked and stateless checks are not instantiated. Checks that
+ * are not stateless (see {@link EntityDictionary#isStatelessCheck(Class)}) are instantiated on every bind, so that
+ * no request or thread ever sees the state of another.
+ */
+public final class PermissionExpressionPlan {
+    private final EntityDictionary dictionary;
+    private final ParseTree permissions;
+    private volatile boolean userChecksOnly;
+    private volatile Set<Check> checks;
+    private volatile Node root;
+
+    private PermissionExpressionPlan(EntityDictionary dictionary, ParseTree permissions) {
+        this.dictionary = dictionary;
+        this.permissions = permissions;
+    }
+
+    /**
+     * Compile a permission expression.
+     *
+     * Checks that cannot be resolved yet (e.g. identifiers mapped after the entity is bound) do not fail here;
+     * compilation is retried on first use, which fails the same way evaluating the expression always has.
+     *
+     * @param dictionary the entity dictionary used to resolve check identifiers
+     * @param permissions the parsed permission expression
+     * @return the plan
+     */
+    public static PermissionExpressionPlan compile(EntityDictionary dictionary, ParseTree permissions) {
+        PermissionExpressionPlan plan = new PermissionExpressionPlan(dictionary, permissions);
+        try {
+            plan.getRoot();
+        } catch (IllegalArgumentException e) {
+            // resolved lazily in bind
+        }
+        return plan;
+    }
+
+    /**
+     * Get the parsed permission expression this plan was compiled from.
+     *
+     * @return the parse tree
+     */
+    public ParseTree getParseTree() {
+        return permissions;
+    }
+
+    /**
+     * Whether every check in the expression is a {@link UserCheck}, i.e. the outcome does not depend on the resource.
+     *
+     * @return true if the expression only contains user checks
+     */
+    public boolean isUserChecksOnly() {
+        getRoot();
+        return userChecksOnly;
+    }
+
+    /**
+     * Get the checks the expression refers to.
+     *
+     * @return the check instances, in the order they appear in the expression; instances of checks that are not
+     *         stateless are only meant for inspecting their type
+     */
+    public Set<Check> getChecks() {
+        getRoot();
+        return checks;
+    }
+
+    /**
+     * Build the expression for one evaluation.
+     *
+     * @param checkFn creates the leaf expression for a check, binding the resource, change spec and cache
+     * @return the expression
+     */
+    public Expression bind(Function<Check, Expression> checkFn) {
+        return getRoot().bind(checkFn);
+    }
+
+    private Node getRoot() {
+        Node compiled = root;
+        if (compiled == null) {
+            Compiler compiler = new Compiler(dictionary);
+            compiled = compiler.visit(permissions);
+            userChecksOnly = compiler.userChecksOnly;
+            checks = Collections.unmodifiableSet(compiler.checks);
+            root = compiled;
+        }
+        return compiled;
+    }
+
+    /**
+     * Node of a compiled permission expression.
+     */
+    private interface Node {
+        Expression bind(Function<Check, Expression> checkFn);
+    }
+
+    /**
+     * Compiles the ANTLR tree of a permission expression into plan nodes.
+     */
+    private static class Compiler extends ExpressionBaseVisitor<Node> {
+        private final EntityDictionary dictionary;
+        private boolean userChecksOnly = true;
+        private final Set<Check> checks = new LinkedHashSet<>();
+
+        Compiler(EntityDictionary dictionary) {
+            this.dictionary = dictionary;
+        }
+
+        @Override
+        public Node visitNOT(ExpressionParser.NOTContext ctx) {
+            Node logical = visit(ctx.expression());
+            return checkFn -> new NotExpression(logical.bind(checkFn));
+        }
+
+        @Override
+        public Node visitOR(ExpressionParser.ORContext ctx) {
+            Node left = visit(ctx.left);
+            Node right = visit(ctx.right);
+            return checkFn -> new OrExpression(left.bind(checkFn), right.bind(checkFn));
+        }
+
+        @Override
+        public Node visitAND(ExpressionParser.ANDContext ctx) {
+            Node left = visit(ctx.left);
+            Node right = visit(ctx.right);
+            return checkFn -> new AndExpression(left.bind(checkFn), right.bind(checkFn));
+        }
+
+        @Override
+        public Node visitPAREN(ExpressionParser.PARENContext ctx) {
+            return visit(ctx.expression());
+        }
+
+        @Override
+        public Node visitPermissionClass(ExpressionParser.PermissionClassContext ctx) {
+            String identifier = ctx.getText();
+            Check check = dictionary.getCheckInstance(identifier);
+            userChecksOnly &= check instanceof UserCheck;
+            checks.add(check);
+            if (!dictionary.isStatelessCheck(check.getClass())) {
+                // Checks with mutable state get an instance per evaluation
+                return checkFn -> checkFn.apply(dictionary.getCheckInstance(identifier));
+            }
+            return checkFn -> checkFn.apply(check);
+        }
+    }
+}
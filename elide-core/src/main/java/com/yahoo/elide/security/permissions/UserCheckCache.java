@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.security.permissions;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.yahoo.elide.security.User;
+import com.yahoo.elide.security.checks.Check;
+import com.yahoo.elide.security.checks.UserCheck;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Caches the results of {@link UserCheck}s across requests, per check class and principal.
+ *
+ * A user check only looks at the user, so its result can be reused by every request of the same principal until
+ * it expires or is invalidated. Results that depend on something that changes while the principal stays the same,
+ * e.g. a role that is revoked, are served stale for up to the time to live unless {@link #invalidatePrincipal} is
+ * called.
+ */
+public class UserCheckCache {
+    private final Cache<Pair<Class<? extends Check>, Object>, ExpressionResult> results;
+    private final Function<User, Object> keyExtractor;
+
+    /**
+     * Constructor.
+     *
+     * @param maximumSize the maximum number of cached results
+     * @param timeToLive how long a result is reused after it was computed
+     * @param keyExtractor identifies the principal of a user, e.g. by its name. The key must implement equals and
+     *                     hashCode; users for which it returns null are not cached
+     */
+    public UserCheckCache(long maximumSize, Duration timeToLive, Function<User, Object> keyExtractor) {
+        this.results = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive.toNanos(), TimeUnit.NANOSECONDS)
+                .recordStats()
+                .build();
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * Get the cached result of a check.
+     *
+     * @param checkClass the user check
+     * @param user the user
+     * @return the result, or null if there is none
+     */
+    public ExpressionResult getResult(Class<? extends Check> checkClass, User user) {
+        Object key = keyExtractor.apply(user);
+        return key == null ? null : results.getIfPresent(Pair.of(checkClass, key));
+    }
+
+    /**
+     * Cache the result of a check.
+     *
+     * @param checkClass the user check
+     * @param user the user
+     * @param result the result
+     */
+    public void putResult(Class<? extends Check> checkClass, User user, ExpressionResult result) {
+        Object key = keyExtractor.apply(user);
+        if (key != null) {
+            results.put(Pair.of(checkClass, key), result);
+        }
+    }
+
+    /**
+     * Drop the results of a principal, e.g. after its roles changed.
+     *
+     * @param principal the key of the principal, as returned by the key extractor
+     */
+    public void invalidatePrincipal(Object principal) {
+        results.asMap().keySet().removeIf(key -> Objects.equals(key.getRight(), principal));
+    }
+
+    /**
+     * Drop the results of a check for every principal.
+     *
+     * @param checkClass the user check
+     */
+    public void invalidateCheck(Class<? extends Check> checkClass) {
+        results.asMap().keySet().removeIf(key -> key.getLeft() == checkClass);
+    }
+
+    /**
+     * Drop every result.
+     */
+    public void invalidateAll() {
+        results.invalidateAll();
+    }
+
+    /**
+     * Get the hit, miss and eviction counts.
+     *
+     * @return the statistics since the cache was created
+     */
+    public CacheStats getStats() {
+        return results.stats();
+    }
+}
@@ -5,7 +5,9 @@
  */
 package com.yahoo.elide.security.permissions.expressions;
 
+import com.yahoo.elide.ElideSettings;
 import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.metrics.ElideMetrics;
 import com.yahoo.elide.security.ChangeSpec;
 import com.yahoo.elide.security.PersistentResource;
 import com.yahoo.elide.security.RequestScope;
@@ -14,6 +16,7 @@ import com.yahoo.elide.security.checks.InlineCheck;
 import com.yahoo.elide.security.checks.UserCheck;
 import com.yahoo.elide.security.permissions.ExpressionResult;
 import com.yahoo.elide.security.permissions.ExpressionResultCache;
+import com.yahoo.elide.security.permissions.UserCheckCache;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Optional;
@@ -36,6 +39,8 @@ public class CheckExpression implements Expression {
     protected ExpressionResult result;
 
     private final Optional<ChangeSpec> changeSpec;
+    private final ElideMetrics metrics;
+    private final UserCheckCache userCheckCache;
 
     /**
      * Constructor.
@@ -56,6 +61,9 @@ public class CheckExpression implements Expression {
         this.changeSpec = Optional.ofNullable(changeSpec);
         this.cache = cache;
         this.result = UNEVALUATED;
+        ElideSettings settings = getSettings(requestScope);
+        this.metrics = settings == null || settings.getMetrics() == null ? ElideMetrics.NONE : settings.getMetrics();
+        this.userCheckCache = settings == null ? null : settings.getUserCheckCache();
 
         // UserCheck does not use resource
         this.resource = (check instanceof UserCheck) ? null : resource;
@@ -105,16 +113,38 @@ public class CheckExpression implements Expression {
     }
 
     /**
-     * Actually compute the result of the check without caching concerns.
+     * Compute the result of the check, reusing the cross request result of a user check if there is one.
      *
      * @return Expression result from the check.
      */
     private ExpressionResult computeCheck() {
+        if (userCheckCache != null && check instanceof UserCheck) {
+            ExpressionResult cached = userCheckCache.getResult(check.getClass(), requestScope.getUser());
+            metrics.recordUserCheckCacheLookup(check.getClass(), cached != null);
+            if (cached != null) {
+                result = cached;
+                return result;
+            }
+        }
+
         Object entity = (resource == null) ? null : resource.getObject();
+        long start = System.nanoTime();
         result = check.ok(entity, requestScope, changeSpec) ? PASS : FAIL;
+        metrics.recordPermissionCheck(check.getClass(), result, System.nanoTime() - start);
+
+        if (userCheckCache != null && check instanceof UserCheck) {
+            userCheckCache.putResult(check.getClass(), requestScope.getUser(), result);
+        }
         return result;
     }
 
+    private static ElideSettings getSettings(RequestScope requestScope) {
+        if (requestScope instanceof com.yahoo.elide.core.RequestScope) {
+            return ((com.yahoo.elide.core.RequestScope) requestScope).getElideSettings();
+        }
+        return null;
+    }
+
     @Override
     public String toString() {
         EntityDictionary dictionary = ((com.yahoo.elide.core.RequestScope) requestScope).getDictionary();
@@ -17,7 +17,10 @@ import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -114,4 +117,36 @@ public class LogMessageTest {
             Assert.fail("Exception not cleared from previous logger commit");
         }
     }
+
+    @Test
+    public void threadLocalMessagesArePopulated() throws IOException {
+        List<LogMessage> committed = new ArrayList<>();
+        AuditLogger legacyLogger = new AuditLogger() {
+            @Override
+            public void commit(RequestScope requestScope) throws IOException {
+                committed.addAll(messages.get());
+            }
+        };
+        RequestScope requestScope = childRecord.getRequestScope();
+        LogMessage message = new LogMessage("{0}", childRecord, new String[] { "${child.id}" }, 1, Optional.empty());
+
+        legacyLogger.log(message);
+        legacyLogger.commit(requestScope);
+        Assert.assertEquals(committed, Collections.singletonList(message));
+        Assert.assertEquals(requestScope.getAuditMessages(), Collections.singletonList(message));
+
+        // Clearing a request keeps the messages of other requests on the same thread
+        LogMessage other = new LogMessage("other", 2);
+        legacyLogger.log(other);
+        legacyLogger.clear(requestScope);
+        Assert.assertTrue(requestScope.getAuditMessages().isEmpty());
+        committed.clear();
+        legacyLogger.commit(requestScope);
+        Assert.assertEquals(committed, Collections.singletonList(other));
+
+        legacyLogger.clear();
+        committed.clear();
+        legacyLogger.commit(null);
+        Assert.assertTrue(committed.isEmpty());
+    }
 }
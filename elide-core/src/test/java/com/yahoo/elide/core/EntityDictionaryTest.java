@@ -27,6 +27,7 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -225,4 +226,61 @@ public class EntityDictionaryTest extends EntityDictionary {
         Assert.assertTrue(!rels.contains("excludedEntity") && !rels.contains("excludedRelationship")
             && !rels.contains("excludedEntityList"));
     }
+
+    @Test
+    public void testAccessorReadsAndWritesGettersAndFields() throws Exception {
+        FieldAnnotations entity = new FieldAnnotations();
+        entity.setId(7L);
+
+        FieldAccessor publicField = getAccessor(FieldAnnotations.class, "publicField");
+        FieldAccessor privateField = getAccessor(FieldAnnotations.class, "privateField");
+        Assert.assertTrue(publicField.isWritable());
+        Assert.assertTrue(privateField.isWritable());
+
+        publicField.set(entity, 42L);
+        privateField.set(entity, true);
+        Assert.assertEquals(entity.publicField, 42L);
+        Assert.assertEquals(publicField.get(entity, null), 42L);
+        Assert.assertEquals(privateField.get(entity, null), true);
+        Assert.assertEquals(getId(entity), "7");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testAccessorRejectsMismatchedValue() throws Exception {
+        getAccessor(FieldAnnotations.class, "publicField").set(new FieldAnnotations(), null);
+    }
+
+    @Entity
+    @Include
+    public static class ThrowingGetters {
+        @Id
+        public long id;
+
+        public String getBroken() {
+            throw new IllegalStateException("broken");
+        }
+
+        public String getFatal() {
+            throw new AssertionError("fatal");
+        }
+    }
+
+    @Test
+    public void testAccessorWrapsExceptionsOnly() throws Exception {
+        bindEntity(ThrowingGetters.class);
+        ThrowingGetters entity = new ThrowingGetters();
+
+        InvocationTargetException wrapped = Assert.expectThrows(InvocationTargetException.class,
+                () -> getAccessor(ThrowingGetters.class, "broken").get(entity, null));
+        Assert.assertTrue(wrapped.getCause() instanceof IllegalStateException);
+        Assert.expectThrows(AssertionError.class, () -> getAccessor(ThrowingGetters.class, "fatal").get(entity, null));
+    }
+
+    @Test
+    public void testAccessorForInheritedGetter() throws Exception {
+        Friend friend = new Friend();
+        friend.setName("bob");
+        Assert.assertEquals(getAccessor(Friend.class, "name").get(friend, null), "bob");
+        Assert.assertNull(getAccessor(Friend.class, "missingField"));
+    }
 }
@@ -7,8 +7,10 @@ package com.yahoo.elide.core;
 
 import com.yahoo.elide.Elide;
 import com.yahoo.elide.ElideSettings;
+import com.yahoo.elide.ElideResponse;
 import com.yahoo.elide.ElideSettingsBuilder;
 import com.yahoo.elide.audit.AuditLogger;
+import com.yahoo.elide.metrics.ElideMetrics;
 import com.yahoo.elide.security.User;
 import com.yahoo.elide.security.checks.Check;
 import example.Author;
@@ -18,13 +20,21 @@ import org.testng.annotations.Test;
 
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -99,6 +109,117 @@ public class LifeCycleTest {
         verify(tx).close();
     }
 
+    @Test
+    public void testElideGetAsync() throws Exception {
+        DataStore store = mock(DataStore.class);
+        DataStoreTransaction tx = mock(DataStoreTransaction.class);
+        Book book = mock(Book.class);
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "elide-test"));
+
+        try {
+            Elide elide = new Elide(new ElideSettingsBuilder(store)
+                    .withEntityDictionary(dictionary)
+                    .withAuditLogger(MOCK_AUDIT_LOGGER)
+                    .withExecutor(executor)
+                    .build());
+
+            List<String> threads = new ArrayList<>();
+            when(store.beginReadTransaction()).thenAnswer(invocation -> {
+                threads.add(Thread.currentThread().getName());
+                return tx;
+            });
+            when(tx.loadObject(eq(Book.class), eq(1L), any(), any())).thenReturn(book);
+
+            ElideResponse response = elide.getAsync("/book/1", new MultivaluedHashMap<>(), null).get();
+            Assert.assertEquals(response.getResponseCode(), 200);
+            Assert.assertEquals(threads, Collections.singletonList("elide-test"));
+            verify(tx).commit(any());
+            verify(tx).close();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testElideGetMetrics() throws Exception {
+        DataStore store = mock(DataStore.class);
+        DataStoreTransaction tx = mock(DataStoreTransaction.class);
+        Book book = mock(Book.class);
+        ElideMetrics metrics = mock(ElideMetrics.class);
+
+        Elide elide = new Elide(new ElideSettingsBuilder(store)
+                .withEntityDictionary(dictionary)
+                .withAuditLogger(MOCK_AUDIT_LOGGER)
+                .withMetrics(metrics)
+                .build());
+
+        when(store.beginReadTransaction()).thenReturn(tx);
+        when(tx.loadObject(eq(Book.class), eq(1L), any(), any())).thenReturn(book);
+
+        ElideResponse response = elide.get("/book/1", new MultivaluedHashMap<>(), null);
+        Assert.assertEquals(response.getResponseCode(), 200);
+        for (ElideMetrics.Phase phase : ElideMetrics.Phase.values()) {
+            int times = phase == ElideMetrics.Phase.SAVE ? 0 : 1;
+            verify(metrics, times(times)).recordPhase(eq("GET"), eq("book"), eq(phase), anyLong());
+        }
+        verify(metrics).recordDataStoreCall(eq(ElideMetrics.Operation.LOAD_OBJECT), eq("book"), anyLong());
+        verify(metrics).recordRequest(eq("GET"), eq("book"), eq(200), anyLong());
+        verify(tx).commit(any());
+    }
+
+    @Test
+    public void testElideStreamingGet() throws Exception {
+        DataStore store = mock(DataStore.class);
+        DataStoreTransaction tx = mock(DataStoreTransaction.class);
+        Book book = new Book();
+        book.setId(1);
+        book.setTitle("Grapes of Wrath");
+
+        Elide elide = new Elide(new ElideSettingsBuilder(store)
+                .withEntityDictionary(dictionary)
+                .withAuditLogger(MOCK_AUDIT_LOGGER)
+                .withStreamingResponses(true)
+                .build());
+
+        when(store.beginReadTransaction()).thenReturn(tx);
+        when(tx.loadObjects(eq(Book.class), any(), any(), any(), any())).thenReturn(Collections.singletonList(book));
+
+        ElideResponse response = elide.get("/book", new MultivaluedHashMap<>(), null);
+        Assert.assertTrue(response.isStreaming());
+        Assert.assertEquals(response.getResponseCode(), 200);
+        verify(tx).accessUser(any());
+        verify(tx).preCommit();
+        verify(tx).flush(any());
+        verify(tx, never()).commit(any());
+        verify(tx, never()).close();
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        response.writeBody(body);
+        Assert.assertTrue(body.toString("UTF-8").contains("Grapes of Wrath"));
+        verify(tx).commit(any());
+        verify(tx).close();
+    }
+
+    @Test
+    public void testElideStreamingGetError() throws Exception {
+        DataStore store = mock(DataStore.class);
+        DataStoreTransaction tx = mock(DataStoreTransaction.class);
+
+        Elide elide = new Elide(new ElideSettingsBuilder(store)
+                .withEntityDictionary(dictionary)
+                .withAuditLogger(MOCK_AUDIT_LOGGER)
+                .withStreamingResponses(true)
+                .build());
+
+        when(store.beginReadTransaction()).thenReturn(tx);
+
+        ElideResponse response = elide.get("/book/1", new MultivaluedHashMap<>(), null);
+        Assert.assertFalse(response.isStreaming());
+        Assert.assertEquals(response.getResponseCode(), 404);
+        verify(tx, never()).commit(any());
+        verify(tx).close();
+    }
+
     @Test
     public void testElidePatch() throws Exception {
         DataStore store = mock(DataStore.class);
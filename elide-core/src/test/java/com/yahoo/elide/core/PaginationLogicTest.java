@@ -170,4 +170,73 @@ public class PaginationLogicTest {
         Assert.assertEquals(pageData.getOffset(), 0);
         Assert.assertEquals(result.getLimit(), 10);
     }
+
+    @Test
+    public void testClassLevelTotalsStrategy() {
+        @Paginate(totalsStrategy = Paginate.TotalsStrategy.PEEK)
+        class PeekTotals { }
+
+        MultivaluedMap<String, String> queryParams = new MultivaluedStringMap();
+        queryParams.add("page[totals]", null);
+
+        Assert.assertEquals(Pagination.parseQueryParams(queryParams, elideSettings)
+                .evaluate(PaginationLogicTest.class).getTotalsStrategy(), Paginate.TotalsStrategy.QUERY);
+        Assert.assertEquals(Pagination.parseQueryParams(queryParams, elideSettings)
+                .evaluate(PeekTotals.class).getTotalsStrategy(), Paginate.TotalsStrategy.PEEK);
+    }
+
+    @Test
+    public void shouldParseApproximateTotals() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedStringMap();
+        queryParams.add("page[totals]", Pagination.APPROXIMATE_TOTALS);
+
+        Pagination pageData = Pagination.parseQueryParams(queryParams, elideSettings)
+                .evaluate(PaginationLogicTest.class);
+        Assert.assertTrue(pageData.isGenerateTotals());
+        Assert.assertTrue(pageData.isApproximateTotalsAllowed());
+
+        pageData.setApproximatePageTotals(1000);
+        Assert.assertTrue(pageData.isApproximatePageTotals());
+        pageData.setPageTotals(10);
+        Assert.assertFalse(pageData.isApproximatePageTotals());
+
+        queryParams.putSingle("page[totals]", "");
+        Assert.assertFalse(Pagination.parseQueryParams(queryParams, elideSettings)
+                .evaluate(PaginationLogicTest.class).isApproximateTotalsAllowed());
+    }
+
+    @Test
+    public void shouldParseQueryParamsForCursorAndSize() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedStringMap();
+        queryParams.add("page[after]", "abc");
+        queryParams.add("page[size]", "10");
+
+        Pagination pageData = Pagination.parseQueryParams(queryParams, elideSettings);
+        pageData = pageData.evaluate(PaginationLogicTest.class);
+        Assert.assertTrue(pageData.isKeyset());
+        Assert.assertEquals(pageData.getAfter().get(), "abc");
+        Assert.assertFalse(pageData.getBefore().isPresent());
+        Assert.assertEquals(pageData.getOffset(), 0);
+        Assert.assertEquals(pageData.getLimit(), 10);
+    }
+
+    @Test(expectedExceptions = InvalidValueException.class)
+    public void shouldThrowExceptionForCursorWithOffset() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedStringMap();
+        queryParams.add("page[after]", "abc");
+        queryParams.add("page[offset]", "10");
+
+        Pagination pageData = Pagination.parseQueryParams(queryParams, elideSettings);
+        pageData.evaluate(PaginationLogicTest.class);
+    }
+
+    @Test(expectedExceptions = InvalidValueException.class)
+    public void shouldThrowExceptionForBothCursors() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedStringMap();
+        queryParams.add("page[after]", "abc");
+        queryParams.add("page[before]", "def");
+
+        Pagination pageData = Pagination.parseQueryParams(queryParams, elideSettings);
+        pageData.evaluate(PaginationLogicTest.class);
+    }
 }
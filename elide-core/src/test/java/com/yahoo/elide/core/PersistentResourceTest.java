@@ -15,6 +15,7 @@ import com.yahoo.elide.annotation.DeletePermission;
 import com.yahoo.elide.annotation.Include;
 import com.yahoo.elide.annotation.ReadPermission;
 import com.yahoo.elide.annotation.SharePermission;
+import com.yahoo.elide.annotation.ThreadSafeCheck;
 import com.yahoo.elide.annotation.UpdatePermission;
 import com.yahoo.elide.audit.AuditLogger;
 import com.yahoo.elide.audit.LogMessage;
@@ -23,12 +24,16 @@ import com.yahoo.elide.core.exceptions.ForbiddenAccessException;
 import com.yahoo.elide.core.exceptions.InvalidAttributeException;
 import com.yahoo.elide.core.exceptions.InvalidObjectIdentifierException;
 import com.yahoo.elide.core.exceptions.InvalidValueException;
+import com.yahoo.elide.core.filter.FilterPredicate;
+import com.yahoo.elide.core.filter.Operator;
+import com.yahoo.elide.core.filter.expression.FilterExpression;
 import com.yahoo.elide.jsonapi.models.Data;
 import com.yahoo.elide.jsonapi.models.JsonApiDocument;
 import com.yahoo.elide.jsonapi.models.Relationship;
 import com.yahoo.elide.jsonapi.models.Resource;
 import com.yahoo.elide.jsonapi.models.ResourceIdentifier;
 import com.yahoo.elide.security.ChangeSpec;
+import com.yahoo.elide.security.FilterExpressionCheck;
 import com.yahoo.elide.security.User;
 import com.yahoo.elide.security.checks.OperationCheck;
 import example.Child;
@@ -59,6 +64,7 @@ import org.testng.annotations.Test;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.ManyToMany;
+import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
@@ -68,16 +74,22 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
@@ -237,6 +249,100 @@ public class PersistentResourceTest extends PersistentResource {
                 any(), any(), any(), eq(goodScope));
     }
 
+    @Test
+    public void testLineageIsSharedWithAncestors() {
+        DataStoreTransaction tx = mock(DataStoreTransaction.class);
+        RequestScope goodScope = new RequestScope(null, null, tx, new User(1), null, elideSettings);
+        PersistentResource<Parent> parentResource = new PersistentResource<>(new Parent(), null, "1", goodScope);
+        PersistentResource<Child> childResource = new PersistentResource<>(newChild(2), parentResource, "2", goodScope);
+        PersistentResource<Child> firstGrandChild =
+                new PersistentResource<>(newChild(3), childResource, "3", goodScope);
+        PersistentResource<Child> secondGrandChild =
+                new PersistentResource<>(newChild(4), childResource, "4", goodScope);
+
+        Assert.assertTrue(parentResource.getLineage().getKeys().isEmpty());
+        Assert.assertEquals(firstGrandChild.getLineage().getKeys(), Arrays.asList("parent", "child"));
+        Assert.assertEquals(firstGrandChild.getLineage().getRecord("child"), Collections.singletonList(childResource));
+        Assert.assertEquals(firstGrandChild.getLineage(), secondGrandChild.getLineage());
+
+        // Extending a lineage leaves the lineage it extends untouched
+        ResourceLineage extended = new ResourceLineage(firstGrandChild.getLineage(), firstGrandChild);
+        Assert.assertEquals(extended.getRecord("child"), Arrays.asList(childResource, firstGrandChild));
+        Assert.assertEquals(firstGrandChild.getLineage().getRecord("child"), Collections.singletonList(childResource));
+    }
+
+    @Test
+    public void testFilterInParallel() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        EntityDictionary parallelDictionary = new EntityDictionary(TestCheckMappings.MAPPINGS);
+        parallelDictionary.bindEntity(ParallelReadModel.class);
+        ElideSettings settings = new ElideSettingsBuilder(null)
+                .withEntityDictionary(parallelDictionary)
+                .withParallelPermissionChecks(pool, 10)
+                .build();
+        RequestScope scope = new RequestScope(null, null, null, new User(1), null, settings);
+        List<PersistentResource> resources = LongStream.range(0, 500)
+                .mapToObj(ParallelReadModel::new)
+                .map(model -> new PersistentResource<>(model, null, String.valueOf(model.id), scope))
+                .collect(Collectors.toList());
+
+        ThreadSafeEvenId.THREADS.clear();
+        Set<PersistentResource> filtered = PersistentResource.filter(ReadPermission.class,
+                new LinkedHashSet<>(resources), false);
+
+        List<Long> ids = filtered.stream()
+                .map(resource -> ((ParallelReadModel) resource.getObject()).id)
+                .collect(Collectors.toList());
+        Assert.assertEquals(ids, LongStream.range(0, 500).filter(id -> id % 2 == 0).boxed()
+                .collect(Collectors.toList()));
+        Assert.assertTrue(ThreadSafeEvenId.THREADS.stream()
+                .allMatch(thread -> thread instanceof ForkJoinWorkerThread
+                        && ((ForkJoinWorkerThread) thread).getPool() == pool));
+        pool.shutdown();
+    }
+
+    @Test
+    public void testGetRequiredFields() {
+        EntityDictionary projectionDictionary = new EntityDictionary(TestCheckMappings.MAPPINGS);
+        projectionDictionary.bindEntity(ProjectionModel.class);
+        projectionDictionary.bindEntity(InlineCheckedProjectionModel.class);
+        ElideSettings settings = new ElideSettingsBuilder(null)
+                .withEntityDictionary(projectionDictionary)
+                .build();
+
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        Assert.assertEquals(getRequiredFields(queryParams, settings), Optional.empty());
+
+        queryParams.add("fields[projectionModel]", "title");
+        Assert.assertEquals(getRequiredFields(queryParams, settings),
+                Optional.of(Sets.newHashSet("title", "owner")));
+
+        queryParams.add("sort", "-body");
+        Assert.assertEquals(getRequiredFields(queryParams, settings),
+                Optional.of(Sets.newHashSet("title", "owner", "body")));
+
+        queryParams.putSingle("fields[projectionModel]", "title,secret");
+        Assert.assertEquals(getRequiredFields(queryParams, settings),
+                Optional.of(Sets.newHashSet("title", "secret", "owner", "body")));
+
+        queryParams.putSingle("fields[projectionModel]", "title");
+        queryParams.add("include", "other");
+        Assert.assertEquals(getRequiredFields(queryParams, settings), Optional.empty());
+
+        // The inline read check of a field that is not requested is still evaluated against the loaded objects
+        MultivaluedMap<String, String> inlineQueryParams = new MultivaluedHashMap<>();
+        inlineQueryParams.add("fields[inlineCheckedProjectionModel]", "title");
+        RequestScope scope = new RequestScope(null, null, null, new User(1), inlineQueryParams, settings);
+        Assert.assertEquals(PersistentResource.getRequiredFields(InlineCheckedProjectionModel.class, scope),
+                Optional.empty());
+    }
+
+    private static Optional<Set<String>> getRequiredFields(MultivaluedMap<String, String> queryParams,
+                                                           ElideSettings settings) {
+        RequestScope scope = new RequestScope(null, null, null, new User(1), queryParams, settings);
+        return PersistentResource.getRequiredFields(ProjectionModel.class, scope);
+    }
+
     @Test
     public void testUpdateToManyRelationHookInRemoveRelationBidirection() {
         Parent parent = new Parent();
@@ -348,6 +454,33 @@ public class PersistentResourceTest extends PersistentResource {
         Assert.assertEquals(relationships.size(), 0, "All relationships should be filtered out");
     }
 
+    @Test
+    public void testGetRelationshipsLinksByIdOnly() {
+        Left left = new Left();
+        left.setId(1);
+        left.setOne2many(Sets.newHashSet());
+
+        DataStoreTransaction tx = mock(DataStoreTransaction.class, Answers.CALLS_REAL_METHODS);
+        doReturn(Arrays.asList(10L, 2L)).when(tx).getRelationIds(eq(tx), eq(left), eq("one2many"), any(), any());
+
+        RequestScope scope = new RequestScope(null, null, tx, new User(1), null, elideSettings);
+        Map<String, Relationship> relationships = new PersistentResource<>(left, null, "1", scope).getRelationships();
+
+        List<String> ids = relationships.get("one2many").getData().get().stream()
+                .map(Resource::getId)
+                .collect(Collectors.toList());
+        Assert.assertEquals(ids, Arrays.asList("2", "10"));
+        Assert.assertEquals(relationships.get("one2many").getData().get().iterator().next().getType(), "right");
+        verify(tx, never()).getRelation(eq(tx), eq(left), eq("one2many"), any(), any(), any(), any());
+
+        // Included relationships load the related entities
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.add("include", "one2many");
+        RequestScope includeScope = new RequestScope(null, null, tx, new User(1), queryParams, elideSettings);
+        new PersistentResource<>(left, null, "1", includeScope).getRelationships();
+        verify(tx, times(1)).getRelation(eq(tx), eq(left), eq("one2many"), any(), any(), any(), any());
+    }
+
     @Test(expectedExceptions = ForbiddenAccessException.class)
     public void testNoCreate() {
         Assert.assertNotNull(dictionary);
@@ -2096,4 +2229,59 @@ public class PersistentResourceTest extends PersistentResource {
             throw new IllegalStateException("Something is terribly wrong :(");
         }
     }
+
+    @ThreadSafeCheck
+    public static final class ThreadSafeEvenId extends OperationCheck<ParallelReadModel> {
+        private static final Set<Thread> THREADS = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public boolean ok(ParallelReadModel object, com.yahoo.elide.security.RequestScope requestScope,
+                          Optional<ChangeSpec> changeSpec) {
+            THREADS.add(Thread.currentThread());
+            return object.id % 2 == 0;
+        }
+    }
+
+    @Entity
+    @Include
+    @AllArgsConstructor
+    @ReadPermission(expression = "threadSafeEvenId OR deny all")
+    public static final class ParallelReadModel {
+        @Id
+        public long id;
+    }
+
+    public static final class OwnedByUser extends FilterExpressionCheck<ProjectionModel> {
+        @Override
+        public FilterExpression getFilterExpression(Class<?> entityClass,
+                                                    com.yahoo.elide.security.RequestScope requestScope) {
+            return new FilterPredicate(new FilterPredicate.PathElement(ProjectionModel.class, long.class, "owner"),
+                    Operator.IN, Collections.singletonList(requestScope.getUser().getOpaqueUser()));
+        }
+    }
+
+    @Entity
+    @Include
+    @ReadPermission(expression = "ownedByUser")
+    public static final class ProjectionModel {
+        @Id
+        public long id;
+        public String title;
+        public String body;
+        public long owner;
+        @ReadPermission(expression = "ownedByUser")
+        public String secret;
+        @OneToMany
+        public Set<ProjectionModel> other;
+    }
+
+    @Entity
+    @Include
+    public static final class InlineCheckedProjectionModel {
+        @Id
+        public long id;
+        public String title;
+        @ReadPermission(expression = "threadSafeEvenId")
+        public String secret;
+    }
 }
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.datastore.inmemory;
+
+import com.google.common.collect.ImmutableSet;
+import com.yahoo.elide.core.DataStoreTransaction;
+import com.yahoo.elide.core.EntityDictionary;
+import example.Author;
+import example.Book;
+import org.apache.commons.lang3.tuple.Pair;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class DurableStorageTest {
+    private Path directory;
+
+    @BeforeMethod
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("elide-inmemory");
+    }
+
+    @AfterMethod
+    public void cleanup() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @DataProvider
+    public Object[][] modes() {
+        return new Object[][] {{false}, {true}};
+    }
+
+    @Test(dataProvider = "modes")
+    public void testRecoverFromSnapshotAndLog(boolean mvcc) throws Exception {
+        String bookId;
+        String authorId;
+        try (InMemoryDataStore store = open(mvcc)) {
+            Book kept = newBook("Foo", 1);
+            Book deleted = newBook("Bar", 2);
+            Author author = new Author();
+            author.setName("Jane");
+            author.getBooks().add(kept);
+            author.getBooks().add(deleted);
+            kept.getAuthors().add(author);
+            deleted.getAuthors().add(author);
+            try (DataStoreTransaction tx = store.beginTransaction()) {
+                tx.createObject(kept, null);
+                tx.createObject(deleted, null);
+                tx.createObject(author, null);
+                tx.commit(null);
+            }
+            bookId = String.valueOf(kept.getId());
+            authorId = String.valueOf(author.getId());
+
+            store.snapshot();
+
+            try (DataStoreTransaction tx = store.beginTransaction()) {
+                Book book = (Book) tx.loadObject(Book.class, bookId, Optional.empty(), null);
+                book.setTitle("Baz");
+                Author writer = (Author) tx.loadObject(Author.class, authorId, Optional.empty(), null);
+                Book other = writer.getBooks().stream().filter(b -> b.getId() != book.getId()).findFirst().get();
+                writer.getBooks().remove(other);
+                tx.save(book, null);
+                tx.save(writer, null);
+                tx.delete(other, null);
+                tx.commit(null);
+            }
+        }
+
+        try (InMemoryDataStore store = open(mvcc);
+             DataStoreTransaction tx = store.beginReadTransaction()) {
+            Set<String> titles = new HashSet<>();
+            tx.loadObjects(Book.class, Optional.empty(), Optional.empty(), Optional.empty(), null)
+                    .forEach(book -> titles.add(((Book) book).getTitle()));
+            Assert.assertEquals(titles, ImmutableSet.of("Baz"));
+
+            Book book = (Book) tx.loadObject(Book.class, bookId, Optional.empty(), null);
+            Assert.assertEquals(book.getPublishDate(), 1);
+            Author author = (Author) tx.loadObject(Author.class, authorId, Optional.empty(), null);
+            Assert.assertEquals(author.getName(), "Jane");
+            Collection<Book> books = author.getBooks();
+            Assert.assertEquals(books.size(), 1);
+            Assert.assertSame(books.iterator().next(), book);
+            Assert.assertSame(book.getAuthors().iterator().next(), author);
+        }
+    }
+
+    @Test
+    public void testTornRecordIsCutOff() throws Exception {
+        try (InMemoryDataStore store = open(false);
+             DataStoreTransaction tx = store.beginTransaction()) {
+            tx.createObject(newBook("Foo", 1), null);
+            tx.commit(null);
+        }
+
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.getFileName().toString().startsWith("wal-")).findFirst().get();
+        }
+        long size = Files.size(segment);
+        Files.write(segment, new byte[] {0, 0, 1, 0, 42}, StandardOpenOption.APPEND);
+
+        try (InMemoryDataStore store = open(false);
+             DataStoreTransaction tx = store.beginTransaction()) {
+            Assert.assertEquals(Files.size(segment), size);
+            tx.createObject(newBook("Bar", 2), null);
+            tx.commit(null);
+        }
+
+        try (InMemoryDataStore store = open(false);
+             DataStoreTransaction tx = store.beginReadTransaction()) {
+            Set<String> titles = new HashSet<>();
+            tx.loadObjects(Book.class, Optional.empty(), Optional.empty(), Optional.empty(), null)
+                    .forEach(book -> titles.add(((Book) book).getTitle()));
+            Assert.assertEquals(titles, ImmutableSet.of("Foo", "Bar"));
+        }
+    }
+
+    @Test(dataProvider = "modes")
+    public void testRecoveryKeepsLoggedIds(boolean mvcc) throws Exception {
+        try (InMemoryDataStore store = open(mvcc);
+             InMemoryTransaction tx = (InMemoryTransaction) store.beginTransaction()) {
+            Book book = newBook("Foo", 1);
+            book.setId(0);
+            tx.restore(Collections.singletonMap(Pair.of(Book.class, "0"), book));
+            tx.commit(null);
+        }
+
+        try (InMemoryDataStore store = open(mvcc);
+             DataStoreTransaction tx = store.beginReadTransaction()) {
+            Book book = (Book) tx.loadObject(Book.class, "0", Optional.empty(), null);
+            Assert.assertEquals(book.getTitle(), "Foo");
+            Assert.assertEquals(book.getId(), 0);
+        }
+    }
+
+    @Test(dataProvider = "modes", timeOut = 60000)
+    public void testSnapshotDuringConcurrentCommits(boolean mvcc) throws Exception {
+        int writers = 4;
+        int commits = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try (InMemoryDataStore store = open(mvcc)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int writer = 0; writer < writers; writer++) {
+                String prefix = "Writer" + writer + "-";
+                futures.add(executor.submit(() -> {
+                    for (int commit = 0; commit < commits; commit++) {
+                        try (DataStoreTransaction tx = store.beginTransaction()) {
+                            tx.createObject(newBook(prefix + commit, commit), null);
+                            tx.commit(null);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            while (!futures.stream().allMatch(Future::isDone)) {
+                store.snapshot();
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        try (InMemoryDataStore store = open(mvcc);
+             DataStoreTransaction tx = store.beginReadTransaction()) {
+            Set<String> titles = new HashSet<>();
+            tx.loadObjects(Book.class, Optional.empty(), Optional.empty(), Optional.empty(), null)
+                    .forEach(book -> titles.add(((Book) book).getTitle()));
+            Assert.assertEquals(titles.size(), writers * commits);
+        }
+    }
+
+    @Test
+    public void testFailedWriteFailsLaterCommits() throws Exception {
+        WriteAheadLog wal = new WriteAheadLog(directory, 0);
+        AtomicInteger published = new AtomicInteger();
+        wal.commit(new byte[] {1}, published::incrementAndGet);
+        // Writing to the closed segment fails
+        wal.close();
+
+        Assert.expectThrows(IOException.class, () -> wal.commit(new byte[] {2}, published::incrementAndGet));
+        Assert.expectThrows(IOException.class, () -> wal.commit(new byte[] {3}, published::incrementAndGet));
+        Assert.assertEquals(published.get(), 1);
+    }
+
+    private InMemoryDataStore open(boolean mvcc) {
+        InMemoryDataStore store = new InMemoryDataStore(Book.class.getPackage()).withDurability(directory, null);
+        if (mvcc) {
+            store.withMvcc();
+        }
+        store.populateEntityDictionary(new EntityDictionary(new HashMap<>()));
+        return store;
+    }
+
+    private static Book newBook(String title, long publishDate) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setPublishDate(publishDate);
+        return book;
+    }
+}
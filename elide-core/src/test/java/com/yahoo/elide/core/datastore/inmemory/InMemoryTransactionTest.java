@@ -0,0 +1,190 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.datastore.inmemory;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.yahoo.elide.ElideSettingsBuilder;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.filter.FilterPredicate;
+import com.yahoo.elide.core.filter.Operator;
+import com.yahoo.elide.core.filter.expression.AndFilterExpression;
+import com.yahoo.elide.core.filter.expression.FilterExpression;
+import com.yahoo.elide.core.pagination.Pagination;
+import com.yahoo.elide.core.sort.Sorting;
+import example.Author;
+import example.Book;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class InMemoryTransactionTest {
+    private EntityDictionary dictionary;
+    private ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, Object>> dataStore;
+    private Map<Class<?>, Map<String, FieldIndex>> indexes;
+    private SortedIndex titleIndex;
+
+    @BeforeMethod
+    public void setup() {
+        dictionary = new EntityDictionary(new HashMap<>());
+        dictionary.bindEntity(Book.class);
+        dictionary.bindEntity(Author.class);
+
+        dataStore = new ConcurrentHashMap<>();
+        dataStore.put(Book.class, new ConcurrentHashMap<>());
+
+        titleIndex = new SortedIndex("title");
+        indexes = Collections.singletonMap(Book.class, ImmutableMap.of(
+                "title", titleIndex,
+                "publishDate", new SortedIndex("publishDate"),
+                "genre", new HashIndex("genre")));
+    }
+
+    @Test
+    public void testIndexedFilters() throws Exception {
+        Book apple = newBook("apple", "fruit", 1);
+        Book apricot = newBook("apricot", "fruit", 2);
+        Book banana = newBook("banana", "fruit", 3);
+        Book kale = newBook("kale", "vegetable", 4);
+        try (InMemoryTransaction tx = new InMemoryTransaction(dataStore, dictionary, indexes)) {
+            tx.createObject(apple, null);
+            tx.createObject(apricot, null);
+            tx.createObject(banana, null);
+            tx.createObject(kale, null);
+            tx.commit(null);
+        }
+
+        Assert.assertEquals(titleIndex.lookup(Operator.PREFIX, Collections.singletonList("ap")).get(),
+                ImmutableSet.of(String.valueOf(apple.getId()), String.valueOf(apricot.getId())));
+
+        Assert.assertEquals(loadTitles(predicate("title", Operator.PREFIX, "ap")),
+                ImmutableSet.of("apple", "apricot"));
+        Assert.assertEquals(loadTitles(predicate("title", Operator.GT, "apricot")),
+                ImmutableSet.of("banana", "kale"));
+        Assert.assertEquals(loadTitles(predicate("genre", Operator.IN, "vegetable")),
+                ImmutableSet.of("kale"));
+        Assert.assertEquals(loadTitles(new AndFilterExpression(
+                        predicate("genre", Operator.IN, "fruit"),
+                        predicate("publishDate", Operator.GE, "2"))),
+                ImmutableSet.of("apricot", "banana"));
+    }
+
+    @Test
+    public void testIndexesFollowCommits() throws Exception {
+        Book apple = newBook("apple", "fruit", 1);
+        Book banana = newBook("banana", "fruit", 2);
+        try (InMemoryTransaction tx = new InMemoryTransaction(dataStore, dictionary, indexes)) {
+            tx.createObject(apple, null);
+            tx.createObject(banana, null);
+            tx.commit(null);
+        }
+
+        try (InMemoryTransaction tx = new InMemoryTransaction(dataStore, dictionary, indexes)) {
+            banana.setTitle("apfel");
+            tx.save(banana, null);
+            tx.delete(apple, null);
+            tx.commit(null);
+        }
+
+        Assert.assertEquals(loadTitles(predicate("title", Operator.PREFIX, "ap")), ImmutableSet.of("apfel"));
+        Assert.assertEquals(loadTitles(predicate("title", Operator.IN, "banana")), ImmutableSet.of());
+        Assert.assertEquals(titleIndex.lookup(Operator.LE, Collections.singletonList("zzz")).get(),
+                ImmutableSet.of(String.valueOf(banana.getId())));
+    }
+
+    @Test
+    public void testSortingAndPagination() throws Exception {
+        try (InMemoryTransaction tx = new InMemoryTransaction(dataStore, dictionary, indexes)) {
+            tx.createObject(newBook("apple", "fruit", 3), null);
+            tx.createObject(newBook("apricot", "fruit", 1), null);
+            tx.createObject(newBook("banana", "fruit", 4), null);
+            tx.createObject(newBook("kale", "vegetable", 2), null);
+            tx.createObject(newBook(null, "vegetable", 5), null);
+            tx.commit(null);
+        }
+
+        Sorting byTitleDesc = new Sorting(Collections.singletonMap("title", Sorting.SortOrder.desc));
+        Sorting byGenreThenDate = new Sorting(ImmutableMap.of(
+                "genre", Sorting.SortOrder.desc, "publishDate", Sorting.SortOrder.asc));
+
+        Assert.assertEquals(loadTitles(Optional.of(byTitleDesc), Optional.empty()),
+                Arrays.asList("kale", "banana", "apricot", "apple", null));
+        Assert.assertEquals(loadTitles(Optional.of(byGenreThenDate), Optional.empty()),
+                Arrays.asList("kale", null, "apricot", "apple", "banana"));
+
+        Pagination page = pagination("2", "2");
+        Assert.assertEquals(loadTitles(Optional.of(byTitleDesc), Optional.of(page)),
+                Arrays.asList("apricot", "apple"));
+        Assert.assertEquals(page.getPageTotals(), 5);
+
+        page = pagination("3", "2");
+        Assert.assertEquals(loadTitles(Optional.of(byGenreThenDate), Optional.of(page)),
+                Collections.singletonList("banana"));
+
+        page = pagination("2", "4");
+        Assert.assertEquals(loadTitles(Optional.empty(), Optional.of(page)).size(), 1);
+        Assert.assertEquals(page.getPageTotals(), 5);
+    }
+
+    private List<String> loadTitles(Optional<Sorting> sorting, Optional<Pagination> pagination) throws Exception {
+        List<String> titles = new ArrayList<>();
+        try (InMemoryTransaction tx = new InMemoryTransaction(dataStore, dictionary, indexes)) {
+            for (Object book : tx.loadObjects(Book.class, Optional.empty(), sorting, pagination, null)) {
+                titles.add(((Book) book).getTitle());
+            }
+        }
+        return titles;
+    }
+
+    private Pagination pagination(String number, String size) {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.add("page[number]", number);
+        queryParams.add("page[size]", size);
+        queryParams.add("page[totals]", null);
+        return Pagination.parseQueryParams(queryParams,
+                new ElideSettingsBuilder(null).withEntityDictionary(dictionary).build()).evaluate(Book.class);
+    }
+
+    private Set<String> loadTitles(FilterExpression filterExpression) throws Exception {
+        Set<String> titles = new HashSet<>();
+        try (InMemoryTransaction tx = new InMemoryTransaction(dataStore, dictionary, indexes)) {
+            RequestScope scope = new RequestScope(null, null, tx, null, null,
+                    new ElideSettingsBuilder(null).withEntityDictionary(dictionary).build());
+            for (Object book : tx.loadObjects(Book.class, Optional.of(filterExpression),
+                    Optional.empty(), Optional.empty(), scope)) {
+                titles.add(((Book) book).getTitle());
+            }
+        }
+        return titles;
+    }
+
+    private static FilterPredicate predicate(String field, Operator operator, Object value) {
+        return new FilterPredicate(new FilterPredicate.PathElement(Book.class, String.class, field),
+                operator, Collections.singletonList(value));
+    }
+
+    private static Book newBook(String title, String genre, long publishDate) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setGenre(genre);
+        book.setPublishDate(publishDate);
+        return book;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.datastore.inmemory;
+
+import com.yahoo.elide.ElideSettingsBuilder;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.exceptions.TransactionException;
+import example.Author;
+import example.Book;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+
+public class MvccTransactionTest {
+    private EntityDictionary dictionary;
+    private MvccStore store;
+
+    @BeforeMethod
+    public void setup() {
+        dictionary = new EntityDictionary(new HashMap<>());
+        dictionary.bindEntity(Book.class);
+        dictionary.bindEntity(Author.class);
+
+        store = new MvccStore();
+        store.register(Book.class);
+        store.register(Author.class);
+    }
+
+    @Test
+    public void testReadersSeeTheirSnapshot() throws Exception {
+        Book book = new Book();
+        book.setTitle("Foo");
+        try (MvccTransaction writer = begin(false)) {
+            writer.createObject(book, null);
+            writer.commit(null);
+        }
+
+        try (MvccTransaction before = begin(true);
+             MvccTransaction writer = begin(false)) {
+            Book copy = (Book) writer.loadObject(Book.class, book.getId(), Optional.empty(), null);
+            Assert.assertNotSame(copy, book);
+            copy.setTitle("Bar");
+            writer.save(copy, null);
+            Book created = new Book();
+            created.setTitle("Baz");
+            writer.createObject(created, null);
+
+            Assert.assertEquals(titles(before), Collections.singletonList("Foo"));
+            writer.commit(null);
+            Assert.assertEquals(titles(before), Collections.singletonList("Foo"));
+            Assert.assertEquals(book.getTitle(), "Foo");
+
+            try (MvccTransaction after = begin(true)) {
+                List<String> titles = titles(after);
+                Collections.sort(titles);
+                Assert.assertEquals(titles, Arrays.asList("Bar", "Baz"));
+            }
+        }
+
+        try (MvccTransaction writer = begin(false);
+             MvccTransaction before = begin(true)) {
+            writer.delete(writer.loadObject(Book.class, book.getId(), Optional.empty(), null), null);
+            writer.commit(null);
+
+            Assert.assertNotNull(before.loadObject(Book.class, book.getId(), Optional.empty(), null));
+            try (MvccTransaction after = begin(true)) {
+                Assert.assertNull(after.loadObject(Book.class, book.getId(), Optional.empty(), null));
+            }
+        }
+    }
+
+    @Test(expectedExceptions = TransactionException.class)
+    public void testFirstCommitterWins() throws Exception {
+        Book book = new Book();
+        book.setTitle("Foo");
+        try (MvccTransaction writer = begin(false)) {
+            writer.createObject(book, null);
+            writer.commit(null);
+        }
+
+        try (MvccTransaction first = begin(false);
+             MvccTransaction second = begin(false)) {
+            Book firstCopy = (Book) first.loadObject(Book.class, book.getId(), Optional.empty(), null);
+            Book secondCopy = (Book) second.loadObject(Book.class, book.getId(), Optional.empty(), null);
+            firstCopy.setTitle("Bar");
+            secondCopy.setTitle("Baz");
+            first.save(firstCopy, null);
+            second.save(secondCopy, null);
+
+            first.commit(null);
+            second.commit(null);
+        }
+    }
+
+    @Test
+    public void testRelationsResolveInSnapshot() throws Exception {
+        Book book = new Book();
+        book.setTitle("Foo");
+        Author author = new Author();
+        author.setName("Jane");
+        author.setBooks(new ArrayList<>(Collections.singletonList(book)));
+        try (MvccTransaction writer = begin(false)) {
+            writer.createObject(book, null);
+            writer.createObject(author, null);
+            writer.commit(null);
+        }
+
+        try (MvccTransaction before = begin(true);
+             MvccTransaction writer = begin(false)) {
+            Book copy = (Book) writer.loadObject(Book.class, book.getId(), Optional.empty(), null);
+            copy.setTitle("Bar");
+            writer.save(copy, null);
+
+            Author authorCopy = (Author) writer.loadObject(Author.class, author.getId(), Optional.empty(), null);
+            Collection<?> books = (Collection<?>) writer.getRelation(writer, authorCopy, "books",
+                    Optional.empty(), Optional.empty(), Optional.empty(), scope(writer));
+            Assert.assertSame(books.iterator().next(), copy);
+
+            writer.commit(null);
+
+            books = (Collection<?>) before.getRelation(before, author, "books",
+                    Optional.empty(), Optional.empty(), Optional.empty(), scope(before));
+            Assert.assertEquals(((Book) books.iterator().next()).getTitle(), "Foo");
+
+            try (MvccTransaction after = begin(true)) {
+                books = (Collection<?>) after.getRelation(after, author, "books",
+                        Optional.empty(), Optional.empty(), Optional.empty(), scope(after));
+                Assert.assertEquals(((Book) books.iterator().next()).getTitle(), "Bar");
+            }
+        }
+    }
+
+    private MvccTransaction begin(boolean readOnly) {
+        return new MvccTransaction(store, dictionary, Collections.emptyMap(), readOnly, null);
+    }
+
+    private RequestScope scope(MvccTransaction tx) {
+        return new RequestScope(null, null, tx, null, null,
+                new ElideSettingsBuilder(null).withEntityDictionary(dictionary).build());
+    }
+
+    private static List<String> titles(MvccTransaction tx) {
+        List<String> titles = new ArrayList<>();
+        tx.loadObjects(Book.class, Optional.empty(), Optional.empty(), Optional.empty(), null)
+                .forEach(book -> titles.add(((Book) book).getTitle()));
+        return titles;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.pagination;
+
+import com.yahoo.elide.ElideSettings;
+import com.yahoo.elide.ElideSettingsBuilder;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.exceptions.InvalidValueException;
+import com.yahoo.elide.core.filter.expression.InMemoryFilterVisitor;
+import com.yahoo.elide.core.sort.Sorting;
+import example.Book;
+import org.glassfish.jersey.internal.util.collection.MultivaluedStringMap;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.MultivaluedMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Tests keyset pagination cursors.
+ */
+public class KeysetCursorTest {
+    private final EntityDictionary dictionary = new EntityDictionary(Collections.emptyMap());
+    private final ElideSettings elideSettings;
+    private final RequestScope requestScope;
+    private final Optional<Sorting> byTitle =
+            Optional.of(new Sorting(Collections.singletonMap("title", Sorting.SortOrder.asc)));
+    private final List<Book> books = Arrays.asList(book(1, "A"), book(2, "B"), book(3, "B"), book(4, "C"));
+
+    public KeysetCursorTest() {
+        dictionary.bindEntity(Book.class);
+        elideSettings = new ElideSettingsBuilder(null).withEntityDictionary(dictionary).build();
+        requestScope = new RequestScope(null, null, null, null, null, elideSettings);
+    }
+
+    @Test
+    public void testPageAfter() {
+        KeysetCursor cursor = cursor(Pagination.PAGE_AFTER_KEY, books.get(1));
+
+        Assert.assertFalse(cursor.isBefore());
+        Assert.assertEquals(seek(cursor), Arrays.asList(3L, 4L));
+        Assert.assertEquals(cursor.getSorting().getValidSortingRules(Book.class, dictionary).values(),
+                Arrays.asList(Sorting.SortOrder.asc, Sorting.SortOrder.asc));
+    }
+
+    @Test
+    public void testPageBefore() {
+        KeysetCursor cursor = cursor(Pagination.PAGE_BEFORE_KEY, books.get(2));
+
+        Assert.assertTrue(cursor.isBefore());
+        Assert.assertEquals(seek(cursor), Arrays.asList(1L, 2L));
+        Assert.assertEquals(cursor.getSorting().getValidSortingRules(Book.class, dictionary).values(),
+                Arrays.asList(Sorting.SortOrder.desc, Sorting.SortOrder.desc));
+        Assert.assertEquals(cursor.order(Arrays.asList(2, 1)), Arrays.asList(1, 2));
+    }
+
+    @Test(expectedExceptions = InvalidValueException.class)
+    public void testCursorMustMatchSortOrder() {
+        String cursor = KeysetCursor.encode(books.get(0), Book.class, Optional.empty(), requestScope);
+        KeysetCursor.fromPagination(pagination(Pagination.PAGE_AFTER_KEY, cursor), Book.class, byTitle, dictionary);
+    }
+
+    @Test(expectedExceptions = InvalidValueException.class)
+    public void testInvalidCursor() {
+        KeysetCursor.fromPagination(pagination(Pagination.PAGE_AFTER_KEY, "%%%"), Book.class, byTitle, dictionary);
+    }
+
+    private KeysetCursor cursor(String key, Book book) {
+        String encoded = KeysetCursor.encode(book, Book.class, byTitle, requestScope);
+        return KeysetCursor.fromPagination(pagination(key, encoded), Book.class, byTitle, dictionary).get();
+    }
+
+    private Pagination pagination(String key, String cursor) {
+        MultivaluedMap<String, String> queryParams = new MultivaluedStringMap();
+        queryParams.add(key, cursor);
+        return Pagination.parseQueryParams(queryParams, elideSettings).evaluate(Book.class);
+    }
+
+    private List<Long> seek(KeysetCursor cursor) {
+        Predicate<Book> predicate = cursor.getSeekPredicate().accept(new InMemoryFilterVisitor(requestScope));
+        return books.stream().filter(predicate).map(Book::getId).collect(Collectors.toList());
+    }
+
+    private static Book book(long id, String title) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        return book;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.endpoints;
+
+import com.yahoo.elide.Elide;
+import com.yahoo.elide.ElideResponse;
+import com.yahoo.elide.async.AsyncJsonApiEndpoint;
+import org.mockito.ArgumentCaptor;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AsyncJsonApiEndpointTest {
+
+    @Test
+    public void testResumesWithResponse() {
+        Elide elide = mock(Elide.class);
+        CompletableFuture<ElideResponse> future = new CompletableFuture<>();
+        when(elide.getAsync(eq("book"), any(), any())).thenReturn(future);
+        AsyncResponse asyncResponse = mock(AsyncResponse.class);
+
+        new AsyncJsonApiEndpoint(elide, null).get("book", uriInfo(), null, asyncResponse);
+        future.complete(new ElideResponse(200, "{}"));
+
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(response.capture());
+        Assert.assertEquals(response.getValue().getStatus(), 200);
+        Assert.assertEquals(response.getValue().getEntity(), "{}");
+    }
+
+    @Test
+    public void testRejectedRequestIsUnavailable() {
+        Elide elide = mock(Elide.class);
+        CompletableFuture<ElideResponse> rejected = new CompletableFuture<>();
+        rejected.completeExceptionally(new RejectedExecutionException());
+        when(elide.getAsync(eq("book"), any(), any())).thenReturn(rejected);
+        AsyncResponse asyncResponse = mock(AsyncResponse.class);
+
+        new AsyncJsonApiEndpoint(elide, null).get("book", uriInfo(), null, asyncResponse);
+
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(response.capture());
+        Assert.assertEquals(response.getValue().getStatus(), Response.Status.SERVICE_UNAVAILABLE.getStatusCode());
+    }
+
+    private static UriInfo uriInfo() {
+        UriInfo uriInfo = mock(UriInfo.class);
+        when(uriInfo.getQueryParameters()).thenReturn(new MultivaluedHashMap<>());
+        return uriInfo;
+    }
+}
@@ -28,17 +28,24 @@ import javax.ws.rs.core.MultivaluedMap;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 
 public class IncludedProcessorTest {
     private static final String INCLUDE = "include";
 
     private IncludedProcessor includedProcessor;
+    private DataStoreTransaction transaction;
 
     private PersistentResource<Parent> parentRecord1;
     private PersistentResource<Parent> parentRecord2;
@@ -57,8 +64,9 @@ public class IncludedProcessorTest {
         dictionary.bindEntity(Child.class);
         dictionary.bindEntity(Parent.class);
 
+        transaction = mock(DataStoreTransaction.class, Answers.CALLS_REAL_METHODS);
         RequestScope goodUserScope = new RequestScope(null,
-                new JsonApiDocument(), mock(DataStoreTransaction.class, Answers.CALLS_REAL_METHODS),
+                new JsonApiDocument(), transaction,
                 new User(1), null,
                 new ElideSettingsBuilder(null)
                         .withAuditLogger(new TestAuditLogger())
@@ -111,6 +119,29 @@ public class IncludedProcessorTest {
                 "Included Processor added single requested resource from 'include' query param");
     }
 
+    @Test
+    public void testExecuteLoadsEachLevelInOneBatch() throws Exception {
+        JsonApiDocument jsonApiDocument = new JsonApiDocument();
+
+        Set<PersistentResource> parents = new LinkedHashSet<>(Arrays.asList(parentRecord1, parentRecord3));
+
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.put(INCLUDE, Collections.singletonList("children,children.friends"));
+        includedProcessor.execute(jsonApiDocument, parents, Optional.of(queryParams));
+
+        verify(transaction, times(1)).getRelations(any(), anyCollection(), eq("children"), any(), any());
+        verify(transaction, times(1)).getRelations(any(), anyCollection(), eq("friends"), any(), any());
+
+        Set<Resource> expectedIncluded = Sets.newHashSet(
+                childRecord1.toResource(),
+                childRecord2.toResource(),
+                childRecord3.toResource(),
+                childRecord4.toResource()
+        );
+        Assert.assertEquals(new HashSet<>(jsonApiDocument.getIncluded()), expectedIncluded,
+                "Included Processor added requested resources loaded level by level");
+    }
+
     @Test
     public void testExecuteSingleRelationOnCollection() throws Exception {
         JsonApiDocument jsonApiDocument = new JsonApiDocument();
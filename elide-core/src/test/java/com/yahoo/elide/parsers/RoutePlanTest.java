@@ -0,0 +1,106 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.parsers;
+
+import com.yahoo.elide.Elide;
+import com.yahoo.elide.generated.parsers.CoreLexer;
+import com.yahoo.elide.generated.parsers.CoreParser;
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+import org.antlr.v4.runtime.tree.Trees;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+public class RoutePlanTest {
+
+    @DataProvider
+    public Object[][] plannedPaths() {
+        return new Object[][] {
+                {"book", "book"},
+                {"/book/", "book"},
+                {"book/1", "book/1"},
+                {"//book//1/", "book/1"},
+                {"book/1/authors", "book/1/authors"},
+                {"book/1/authors/2", "book/1/authors/2"},
+                {"book/1/relationships/authors", "book/1/relationships/authors"},
+                {"book/1/authors/2/relationships/books", "book/1/authors/2/relationships/books"},
+                {"book/1/authors/2/books/3/publisher", "book/1/authors/2/books/3/publisher"},
+                {"a-b_c.d/x!~*'()", "a-b_c.d/x!~*'()"},
+        };
+    }
+
+    @Test(dataProvider = "plannedPaths")
+    public void testPlannedTreeMatchesAntlr(String path, String normalized) {
+        ParseTree planned = RoutePlan.parse(path);
+        assertNotNull(planned, path);
+        assertSameTree(planned, antlrParse(normalized));
+    }
+
+    @DataProvider
+    public Object[][] unplannedPaths() {
+        return new Object[][] {
+                {""},
+                {"/"},
+                {"book/./1"},
+                {"book/1/../2"},
+                {"book/1 2"},
+                {"book\\1"},
+                {"book/1/relationships"},
+                {"relationships"},
+                {"book/relationships/authors"},
+                {"book/1/relationships/authors/2"},
+                {"book/1/relationships/relationships"},
+        };
+    }
+
+    @Test(dataProvider = "unplannedPaths")
+    public void testUnusualPathsFallBack(String path) {
+        assertNull(RoutePlan.parse(path), path);
+    }
+
+    @Test(expectedExceptions = ParseCancellationException.class)
+    public void testInvalidPathStillRejected() {
+        Elide.parse("book/1/relationships");
+    }
+
+    @Test
+    public void testPlansAreSharedByShape() {
+        RoutePlan first = RoutePlan.planFor(RoutePlan.tokenize("book/1/authors"));
+        RoutePlan second = RoutePlan.planFor(RoutePlan.tokenize("author/7/books"));
+        assertSame(first, second);
+    }
+
+    private static ParseTree antlrParse(String path) {
+        CoreParser parser = new CoreParser(new CommonTokenStream(new CoreLexer(new ANTLRInputStream(path))));
+        parser.setErrorHandler(new BailErrorStrategy());
+        return parser.start();
+    }
+
+    private static void assertSameTree(ParseTree actual, ParseTree expected) {
+        assertEquals(Trees.toStringTree(actual, Arrays.asList(CoreParser.ruleNames)),
+                Trees.toStringTree(expected, Arrays.asList(CoreParser.ruleNames)));
+        assertEquals(actual.getClass(), expected.getClass());
+        assertEquals(actual.getChildCount(), expected.getChildCount());
+        if (expected instanceof TerminalNode) {
+            assertEquals(((TerminalNode) actual).getSymbol().getType(), ((TerminalNode) expected).getSymbol().getType());
+        }
+        for (int i = 0; i < expected.getChildCount(); i++) {
+            assertSame(actual.getChild(i).getParent(), actual);
+            assertSameTree(actual.getChild(i), expected.getChild(i));
+        }
+    }
+}
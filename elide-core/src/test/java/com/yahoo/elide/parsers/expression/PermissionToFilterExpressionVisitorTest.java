@@ -19,6 +19,7 @@ import com.yahoo.elide.core.filter.Operator;
 import com.yahoo.elide.core.filter.expression.FilterExpression;
 import com.yahoo.elide.core.filter.expression.OrFilterExpression;
 import com.yahoo.elide.security.ChangeSpec;
+import com.yahoo.elide.security.CompanionFilter;
 import com.yahoo.elide.security.FilterExpressionCheck;
 import com.yahoo.elide.security.RequestScope;
 import com.yahoo.elide.security.User;
@@ -71,6 +72,7 @@ public class PermissionToFilterExpressionVisitorTest {
         checks.put("LESS than predicate", FilterExpressionCheck2.class);
         checks.put("GREATER than EQUAL to predicate", FilterExpressionCheck2Negated.class);
         checks.put("user has no access", Role.NONE.class);
+        checks.put("LESS than companion", CompanionFilterCheck.class);
 
         dictionary = new EntityDictionary(checks);
         dictionary.bindEntity(Model.class);
@@ -315,6 +317,30 @@ public class PermissionToFilterExpressionVisitorTest {
         compareEqualNotFilterExpression(TargetClass.class, TargetClassNegated.class);
     }
 
+    @Test
+    public void testCompanionFilter() {
+        @Entity
+        @Include
+        @ReadPermission(expression = "(LESS than companion AND Allow) OR IN predicate")
+        class TargetClass {
+        }
+
+        FilterExpression expected = new OrFilterExpression(createDummyPredicate(Operator.LT),
+                createDummyPredicate(Operator.IN));
+        Assert.assertEquals(extractFilterExpression(TargetClass.class), expected);
+    }
+
+    @Test
+    public void testNotWithCompanionFilter() {
+        @Entity
+        @Include
+        @ReadPermission(expression = "NOT (LESS than companion AND IN predicate)")
+        class TargetClass {
+        }
+
+        Assert.assertTrue(extractFilterExpression(TargetClass.class) == NO_EVALUATION_EXPRESSION);
+    }
+
     @Test
     public void testNotWithOperationCheck() {
         @Entity
@@ -355,6 +381,18 @@ public class PermissionToFilterExpressionVisitorTest {
     static class Model {
     }
 
+    public static class CompanionFilterCheck extends OperationCheck<Model> implements CompanionFilter {
+        @Override
+        public boolean ok(Model object, RequestScope requestScope, Optional<ChangeSpec> changeSpec) {
+            return true;
+        }
+
+        @Override
+        public FilterExpression getCompanionFilter(Class<?> entityClass, RequestScope requestScope) {
+            return createDummyPredicate(Operator.LT);
+        }
+    }
+
     public static class Permissions {
         public static class Succeeds extends OperationCheck<Model> {
             @Override
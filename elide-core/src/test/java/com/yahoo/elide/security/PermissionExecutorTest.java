@@ -15,16 +15,24 @@ import com.yahoo.elide.core.EntityDictionary;
 import com.yahoo.elide.core.PersistentResource;
 import com.yahoo.elide.core.RequestScope;
 import com.yahoo.elide.core.exceptions.ForbiddenAccessException;
+import com.yahoo.elide.security.checks.BatchInlineCheck;
 import com.yahoo.elide.security.checks.CommitCheck;
 import com.yahoo.elide.security.checks.OperationCheck;
 import com.yahoo.elide.security.checks.UserCheck;
 import example.TestCheckMappings;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 public class PermissionExecutorTest {
 
@@ -364,6 +372,54 @@ public class PermissionExecutorTest {
         requestScope.getPermissionExecutor().checkPermission(UpdatePermission.class, resource, cspec);
     }
 
+    @Test
+    public void testBatchCheckEvaluatedOncePerCollection() {
+        EvenIdBatchCheck.BATCH_SIZES.clear();
+        EntityDictionary dictionary = new EntityDictionary(TestCheckMappings.MAPPINGS);
+        dictionary.bindEntity(BatchRecord.class);
+        RequestScope requestScope = new RequestScope(null, null, null, null, null, getElideSettings(dictionary));
+        List<PersistentResource> resources = LongStream.range(0, 4)
+                .mapToObj(BatchRecord::new)
+                .map(record -> new PersistentResource<>(record, null, requestScope.getUUIDFor(record), requestScope))
+                .collect(Collectors.toList());
+
+        PermissionExecutor executor = requestScope.getPermissionExecutor();
+        executor.evaluateBatchChecks(ReadPermission.class, resources);
+        executor.evaluateBatchChecks(ReadPermission.class, resources);
+        List<Boolean> allowed = resources.stream().map(resource -> {
+            try {
+                executor.checkPermission(ReadPermission.class, resource);
+                return true;
+            } catch (ForbiddenAccessException e) {
+                return false;
+            }
+        }).collect(Collectors.toList());
+
+        Assert.assertEquals(allowed, Arrays.asList(true, false, true, false));
+        Assert.assertEquals(EvenIdBatchCheck.BATCH_SIZES, Collections.singletonList(4));
+    }
+
+    @Test
+    public void testBatchCheckWithoutMetrics() {
+        EvenIdBatchCheck.BATCH_SIZES.clear();
+        EntityDictionary dictionary = new EntityDictionary(TestCheckMappings.MAPPINGS);
+        dictionary.bindEntity(BatchRecord.class);
+        ElideSettings settings = new ElideSettingsBuilder(null)
+                .withEntityDictionary(dictionary)
+                .withMetrics(null)
+                .build();
+        RequestScope requestScope = new RequestScope(null, null, null, null, null, settings);
+        BatchRecord record = new BatchRecord(2);
+        PersistentResource resource = new PersistentResource<>(record, null, requestScope.getUUIDFor(record),
+                requestScope);
+
+        requestScope.getPermissionExecutor().evaluateBatchChecks(ReadPermission.class,
+                Collections.singletonList(resource));
+        requestScope.getPermissionExecutor().checkPermission(ReadPermission.class, resource);
+
+        Assert.assertEquals(EvenIdBatchCheck.BATCH_SIZES, Collections.singletonList(1));
+    }
+
     @Test
     public void testUserCheckCache() {
         PersistentResource resource = newResource(UserCheckCacheRecord.class);
@@ -527,4 +583,28 @@ public class PermissionExecutorTest {
     @UpdatePermission(expression = "peUserCheck")
     public static class UserCheckCacheRecord {
     }
+
+    /* Batch check testing */
+
+    public static class EvenIdBatchCheck extends BatchInlineCheck<BatchRecord> {
+        private static final List<Integer> BATCH_SIZES = new ArrayList<>();
+
+        @Override
+        public List<Boolean> ok(List<BatchRecord> objects, com.yahoo.elide.security.RequestScope requestScope) {
+            BATCH_SIZES.add(objects.size());
+            return objects.stream().map(record -> record.id % 2 == 0).collect(Collectors.toList());
+        }
+    }
+
+    @Entity
+    @Include
+    @ReadPermission(expression = "evenIdBatch")
+    public static class BatchRecord {
+        @Id
+        public long id;
+
+        public BatchRecord(long id) {
+            this.id = id;
+        }
+    }
 }
@@ -15,7 +15,9 @@ import com.yahoo.elide.core.EntityDictionary;
 import com.yahoo.elide.core.PersistentResource;
 import com.yahoo.elide.core.RequestScope;
 import com.yahoo.elide.security.ChangeSpec;
+import com.yahoo.elide.security.User;
 import com.yahoo.elide.security.checks.Check;
+import com.yahoo.elide.security.checks.UserCheck;
 import com.yahoo.elide.security.checks.prefab.Role;
 import com.yahoo.elide.security.permissions.expressions.Expression;
 import org.testng.Assert;
@@ -23,7 +25,9 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import javax.persistence.Entity;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class PermissionExpressionBuilderTest {
@@ -169,6 +173,84 @@ public class PermissionExpressionBuilderTest {
                         + "[SHARE ENTITY(NOT MARKED SHAREABLE)]");
     }
 
+    @Test
+    public void testPermissionPlansCompiledAtBindTime() {
+        @Entity
+        @Include
+        @ReadPermission(expression = "user has all access OR user has no access")
+        class Model {
+            @ReadPermission(expression = "user has all access")
+            public int foo;
+        }
+
+        dictionary.bindEntity(Model.class);
+
+        PermissionExpressionPlan classPlan = dictionary.getPermissionPlanForClass(Model.class, ReadPermission.class);
+        PermissionExpressionPlan fieldPlan =
+                dictionary.getPermissionPlanForField(Model.class, "foo", ReadPermission.class);
+        Assert.assertSame(dictionary.getPermissionPlanForClass(Model.class, ReadPermission.class), classPlan);
+        Assert.assertSame(classPlan.getParseTree(),
+                dictionary.getPermissionsForClass(Model.class, ReadPermission.class));
+        Assert.assertNull(dictionary.getPermissionPlanForField(Model.class, "bar", ReadPermission.class));
+
+        List<Check> checks = new ArrayList<>();
+        Expression first = classPlan.bind(check -> {
+            checks.add(check);
+            return Expression.Results.SUCCESS;
+        });
+        fieldPlan.bind(check -> {
+            checks.add(check);
+            return Expression.Results.SUCCESS;
+        });
+
+        Assert.assertEquals(checks.size(), 3);
+        Assert.assertSame(checks.get(0), checks.get(2));
+        Assert.assertSame(checks.get(0), dictionary.getCheckInstance("user has all access"));
+        Assert.assertNotSame(classPlan.bind(check -> Expression.Results.SUCCESS), first);
+    }
+
+    /**
+     * A check that remembers the last user it saw.
+     */
+    public static class StatefulCheck extends UserCheck {
+        private User lastUser;
+
+        @Override
+        public boolean ok(User user) {
+            lastUser = user;
+            return true;
+        }
+    }
+
+    @Test
+    public void testStatefulChecksAreNotShared() {
+        @Entity
+        @Include
+        @ReadPermission(expression = "stateful OR user has all access")
+        class Model { }
+
+        dictionary.getCheckMappings().put("stateful", StatefulCheck.class);
+        dictionary.bindEntity(Model.class);
+
+        Assert.assertFalse(dictionary.isStatelessCheck(StatefulCheck.class));
+        Assert.assertTrue(dictionary.isStatelessCheck(Role.ALL.class));
+        Assert.assertNotSame(dictionary.getCheckInstance("stateful"), dictionary.getCheckInstance("stateful"));
+
+        PermissionExpressionPlan plan = dictionary.getPermissionPlanForClass(Model.class, ReadPermission.class);
+        List<Check> checks = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            plan.bind(check -> {
+                checks.add(check);
+                return Expression.Results.SUCCESS;
+            });
+        }
+
+        Assert.assertEquals(checks.size(), 4);
+        Assert.assertTrue(checks.get(0) instanceof StatefulCheck);
+        Assert.assertNotSame(checks.get(0), checks.get(2));
+        Assert.assertSame(checks.get(1), checks.get(3));
+    }
+
     public <T> PersistentResource newResource(T obj, Class<T> cls) {
         RequestScope requestScope = new RequestScope(null, null, null, null, null, elideSettings);
         return new PersistentResource<>(obj, null, requestScope.getUUIDFor(obj), requestScope);
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.security.permissions;
+
+import com.yahoo.elide.ElideSettings;
+import com.yahoo.elide.ElideSettingsBuilder;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.security.User;
+import com.yahoo.elide.security.checks.UserCheck;
+import com.yahoo.elide.security.permissions.expressions.CheckExpression;
+import com.yahoo.elide.security.permissions.expressions.Expression;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class UserCheckCacheTest {
+    private static final AtomicInteger CALLS = new AtomicInteger();
+
+    public static class IsAdmin extends UserCheck {
+        @Override
+        public boolean ok(User user) {
+            CALLS.incrementAndGet();
+            return "admin".equals(user.getOpaqueUser());
+        }
+    }
+
+    private UserCheckCache cache;
+    private ElideSettings settings;
+
+    @BeforeMethod
+    public void setup() {
+        CALLS.set(0);
+        cache = new UserCheckCache(100, Duration.ofMinutes(1), User::getOpaqueUser);
+        settings = new ElideSettingsBuilder(null).withUserCheckCache(cache).build();
+    }
+
+    @Test
+    public void testResultIsReusedAcrossRequests() {
+        Assert.assertEquals(evaluate("admin"), ExpressionResult.PASS);
+        Assert.assertEquals(evaluate("admin"), ExpressionResult.PASS);
+        Assert.assertEquals(CALLS.get(), 1);
+        Assert.assertEquals(cache.getStats().hitCount(), 1);
+        Assert.assertEquals(cache.getStats().missCount(), 1);
+
+        Assert.assertEquals(evaluate("guest"), ExpressionResult.FAIL);
+        Assert.assertEquals(evaluate("guest"), ExpressionResult.FAIL);
+        Assert.assertEquals(CALLS.get(), 2);
+    }
+
+    @Test
+    public void testInvalidation() {
+        evaluate("admin");
+        evaluate("guest");
+
+        cache.invalidatePrincipal("admin");
+        evaluate("admin");
+        evaluate("guest");
+        Assert.assertEquals(CALLS.get(), 3);
+
+        cache.invalidateCheck(IsAdmin.class);
+        evaluate("admin");
+        evaluate("guest");
+        Assert.assertEquals(CALLS.get(), 5);
+    }
+
+    @Test
+    public void testUsersWithoutKeyAreNotCached() {
+        evaluate(null);
+        evaluate(null);
+        Assert.assertEquals(CALLS.get(), 2);
+    }
+
+    private ExpressionResult evaluate(Object opaqueUser) {
+        RequestScope scope = new RequestScope(null, null, null, new User(opaqueUser), null, settings);
+        CheckExpression expression = new CheckExpression(new IsAdmin(), null, scope, null,
+                new ExpressionResultCache());
+        return expression.evaluate(Expression.EvaluationMode.USER_CHECKS_ONLY);
+    }
+}
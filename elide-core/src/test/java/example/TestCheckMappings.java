@@ -40,6 +40,9 @@ public class TestCheckMappings {
                     put("shouldCache", PermissionExecutorTest.ShouldCache.class);
                     put("peUserCheck", PermissionExecutorTest.UserCheckTest.class);
                     put("passingCommit", PermissionExecutorTest.PassingCommitCheck.class);
+                    put("evenIdBatch", PermissionExecutorTest.EvenIdBatchCheck.class);
+                    put("threadSafeEvenId", PersistentResourceTest.ThreadSafeEvenId.class);
+                    put("ownedByUser", PersistentResourceTest.OwnedByUser.class);
                 }
             };
 
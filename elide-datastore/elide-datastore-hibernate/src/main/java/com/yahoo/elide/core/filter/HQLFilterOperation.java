@@ -38,6 +38,18 @@ public class HQLFilterOperation implements FilterOperation<String> {
      * @return The hql query fragment.
      */
     protected String apply(FilterPredicate filterPredicate, boolean prefixWithAlias) {
+        return apply(filterPredicate, prefixWithAlias, 0);
+    }
+
+    /**
+     * Transforms a filter predicate into a HQL query fragment.
+     * @param filterPredicate The predicate to transform.
+     * @param prefixWithAlias Whether or not to append the entity type to the predicate.
+     *                       This is useful for table aliases referenced in HQL for some kinds of joins.
+     * @param position The position of the predicate in the enclosing filter expression.
+     * @return The hql query fragment.
+     */
+    protected String apply(FilterPredicate filterPredicate, boolean prefixWithAlias, int position) {
         String fieldPath = filterPredicate.getFieldPath();
 
         if (prefixWithAlias) {
@@ -47,7 +59,7 @@ public class HQLFilterOperation implements FilterOperation<String> {
         //HQL doesn't support 'this', but it does support aliases.
         fieldPath = fieldPath.replaceAll("\\.this", "");
 
-        String alias = filterPredicate.getParameterName();
+        String alias = filterPredicate.getParameterName(position);
         switch (filterPredicate.getOperator()) {
             case IN:
                 Preconditions.checkState(!filterPredicate.getValues().isEmpty());
@@ -105,6 +117,7 @@ public class HQLFilterOperation implements FilterOperation<String> {
     public String applyAll(Set<FilterPredicate> filterPredicates) {
         StringBuilder filterString = new StringBuilder();
 
+        int position = 0;
         for (FilterPredicate filterPredicate : filterPredicates) {
             if (filterString.length() == 0) {
                 filterString.append("WHERE ");
@@ -112,7 +125,7 @@ public class HQLFilterOperation implements FilterOperation<String> {
                 filterString.append(" AND ");
             }
 
-            filterString.append(apply(filterPredicate));
+            filterString.append(apply(filterPredicate, false, position++));
         }
 
         return filterString.toString();
@@ -132,9 +145,13 @@ public class HQLFilterOperation implements FilterOperation<String> {
 
     /**
      * Filter expression visitor which builds an HQL query.
+     *
+     * Parameters are named after the predicate path and the order in which predicates are visited, which is the
+     * order {@link com.yahoo.elide.core.filter.expression.PredicateExtractionVisitor} extracts them in.
      */
     public class HQLQueryVisitor implements Visitor<String> {
         private boolean prefixWithAlias;
+        private int position;
 
         public HQLQueryVisitor(boolean prefixWithAlias) {
             this.prefixWithAlias = prefixWithAlias;
@@ -148,7 +165,7 @@ public class HQLFilterOperation implements FilterOperation<String> {
 
         @Override
         public String visitPredicate(FilterPredicate filterPredicate) {
-            query = apply(filterPredicate, prefixWithAlias);
+            query = apply(filterPredicate, prefixWithAlias, position++);
             return query;
         }
 
@@ -5,11 +5,17 @@
  */
 package com.yahoo.elide.core.hibernate.hql;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.yahoo.elide.core.EntityDictionary;
 import com.yahoo.elide.core.Path;
 import com.yahoo.elide.core.filter.FilterPredicate;
+import com.yahoo.elide.core.filter.expression.AndFilterExpression;
 import com.yahoo.elide.core.filter.expression.FilterExpression;
+import com.yahoo.elide.core.filter.expression.NotFilterExpression;
+import com.yahoo.elide.core.filter.expression.OrFilterExpression;
 import com.yahoo.elide.core.filter.expression.PredicateExtractionVisitor;
+import com.yahoo.elide.core.filter.expression.Visitor;
 import com.yahoo.elide.core.hibernate.Query;
 import com.yahoo.elide.core.hibernate.Session;
 import com.yahoo.elide.core.pagination.Pagination;
@@ -17,30 +23,47 @@ import com.yahoo.elide.core.sort.Sorting;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Abstract class used to construct HQL queries.
+ *
+ * Generated HQL only depends on the structure of a request (entity, filter shape, sort, joins) and never on
+ * the filter values, so it is cached per structure and a repeated request shape only binds its parameters.
+ * Templates are cached per entity dictionary, which is weakly referenced, so that the cache neither mixes the
+ * models of different stores nor keeps a discarded model and its classes alive.
  */
 public abstract class AbstractHQLQueryBuilder {
+    private static final int QUERY_TEMPLATE_CACHE_SIZE = 1024;
+    private static final Cache<EntityDictionary, Cache<List<Object>, String>> QUERY_TEMPLATES =
+            CacheBuilder.newBuilder()
+                    .weakKeys()
+                    .build();
+
     protected final Session session;
     protected final EntityDictionary dictionary;
 
     protected Optional<Sorting> sorting;
     protected Optional<Pagination> pagination;
     protected Optional<FilterExpression> filterExpression;
+    protected List<String> fetchJoins;
     protected static final String SPACE = " ";
     protected static final String UNDERSCORE = "_";
     protected static final String PERIOD = ".";
     protected static final String COMMA = ",";
     protected static final String FROM = " FROM ";
     protected static final String JOIN = " JOIN ";
+    protected static final String JOIN_FETCH = " JOIN FETCH ";
+    protected static final String LEFT_JOIN_FETCH = " LEFT JOIN FETCH ";
     protected static final String SELECT = "SELECT ";
     protected static final String AS = " AS ";
 
@@ -69,6 +92,7 @@ public abstract class AbstractHQLQueryBuilder {
         sorting = Optional.empty();
         pagination = Optional.empty();
         filterExpression = Optional.empty();
+        fetchJoins = Collections.emptyList();
     }
 
     public abstract Query build();
@@ -88,16 +112,41 @@ public abstract class AbstractHQLQueryBuilder {
         return this;
     }
 
+    /**
+     * Sets the to-one relationships fetched along with the loaded entities. Only builders whose queries select
+     * entities fetch them.
+     *
+     * @param fetchJoins the dotted relationship paths, every path preceded by its prefixes
+     * @return this builder
+     * @see FetchJoinPlanner
+     */
+    public AbstractHQLQueryBuilder withFetchJoins(final List<String> fetchJoins) {
+        this.fetchJoins = fetchJoins;
+        return this;
+    }
+
+    /**
+     * Given a filter expression and a Hibernate query, populates the named parameters in the Hibernate query.
+     * @param query The HQL query
+     * @param filterExpression The filter expression the query was generated from
+     */
+    protected void supplyFilterQueryParameters(Query query, FilterExpression filterExpression) {
+        supplyFilterQueryParameters(query,
+                filterExpression.accept(new PredicateExtractionVisitor(new ArrayList<>())));
+    }
+
     /**
      * Given a collection of filter predicates and a Hibernate query, populates the named parameters in the
      * Hibernate query
      * @param query The HQL query
-     * @param predicates The predicates to extract named parameter values from
+     * @param predicates The predicates to extract named parameter values from, in filter expression order
      */
     protected void supplyFilterQueryParameters(Query query, Collection<FilterPredicate> predicates) {
+        int position = 0;
         for (FilterPredicate filterPredicate : predicates) {
+            int parameterPosition = position++;
             if (filterPredicate.getOperator().isParameterized()) {
-                String name = filterPredicate.getParameterName();
+                String name = filterPredicate.getParameterName(parameterPosition);
                 if (filterPredicate.isMatchingOperator()) {
                     query.setParameter(name, filterPredicate.getStringValueEscaped("%", "\\"));
                 } else {
@@ -107,22 +156,95 @@ public abstract class AbstractHQLQueryBuilder {
         }
     }
 
+    /**
+     * Looks up the HQL generated for a request structure, generating it on a cache miss.
+     * @param key The structure of the query, see {@link #getTemplateKey(Object...)}
+     * @param generator Generates the HQL
+     * @return The HQL
+     */
+    protected String getQueryTemplate(List<Object> key, Supplier<String> generator) {
+        Cache<List<Object>, String> templates = QUERY_TEMPLATES.asMap().computeIfAbsent(dictionary,
+                (unused) -> CacheBuilder.newBuilder().maximumSize(QUERY_TEMPLATE_CACHE_SIZE).build());
+        String template = templates.getIfPresent(key);
+        if (template == null) {
+            template = generator.get();
+            templates.put(key, template);
+        }
+        return template;
+    }
+
+    /**
+     * Builds the template cache key of this builder: its type, the filter shape, the sort rules and whether the
+     * query is paginated, plus whatever else the generated HQL depends on.
+     * @param discriminators The builder specific parts of the key (entity types, relationship names)
+     * @return The key
+     */
+    protected List<Object> getTemplateKey(Object... discriminators) {
+        List<Object> key = new ArrayList<>(discriminators.length + 4);
+        key.add(getClass());
+        key.addAll(Arrays.asList(discriminators));
+        key.add(filterExpression.map(fe -> fe.accept(new FilterShapeVisitor())).orElse(null));
+        key.add(sorting.map(s -> (Object) new ArrayList<>(s.getSortRules().entrySet()))
+                .orElse(Collections.emptyList()));
+        key.add(pagination.isPresent());
+        key.add(fetchJoins);
+        return key;
+    }
+
     /**
      * Extracts all the HQL JOIN clauses from given filter expression.
      * @param filterExpression
      * @return
      */
     protected String getJoinClauseFromFilters(FilterExpression filterExpression) {
+        return getJoinClauseFromFilters(filterExpression, new HashSet<>());
+    }
+
+    /**
+     * Extracts all the HQL JOIN clauses from given filter expression. Joins along fetch join paths also fetch.
+     * @param filterExpression The filter expression
+     * @param joinedPaths Collects the dotted relationship paths that are joined
+     * @return The join clauses
+     */
+    protected String getJoinClauseFromFilters(FilterExpression filterExpression, Set<String> joinedPaths) {
         PredicateExtractionVisitor visitor = new PredicateExtractionVisitor(new ArrayList<>());
         Collection<FilterPredicate> predicates = filterExpression.accept(visitor);
 
         Set<String> alreadyJoined = new HashSet<>();
 
         return predicates.stream()
-            .map(predicate -> extractJoinClause(predicate, alreadyJoined))
+            .map(predicate -> extractJoinClause(predicate, alreadyJoined, joinedPaths))
             .collect(Collectors.joining(SPACE));
     }
 
+    /**
+     * Builds the LEFT JOIN FETCH clauses of the fetch joins that are not joined yet. Their aliases are the ones
+     * filter joins would use.
+     * @param type The type the fetch join paths start at, which must be selected with its type alias
+     * @param joinedPaths The dotted relationship paths that are already joined
+     * @return The fetch join clauses
+     */
+    protected String getFetchJoinClause(Class<?> type, Set<String> joinedPaths) {
+        StringBuilder clause = new StringBuilder();
+        for (String path : fetchJoins) {
+            if (joinedPaths.contains(path)) {
+                continue;
+            }
+            String[] fields = path.split("\\.");
+            Class<?> owner = type;
+            String ownerAlias = FilterPredicate.getTypeAlias(type);
+            for (int i = 0; i < fields.length - 1; i++) {
+                ownerAlias = FilterPredicate.getTypeAlias(owner) + UNDERSCORE + fields[i];
+                owner = dictionary.getParameterizedType(owner, fields[i]);
+            }
+            String field = fields[fields.length - 1];
+            clause.append(LEFT_JOIN_FETCH + ownerAlias + PERIOD + field + SPACE
+                    + FilterPredicate.getTypeAlias(owner) + UNDERSCORE + field + SPACE);
+            joinedPaths.add(path);
+        }
+        return clause.toString();
+    }
+
     /**
      * Modifies the HQL query to add OFFSET and LIMIT.
      * @param query The HQL query object
@@ -138,12 +260,14 @@ public abstract class AbstractHQLQueryBuilder {
      * Extracts a join clause from a filter predicate (if it exists)
      * @param predicate The predicate to examine
      * @param alreadyJoined A set of joins that have already been computed.
+     * @param joinedPaths Collects the dotted relationship paths that are joined
      * @return A HQL string representing the join
      */
-    private String extractJoinClause(FilterPredicate predicate, Set<String> alreadyJoined) {
+    private String extractJoinClause(FilterPredicate predicate, Set<String> alreadyJoined, Set<String> joinedPaths) {
         String joinClause = "";
 
         String previousAlias = null;
+        String path = null;
 
         for (FilterPredicate.PathElement pathElement : predicate.getPath()) {
             String fieldName = pathElement.getFieldName();
@@ -156,14 +280,17 @@ public abstract class AbstractHQLQueryBuilder {
             }
 
             String alias = typeAlias + UNDERSCORE + fieldName;
+            path = path == null ? fieldName : path + PERIOD + fieldName;
+            String join = fetchJoins.contains(path) ? JOIN_FETCH : JOIN;
+            joinedPaths.add(path);
 
             String joinFragment;
 
             //This is the first path element
             if (previousAlias == null) {
-                joinFragment = JOIN + typeAlias + PERIOD + fieldName + SPACE + alias + SPACE;
+                joinFragment = join + typeAlias + PERIOD + fieldName + SPACE + alias + SPACE;
             } else {
-                joinFragment = JOIN + previousAlias + PERIOD + fieldName + SPACE + alias + SPACE;
+                joinFragment = join + previousAlias + PERIOD + fieldName + SPACE + alias + SPACE;
             }
 
             if (!alreadyJoined.contains(joinFragment)) {
@@ -207,4 +334,31 @@ public abstract class AbstractHQLQueryBuilder {
         }
         return sortingRules;
     }
+
+    /**
+     * Reduces a filter expression to the parts the generated HQL depends on: its structure, predicate paths
+     * and operators. Values are left out, except whether there are any.
+     */
+    private static class FilterShapeVisitor implements Visitor<Object> {
+        @Override
+        public Object visitPredicate(FilterPredicate filterPredicate) {
+            return Arrays.asList(new ArrayList<>(filterPredicate.getPath()), filterPredicate.getOperator(),
+                    filterPredicate.getValues().isEmpty());
+        }
+
+        @Override
+        public Object visitAndExpression(AndFilterExpression expression) {
+            return Arrays.asList("AND", expression.getLeft().accept(this), expression.getRight().accept(this));
+        }
+
+        @Override
+        public Object visitOrExpression(OrFilterExpression expression) {
+            return Arrays.asList("OR", expression.getLeft().accept(this), expression.getRight().accept(this));
+        }
+
+        @Override
+        public Object visitNotExpression(NotFilterExpression expression) {
+            return Arrays.asList("NOT", expression.getNegated().accept(this));
+        }
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.hibernate.hql;
+
+import com.yahoo.elide.annotation.ComputedRelationship;
+import com.yahoo.elide.annotation.ReadPermission;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.RequestScope;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plans which to-one relationships a query fetches along with the entities it loads, so that serializing them does
+ * not lazily load each related entity on its own.
+ *
+ * A to-one relationship is fetched when it is on an include path, or when it is serialized and the read permission
+ * of the related entity needs the entity itself (its linkage can then not be built from the id alone). Only chains
+ * of to-one relationships are fetched and at most {@link #MAX_FETCH_JOINS} of them: fetching collections would
+ * multiply the rows of every entity (and of each other), and break pagination. Included collections are loaded
+ * with batched queries instead.
+ */
+public class FetchJoinPlanner {
+    /** Maximum number of relationships fetched by one query. */
+    public static final int MAX_FETCH_JOINS = 4;
+
+    private static final String INCLUDE = "include";
+    private static final String PERIOD = ".";
+
+    private FetchJoinPlanner() {
+    }
+
+    /**
+     * Plans the relationships fetched with the entities of a root collection.
+     *
+     * @param entityClass the loaded class
+     * @param scope the request scope
+     * @return the dotted relationship paths to fetch, every path preceded by its prefixes
+     */
+    public static List<String> forRoot(Class<?> entityClass, RequestScope scope) {
+        List<List<String>> candidates = new ArrayList<>();
+        for (String include : getIncludes(scope)) {
+            candidates.add(Arrays.asList(include.split("\\.")));
+        }
+        return plan(entityClass, candidates, scope);
+    }
+
+    /**
+     * Plans the relationships fetched with the members of a relationship. Include paths are matched from every
+     * occurrence of the relationship name, since the path the relationship was reached by is not known.
+     *
+     * @param childType the type of the relationship members
+     * @param relationName the name of the relationship
+     * @param scope the request scope
+     * @return the dotted relationship paths to fetch, relative to the members, every path preceded by its prefixes
+     */
+    public static List<String> forRelationship(Class<?> childType, String relationName, RequestScope scope) {
+        List<List<String>> candidates = new ArrayList<>();
+        for (String include : getIncludes(scope)) {
+            List<String> segments = Arrays.asList(include.split("\\."));
+            for (int i = 0; i < segments.size() - 1; i++) {
+                if (segments.get(i).equals(relationName)) {
+                    candidates.add(segments.subList(i + 1, segments.size()));
+                }
+            }
+        }
+        return plan(childType, candidates, scope);
+    }
+
+    private static List<String> plan(Class<?> entityClass, List<List<String>> candidates, RequestScope scope) {
+        EntityDictionary dictionary = scope.getDictionary();
+        for (String relationship : dictionary.getRelationships(entityClass)) {
+            if (isFetchable(entityClass, relationship, dictionary)
+                    && isSerialized(entityClass, relationship, scope)
+                    && !dictionary.hasOnlyUserChecks(dictionary.getParameterizedType(entityClass, relationship),
+                    ReadPermission.class)) {
+                candidates.add(Collections.singletonList(relationship));
+            }
+        }
+
+        Set<String> paths = new LinkedHashSet<>();
+        for (List<String> candidate : candidates) {
+            Class<?> type = entityClass;
+            String path = null;
+            for (String field : candidate) {
+                if (!isFetchable(type, field, dictionary)) {
+                    break;
+                }
+                path = path == null ? field : path + PERIOD + field;
+                if (!paths.contains(path) && paths.size() == MAX_FETCH_JOINS) {
+                    break;
+                }
+                paths.add(path);
+                type = dictionary.getParameterizedType(type, field);
+            }
+        }
+        return new ArrayList<>(paths);
+    }
+
+    private static boolean isFetchable(Class<?> entityClass, String field, EntityDictionary dictionary) {
+        return dictionary.getRelationshipType(entityClass, field).isToOne()
+                && dictionary.getAttributeOrRelationAnnotation(entityClass, ComputedRelationship.class, field) == null;
+    }
+
+    private static boolean isSerialized(Class<?> entityClass, String field, RequestScope scope) {
+        Map<String, Set<String>> sparseFields = scope.getSparseFields();
+        if (sparseFields.isEmpty()) {
+            return true;
+        }
+        return sparseFields.getOrDefault(scope.getDictionary().getJsonAliasFor(entityClass), Collections.emptySet())
+                .contains(field);
+    }
+
+    private static List<String> getIncludes(RequestScope scope) {
+        List<String> includes = new ArrayList<>();
+        scope.getQueryParams()
+                .map(params -> params.get(INCLUDE))
+                .ifPresent(values -> values.forEach(value -> includes.addAll(Arrays.asList(value.split(",")))));
+        return includes;
+    }
+}
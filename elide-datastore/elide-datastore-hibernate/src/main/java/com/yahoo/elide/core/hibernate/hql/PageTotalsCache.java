@@ -0,0 +1,204 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.hibernate.hql;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.yahoo.elide.core.filter.FilterPredicate;
+import com.yahoo.elide.core.filter.expression.FilterExpression;
+import com.yahoo.elide.core.filter.expression.PredicateExtractionVisitor;
+import com.yahoo.elide.core.pagination.Pagination;
+import lombok.Value;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches the page totals counted by a data store, so that clients polling a collection with {@code page[totals]}
+ * do not count it on every request.
+ *
+ * Totals are keyed by the root collection or relationship and the filter expression of the count, which includes
+ * the read permission filters. They expire after a fixed time, and are invalidated when a transaction of the same
+ * store commits writes to one of the types they count, or to any type the filter expression joins. Writes made by
+ * anything else are only seen once the totals expire.
+ *
+ * Optionally, requests with {@code page[totals]=approximate} are answered with a {@link PageTotalsEstimator}
+ * estimate when it is above a threshold; smaller collections are still counted.
+ */
+public class PageTotalsCache {
+    /** A cache that caches nothing and never estimates. */
+    public static final PageTotalsCache DISABLED = new PageTotalsCache(0, TimeUnit.SECONDS, 0);
+
+    private final Cache<Key, Long> totals;
+    private final boolean enabled;
+    private final AtomicLong generation = new AtomicLong();
+    private final PageTotalsEstimator estimator;
+    private final long estimateThreshold;
+
+    /**
+     * The cached count of one collection and filter.
+     */
+    @Value
+    private static class Key {
+        /** The counted types and every type the filter expression refers to. */
+        Set<Class<?>> types;
+        Object relationship;
+        Optional<FilterExpression> filterExpression;
+
+        Key(List<Class<?>> countedTypes, Object relationship, Optional<FilterExpression> filterExpression) {
+            Set<Class<?>> referenced = new LinkedHashSet<>(countedTypes);
+            filterExpression.ifPresent(expression -> expression.accept(new PredicateExtractionVisitor())
+                    .forEach(predicate -> addPathTypes(predicate, referenced)));
+            this.types = referenced;
+            this.relationship = relationship;
+            this.filterExpression = filterExpression;
+        }
+
+        // FilterPredicate only exposes its path as deprecated path elements
+        @SuppressWarnings("deprecation")
+        private static void addPathTypes(FilterPredicate predicate, Set<Class<?>> types) {
+            for (FilterPredicate.PathElement element : predicate.getPath()) {
+                types.add(element.getType());
+            }
+        }
+
+        boolean counts(Class<?> type) {
+            return types.stream().anyMatch(counted -> counted.isAssignableFrom(type) || type.isAssignableFrom(counted));
+        }
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param ttl how long totals are cached
+     * @param unit the unit of the ttl
+     * @param maximumSize the maximum number of cached totals
+     */
+    public PageTotalsCache(long ttl, TimeUnit unit, long maximumSize) {
+        this(ttl, unit, maximumSize, null, 0);
+    }
+
+    /**
+     * Constructor.
+     *
+     * Requests of root collections with {@code page[totals]=approximate} are answered with estimates.
+     *
+     * @param ttl how long totals are cached
+     * @param unit the unit of the ttl
+     * @param maximumSize the maximum number of cached totals
+     * @param estimator the estimator
+     * @param estimateThreshold the smallest estimate that is used; smaller collections are counted
+     */
+    public PageTotalsCache(long ttl, TimeUnit unit, long maximumSize,
+                           PageTotalsEstimator estimator, long estimateThreshold) {
+        this.enabled = ttl > 0 && maximumSize > 0;
+        this.totals = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttl, unit)
+                .maximumSize(maximumSize)
+                .build();
+        this.estimator = estimator;
+        this.estimateThreshold = estimateThreshold;
+    }
+
+    /**
+     * Sets estimated page totals of a root collection, if the request accepts them and the estimate is above the
+     * threshold.
+     *
+     * @param pagination the pagination of the request
+     * @param entityClass the counted class
+     * @param filterExpression the filters of the count
+     * @return whether the totals were set
+     */
+    public boolean setEstimatedPageTotals(Pagination pagination,
+                                          Class<?> entityClass,
+                                          Optional<FilterExpression> filterExpression) {
+        if (estimator == null || !pagination.isApproximateTotalsAllowed()) {
+            return false;
+        }
+        OptionalLong estimate = estimator.estimate(entityClass, filterExpression);
+        if (!estimate.isPresent() || estimate.getAsLong() < estimateThreshold) {
+            return false;
+        }
+        pagination.setApproximatePageTotals(estimate.getAsLong());
+        return true;
+    }
+
+    /**
+     * Gets the number of records of a root collection.
+     *
+     * @param entityClass the counted class
+     * @param filterExpression the filters of the count
+     * @param uncommittedTypes the types the asking transaction wrote to, whose totals it must count itself
+     * @param count counts the records
+     * @return the number of records
+     */
+    public long getTotal(Class<?> entityClass,
+                         Optional<FilterExpression> filterExpression,
+                         Collection<Class<?>> uncommittedTypes,
+                         LongSupplier count) {
+        return getTotal(new Key(Collections.singletonList(entityClass), null, filterExpression),
+                uncommittedTypes, count);
+    }
+
+    /**
+     * Gets the number of members of a relationship.
+     *
+     * @param relationship the counted relationship
+     * @param parentId the id of the owner of the relationship
+     * @param filterExpression the filters of the count
+     * @param uncommittedTypes the types the asking transaction wrote to, whose totals it must count itself
+     * @param count counts the members
+     * @return the number of members
+     */
+    public long getTotal(AbstractHQLQueryBuilder.Relationship relationship,
+                         String parentId,
+                         Optional<FilterExpression> filterExpression,
+                         Collection<Class<?>> uncommittedTypes,
+                         LongSupplier count) {
+        return getTotal(new Key(Arrays.asList(relationship.getParentType(), relationship.getChildType()),
+                Arrays.asList(parentId, relationship.getRelationshipName()), filterExpression),
+                uncommittedTypes, count);
+    }
+
+    private long getTotal(Key key, Collection<Class<?>> uncommittedTypes, LongSupplier count) {
+        if (!enabled || uncommittedTypes.stream().anyMatch(key::counts)) {
+            return count.getAsLong();
+        }
+        Long total = totals.getIfPresent(key);
+        if (total != null) {
+            return total;
+        }
+        // A commit while counting may have made the count stale already
+        long before = generation.get();
+        total = count.getAsLong();
+        if (generation.get() == before) {
+            totals.put(key, total);
+        }
+        return total;
+    }
+
+    /**
+     * Drops the totals that count or filter on any of the given types, after a transaction committed writes to them.
+     *
+     * @param types the written types
+     */
+    public void invalidate(Collection<Class<?>> types) {
+        if (!enabled || types.isEmpty()) {
+            return;
+        }
+        generation.incrementAndGet();
+        totals.asMap().keySet().removeIf(key -> types.stream().anyMatch(key::counts));
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.hibernate.hql;
+
+import com.yahoo.elide.core.filter.expression.FilterExpression;
+
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Estimates the number of records of a root collection without counting them, e.g. from the table statistics
+ * of the database (MySQL's {@code information_schema.tables.table_rows}, PostgreSQL's {@code pg_class.reltuples}).
+ *
+ * Estimates are only used for {@code page[totals]=approximate} requests.
+ *
+ * @see PageTotalsCache
+ */
+@FunctionalInterface
+public interface PageTotalsEstimator {
+
+    /**
+     * Estimates the number of records of a root collection.
+     *
+     * @param entityClass the counted class
+     * @param filterExpression the security and request filters of the count
+     * @return the estimate, or empty if the records cannot be estimated cheaply (e.g. because of the filters)
+     */
+    OptionalLong estimate(Class<?> entityClass, Optional<FilterExpression> filterExpression);
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.hibernate.hql;
+
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.PersistentResource;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.filter.expression.FilterExpression;
+import com.yahoo.elide.core.hibernate.Query;
+import com.yahoo.elide.core.hibernate.Session;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Loads a to-many relationship of many parents with one {@link SubCollectionBatchFetchQueryBuilder} query per parent
+ * type and batch of parents, instead of one query per parent.
+ */
+public class RelationBatchLoader {
+    /** Maximum number of parents bound into one batched relationship query. */
+    public static final int BATCH_SIZE = 500;
+
+    private final Session session;
+    private final Function<Query, List<?>> list;
+
+    /**
+     * Constructor.
+     *
+     * @param session the session queries are created with
+     * @param list runs a query and returns its rows
+     */
+    public RelationBatchLoader(Session session, Function<Query, List<?>> list) {
+        this.session = session;
+        this.list = list;
+    }
+
+    /**
+     * Gets a relationship of many parents. The relationship of a parent is batched if its value passes a test and
+     * the batched query can reproduce its declared ordering; otherwise it is loaded on its own.
+     *
+     * @param entities the owners of the relationship
+     * @param relationName name of the relationship
+     * @param filterExpression optional security and request filters
+     * @param scope the request scope
+     * @param batchable tests the value of the relationship of a parent
+     * @param single loads the relationship of one parent
+     * @return the relationship of each parent, keyed by parent identity
+     */
+    public Map<Object, Object> getRelations(Collection<?> entities,
+                                            String relationName,
+                                            Optional<FilterExpression> filterExpression,
+                                            RequestScope scope,
+                                            Predicate<Object> batchable,
+                                            Function<Object, Object> single) {
+        EntityDictionary dictionary = scope.getDictionary();
+        Map<Object, Object> relations = new IdentityHashMap<>();
+        List<Object> batched = new ArrayList<>();
+        for (Object entity : entities) {
+            Object val = PersistentResource.getValue(entity, relationName, scope);
+            Class<?> parentType = dictionary.lookupEntityClass(entity.getClass());
+            if (batchable.test(val)
+                    && SubCollectionBatchFetchQueryBuilder.isOrderingSupported(parentType, relationName, dictionary)) {
+                batched.add(entity);
+            } else {
+                relations.put(entity, single.apply(entity));
+            }
+        }
+        relations.putAll(fetch(batched, relationName, filterExpression, scope));
+        return relations;
+    }
+
+    /**
+     * Fetches the members of a relationship for many parents with batched queries. Parents are grouped by their
+     * entity class, not by the class of a proxy, and the members returned by a query are matched to their parent
+     * by id, since a query may return another instance of the parent.
+     *
+     * @param parents the owners of the relationship
+     * @param relationName name of the relationship
+     * @param filterExpression optional security and request filters
+     * @param scope the request scope
+     * @return the members of the relationship of each parent in their declared order, keyed by parent identity
+     */
+    public Map<Object, List<Object>> fetch(Collection<?> parents,
+                                           String relationName,
+                                           Optional<FilterExpression> filterExpression,
+                                           RequestScope scope) {
+        EntityDictionary dictionary = scope.getDictionary();
+        Map<Object, List<Object>> relations = new IdentityHashMap<>();
+        Map<Class<?>, List<Object>> batches = new LinkedHashMap<>();
+        for (Object parent : parents) {
+            relations.put(parent, new ArrayList<>());
+            batches.computeIfAbsent(dictionary.lookupEntityClass(parent.getClass()), unused -> new ArrayList<>())
+                    .add(parent);
+        }
+
+        batches.forEach((parentType, batch) -> {
+            Class<?> relationClass = dictionary.getParameterizedType(parentType, relationName);
+            for (int start = 0; start < batch.size(); start += BATCH_SIZE) {
+                List<Object> chunk = batch.subList(start, Math.min(start + BATCH_SIZE, batch.size()));
+                Map<String, List<Object>> byId = new HashMap<>();
+                chunk.forEach(parent -> byId.put(dictionary.getId(parent), relations.get(parent)));
+
+                Query query = new SubCollectionBatchFetchQueryBuilder(
+                        parentType, relationClass, relationName, chunk, dictionary, session)
+                        .withPossibleFilterExpression(filterExpression)
+                        .withFetchJoins(FetchJoinPlanner.forRelationship(relationClass, relationName, scope))
+                        .build();
+
+                for (Object row : list.apply(query)) {
+                    Object[] pair = (Object[]) row;
+                    List<Object> children = byId.get(dictionary.getId(pair[0]));
+                    if (children != null) {
+                        children.add(pair[1]);
+                    }
+                }
+            }
+        });
+        return relations;
+    }
+}
@@ -8,11 +8,15 @@ package com.yahoo.elide.core.hibernate.hql;
 import com.yahoo.elide.core.EntityDictionary;
 import com.yahoo.elide.core.filter.FilterPredicate;
 import com.yahoo.elide.core.filter.HQLFilterOperation;
-import com.yahoo.elide.core.filter.expression.PredicateExtractionVisitor;
 import com.yahoo.elide.core.hibernate.Query;
 import com.yahoo.elide.core.hibernate.Session;
 
-import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Constructs a HQL query to fetch a root collection.
@@ -20,6 +24,9 @@ import java.util.Collection;
 public class RootCollectionFetchQueryBuilder extends AbstractHQLQueryBuilder {
 
     private Class<?> entityClass;
+    private List<String> projection = Collections.emptyList();
+    private Optional<String> totalsFunction = Optional.empty();
+    private boolean lookahead;
 
     public RootCollectionFetchQueryBuilder(Class<?> entityClass,
                                            EntityDictionary dictionary,
@@ -28,6 +35,45 @@ public class RootCollectionFetchQueryBuilder extends AbstractHQLQueryBuilder {
         this.entityClass = entityClass;
     }
 
+    /**
+     * Selects only some fields of the entity instead of the whole entity. Each result row is then a list of the
+     * values of the fields.
+     *
+     * @param possibleProjection the fields to select
+     * @return this builder
+     * @see SparseFieldProjection
+     */
+    public RootCollectionFetchQueryBuilder withPossibleProjection(Optional<List<String>> possibleProjection) {
+        this.projection = possibleProjection.orElse(Collections.emptyList());
+        return this;
+    }
+
+    /**
+     * Selects the total count of the query with every row, through a SQL function that renders a windowed count.
+     * Each result row is then an array of the entity and the count, or with a projection, its list of values followed
+     * by the count.
+     *
+     * @param possibleTotalsFunction the name of the function
+     * @return this builder
+     * @see SinglePassPageTotals
+     */
+    public RootCollectionFetchQueryBuilder withPossibleTotalsFunction(Optional<String> possibleTotalsFunction) {
+        this.totalsFunction = possibleTotalsFunction;
+        return this;
+    }
+
+    /**
+     * Fetches one row more than the page limit, which tells whether the page is the last one.
+     *
+     * @param lookahead whether to fetch the extra row
+     * @return this builder
+     * @see SinglePassPageTotals
+     */
+    public RootCollectionFetchQueryBuilder withLookahead(boolean lookahead) {
+        this.lookahead = lookahead;
+        return this;
+    }
+
     /**
      * Constructs a query that fetches a root collection.
      *
@@ -35,49 +81,66 @@ public class RootCollectionFetchQueryBuilder extends AbstractHQLQueryBuilder {
      */
     @Override
     public Query build() {
+        if (!projection.isEmpty()) {
+            // Fetching needs the owner of the association in the select list
+            fetchJoins = Collections.emptyList();
+        }
+        String template = getQueryTemplate(getTemplateKey(entityClass, projection, totalsFunction), this::generate);
+        Query query = session.createQuery(template);
+
+        //Fill in the query parameters
+        if (filterExpression.isPresent()) {
+            supplyFilterQueryParameters(query, filterExpression.get());
+        }
+
+        addPaginationToQuery(query);
+        if (lookahead && pagination.isPresent()) {
+            query.setMaxResults(pagination.get().getLimit() + 1);
+        }
+        return query;
+    }
+
+    private String generate() {
         String entityName = entityClass.getCanonicalName();
         String entityAlias = FilterPredicate.getTypeAlias(entityClass);
+        Set<String> joinedPaths = new HashSet<>();
+        // A projection has to be the only selected item, so the totals go last into its list
+        String totalsColumn = totalsFunction.map(function -> COMMA + function + "()").orElse("");
+        String selectClause = projection.isEmpty()
+                ? entityAlias + totalsColumn
+                : projection.stream()
+                        .map(field -> entityAlias + PERIOD + field)
+                        .collect(Collectors.joining(COMMA, "new list(", totalsColumn + ")"));
 
-        Query query;
         if (filterExpression.isPresent()) {
-            PredicateExtractionVisitor extractor = new PredicateExtractionVisitor();
-            Collection<FilterPredicate> predicates = filterExpression.get().accept(extractor);
-
             //Build the WHERE clause
             String filterClause = new HQLFilterOperation().apply(filterExpression.get(), true);
 
             //Build the JOIN clause
-            String joinClause =  getJoinClauseFromFilters(filterExpression.get());
-
-            query = session.createQuery(
-                    SELECT
-                        + entityAlias
-                        + FROM
-                        + entityName
-                        + AS
-                        + entityAlias
-                        + SPACE
-                        + joinClause
-                        + SPACE
-                        + filterClause
-                        + SPACE
-                        + getSortClause(sorting, entityClass, USE_ALIAS)
-            );
+            String joinClause =  getJoinClauseFromFilters(filterExpression.get(), joinedPaths)
+                    + getFetchJoinClause(entityClass, joinedPaths);
 
-            //Fill in the query parameters
-            supplyFilterQueryParameters(query, predicates);
-        } else {
-            query = session.createQuery(SELECT
-                    + entityAlias
+            return SELECT
+                    + selectClause
                     + FROM
                     + entityName
                     + AS
                     + entityAlias
                     + SPACE
-                    + getSortClause(sorting, entityClass, USE_ALIAS));
+                    + joinClause
+                    + SPACE
+                    + filterClause
+                    + SPACE
+                    + getSortClause(sorting, entityClass, USE_ALIAS);
         }
-
-        addPaginationToQuery(query);
-        return query;
+        return SELECT
+                + selectClause
+                + FROM
+                + entityName
+                + AS
+                + entityAlias
+                + SPACE
+                + getFetchJoinClause(entityClass, joinedPaths)
+                + getSortClause(sorting, entityClass, USE_ALIAS);
     }
 }
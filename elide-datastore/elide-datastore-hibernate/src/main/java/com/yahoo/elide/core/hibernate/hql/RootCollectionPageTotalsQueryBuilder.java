@@ -8,14 +8,11 @@ package com.yahoo.elide.core.hibernate.hql;
 import com.yahoo.elide.core.EntityDictionary;
 import com.yahoo.elide.core.filter.FilterPredicate;
 import com.yahoo.elide.core.filter.HQLFilterOperation;
-import com.yahoo.elide.core.filter.expression.PredicateExtractionVisitor;
 import com.yahoo.elide.core.hibernate.Query;
 import com.yahoo.elide.core.hibernate.Session;
 import com.yahoo.elide.core.pagination.Pagination;
 import com.yahoo.elide.core.sort.Sorting;
 
-import java.util.Collection;
-import java.util.HashSet;
 import java.util.Optional;
 
 /**
@@ -54,18 +51,21 @@ public class RootCollectionPageTotalsQueryBuilder extends AbstractHQLQueryBuilde
      */
     @Override
     public Query build() {
+        Query query = session.createQuery(getQueryTemplate(getTemplateKey(entityClass), this::generate));
+        if (filterExpression.isPresent()) {
+            supplyFilterQueryParameters(query, filterExpression.get());
+        }
+        return query;
+    }
+
+    private String generate() {
         String entityName = entityClass.getCanonicalName();
         String entityAlias = FilterPredicate.getTypeAlias(entityClass);
 
-        Collection<FilterPredicate> predicates;
-
         String filterClause;
         String joinClause;
 
         if (filterExpression.isPresent()) {
-            PredicateExtractionVisitor extractor = new PredicateExtractionVisitor();
-            predicates = filterExpression.get().accept(extractor);
-
             //Build the WHERE clause
             filterClause = new HQLFilterOperation().apply(filterExpression.get(), USE_ALIAS);
 
@@ -73,12 +73,11 @@ public class RootCollectionPageTotalsQueryBuilder extends AbstractHQLQueryBuilde
             joinClause =  getJoinClauseFromFilters(filterExpression.get());
 
         } else {
-            predicates = new HashSet();
             filterClause = "";
             joinClause = "";
         }
 
-        Query query = session.createQuery("SELECT COUNT(DISTINCT "
+        return "SELECT COUNT(DISTINCT "
                 + entityAlias
                 + ") "
                 + FROM
@@ -88,9 +87,6 @@ public class RootCollectionPageTotalsQueryBuilder extends AbstractHQLQueryBuilde
                 + SPACE
                 + joinClause
                 + SPACE
-                + filterClause
-        );
-        supplyFilterQueryParameters(query, predicates);
-        return query;
+                + filterClause;
     }
 }
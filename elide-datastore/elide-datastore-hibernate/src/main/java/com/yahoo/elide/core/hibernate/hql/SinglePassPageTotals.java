@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.hibernate.hql;
+
+import com.yahoo.elide.core.pagination.Pagination;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Page totals computed with the page fetch itself instead of a separate count query, for entities paginated with
+ * the PEEK or WINDOW {@link com.yahoo.elide.annotation.Paginate.TotalsStrategy}.
+ *
+ * Windowed totals need a SQL function named {@value #TOTALS_FUNCTION} registered with the session factory, e.g. with
+ * Hibernate 5:
+ * <pre>
+ * configuration.addSqlFunction("count_over",
+ *         new SQLFunctionTemplate(StandardBasicTypes.LONG, "count(*) over()"));
+ * </pre>
+ * Without it, or without a database that supports window functions, the page is peeked at instead. Both count the
+ * rows the fetch query returns, so they are only exact when the filters do not join to-many relationships.
+ */
+public class SinglePassPageTotals {
+    /** Name of the SQL function that renders a windowed count. */
+    public static final String TOTALS_FUNCTION = "count_over";
+
+    private final Pagination pagination;
+
+    /**
+     * The function selected with every row, if the totals are windowed.
+     */
+    @Getter
+    private final Optional<String> totalsFunction;
+
+    private SinglePassPageTotals(Pagination pagination, Optional<String> totalsFunction) {
+        this.pagination = pagination;
+        this.totalsFunction = totalsFunction;
+    }
+
+    /**
+     * Plans the page totals of a root collection fetch.
+     *
+     * @param pagination the pagination of the request
+     * @param windowSupported tells whether the session factory has the {@value #TOTALS_FUNCTION} function
+     * @return the plan, or empty if no totals are requested or they come from a separate count query
+     */
+    public static Optional<SinglePassPageTotals> forFetch(Optional<Pagination> pagination,
+                                                          BooleanSupplier windowSupported) {
+        if (!pagination.isPresent() || !pagination.get().isGenerateTotals()) {
+            return Optional.empty();
+        }
+        switch (pagination.get().getTotalsStrategy()) {
+            case WINDOW:
+                return Optional.of(new SinglePassPageTotals(pagination.get(),
+                        windowSupported.getAsBoolean() ? Optional.of(TOTALS_FUNCTION) : Optional.empty()));
+            case PEEK:
+                return Optional.of(new SinglePassPageTotals(pagination.get(), Optional.empty()));
+            default:
+                return Optional.empty();
+        }
+    }
+
+    /**
+     * Whether the fetch peeks one row past the page.
+     *
+     * @return true if the totals are not windowed
+     */
+    public boolean isLookahead() {
+        return !totalsFunction.isPresent();
+    }
+
+    /**
+     * Sets the page totals from the fetched rows and drops what was only fetched for them.
+     *
+     * @param rows the rows of the fetch query, with windowed totals an array of the entity and the total, or a list of
+     * the projected values followed by the total
+     * @param countQuery runs a count query, for the pages the totals cannot be told from
+     * @return the rows of the page
+     */
+    public List<Object> apply(List<?> rows, LongSupplier countQuery) {
+        int offset = pagination.getOffset();
+        List<Object> page = new ArrayList<>(rows.size());
+        if (totalsFunction.isPresent()) {
+            Number total = null;
+            for (Object row : rows) {
+                if (row instanceof List) {
+                    // A projection, its values are followed by the total
+                    List<?> values = (List<?>) row;
+                    page.add(values.subList(0, values.size() - 1));
+                    total = (Number) values.get(values.size() - 1);
+                } else {
+                    page.add(((Object[]) row)[0]);
+                    total = (Number) ((Object[]) row)[1];
+                }
+            }
+            if (total != null) {
+                pagination.setPageTotals(total.longValue());
+                return page;
+            }
+        } else {
+            page.addAll(rows.subList(0, Math.min(rows.size(), pagination.getLimit())));
+            if (rows.size() <= pagination.getLimit() && (!rows.isEmpty() || offset == 0)) {
+                pagination.setPageTotals(offset + rows.size());
+                return page;
+            }
+        }
+        // An empty page past the end, or a page that is not the last one
+        pagination.setPageTotals(offset == 0 && rows.isEmpty() ? 0 : countQuery.getAsLong());
+        return page;
+    }
+}
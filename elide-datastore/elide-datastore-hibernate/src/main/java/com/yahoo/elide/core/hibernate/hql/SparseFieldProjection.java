@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.hibernate.hql;
+
+import com.google.common.collect.Iterables;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.PersistentResource;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.exceptions.InternalServerErrorException;
+import lombok.Getter;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The columns a root collection read selects instead of whole entities, when the request only needs some of them.
+ *
+ * Each selected row is turned into a new, partially initialized instance of the entity that only holds the id and
+ * the selected attributes. Such instances are not attached to any session, so projections are only used by read
+ * only transactions.
+ *
+ * @see PersistentResource#getRequiredFields(Class, RequestScope)
+ */
+public class SparseFieldProjection {
+    private final Constructor<?> constructor;
+    private final EntityDictionary dictionary;
+
+    /**
+     * The selected fields, the id first.
+     */
+    @Getter
+    private final List<String> fields;
+
+    private SparseFieldProjection(Constructor<?> constructor, EntityDictionary dictionary, List<String> fields) {
+        this.constructor = constructor;
+        this.dictionary = dictionary;
+        this.fields = Collections.unmodifiableList(fields);
+    }
+
+    /**
+     * Plans the projection of a root collection read.
+     *
+     * @param entityClass the loaded class
+     * @param scope the request scope
+     * @return the projection, or empty if the request may need every attribute, some of them are not single
+     * columns, or the entity cannot be instantiated and written field by field
+     */
+    public static Optional<SparseFieldProjection> forRead(Class<?> entityClass, RequestScope scope) {
+        Optional<Set<String>> required = PersistentResource.getRequiredFields(entityClass, scope);
+        EntityDictionary dictionary = scope.getDictionary();
+        if (!required.isPresent() || required.get().containsAll(dictionary.getAttributes(entityClass))) {
+            return Optional.empty();
+        }
+
+        List<String> fields = new ArrayList<>();
+        fields.add(dictionary.getIdFieldName(entityClass));
+        fields.addAll(required.get());
+        for (String field : fields) {
+            Class<?> type = dictionary.getType(entityClass, field);
+            if (Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)
+                    || !dictionary.isWritable(entityClass, field)) {
+                return Optional.empty();
+            }
+        }
+
+        try {
+            Constructor<?> constructor = entityClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return Optional.of(new SparseFieldProjection(constructor, dictionary, fields));
+        } catch (NoSuchMethodException | SecurityException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Turns the rows selected by the projection into entities.
+     *
+     * @param rows the selected rows, each a list of the values of {@code fields}
+     * @param <T> the type of the entities
+     * @return the entities, converted as they are iterated
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Iterable<T> toEntities(Iterable<?> rows) {
+        return Iterables.transform(rows, row -> (T) toEntity((List<?>) row));
+    }
+
+    private Object toEntity(List<?> row) {
+        try {
+            Object entity = constructor.newInstance();
+            for (int i = 0; i < fields.size(); i++) {
+                dictionary.setValue(entity, fields.get(i), row.get(i));
+            }
+            return entity;
+        } catch (ReflectiveOperationException e) {
+            throw new InternalServerErrorException(e);
+        }
+    }
+}
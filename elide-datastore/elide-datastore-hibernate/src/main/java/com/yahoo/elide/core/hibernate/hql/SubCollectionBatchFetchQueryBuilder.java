@@ -0,0 +1,151 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.hibernate.hql;
+
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.filter.FilterPredicate;
+import com.yahoo.elide.core.filter.HQLFilterOperation;
+import com.yahoo.elide.core.hibernate.Query;
+import com.yahoo.elide.core.hibernate.Session;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.persistence.OrderBy;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AccessibleObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+
+/**
+ * Constructs a HQL query that fetches the members of one relationship for many parents at once.
+ *
+ * Each result row is an {@code Object[]} holding the parent followed by one of its children. The children of each
+ * parent are returned in the order the relationship declares with {@link OrderBy} or an index column.
+ */
+public class SubCollectionBatchFetchQueryBuilder extends AbstractHQLQueryBuilder {
+    public static final String PARENTS_PARAMETER = "elideBatchParents";
+
+    private static final String PARENT_SUFFIX = "__parent";
+
+    private static final List<String> INDEX_COLUMNS = Arrays.asList(
+            "javax.persistence.OrderColumn", "org.hibernate.annotations.IndexColumn");
+    private static final List<String> UNSUPPORTED_ORDERINGS = Arrays.asList(
+            "org.hibernate.annotations.OrderBy", "org.hibernate.annotations.Sort",
+            "org.hibernate.annotations.SortNatural", "org.hibernate.annotations.SortComparator");
+
+    private final Class<?> parentType;
+    private final Class<?> childType;
+    private final String relationshipName;
+    private final Collection<?> parents;
+
+    public SubCollectionBatchFetchQueryBuilder(Class<?> parentType,
+                                               Class<?> childType,
+                                               String relationshipName,
+                                               Collection<?> parents,
+                                               EntityDictionary dictionary,
+                                               Session session) {
+        super(dictionary, session);
+        this.parentType = parentType;
+        this.childType = childType;
+        this.relationshipName = relationshipName;
+        this.parents = parents;
+    }
+
+    /**
+     * Constructs a query that returns (parent, child) pairs for all the given parents.
+     *
+     * Sorting and pagination are per parent and therefore not supported here.
+     *
+     * @return the constructed query
+     */
+    @Override
+    public Query build() {
+        Query query = session.createQuery(
+                getQueryTemplate(getTemplateKey(parentType, childType, relationshipName), this::generate));
+
+        query.setParameterList(PARENTS_PARAMETER, parents);
+        if (filterExpression.isPresent()) {
+            supplyFilterQueryParameters(query, filterExpression.get());
+        }
+        return query;
+    }
+
+    private String generate() {
+        String parentAlias = FilterPredicate.getTypeAlias(parentType) + PARENT_SUFFIX;
+        String childAlias = FilterPredicate.getTypeAlias(childType);
+
+        Set<String> joinedPaths = new HashSet<>();
+        String joinClause = "";
+        String filterClause = "";
+        if (filterExpression.isPresent()) {
+            joinClause = getJoinClauseFromFilters(filterExpression.get(), joinedPaths);
+            filterClause = " AND ("
+                    + filterExpression.get().accept(new HQLFilterOperation().new HQLQueryVisitor(USE_ALIAS)) + ")";
+        }
+
+        return SELECT + parentAlias + COMMA + childAlias
+                + FROM + parentType.getCanonicalName() + AS + parentAlias
+                + JOIN + parentAlias + PERIOD + relationshipName + SPACE + childAlias
+                + SPACE + joinClause + getFetchJoinClause(childType, joinedPaths)
+                + " WHERE " + parentAlias + " IN (:" + PARENTS_PARAMETER + ")"
+                + filterClause
+                + getOrderByClause(childAlias);
+    }
+
+    /**
+     * Whether the batched query returns the members of a relationship in the order it declares. It does not if they
+     * are ordered by a SQL clause or sorted in memory.
+     *
+     * @param parentType the owner of the relationship
+     * @param relationshipName the name of the relationship
+     * @param dictionary the entity dictionary
+     * @return false if the relationship has to be loaded on its own to keep its order
+     */
+    public static boolean isOrderingSupported(Class<?> parentType, String relationshipName,
+                                              EntityDictionary dictionary) {
+        if (SortedSet.class.isAssignableFrom(dictionary.getType(parentType, relationshipName))) {
+            return false;
+        }
+        AccessibleObject field = dictionary.getAccessibleObject(parentType, relationshipName);
+        return field == null || !hasAnnotation(field, UNSUPPORTED_ORDERINGS);
+    }
+
+    private String getOrderByClause(String childAlias) {
+        AccessibleObject field = dictionary.getAccessibleObject(parentType, relationshipName);
+        if (field == null) {
+            return "";
+        }
+        OrderBy orderBy = field.getAnnotation(OrderBy.class);
+        if (orderBy != null) {
+            // An empty ordering orders by the primary key
+            String[] items = orderBy.value().trim().isEmpty()
+                    ? new String[] {dictionary.getIdFieldName(childType)}
+                    : orderBy.value().split(COMMA);
+            List<String> ordering = new ArrayList<>();
+            for (String item : items) {
+                ordering.add(childAlias + PERIOD + item.trim());
+            }
+            return " order by " + StringUtils.join(ordering, COMMA);
+        }
+        if (hasAnnotation(field, INDEX_COLUMNS)) {
+            return " order by index(" + childAlias + ")";
+        }
+        return "";
+    }
+
+    private static boolean hasAnnotation(AccessibleObject field, List<String> annotationNames) {
+        for (Annotation annotation : field.getAnnotations()) {
+            if (annotationNames.contains(annotation.annotationType().getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -6,14 +6,10 @@
 package com.yahoo.elide.core.hibernate.hql;
 
 import com.yahoo.elide.core.EntityDictionary;
-import com.yahoo.elide.core.filter.FilterPredicate;
 import com.yahoo.elide.core.filter.HQLFilterOperation;
-import com.yahoo.elide.core.filter.expression.PredicateExtractionVisitor;
 import com.yahoo.elide.core.hibernate.Query;
 import com.yahoo.elide.core.hibernate.Session;
 
-import java.util.Collection;
-
 /**
  * Constructs a HQL query to fetch a hibernate collection proxy.
  */
@@ -41,26 +37,23 @@ public class SubCollectionFetchQueryBuilder extends AbstractHQLQueryBuilder {
             return null;
         }
 
-        Query query;
+        String template = getQueryTemplate(getTemplateKey(relationship.getChildType()), this::generate);
+        Query query = session.createFilter(relationship.getChildren(), template);
         if (filterExpression.isPresent()) {
-            PredicateExtractionVisitor extractor = new PredicateExtractionVisitor();
-            Collection<FilterPredicate> predicates = filterExpression.get().accept(extractor);
-            String filterClause = new HQLFilterOperation().apply(filterExpression.get(), NO_ALIAS);
-
-            // We don't prefix with aliases because we are not joining across toMany relationships.
-            query = session.createFilter(relationship.getChildren(),
-                filterClause + SPACE + getSortClause(sorting, relationship.getChildType(), NO_ALIAS));
-
-            supplyFilterQueryParameters(query, predicates);
-        } else {
-            query = session.createFilter(relationship.getChildren(),
-
-                //The root collection doesn't need prefix for order by clause.
-                getSortClause(sorting, relationship.getChildType(), NO_ALIAS));
+            supplyFilterQueryParameters(query, filterExpression.get());
         }
 
-
         addPaginationToQuery(query);
         return query;
     }
+
+    private String generate() {
+        //The root collection doesn't need prefix for order by clause.
+        String sortClause = getSortClause(sorting, relationship.getChildType(), NO_ALIAS);
+        if (filterExpression.isPresent()) {
+            // We don't prefix with aliases because we are not joining across toMany relationships.
+            return new HQLFilterOperation().apply(filterExpression.get(), NO_ALIAS) + SPACE + sortClause;
+        }
+        return sortClause;
+    }
 }
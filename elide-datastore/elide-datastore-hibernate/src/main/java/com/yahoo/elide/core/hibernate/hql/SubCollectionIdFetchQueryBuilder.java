@@ -0,0 +1,50 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.core.hibernate.hql;
+
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.filter.HQLFilterOperation;
+import com.yahoo.elide.core.hibernate.Query;
+import com.yahoo.elide.core.hibernate.Session;
+
+/**
+ * Constructs a HQL collection filter that returns the ids of the members of a relationship without initializing
+ * the collection proxy or loading its members.
+ */
+public class SubCollectionIdFetchQueryBuilder extends AbstractHQLQueryBuilder {
+
+    private final Relationship relationship;
+
+    public SubCollectionIdFetchQueryBuilder(Relationship relationship,
+                                            EntityDictionary dictionary,
+                                            Session session) {
+        super(dictionary, session);
+        this.relationship = relationship;
+    }
+
+    /**
+     * Constructs a query that returns the ids of the members of a relationship.
+     *
+     * @return the constructed query
+     */
+    @Override
+    public Query build() {
+        Query query = session.createFilter(relationship.getChildren(),
+                getQueryTemplate(getTemplateKey(relationship.getChildType()), this::generate));
+        if (filterExpression.isPresent()) {
+            supplyFilterQueryParameters(query, filterExpression.get());
+        }
+        return query;
+    }
+
+    private String generate() {
+        String selectClause = SELECT + "this" + PERIOD + dictionary.getIdFieldName(relationship.getChildType());
+        if (!filterExpression.isPresent()) {
+            return selectClause;
+        }
+        return selectClause + SPACE + new HQLFilterOperation().apply(filterExpression.get(), NO_ALIAS);
+    }
+}
@@ -79,17 +79,7 @@ public class SubCollectionPageTotalsQueryBuilder extends AbstractHQLQueryBuilder
                 Operator.IN,
                 Collections.singletonList(idVal));
 
-        Collection<FilterPredicate> predicates = new ArrayList<>();
-        String joinClause = "";
-        String filterClause = "";
         FilterExpression joinedExpression = idExpression;
-
-        String relationshipName = relationship.getRelationshipName();
-
-        //Relationship alias is Author_books
-        String parentAlias = FilterPredicate.getTypeAlias(parentType);
-        String relationshipAlias = parentAlias + UNDERSCORE + relationshipName;
-
         if (filterExpression.isPresent()) {
 
             //Copy the filter expression because we are going to muck with it (and it may be used elsewhere)
@@ -99,7 +89,7 @@ public class SubCollectionPageTotalsQueryBuilder extends AbstractHQLQueryBuilder
             //For each filter predicate, prepend the predicate with the parent:
             //books.title = 'Foobar' becomes author.books.title = 'Foobar'
             PredicateExtractionVisitor extractor = new PredicateExtractionVisitor(new ArrayList<>());
-            predicates = copy.accept(extractor);
+            Collection<FilterPredicate> predicates = copy.accept(extractor);
             predicates.stream().forEach(predicate -> {
                 predicate.getPath().add(0, new FilterPredicate.PathElement(
                         parentType,
@@ -107,16 +97,32 @@ public class SubCollectionPageTotalsQueryBuilder extends AbstractHQLQueryBuilder
                         relationship.getRelationshipName()));
             });
 
-            predicates.add(idExpression);
-
             //Join together the provided filter expression with the expression which selects the collection owner.
             joinedExpression = new AndFilterExpression(copy, idExpression);
+        }
+
+        FilterExpression expression = joinedExpression;
+        Query query = session.createQuery(getQueryTemplate(
+                getTemplateKey(parentType, relationship.getChildType(), relationship.getRelationshipName()),
+                () -> generate(expression)));
+
+        //Fill in the query parameters
+        supplyFilterQueryParameters(query, joinedExpression);
+        return query;
+    }
 
+    private String generate(FilterExpression joinedExpression) {
+        Class<?> parentType = relationship.getParentType();
+        String relationshipName = relationship.getRelationshipName();
+
+        //Relationship alias is Author_books
+        String parentAlias = FilterPredicate.getTypeAlias(parentType);
+        String relationshipAlias = parentAlias + UNDERSCORE + relationshipName;
+
+        String joinClause;
+        if (filterExpression.isPresent()) {
             //Build the JOIN clause from the filter predicate
             joinClause = getJoinClauseFromFilters(joinedExpression);
-
-            //Build the WHERE clause
-            filterClause = new HQLFilterOperation().apply(joinedExpression, USE_ALIAS);
         } else {
 
             //If there is no filter, we still need to explicitly JOIN book and authors.
@@ -126,26 +132,21 @@ public class SubCollectionPageTotalsQueryBuilder extends AbstractHQLQueryBuilder
                     + SPACE
                     + relationshipAlias
                     + SPACE;
-
-            filterClause = new HQLFilterOperation().apply(idExpression, USE_ALIAS);
-            predicates.add(idExpression);
         }
 
-        Query query = session.createQuery(
-                "SELECT COUNT(DISTINCT "
-                        + relationshipAlias
-                        + ") "
-                        + FROM
-                        + parentType.getCanonicalName()
-                        + AS
-                        + parentAlias
-                        + SPACE
-                        + joinClause
-                        + SPACE
-                        + filterClause);
-
-        //Fill in the query parameters
-        supplyFilterQueryParameters(query, predicates);
-        return query;
+        //Build the WHERE clause
+        String filterClause = new HQLFilterOperation().apply(joinedExpression, USE_ALIAS);
+
+        return "SELECT COUNT(DISTINCT "
+                + relationshipAlias
+                + ") "
+                + FROM
+                + parentType.getCanonicalName()
+                + AS
+                + parentAlias
+                + SPACE
+                + joinClause
+                + SPACE
+                + filterClause;
     }
 }
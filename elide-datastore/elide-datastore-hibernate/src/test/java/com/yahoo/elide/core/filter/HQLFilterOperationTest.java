@@ -55,8 +55,7 @@ public class HQLFilterOperationTest {
         HQLFilterOperation filterOp = new HQLFilterOperation();
         String query = filterOp.apply(not);
 
-        String expected = "WHERE NOT (((name IN (:" + p2.getParameterName() + ") OR genre IN (:"
-                + p3.getParameterName() + ")) AND authors.name IN (:" + p1.getParameterName() + ")))";
+        String expected = "WHERE NOT (((name IN (:name_0) OR genre IN (:genre_1)) AND authors.name IN (:authors_name_2)))";
         Assert.assertEquals(query, expected);
     }
 
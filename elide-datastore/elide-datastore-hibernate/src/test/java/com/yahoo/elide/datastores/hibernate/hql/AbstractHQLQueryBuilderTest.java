@@ -140,6 +140,17 @@ public class AbstractHQLQueryBuilderTest extends AbstractHQLQueryBuilder {
         getSortClause(Optional.of(new Sorting(sorting)), Book.class, NO_ALIAS);
     }
 
+    @Test
+    public void testQueryTemplatesAreCachedPerDictionary() {
+        List<Object> key = getTemplateKey(Book.class, "testQueryTemplatesAreCachedPerDictionary");
+        Assert.assertEquals(getQueryTemplate(key, () -> "first"), "first");
+        Assert.assertEquals(getQueryTemplate(key, () -> "second"), "first");
+
+        // Another dictionary may map the same classes differently
+        AbstractHQLQueryBuilderTest other = new AbstractHQLQueryBuilderTest();
+        Assert.assertEquals(other.getQueryTemplate(key, () -> "second"), "second");
+    }
+
     @Test
     public void testSettingQueryParams() {
         List<FilterPredicate.PathElement> idPath = Arrays.asList(
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.datastores.hibernate.hql;
+
+import com.yahoo.elide.ElideSettingsBuilder;
+import com.yahoo.elide.core.filter.FilterPredicate;
+import com.yahoo.elide.core.filter.Operator;
+import com.yahoo.elide.core.filter.expression.FilterExpression;
+import com.yahoo.elide.core.hibernate.hql.PageTotalsCache;
+import com.yahoo.elide.core.hibernate.hql.RelationshipImpl;
+import com.yahoo.elide.core.pagination.Pagination;
+import example.Author;
+import example.Book;
+import example.Publisher;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PageTotalsCacheTest {
+
+    private static Optional<FilterExpression> titleFilter(String title) {
+        return Optional.of(new FilterPredicate(
+                new FilterPredicate.PathElement(Book.class, String.class, "title"),
+                Operator.IN, Arrays.asList(title)));
+    }
+
+    private static Pagination pagination(String totals) {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.add(Pagination.PAGE_TOTALS_KEY, totals);
+        return Pagination.parseQueryParams(queryParams, new ElideSettingsBuilder(null).build())
+                .evaluate(Book.class);
+    }
+
+    @Test
+    public void testTotalsAreCachedPerFilter() {
+        PageTotalsCache cache = new PageTotalsCache(1, TimeUnit.MINUTES, 100);
+        AtomicLong counts = new AtomicLong();
+
+        Assert.assertEquals(cache.getTotal(Book.class, titleFilter("A"), Collections.emptySet(),
+                () -> 3 + counts.getAndIncrement()), 3);
+        Assert.assertEquals(cache.getTotal(Book.class, titleFilter("A"), Collections.emptySet(),
+                () -> 3 + counts.getAndIncrement()), 3);
+        Assert.assertEquals(cache.getTotal(Book.class, titleFilter("B"), Collections.emptySet(),
+                () -> 3 + counts.getAndIncrement()), 4);
+        Assert.assertEquals(counts.get(), 2);
+    }
+
+    @Test
+    public void testWritesInvalidateTotals() {
+        PageTotalsCache cache = new PageTotalsCache(1, TimeUnit.MINUTES, 100);
+        RelationshipImpl books = new RelationshipImpl(Author.class, Book.class, "books", new Author(),
+                Collections.emptyList());
+
+        cache.getTotal(Book.class, Optional.empty(), Collections.emptySet(), () -> 1);
+        cache.getTotal(Publisher.class, Optional.empty(), Collections.emptySet(), () -> 1);
+        cache.getTotal(books, "1", Optional.empty(), Collections.emptySet(), () -> 1);
+
+        // Uncommitted writes of the asking transaction bypass the cache
+        Assert.assertEquals(cache.getTotal(Book.class, Optional.empty(), Collections.singleton(Book.class),
+                () -> 2), 2);
+
+        cache.invalidate(Collections.singleton(Book.class));
+
+        Assert.assertEquals(cache.getTotal(Book.class, Optional.empty(), Collections.emptySet(), () -> 2), 2);
+        Assert.assertEquals(cache.getTotal(books, "1", Optional.empty(), Collections.emptySet(), () -> 2), 2);
+        Assert.assertEquals(cache.getTotal(Publisher.class, Optional.empty(), Collections.emptySet(), () -> 2), 1);
+    }
+
+    @Test
+    public void testWritesToJoinedTypesInvalidateTotals() {
+        PageTotalsCache cache = new PageTotalsCache(1, TimeUnit.MINUTES, 100);
+        Optional<FilterExpression> authorFilter = Optional.of(new FilterPredicate(Arrays.asList(
+                new FilterPredicate.PathElement(Book.class, Author.class, "authors"),
+                new FilterPredicate.PathElement(Author.class, String.class, "name")),
+                Operator.IN, Arrays.asList("Orson Scott Card")));
+
+        cache.getTotal(Book.class, authorFilter, Collections.emptySet(), () -> 1);
+        cache.getTotal(Book.class, titleFilter("A"), Collections.emptySet(), () -> 1);
+
+        cache.invalidate(Collections.singleton(Author.class));
+
+        Assert.assertEquals(cache.getTotal(Book.class, authorFilter, Collections.emptySet(), () -> 2), 2);
+        Assert.assertEquals(cache.getTotal(Book.class, titleFilter("A"), Collections.emptySet(), () -> 2), 1);
+    }
+
+    @Test
+    public void testDisabledCacheAlwaysCounts() {
+        AtomicLong counts = new AtomicLong();
+
+        PageTotalsCache.DISABLED.getTotal(Book.class, Optional.empty(), Collections.emptySet(),
+                counts::incrementAndGet);
+        PageTotalsCache.DISABLED.getTotal(Book.class, Optional.empty(), Collections.emptySet(),
+                counts::incrementAndGet);
+
+        Assert.assertEquals(counts.get(), 2);
+        Assert.assertFalse(PageTotalsCache.DISABLED.setEstimatedPageTotals(
+                pagination(Pagination.APPROXIMATE_TOTALS), Book.class, Optional.empty()));
+    }
+
+    @Test
+    public void testEstimatesAboveThreshold() {
+        PageTotalsCache cache = new PageTotalsCache(1, TimeUnit.MINUTES, 100,
+                (entityClass, filterExpression) -> filterExpression.isPresent()
+                        ? OptionalLong.empty()
+                        : OptionalLong.of(entityClass == Book.class ? 5000 : 50), 1000);
+
+        Pagination approximate = pagination(Pagination.APPROXIMATE_TOTALS);
+        Assert.assertTrue(cache.setEstimatedPageTotals(approximate, Book.class, Optional.empty()));
+        Assert.assertEquals(approximate.getPageTotals(), 5000);
+        Assert.assertTrue(approximate.isApproximatePageTotals());
+
+        Assert.assertFalse(cache.setEstimatedPageTotals(pagination(Pagination.APPROXIMATE_TOTALS),
+                Publisher.class, Optional.empty()));
+        Assert.assertFalse(cache.setEstimatedPageTotals(pagination(Pagination.APPROXIMATE_TOTALS),
+                Book.class, titleFilter("A")));
+        Assert.assertFalse(cache.setEstimatedPageTotals(pagination(""), Book.class, Optional.empty()));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.datastores.hibernate.hql;
+
+import com.yahoo.elide.ElideSettingsBuilder;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.hibernate.hql.RelationBatchLoader;
+import com.yahoo.elide.security.User;
+import example.Author;
+import example.Book;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.MultivaluedHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class RelationBatchLoaderTest {
+
+    @Test
+    public void testProxiesAreBatchedWithTheirEntityClass() {
+        EntityDictionary dictionary = new EntityDictionary(new HashMap<>());
+        dictionary.bindEntity(Book.class);
+        dictionary.bindEntity(Author.class);
+        RequestScope scope = new RequestScope(null, null, null, new User(1), new MultivaluedHashMap<>(),
+                new ElideSettingsBuilder(null).withEntityDictionary(dictionary).build());
+
+        Author author = author(1L);
+        // Stands in for a Hibernate proxy, a subclass of the entity class
+        Author proxy = new Author() { };
+        proxy.setId(2L);
+        Book first = new Book();
+        Book second = new Book();
+
+        List<String> queries = new ArrayList<>();
+        RelationBatchLoader loader = new RelationBatchLoader(new TestSessionWrapper(), query -> {
+            queries.add(((TestQueryWrapper) query).getQueryText());
+            // The query returns other instances of the parents
+            return Arrays.asList(new Object[] {author(2L), second}, new Object[] {author(1L), first});
+        });
+
+        Map<Object, List<Object>> relations = loader.fetch(Arrays.asList(author, proxy), "books",
+                Optional.empty(), scope);
+
+        Assert.assertEquals(queries.size(), 1);
+        Assert.assertTrue(queries.get(0).contains("FROM example.Author AS"), queries.get(0));
+        Assert.assertEquals(relations.get(author), Collections.singletonList(first));
+        Assert.assertEquals(relations.get(proxy), Collections.singletonList(second));
+    }
+
+    private static Author author(long id) {
+        Author author = new Author();
+        author.setId(id);
+        return author;
+    }
+}
@@ -5,11 +5,15 @@
  */
 package com.yahoo.elide.datastores.hibernate.hql;
 
+import com.yahoo.elide.ElideSettingsBuilder;
 import com.yahoo.elide.core.EntityDictionary;
 import com.yahoo.elide.core.filter.FilterPredicate;
 import com.yahoo.elide.core.filter.Operator;
 import com.yahoo.elide.core.filter.expression.OrFilterExpression;
 import com.yahoo.elide.core.hibernate.hql.RootCollectionFetchQueryBuilder;
+import com.yahoo.elide.core.hibernate.hql.SinglePassPageTotals;
+import com.yahoo.elide.core.pagination.KeysetCursor;
+import com.yahoo.elide.core.pagination.Pagination;
 import com.yahoo.elide.core.sort.Sorting;
 import example.Author;
 import example.Book;
@@ -19,6 +23,8 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -72,6 +78,108 @@ public class RootCollectionFetchQueryBuilderTest {
         Assert.assertEquals(actual, expected);
     }
 
+    @Test
+    public void testRootFetchWithProjection() {
+        RootCollectionFetchQueryBuilder builder = new RootCollectionFetchQueryBuilder(
+                Book.class, dictionary, new TestSessionWrapper());
+
+        Map<String, Sorting.SortOrder> sorting = new HashMap<>();
+        sorting.put(TITLE, Sorting.SortOrder.asc);
+
+        TestQueryWrapper query = (TestQueryWrapper) builder
+                .withPossibleProjection(Optional.of(Arrays.asList("id", TITLE)))
+                .withPossibleSorting(Optional.of(new Sorting(sorting)))
+                .build();
+
+        String expected = "SELECT new list(example_Book.id,example_Book.title) FROM example.Book AS example_Book  "
+                + "order by example_Book.title asc";
+        String actual = query.getQueryText();
+
+        Assert.assertEquals(actual, expected);
+    }
+
+    @Test
+    public void testRootFetchWithFetchJoins() {
+        RootCollectionFetchQueryBuilder builder = new RootCollectionFetchQueryBuilder(
+                Book.class, dictionary, new TestSessionWrapper());
+
+        TestQueryWrapper query = (TestQueryWrapper) builder
+                .withFetchJoins(Arrays.asList(PUBLISHER))
+                .build();
+
+        String expected = "SELECT example_Book FROM example.Book AS example_Book  "
+                + "LEFT JOIN FETCH example_Book.publisher example_Book_publisher ";
+        String actual = query.getQueryText();
+
+        Assert.assertEquals(actual, expected);
+    }
+
+    @Test
+    public void testRootFetchWithFetchJoinsAndJoinFilter() {
+        List<FilterPredicate.PathElement> publisherNamePath = Arrays.asList(
+                new FilterPredicate.PathElement(Book.class, Publisher.class, PUBLISHER),
+                new FilterPredicate.PathElement(Publisher.class, String.class, "name")
+        );
+
+        FilterPredicate publisherNamePredicate = new FilterPredicate(
+                publisherNamePath,
+                Operator.IN, Arrays.asList("Pub1"));
+
+        RootCollectionFetchQueryBuilder builder = new RootCollectionFetchQueryBuilder(
+                Book.class, dictionary, new TestSessionWrapper());
+
+        TestQueryWrapper query = (TestQueryWrapper) builder
+                .withPossibleFilterExpression(Optional.of(publisherNamePredicate))
+                .withFetchJoins(Arrays.asList(PUBLISHER))
+                .build();
+
+        String expected = "SELECT example_Book FROM example.Book AS example_Book  "
+                + "JOIN FETCH example_Book.publisher example_Book_publisher  "
+                + "WHERE example_Book_publisher.name IN (:publisher_name_XXX) ";
+        String actual = query.getQueryText().replaceFirst(":publisher_name_\\w+", ":publisher_name_XXX");
+
+        Assert.assertEquals(actual, expected);
+    }
+
+    @Test
+    public void testRootFetchWithProjectionIgnoresFetchJoins() {
+        RootCollectionFetchQueryBuilder builder = new RootCollectionFetchQueryBuilder(
+                Book.class, dictionary, new TestSessionWrapper());
+
+        TestQueryWrapper query = (TestQueryWrapper) builder
+                .withPossibleProjection(Optional.of(Arrays.asList("id", TITLE)))
+                .withFetchJoins(Arrays.asList(PUBLISHER))
+                .build();
+
+        String expected = "SELECT new list(example_Book.id,example_Book.title) FROM example.Book AS example_Book ";
+        String actual = query.getQueryText();
+
+        Assert.assertEquals(actual, expected);
+    }
+
+    @Test
+    public void testRootFetchWithTotalsFunction() {
+        RootCollectionFetchQueryBuilder builder = new RootCollectionFetchQueryBuilder(
+                Book.class, dictionary, new TestSessionWrapper());
+
+        TestQueryWrapper query = (TestQueryWrapper) builder
+                .withPossibleTotalsFunction(Optional.of(SinglePassPageTotals.TOTALS_FUNCTION))
+                .build();
+
+        String expected = "SELECT example_Book,count_over() FROM example.Book AS example_Book ";
+        String actual = query.getQueryText();
+
+        Assert.assertEquals(actual, expected);
+
+        query = (TestQueryWrapper) new RootCollectionFetchQueryBuilder(Book.class, dictionary, new TestSessionWrapper())
+                .withPossibleProjection(Optional.of(Arrays.asList("id", TITLE)))
+                .withPossibleTotalsFunction(Optional.of(SinglePassPageTotals.TOTALS_FUNCTION))
+                .build();
+
+        expected = "SELECT new list(example_Book.id,example_Book.title,count_over()) FROM example.Book AS example_Book ";
+        Assert.assertEquals(query.getQueryText(), expected);
+    }
+
     @Test
     public void testRootFetchWithJoinFilter() {
 
@@ -150,4 +258,62 @@ public class RootCollectionFetchQueryBuilderTest {
 
         Assert.assertEquals(actual, expected);
     }
+
+    @Test
+    public void testRootFetchWithFiltersIsDeterministic() {
+        List<FilterPredicate.PathElement> titlePath = Arrays.asList(
+                new FilterPredicate.PathElement(Book.class, String.class, TITLE)
+        );
+
+        String first = ((TestQueryWrapper) new RootCollectionFetchQueryBuilder(
+                Book.class, dictionary, new TestSessionWrapper())
+                .withPossibleFilterExpression(Optional.of(new OrFilterExpression(
+                        new FilterPredicate(titlePath, Operator.IN, Arrays.asList("Foo")),
+                        new FilterPredicate(titlePath, Operator.PREFIX, Arrays.asList("Bar")))))
+                .build()).getQueryText();
+
+        String second = ((TestQueryWrapper) new RootCollectionFetchQueryBuilder(
+                Book.class, dictionary, new TestSessionWrapper())
+                .withPossibleFilterExpression(Optional.of(new OrFilterExpression(
+                        new FilterPredicate(titlePath, Operator.IN, Arrays.asList("Baz", "Qux")),
+                        new FilterPredicate(titlePath, Operator.PREFIX, Arrays.asList("Quux")))))
+                .build()).getQueryText();
+
+        String expected = "SELECT example_Book FROM example.Book AS example_Book   "
+                + "WHERE (example_Book.title IN (:title_0) OR example_Book.title LIKE CONCAT(:title_1, '%')) ";
+
+        Assert.assertEquals(first, expected);
+        Assert.assertSame(second, first);
+    }
+
+    @Test
+    public void testRootFetchWithKeysetCursor() {
+        RootCollectionFetchQueryBuilder builder = new RootCollectionFetchQueryBuilder(
+                Book.class, dictionary, new TestSessionWrapper());
+
+        Map<String, Sorting.SortOrder> sorting = new HashMap<>();
+        sorting.put(TITLE, Sorting.SortOrder.asc);
+
+        // ["Foo", 3]
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.add(Pagination.PAGE_AFTER_KEY, "WyJGb28iLDNd");
+        Pagination pagination = Pagination.parseQueryParams(queryParams,
+                new ElideSettingsBuilder(null).withEntityDictionary(dictionary).build()).evaluate(Book.class);
+        KeysetCursor cursor = KeysetCursor.fromPagination(pagination, Book.class,
+                Optional.of(new Sorting(sorting)), dictionary).get();
+
+        TestQueryWrapper query = (TestQueryWrapper) builder
+                .withPossibleSorting(Optional.of(cursor.getSorting()))
+                .withPossibleFilterExpression(cursor.withSeekPredicate(Optional.empty()))
+                .build();
+
+        String expected =
+                "SELECT example_Book FROM example.Book AS example_Book    "
+                + "WHERE (example_Book.title > :title_XXX OR (example_Book.title IN (:title_XXX) "
+                + "AND example_Book.id > :id_XXX))  order by example_Book.title asc,example_Book.id asc";
+
+        String actual = query.getQueryText().replaceAll(":(title|id)_\\w+", ":$1_XXX");
+
+        Assert.assertEquals(actual, expected);
+    }
 }
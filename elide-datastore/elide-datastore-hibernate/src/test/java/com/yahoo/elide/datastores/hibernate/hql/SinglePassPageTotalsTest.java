@@ -0,0 +1,121 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.datastores.hibernate.hql;
+
+import com.yahoo.elide.ElideSettingsBuilder;
+import com.yahoo.elide.annotation.Paginate;
+import com.yahoo.elide.core.hibernate.hql.SinglePassPageTotals;
+import com.yahoo.elide.core.pagination.Pagination;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+public class SinglePassPageTotalsTest {
+    private static final long COUNTED = 42;
+
+    @Paginate(totalsStrategy = Paginate.TotalsStrategy.PEEK)
+    private static class Peeked { }
+
+    @Paginate(totalsStrategy = Paginate.TotalsStrategy.WINDOW)
+    private static class Windowed { }
+
+    private static Pagination pagination(Class<?> entityClass, int offset, int limit, boolean totals) {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.add(Pagination.PAGE_OFFSET_KEY, String.valueOf(offset));
+        queryParams.add(Pagination.PAGE_LIMIT_KEY, String.valueOf(limit));
+        if (totals) {
+            queryParams.add(Pagination.PAGE_TOTALS_KEY, "");
+        }
+        return Pagination.parseQueryParams(queryParams, new ElideSettingsBuilder(null).build())
+                .evaluate(entityClass);
+    }
+
+    @Test
+    public void testNoPlanWithoutTotalsOrForCountQueries() {
+        Assert.assertFalse(SinglePassPageTotals.forFetch(
+                Optional.of(pagination(Peeked.class, 0, 2, false)), () -> true).isPresent());
+        Assert.assertFalse(SinglePassPageTotals.forFetch(
+                Optional.of(pagination(Object.class, 0, 2, true)), () -> true).isPresent());
+        Assert.assertFalse(SinglePassPageTotals.forFetch(Optional.empty(), () -> true).isPresent());
+    }
+
+    @Test
+    public void testWindowFallsBackToPeek() {
+        Pagination pagination = pagination(Windowed.class, 0, 2, true);
+
+        Assert.assertEquals(SinglePassPageTotals.forFetch(Optional.of(pagination), () -> true).get()
+                .getTotalsFunction(), Optional.of(SinglePassPageTotals.TOTALS_FUNCTION));
+        Assert.assertTrue(SinglePassPageTotals.forFetch(Optional.of(pagination), () -> false).get()
+                .isLookahead());
+    }
+
+    @Test
+    public void testPeekLastPage() {
+        Pagination pagination = pagination(Peeked.class, 4, 2, true);
+        SinglePassPageTotals totals = SinglePassPageTotals.forFetch(Optional.of(pagination), () -> false).get();
+
+        List<Object> page = totals.apply(Arrays.asList("a"), () -> {
+            throw new AssertionError("No count query expected");
+        });
+
+        Assert.assertEquals(page, Arrays.asList("a"));
+        Assert.assertEquals(pagination.getPageTotals(), 5);
+    }
+
+    @Test
+    public void testPeekPageWithMoreRecords() {
+        Pagination pagination = pagination(Peeked.class, 0, 2, true);
+        SinglePassPageTotals totals = SinglePassPageTotals.forFetch(Optional.of(pagination), () -> false).get();
+
+        List<Object> page = totals.apply(Arrays.asList("a", "b", "c"), () -> COUNTED);
+
+        Assert.assertEquals(page, Arrays.asList("a", "b"));
+        Assert.assertEquals(pagination.getPageTotals(), COUNTED);
+    }
+
+    @Test
+    public void testPeekEmptyPage() {
+        Pagination first = pagination(Peeked.class, 0, 2, true);
+        SinglePassPageTotals.forFetch(Optional.of(first), () -> false).get()
+                .apply(Collections.emptyList(), () -> COUNTED);
+        Assert.assertEquals(first.getPageTotals(), 0);
+
+        Pagination pastTheEnd = pagination(Peeked.class, 10, 2, true);
+        SinglePassPageTotals.forFetch(Optional.of(pastTheEnd), () -> false).get()
+                .apply(Collections.emptyList(), () -> COUNTED);
+        Assert.assertEquals(pastTheEnd.getPageTotals(), COUNTED);
+    }
+
+    @Test
+    public void testWindowedRows() {
+        Pagination pagination = pagination(Windowed.class, 2, 2, true);
+        SinglePassPageTotals totals = SinglePassPageTotals.forFetch(Optional.of(pagination), () -> true).get();
+
+        List<Object> page = totals.apply(Arrays.asList(new Object[] {"a", 7L}, new Object[] {"b", 7L}), () -> {
+            throw new AssertionError("No count query expected");
+        });
+
+        Assert.assertEquals(page, Arrays.asList("a", "b"));
+        Assert.assertEquals(pagination.getPageTotals(), 7);
+    }
+
+    @Test
+    public void testWindowedProjectionRows() {
+        Pagination pagination = pagination(Windowed.class, 0, 2, true);
+        SinglePassPageTotals totals = SinglePassPageTotals.forFetch(Optional.of(pagination), () -> true).get();
+
+        List<Object> page = totals.apply(Collections.singletonList(Arrays.asList(1L, "a", 1L)), () -> COUNTED);
+
+        Assert.assertEquals(page, Collections.singletonList(Arrays.asList(1L, "a")));
+        Assert.assertEquals(pagination.getPageTotals(), 1);
+    }
+}
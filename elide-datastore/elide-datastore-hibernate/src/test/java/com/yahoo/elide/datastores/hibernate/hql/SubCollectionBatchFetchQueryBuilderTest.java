@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.datastores.hibernate.hql;
+
+import com.yahoo.elide.annotation.Include;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.filter.FilterPredicate;
+import com.yahoo.elide.core.filter.Operator;
+import com.yahoo.elide.core.hibernate.hql.SubCollectionBatchFetchQueryBuilder;
+import example.Author;
+import example.Book;
+import example.Chapter;
+import example.Publisher;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.OneToMany;
+import javax.persistence.OrderBy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedSet;
+
+public class SubCollectionBatchFetchQueryBuilderTest {
+    private EntityDictionary dictionary;
+
+    private static final String BOOKS = "books";
+
+    @BeforeClass
+    public void initialize() {
+        dictionary = new EntityDictionary(new HashMap<>());
+        dictionary.bindEntity(Book.class);
+        dictionary.bindEntity(Author.class);
+        dictionary.bindEntity(Publisher.class);
+        dictionary.bindEntity(Chapter.class);
+        dictionary.bindEntity(Shelf.class);
+    }
+
+    @Test
+    public void testBatchFetch() {
+        Author author1 = new Author();
+        author1.setId(1L);
+        Author author2 = new Author();
+        author2.setId(2L);
+
+        SubCollectionBatchFetchQueryBuilder builder = new SubCollectionBatchFetchQueryBuilder(
+                Author.class, Book.class, BOOKS, Arrays.asList(author1, author2),
+                dictionary, new TestSessionWrapper());
+
+        TestQueryWrapper query = (TestQueryWrapper) builder.build();
+
+        String expected = "SELECT example_Author__parent,example_Book FROM example.Author AS example_Author__parent "
+                + "JOIN example_Author__parent.books example_Book  WHERE example_Author__parent IN (:elideBatchParents)";
+
+        Assert.assertEquals(query.getQueryText(), expected);
+    }
+
+    @Test
+    public void testBatchFetchWithJoinFilter() {
+        Author author = new Author();
+        author.setId(1L);
+
+        List<FilterPredicate.PathElement> publisherNamePath = Arrays.asList(
+                new FilterPredicate.PathElement(Book.class, Publisher.class, "publisher"),
+                new FilterPredicate.PathElement(Publisher.class, String.class, "name")
+        );
+
+        FilterPredicate publisherNamePredicate = new FilterPredicate(
+                publisherNamePath,
+                Operator.IN, Arrays.asList("Pub1"));
+
+        SubCollectionBatchFetchQueryBuilder builder = new SubCollectionBatchFetchQueryBuilder(
+                Author.class, Book.class, BOOKS, Arrays.asList(author),
+                dictionary, new TestSessionWrapper());
+
+        TestQueryWrapper query = (TestQueryWrapper) builder
+                .withPossibleFilterExpression(Optional.of(publisherNamePredicate))
+                .build();
+
+        String expected = "SELECT example_Author__parent,example_Book FROM example.Author AS example_Author__parent "
+                + "JOIN example_Author__parent.books example_Book  "
+                + "JOIN example_Book.publisher example_Book_publisher  "
+                + "WHERE example_Author__parent IN (:elideBatchParents) "
+                + "AND (example_Book_publisher.name IN (:publisher_name_XXX))";
+        String actual = query.getQueryText();
+        actual = actual.replaceFirst(":publisher_name_\\w+", ":publisher_name_XXX");
+
+        Assert.assertEquals(actual, expected);
+    }
+
+    @Test
+    public void testBatchFetchKeepsDeclaredOrder() {
+        Shelf shelf = new Shelf();
+        shelf.id = 1L;
+
+        SubCollectionBatchFetchQueryBuilder builder = new SubCollectionBatchFetchQueryBuilder(
+                Shelf.class, Book.class, BOOKS, Arrays.asList(shelf),
+                dictionary, new TestSessionWrapper());
+
+        TestQueryWrapper query = (TestQueryWrapper) builder.build();
+
+        Assert.assertTrue(query.getQueryText().endsWith(
+                "IN (:elideBatchParents) order by example_Book.title DESC,example_Book.id"), query.getQueryText());
+    }
+
+    @Test
+    public void testOrderingSupported() {
+        Assert.assertTrue(SubCollectionBatchFetchQueryBuilder.isOrderingSupported(Author.class, BOOKS, dictionary));
+        Assert.assertTrue(SubCollectionBatchFetchQueryBuilder.isOrderingSupported(Shelf.class, BOOKS, dictionary));
+        Assert.assertFalse(
+                SubCollectionBatchFetchQueryBuilder.isOrderingSupported(Shelf.class, "sortedBooks", dictionary));
+    }
+
+    @Entity
+    @Include
+    public static class Shelf {
+        @Id
+        public long id;
+
+        @OneToMany
+        @OrderBy("title DESC, id")
+        public List<Book> books;
+
+        @OneToMany
+        public SortedSet<Book> sortedBooks;
+    }
+}
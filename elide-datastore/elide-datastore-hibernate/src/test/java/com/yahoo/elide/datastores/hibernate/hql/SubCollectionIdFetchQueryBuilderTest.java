@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.datastores.hibernate.hql;
+
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.filter.FilterPredicate;
+import com.yahoo.elide.core.filter.Operator;
+import com.yahoo.elide.core.hibernate.hql.RelationshipImpl;
+import com.yahoo.elide.core.hibernate.hql.SubCollectionIdFetchQueryBuilder;
+import example.Author;
+import example.Book;
+import example.Chapter;
+import example.Publisher;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+
+public class SubCollectionIdFetchQueryBuilderTest {
+    private EntityDictionary dictionary;
+
+    private static final String BOOKS = "books";
+
+    @BeforeClass
+    public void initialize() {
+        dictionary = new EntityDictionary(new HashMap<>());
+        dictionary.bindEntity(Book.class);
+        dictionary.bindEntity(Author.class);
+        dictionary.bindEntity(Publisher.class);
+        dictionary.bindEntity(Chapter.class);
+    }
+
+    @Test
+    public void testSubCollectionIdFetch() {
+        Author author = new Author();
+        author.setId(1L);
+
+        Book book = new Book();
+        book.setId(2);
+
+        RelationshipImpl relationship = new RelationshipImpl(
+                Author.class,
+                Book.class,
+                BOOKS,
+                author,
+                Arrays.asList(book));
+
+        SubCollectionIdFetchQueryBuilder builder = new SubCollectionIdFetchQueryBuilder(relationship,
+                dictionary, new TestSessionWrapper());
+
+        TestQueryWrapper query = (TestQueryWrapper) builder.build();
+
+        Assert.assertEquals(query.getQueryText(), "SELECT this.id");
+    }
+
+    @Test
+    public void testSubCollectionIdFetchWithFilter() {
+        Author author = new Author();
+        author.setId(1L);
+
+        Book book = new Book();
+        book.setId(2);
+
+        RelationshipImpl relationship = new RelationshipImpl(
+                Author.class,
+                Book.class,
+                BOOKS,
+                author,
+                Arrays.asList(book));
+
+        List<FilterPredicate.PathElement> publisherNamePath = Arrays.asList(
+                new FilterPredicate.PathElement(Book.class, Publisher.class, "publisher"),
+                new FilterPredicate.PathElement(Publisher.class, String.class, "name")
+        );
+
+        FilterPredicate publisherNamePredicate = new FilterPredicate(
+                publisherNamePath,
+                Operator.IN, Arrays.asList("Pub1"));
+
+        SubCollectionIdFetchQueryBuilder builder = new SubCollectionIdFetchQueryBuilder(relationship,
+                dictionary, new TestSessionWrapper());
+
+        TestQueryWrapper query = (TestQueryWrapper) builder
+                .withPossibleFilterExpression(Optional.of(publisherNamePredicate))
+                .build();
+
+        String expected = "SELECT this.id WHERE publisher.name IN (:publisher_name_XXX)";
+        String actual = query.getQueryText();
+        actual = actual.replaceFirst(":publisher_name_\\w+", ":publisher_name_XXX");
+
+        Assert.assertEquals(actual, expected);
+    }
+}
@@ -9,10 +9,12 @@ import com.yahoo.elide.core.DataStore;
 import com.yahoo.elide.core.DataStoreTransaction;
 import com.yahoo.elide.core.EntityDictionary;
 import com.yahoo.elide.core.exceptions.TransactionException;
+import com.yahoo.elide.core.hibernate.hql.PageTotalsCache;
 
 import com.google.common.base.Preconditions;
 
 import org.hibernate.EntityMode;
+import org.hibernate.FlushMode;
 import org.hibernate.HibernateException;
 import org.hibernate.ScrollMode;
 import org.hibernate.Session;
@@ -27,6 +29,7 @@ public class HibernateStore implements DataStore {
     private final boolean isScrollEnabled;
     private final ScrollMode scrollMode;
     private final HibernateTransactionSupplier transactionSupplier;
+    private final PageTotalsCache pageTotalsCache;
 
     /**
      * Constructor.
@@ -54,10 +57,28 @@ public class HibernateStore implements DataStore {
                              boolean isScrollEnabled,
                              ScrollMode scrollMode,
                              HibernateTransactionSupplier transactionSupplier) {
+        this(aSessionFactory, isScrollEnabled, scrollMode, transactionSupplier, PageTotalsCache.DISABLED);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param aSessionFactory Session factory
+     * @param isScrollEnabled Whether or not scrolling is enabled on driver
+     * @param scrollMode Scroll mode to use for scrolling driver
+     * @param transactionSupplier Supplier for transaction
+     * @param pageTotalsCache Cache of the page totals counted by the transactions
+     */
+    protected HibernateStore(SessionFactory aSessionFactory,
+                             boolean isScrollEnabled,
+                             ScrollMode scrollMode,
+                             HibernateTransactionSupplier transactionSupplier,
+                             PageTotalsCache pageTotalsCache) {
         this.sessionFactory = aSessionFactory;
         this.isScrollEnabled = isScrollEnabled;
         this.scrollMode = scrollMode;
         this.transactionSupplier = transactionSupplier;
+        this.pageTotalsCache = pageTotalsCache;
     }
 
     /**
@@ -67,11 +88,13 @@ public class HibernateStore implements DataStore {
         private final SessionFactory sessionFactory;
         private boolean isScrollEnabled;
         private ScrollMode scrollMode;
+        private PageTotalsCache pageTotalsCache;
 
         public Builder(final SessionFactory sessionFactory) {
             this.sessionFactory = sessionFactory;
             this.isScrollEnabled = true;
             this.scrollMode = ScrollMode.FORWARD_ONLY;
+            this.pageTotalsCache = PageTotalsCache.DISABLED;
         }
 
         public Builder withScrollEnabled(final boolean isScrollEnabled) {
@@ -84,8 +107,14 @@ public class HibernateStore implements DataStore {
             return this;
         }
 
+        public Builder withPageTotalsCache(final PageTotalsCache pageTotalsCache) {
+            this.pageTotalsCache = pageTotalsCache;
+            return this;
+        }
+
         public HibernateStore build() {
-            return new HibernateStore(sessionFactory, isScrollEnabled, scrollMode);
+            return new HibernateStore(sessionFactory, isScrollEnabled, scrollMode, HibernateTransaction::new,
+                    pageTotalsCache);
         }
     }
 
@@ -123,16 +152,29 @@ public class HibernateStore implements DataStore {
         Session session = sessionFactory.getCurrentSession();
         Preconditions.checkNotNull(session);
         session.beginTransaction();
-        return transactionSupplier.get(session, isScrollEnabled, scrollMode);
+        HibernateTransaction transaction = transactionSupplier.get(session, isScrollEnabled, scrollMode);
+        transaction.setPageTotalsCache(pageTotalsCache);
+        return transaction;
     }
 
+    /**
+     * Start a Hibernate transaction for a read-only request.
+     *
+     * Entities are loaded read-only and the session is never flushed, so Hibernate neither keeps snapshots
+     * for dirty checking nor checks them at commit.
+     *
+     * @return transaction
+     */
     @Override
     public DataStoreTransaction beginReadTransaction() {
         Session session = sessionFactory.getCurrentSession();
         Preconditions.checkNotNull(session);
         session.beginTransaction();
         session.setDefaultReadOnly(true);
-        return transactionSupplier.get(session, isScrollEnabled, scrollMode);
+        session.setFlushMode(FlushMode.MANUAL);
+        HibernateTransaction transaction = transactionSupplier.get(session, isScrollEnabled, scrollMode);
+        transaction.setPageTotalsCache(pageTotalsCache);
+        return transaction;
     }
 
     /**
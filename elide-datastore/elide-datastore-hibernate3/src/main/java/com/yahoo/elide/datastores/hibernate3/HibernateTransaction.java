@@ -14,10 +14,16 @@ import com.yahoo.elide.core.filter.Operator;
 import com.yahoo.elide.core.filter.expression.AndFilterExpression;
 import com.yahoo.elide.core.filter.expression.FilterExpression;
 import com.yahoo.elide.core.hibernate.hql.AbstractHQLQueryBuilder;
+import com.yahoo.elide.core.hibernate.hql.FetchJoinPlanner;
+import com.yahoo.elide.core.hibernate.hql.PageTotalsCache;
+import com.yahoo.elide.core.hibernate.hql.RelationBatchLoader;
 import com.yahoo.elide.core.hibernate.hql.RelationshipImpl;
 import com.yahoo.elide.core.hibernate.hql.RootCollectionFetchQueryBuilder;
 import com.yahoo.elide.core.hibernate.hql.RootCollectionPageTotalsQueryBuilder;
+import com.yahoo.elide.core.hibernate.hql.SinglePassPageTotals;
+import com.yahoo.elide.core.hibernate.hql.SparseFieldProjection;
 import com.yahoo.elide.core.hibernate.hql.SubCollectionFetchQueryBuilder;
+import com.yahoo.elide.core.hibernate.hql.SubCollectionIdFetchQueryBuilder;
 import com.yahoo.elide.core.hibernate.hql.SubCollectionPageTotalsQueryBuilder;
 import com.yahoo.elide.core.pagination.Pagination;
 import com.yahoo.elide.core.sort.Sorting;
@@ -30,13 +36,18 @@ import org.hibernate.ObjectNotFoundException;
 import org.hibernate.ScrollMode;
 import org.hibernate.Session;
 import org.hibernate.collection.AbstractPersistentCollection;
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.proxy.HibernateProxy;
 
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 
 
@@ -44,12 +55,14 @@ import java.util.concurrent.ThreadLocalRandom;
  * Hibernate Transaction implementation.
  */
 public class HibernateTransaction implements DataStoreTransaction {
-
     private final Session session;
     private final SessionWrapper sessionWrapper;
+    private final RelationBatchLoader relationLoader;
     private final LinkedHashSet<Runnable> deferredTasks = new LinkedHashSet<>();
     private final boolean isScrollEnabled;
     private final ScrollMode scrollMode;
+    private final Set<Class<?>> writtenTypes = new HashSet<>();
+    private PageTotalsCache pageTotalsCache = PageTotalsCache.DISABLED;
 
     /**
      * Constructor.
@@ -61,17 +74,21 @@ public class HibernateTransaction implements DataStoreTransaction {
     protected HibernateTransaction(Session session, boolean isScrollEnabled, ScrollMode scrollMode) {
         this.session = session;
         this.sessionWrapper = new SessionWrapper(session);
+        this.relationLoader = new RelationBatchLoader(sessionWrapper,
+                query -> ((QueryWrapper) query).getQuery().list());
         this.isScrollEnabled = isScrollEnabled;
         this.scrollMode = scrollMode;
     }
 
     @Override
     public void delete(Object object, RequestScope scope) {
+        writtenTypes.add(object.getClass());
         deferredTasks.add(() -> session.delete(object));
     }
 
     @Override
     public void save(Object object, RequestScope scope) {
+        writtenTypes.add(object.getClass());
         deferredTasks.add(() -> session.saveOrUpdate(object));
     }
 
@@ -94,6 +111,8 @@ public class HibernateTransaction implements DataStoreTransaction {
         try {
             this.flush(scope);
             this.session.getTransaction().commit();
+            pageTotalsCache.invalidate(writtenTypes);
+            writtenTypes.clear();
         } catch (HibernateException e) {
             throw new TransactionException(e);
         }
@@ -101,6 +120,7 @@ public class HibernateTransaction implements DataStoreTransaction {
 
     @Override
     public void createObject(Object entity, RequestScope scope) {
+        writtenTypes.add(entity.getClass());
         deferredTasks.add(() -> session.persist(entity));
     }
 
@@ -142,6 +162,7 @@ public class HibernateTransaction implements DataStoreTransaction {
             QueryWrapper query =
                     (QueryWrapper) new RootCollectionFetchQueryBuilder(entityClass, dictionary, sessionWrapper)
                     .withPossibleFilterExpression(Optional.of(joinedExpression))
+                    .withFetchJoins(FetchJoinPlanner.forRoot(entityClass, scope))
                     .build();
 
             return query.getQuery().uniqueResult();
@@ -159,23 +180,41 @@ public class HibernateTransaction implements DataStoreTransaction {
             Optional<Pagination> pagination,
             RequestScope scope) {
 
-        pagination.ifPresent(p -> {
-            if (p.isGenerateTotals()) {
-                p.setPageTotals(getTotalRecords(entityClass, filterExpression, scope.getDictionary()));
-            }
-        });
+        // Totals strategies other than a count query read the totals off the page fetch
+        Optional<SinglePassPageTotals> totals = SinglePassPageTotals.forFetch(pagination, this::hasTotalsFunction);
+        if (!totals.isPresent()) {
+            pagination.ifPresent(p -> {
+                if (p.isGenerateTotals() && !pageTotalsCache.setEstimatedPageTotals(p, entityClass, filterExpression)) {
+                    p.setPageTotals(getTotalRecords(entityClass, filterExpression, scope.getDictionary()));
+                }
+            });
+        }
 
+        // Entities that are only read can be loaded partially
+        Optional<SparseFieldProjection> projection = session.isDefaultReadOnly()
+                ? SparseFieldProjection.forRead(entityClass, scope)
+                : Optional.empty();
         final QueryWrapper query =
                 (QueryWrapper) new RootCollectionFetchQueryBuilder(entityClass, scope.getDictionary(), sessionWrapper)
+                        .withPossibleProjection(projection.map(SparseFieldProjection::getFields))
+                        .withPossibleTotalsFunction(totals.flatMap(SinglePassPageTotals::getTotalsFunction))
+                        .withLookahead(totals.map(SinglePassPageTotals::isLookahead).orElse(false))
                         .withPossibleFilterExpression(filterExpression)
                         .withPossibleSorting(sorting)
                         .withPossiblePagination(pagination)
+                        .withFetchJoins(FetchJoinPlanner.forRoot(entityClass, scope))
                         .build();
 
-        if (isScrollEnabled) {
-            return new ScrollableIterator<>(query.getQuery().scroll());
+        Iterable<Object> rows;
+        if (totals.isPresent()) {
+            rows = totals.get().apply(query.getQuery().list(),
+                    () -> getTotalRecords(entityClass, filterExpression, scope.getDictionary()));
+        } else {
+            rows = isScrollEnabled
+                    ? new ScrollableIterator<>(query.getQuery().scroll())
+                    : query.getQuery().list();
         }
-        return query.getQuery().list();
+        return projection.isPresent() ? projection.get().toEntities(rows) : rows;
     }
 
     @Override
@@ -197,7 +236,7 @@ public class HibernateTransaction implements DataStoreTransaction {
                 Class<?> relationClass = dictionary.getParameterizedType(entity, relationName);
 
                 RelationshipImpl relationship = new RelationshipImpl(
-                        entity.getClass(),
+                        dictionary.lookupEntityClass(entity.getClass()),
                         relationClass,
                         relationName,
                         entity,
@@ -224,6 +263,56 @@ public class HibernateTransaction implements DataStoreTransaction {
         return val;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public Collection<Object> getRelationIds(
+            DataStoreTransaction relationTx,
+            Object entity,
+            String relationName,
+            Optional<FilterExpression> filterExpression,
+            RequestScope scope) {
+
+        EntityDictionary dictionary = scope.getDictionary();
+        Object val = com.yahoo.elide.core.PersistentResource.getValue(entity, relationName, scope);
+        if (val instanceof AbstractPersistentCollection
+                && (filterExpression.isPresent() || !((AbstractPersistentCollection) val).wasInitialized())) {
+            Class<?> relationClass = dictionary.getParameterizedType(entity, relationName);
+
+            RelationshipImpl relationship = new RelationshipImpl(
+                    dictionary.lookupEntityClass(entity.getClass()),
+                    relationClass,
+                    relationName,
+                    entity,
+                    (Collection) val);
+
+            final QueryWrapper query = (QueryWrapper)
+                    new SubCollectionIdFetchQueryBuilder(relationship, dictionary, sessionWrapper)
+                            .withPossibleFilterExpression(filterExpression)
+                            .build();
+
+            return query.getQuery().list();
+        }
+        if (val instanceof HibernateProxy) {
+            // The id of a lazy to-one is known without initializing the proxy
+            return Collections.singletonList(((HibernateProxy) val).getHibernateLazyInitializer().getIdentifier());
+        }
+        return DataStoreTransaction.super.getRelationIds(relationTx, entity, relationName, filterExpression, scope);
+    }
+
+    @Override
+    public Map<Object, Object> getRelations(
+            DataStoreTransaction relationTx,
+            Collection<?> entities,
+            String relationName,
+            Optional<FilterExpression> filterExpression,
+            RequestScope scope) {
+        return relationLoader.getRelations(entities, relationName, filterExpression, scope,
+                val -> val instanceof AbstractPersistentCollection
+                        && (filterExpression.isPresent() || !((AbstractPersistentCollection) val).wasInitialized()),
+                entity -> getRelation(relationTx, entity, relationName, filterExpression,
+                        Optional.empty(), Optional.empty(), scope));
+    }
+
     /**
      * Returns the total record count for a root entity and an optional filter expression.
      * @param entityClass The entity type to count
@@ -234,13 +323,13 @@ public class HibernateTransaction implements DataStoreTransaction {
     private <T> Long getTotalRecords(Class<T> entityClass,
                                      Optional<FilterExpression> filterExpression,
                                      EntityDictionary dictionary) {
-
-        QueryWrapper query =
-                (QueryWrapper) new RootCollectionPageTotalsQueryBuilder(entityClass, dictionary, sessionWrapper)
-                        .withPossibleFilterExpression(filterExpression)
-                        .build();
-
-        return (Long) query.getQuery().uniqueResult();
+        return pageTotalsCache.getTotal(entityClass, filterExpression, writtenTypes, () -> {
+            QueryWrapper query =
+                    (QueryWrapper) new RootCollectionPageTotalsQueryBuilder(entityClass, dictionary, sessionWrapper)
+                            .withPossibleFilterExpression(filterExpression)
+                            .build();
+            return (Long) query.getQuery().uniqueResult();
+        });
     }
 
     /**
@@ -253,13 +342,33 @@ public class HibernateTransaction implements DataStoreTransaction {
     private <T> Long getTotalRecords(AbstractHQLQueryBuilder.Relationship relationship,
                                      Optional<FilterExpression> filterExpression,
                                      EntityDictionary dictionary) {
+        String parentId = dictionary.getId(relationship.getParent());
+        return pageTotalsCache.getTotal(relationship, parentId, filterExpression, writtenTypes, () -> {
+            QueryWrapper query =
+                    (QueryWrapper) new SubCollectionPageTotalsQueryBuilder(relationship, dictionary, sessionWrapper)
+                            .withPossibleFilterExpression(filterExpression)
+                            .build();
+            return (Long) query.getQuery().uniqueResult();
+        });
+    }
 
-        QueryWrapper query =
-                (QueryWrapper) new SubCollectionPageTotalsQueryBuilder(relationship, dictionary, sessionWrapper)
-                        .withPossibleFilterExpression(filterExpression)
-                        .build();
+    /**
+     * Sets the cache of the page totals this transaction counts. The totals of the types it writes are invalidated
+     * when it commits.
+     *
+     * @param pageTotalsCache the cache shared by the transactions of a store
+     */
+    void setPageTotalsCache(PageTotalsCache pageTotalsCache) {
+        this.pageTotalsCache = pageTotalsCache;
+    }
 
-        return (Long) query.getQuery().uniqueResult();
+    /**
+     * Whether the session factory has the SQL function that selects windowed page totals.
+     * @return true if the function is registered
+     */
+    private boolean hasTotalsFunction() {
+        return ((SessionFactoryImplementor) session.getSessionFactory()).getSqlFunctionRegistry()
+                .hasFunction(SinglePassPageTotals.TOTALS_FUNCTION);
     }
 
     @Override
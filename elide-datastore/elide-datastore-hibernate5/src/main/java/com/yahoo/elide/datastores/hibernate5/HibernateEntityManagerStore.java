@@ -7,9 +7,11 @@ package com.yahoo.elide.datastores.hibernate5;
 
 import com.yahoo.elide.core.DataStoreTransaction;
 import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.hibernate.hql.PageTotalsCache;
 
 import org.hibernate.ScrollMode;
 import org.hibernate.Session;
+import org.hibernate.SessionFactory;
 import org.hibernate.jpa.HibernateEntityManager;
 import org.hibernate.metadata.ClassMetadata;
 
@@ -26,6 +28,15 @@ public class HibernateEntityManagerStore extends HibernateStore {
         this.entityManager = entityManager;
     }
 
+    public HibernateEntityManagerStore(HibernateEntityManager entityManager,
+                                       boolean isScrollEnabled,
+                                       ScrollMode scrollMode,
+                                       ReadMode readMode,
+                                       PageTotalsCache pageTotalsCache) {
+        super(null, isScrollEnabled, scrollMode, HibernateTransaction::new, readMode, pageTotalsCache);
+        this.entityManager = entityManager;
+    }
+
     /**
      * Get current Hibernate session.
      *
@@ -45,10 +56,20 @@ public class HibernateEntityManagerStore extends HibernateStore {
     @Override
     @SuppressWarnings("deprecation")
     public DataStoreTransaction beginTransaction() {
+        return newTransaction(beginSession());
+    }
+
+    @Override
+    protected Session beginSession() {
         Session session = getSession();
         session.beginTransaction();
         session.clear();
-        return transactionSupplier.get(session, isScrollEnabled, scrollMode);
+        return session;
+    }
+
+    @Override
+    protected SessionFactory getSessionFactory() {
+        return getSession().getSessionFactory();
     }
 
     /**
@@ -59,7 +80,7 @@ public class HibernateEntityManagerStore extends HibernateStore {
     @Override
     public void populateEntityDictionary(EntityDictionary dictionary) {
         /* bind all entities */
-        for (ClassMetadata meta : getSession().getSessionFactory().getAllClassMetadata().values()) {
+        for (ClassMetadata meta : getSessionFactory().getAllClassMetadata().values()) {
             dictionary.bindEntity(meta.getMappedClass());
         }
     }
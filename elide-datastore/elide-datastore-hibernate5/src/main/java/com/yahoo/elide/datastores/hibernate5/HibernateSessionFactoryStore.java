@@ -6,6 +6,7 @@
 package com.yahoo.elide.datastores.hibernate5;
 
 import com.yahoo.elide.core.DataStoreTransaction;
+import com.yahoo.elide.core.hibernate.hql.PageTotalsCache;
 import org.hibernate.ScrollMode;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
@@ -21,6 +22,14 @@ public class HibernateSessionFactoryStore extends HibernateStore {
         super(aSessionFactory, isScrollEnabled, scrollMode);
     }
 
+    protected HibernateSessionFactoryStore(SessionFactory aSessionFactory,
+                                           boolean isScrollEnabled,
+                                           ScrollMode scrollMode,
+                                           ReadMode readMode,
+                                           PageTotalsCache pageTotalsCache) {
+        super(aSessionFactory, isScrollEnabled, scrollMode, HibernateTransaction::new, readMode, pageTotalsCache);
+    }
+
     /**
      * Get current Hibernate session.
      *
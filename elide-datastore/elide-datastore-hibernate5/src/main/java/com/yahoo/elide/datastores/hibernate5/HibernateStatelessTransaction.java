@@ -0,0 +1,298 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.datastores.hibernate5;
+
+import com.yahoo.elide.core.DataStoreTransaction;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.exceptions.InvalidOperationException;
+import com.yahoo.elide.core.exceptions.TransactionException;
+import com.yahoo.elide.core.filter.expression.FilterExpression;
+import com.yahoo.elide.core.hibernate.hql.FetchJoinPlanner;
+import com.yahoo.elide.core.hibernate.hql.PageTotalsCache;
+import com.yahoo.elide.core.hibernate.hql.RelationBatchLoader;
+import com.yahoo.elide.core.hibernate.hql.RootCollectionFetchQueryBuilder;
+import com.yahoo.elide.core.hibernate.hql.RootCollectionPageTotalsQueryBuilder;
+import com.yahoo.elide.core.hibernate.hql.SinglePassPageTotals;
+import com.yahoo.elide.core.hibernate.hql.SparseFieldProjection;
+import com.yahoo.elide.core.hibernate.hql.SubCollectionBatchFetchQueryBuilder;
+import com.yahoo.elide.core.pagination.Pagination;
+import com.yahoo.elide.core.sort.Sorting;
+import com.yahoo.elide.datastores.hibernate5.porting.QueryWrapper;
+import com.yahoo.elide.datastores.hibernate5.porting.StatelessSessionWrapper;
+import org.hibernate.HibernateException;
+import org.hibernate.StatelessSession;
+import org.hibernate.collection.internal.AbstractPersistentCollection;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.hibernate.resource.transaction.spi.TransactionStatus;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-only Hibernate transaction backed by a StatelessSession.
+ *
+ * A stateless session has no persistence context: loaded entities are neither cached nor dirty checked, which
+ * makes it the cheapest way to read large collections. Its entities cannot lazily load their relationships, so
+ * to-many relationships are fetched with explicit queries and lazy to-one relationships are loaded by id.
+ * Relationships can be filtered and paginated, but not sorted, and their declared order is kept unless it is a SQL
+ * clause or an in-memory sort. Writes are rejected.
+ */
+public class HibernateStatelessTransaction implements DataStoreTransaction {
+    private final StatelessSession session;
+    private final StatelessSessionWrapper sessionWrapper;
+    private final RelationBatchLoader relationLoader;
+    private final boolean isScrollEnabled;
+    private boolean closed;
+    private PageTotalsCache pageTotalsCache = PageTotalsCache.DISABLED;
+
+    /**
+     * Constructor.
+     *
+     * @param session Hibernate stateless session, which is closed with the transaction
+     * @param isScrollEnabled Whether or not scrolling is enabled
+     */
+    protected HibernateStatelessTransaction(StatelessSession session, boolean isScrollEnabled) {
+        this.session = session;
+        this.sessionWrapper = new StatelessSessionWrapper(session);
+        this.relationLoader = new RelationBatchLoader(sessionWrapper,
+                query -> ((QueryWrapper) query).getQuery().list());
+        this.isScrollEnabled = isScrollEnabled;
+        session.beginTransaction();
+    }
+
+    @Override
+    public void save(Object entity, RequestScope scope) {
+        throw new UnsupportedOperationException("Stateless read transactions cannot save");
+    }
+
+    @Override
+    public void delete(Object entity, RequestScope scope) {
+        throw new UnsupportedOperationException("Stateless read transactions cannot delete");
+    }
+
+    @Override
+    public void flush(RequestScope scope) {
+    }
+
+    @Override
+    public void createObject(Object entity, RequestScope scope) {
+        throw new UnsupportedOperationException("Stateless read transactions cannot create");
+    }
+
+    @Override
+    public void commit(RequestScope scope) {
+        try {
+            session.getTransaction().commit();
+        } catch (HibernateException e) {
+            throw new TransactionException(e);
+        } finally {
+            closeSession();
+        }
+    }
+
+    @Override
+    public Object loadObject(Class<?> entityClass,
+                             Serializable id,
+                             Optional<FilterExpression> filterExpression,
+                             RequestScope scope) {
+        EntityDictionary dictionary = scope.getDictionary();
+        QueryWrapper query = (QueryWrapper)
+                new RootCollectionFetchQueryBuilder(entityClass, dictionary, sessionWrapper)
+                        .withPossibleFilterExpression(Optional.of(
+                                HibernateTransaction.withIdExpression(entityClass, id, filterExpression, dictionary)))
+                        .withFetchJoins(FetchJoinPlanner.forRoot(entityClass, scope))
+                        .build();
+
+        return query.getQuery().uniqueResult();
+    }
+
+    @Override
+    public Iterable<Object> loadObjects(
+            Class<?> entityClass,
+            Optional<FilterExpression> filterExpression,
+            Optional<Sorting> sorting,
+            Optional<Pagination> pagination,
+            RequestScope scope) {
+
+        // Totals strategies other than a count query read the totals off the page fetch
+        Optional<SinglePassPageTotals> totals = SinglePassPageTotals.forFetch(pagination, this::hasTotalsFunction);
+        if (!totals.isPresent()) {
+            pagination.ifPresent(p -> {
+                if (p.isGenerateTotals() && !pageTotalsCache.setEstimatedPageTotals(p, entityClass, filterExpression)) {
+                    p.setPageTotals(getTotalRecords(entityClass, filterExpression, scope.getDictionary()));
+                }
+            });
+        }
+
+        Optional<SparseFieldProjection> projection = SparseFieldProjection.forRead(entityClass, scope);
+        final QueryWrapper query = (QueryWrapper)
+                new RootCollectionFetchQueryBuilder(entityClass, scope.getDictionary(), sessionWrapper)
+                        .withPossibleProjection(projection.map(SparseFieldProjection::getFields))
+                        .withPossibleTotalsFunction(totals.flatMap(SinglePassPageTotals::getTotalsFunction))
+                        .withLookahead(totals.map(SinglePassPageTotals::isLookahead).orElse(false))
+                        .withPossibleFilterExpression(filterExpression)
+                        .withPossibleSorting(sorting)
+                        .withPossiblePagination(pagination)
+                        .withFetchJoins(FetchJoinPlanner.forRoot(entityClass, scope))
+                        .build();
+
+        Iterable<Object> rows;
+        if (totals.isPresent()) {
+            rows = totals.get().apply(query.getQuery().list(),
+                    () -> getTotalRecords(entityClass, filterExpression, scope.getDictionary()));
+        } else {
+            rows = isScrollEnabled
+                    ? new ScrollableIterator<>(query.getQuery().scroll())
+                    : query.getQuery().list();
+        }
+        return projection.isPresent() ? projection.get().toEntities(rows) : rows;
+    }
+
+    @Override
+    public Object getRelation(
+            DataStoreTransaction relationTx,
+            Object entity,
+            String relationName,
+            Optional<FilterExpression> filterExpression,
+            Optional<Sorting> sorting,
+            Optional<Pagination> pagination,
+            RequestScope scope) {
+
+        Object val = com.yahoo.elide.core.PersistentResource.getValue(entity, relationName, scope);
+        if (val instanceof HibernateProxy) {
+            return load((HibernateProxy) val);
+        }
+        if (!isUninitialized(val)) {
+            return val;
+        }
+
+        if (sorting.isPresent() && !sorting.get().isDefaultInstance()) {
+            throw new InvalidOperationException("Relationships cannot be sorted in stateless read transactions");
+        }
+        EntityDictionary dictionary = scope.getDictionary();
+        if (!SubCollectionBatchFetchQueryBuilder.isOrderingSupported(
+                dictionary.lookupEntityClass(entity.getClass()), relationName, dictionary)) {
+            throw new InvalidOperationException("Relationship " + relationName
+                    + " is sorted in a way stateless read transactions cannot reproduce");
+        }
+
+        List<Object> children = relationLoader.fetch(Collections.singletonList(entity), relationName,
+                filterExpression, scope).get(entity);
+        if (!pagination.isPresent()) {
+            return children;
+        }
+
+        Pagination page = pagination.get();
+        if (page.isGenerateTotals()) {
+            page.setPageTotals(children.size());
+        }
+        int from = Math.min(page.getOffset(), children.size());
+        return children.subList(from, Math.min(from + page.getLimit(), children.size()));
+    }
+
+    @Override
+    public Collection<Object> getRelationIds(
+            DataStoreTransaction relationTx,
+            Object entity,
+            String relationName,
+            Optional<FilterExpression> filterExpression,
+            RequestScope scope) {
+
+        Object val = com.yahoo.elide.core.PersistentResource.getValue(entity, relationName, scope);
+        if (val instanceof HibernateProxy) {
+            return Collections.singletonList(((HibernateProxy) val).getHibernateLazyInitializer().getIdentifier());
+        }
+        return DataStoreTransaction.super.getRelationIds(relationTx, entity, relationName, filterExpression, scope);
+    }
+
+    @Override
+    public Map<Object, Object> getRelations(
+            DataStoreTransaction relationTx,
+            Collection<?> entities,
+            String relationName,
+            Optional<FilterExpression> filterExpression,
+            RequestScope scope) {
+        return relationLoader.getRelations(entities, relationName, filterExpression, scope,
+                HibernateStatelessTransaction::isUninitialized,
+                entity -> getRelation(relationTx, entity, relationName, filterExpression,
+                        Optional.empty(), Optional.empty(), scope));
+    }
+
+    private static boolean isUninitialized(Object val) {
+        return val instanceof AbstractPersistentCollection && !((AbstractPersistentCollection) val).wasInitialized();
+    }
+
+    private Object load(HibernateProxy proxy) {
+        LazyInitializer initializer = proxy.getHibernateLazyInitializer();
+        if (!initializer.isUninitialized()) {
+            return initializer.getImplementation();
+        }
+        return session.get(initializer.getEntityName(), initializer.getIdentifier());
+    }
+
+    private void closeSession() {
+        if (!closed) {
+            closed = true;
+            session.close();
+        }
+    }
+
+    private Long getTotalRecords(Class<?> entityClass,
+                                 Optional<FilterExpression> filterExpression,
+                                 EntityDictionary dictionary) {
+        return pageTotalsCache.getTotal(entityClass, filterExpression, Collections.emptySet(), () -> {
+            QueryWrapper query = (QueryWrapper)
+                    new RootCollectionPageTotalsQueryBuilder(entityClass, dictionary, sessionWrapper)
+                            .withPossibleFilterExpression(filterExpression)
+                            .build();
+            return (Long) query.getQuery().uniqueResult();
+        });
+    }
+
+    /**
+     * Sets the cache of the page totals this transaction counts.
+     *
+     * @param pageTotalsCache the cache shared by the transactions of a store
+     */
+    void setPageTotalsCache(PageTotalsCache pageTotalsCache) {
+        this.pageTotalsCache = pageTotalsCache;
+    }
+
+    /**
+     * Whether the session factory has the SQL function that selects windowed page totals.
+     * @return true if the function is registered
+     */
+    private boolean hasTotalsFunction() {
+        return ((SessionImplementor) session).getFactory().getSqlFunctionRegistry()
+                .hasFunction(SinglePassPageTotals.TOTALS_FUNCTION);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        boolean active = session.getTransaction().getStatus() == TransactionStatus.ACTIVE;
+        try {
+            if (active) {
+                session.getTransaction().rollback();
+            }
+        } finally {
+            closeSession();
+        }
+        if (active) {
+            throw new IOException("Transaction not closed");
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.yahoo.elide.core.DataStore;
 import com.yahoo.elide.core.DataStoreTransaction;
 import com.yahoo.elide.core.EntityDictionary;
 import com.yahoo.elide.core.exceptions.TransactionException;
+import com.yahoo.elide.core.hibernate.hql.PageTotalsCache;
 
 import com.google.common.base.Preconditions;
 
@@ -27,6 +28,26 @@ public class HibernateStore implements DataStore {
     protected final boolean isScrollEnabled;
     protected final ScrollMode scrollMode;
     protected final HibernateTransactionSupplier transactionSupplier;
+    protected final ReadMode readMode;
+    protected final PageTotalsCache pageTotalsCache;
+
+    /**
+     * How the transactions of read-only requests use Hibernate.
+     */
+    public enum ReadMode {
+        /** Reads use regular transactions. */
+        DEFAULT,
+        /**
+         * Reads use a session whose entities are read-only and which is never flushed, so Hibernate keeps no
+         * snapshots for dirty checking.
+         */
+        READ_ONLY,
+        /**
+         * Reads use a StatelessSession, which has no persistence context at all. Best suited to reading large
+         * collections; relationships are fetched with extra queries and cannot be sorted.
+         */
+        STATELESS
+    }
 
     /**
      * Constructor.
@@ -54,10 +75,35 @@ public class HibernateStore implements DataStore {
                              boolean isScrollEnabled,
                              ScrollMode scrollMode,
                              HibernateTransactionSupplier transactionSupplier) {
+        this(aSessionFactory, isScrollEnabled, scrollMode, transactionSupplier, ReadMode.DEFAULT,
+                PageTotalsCache.DISABLED);
+    }
+
+    /**
+     * Constructor.
+     *
+     * Transactions of read-only requests are built by the store itself when the read mode is not
+     * {@link ReadMode#DEFAULT}; the transaction supplier is only used for the others.
+     *
+     * @param aSessionFactory Session factory
+     * @param isScrollEnabled Whether or not scrolling is enabled on driver
+     * @param scrollMode Scroll mode to use for scrolling driver
+     * @param transactionSupplier Supplier for transaction
+     * @param readMode How the transactions of read-only requests use Hibernate
+     * @param pageTotalsCache Cache of the page totals counted by the transactions
+     */
+    protected HibernateStore(SessionFactory aSessionFactory,
+                             boolean isScrollEnabled,
+                             ScrollMode scrollMode,
+                             HibernateTransactionSupplier transactionSupplier,
+                             ReadMode readMode,
+                             PageTotalsCache pageTotalsCache) {
         this.sessionFactory = aSessionFactory;
         this.isScrollEnabled = isScrollEnabled;
         this.scrollMode = scrollMode;
         this.transactionSupplier = transactionSupplier;
+        this.readMode = readMode;
+        this.pageTotalsCache = pageTotalsCache;
     }
 
     /**
@@ -68,11 +114,15 @@ public class HibernateStore implements DataStore {
         private final HibernateEntityManager entityManager;
         private boolean isScrollEnabled;
         private ScrollMode scrollMode;
+        private ReadMode readMode;
+        private PageTotalsCache pageTotalsCache;
 
         public Builder(final SessionFactory sessionFactory) {
             this.sessionFactory = sessionFactory;
             this.isScrollEnabled = true;
             this.scrollMode = ScrollMode.FORWARD_ONLY;
+            this.readMode = ReadMode.DEFAULT;
+            this.pageTotalsCache = PageTotalsCache.DISABLED;
             this.entityManager = null;
         }
 
@@ -80,6 +130,8 @@ public class HibernateStore implements DataStore {
             this.sessionFactory = null;
             this.isScrollEnabled = true;
             this.scrollMode = ScrollMode.FORWARD_ONLY;
+            this.readMode = ReadMode.DEFAULT;
+            this.pageTotalsCache = PageTotalsCache.DISABLED;
             this.entityManager = entityManager;
         }
 
@@ -93,11 +145,23 @@ public class HibernateStore implements DataStore {
             return this;
         }
 
+        public Builder withReadMode(final ReadMode readMode) {
+            this.readMode = readMode;
+            return this;
+        }
+
+        public Builder withPageTotalsCache(final PageTotalsCache pageTotalsCache) {
+            this.pageTotalsCache = pageTotalsCache;
+            return this;
+        }
+
         public HibernateStore build() {
             if (sessionFactory != null) {
-                return new HibernateSessionFactoryStore(sessionFactory, isScrollEnabled, scrollMode);
+                return new HibernateSessionFactoryStore(sessionFactory, isScrollEnabled, scrollMode, readMode,
+                        pageTotalsCache);
             } else if (entityManager != null) {
-                return new HibernateEntityManagerStore(entityManager, isScrollEnabled, scrollMode);
+                return new HibernateEntityManagerStore(entityManager, isScrollEnabled, scrollMode, readMode,
+                        pageTotalsCache);
             }
             throw new IllegalStateException("Either an EntityManager or SessionFactory is required!");
         }
@@ -140,10 +204,58 @@ public class HibernateStore implements DataStore {
     @Override
     @Deprecated
     public DataStoreTransaction beginTransaction() {
+        return newTransaction(beginSession());
+    }
+
+    @Override
+    public DataStoreTransaction beginReadTransaction() {
+        switch (readMode) {
+            case READ_ONLY:
+                HibernateTransaction transaction =
+                        new HibernateTransaction(beginSession(), isScrollEnabled, scrollMode, true);
+                transaction.setPageTotalsCache(pageTotalsCache);
+                return transaction;
+            case STATELESS:
+                HibernateStatelessTransaction statelessTransaction =
+                        new HibernateStatelessTransaction(getSessionFactory().openStatelessSession(), isScrollEnabled);
+                statelessTransaction.setPageTotalsCache(pageTotalsCache);
+                return statelessTransaction;
+            default:
+                return beginTransaction();
+        }
+    }
+
+    /**
+     * Create a transaction with the transaction supplier.
+     *
+     * @param session Hibernate session with a started transaction
+     * @return transaction
+     */
+    protected HibernateTransaction newTransaction(Session session) {
+        HibernateTransaction transaction = transactionSupplier.get(session, isScrollEnabled, scrollMode);
+        transaction.setPageTotalsCache(pageTotalsCache);
+        return transaction;
+    }
+
+    /**
+     * Get the current Hibernate session with a started transaction.
+     *
+     * @return session
+     */
+    protected Session beginSession() {
         Session session = sessionFactory.getCurrentSession();
         Preconditions.checkNotNull(session);
         session.beginTransaction();
-        return transactionSupplier.get(session, isScrollEnabled, scrollMode);
+        return session;
+    }
+
+    /**
+     * Get the Hibernate session factory.
+     *
+     * @return session factory
+     */
+    protected SessionFactory getSessionFactory() {
+        return sessionFactory;
     }
 
     /**
@@ -14,10 +14,16 @@ import com.yahoo.elide.core.filter.Operator;
 import com.yahoo.elide.core.filter.expression.AndFilterExpression;
 import com.yahoo.elide.core.filter.expression.FilterExpression;
 import com.yahoo.elide.core.hibernate.hql.AbstractHQLQueryBuilder;
+import com.yahoo.elide.core.hibernate.hql.FetchJoinPlanner;
+import com.yahoo.elide.core.hibernate.hql.PageTotalsCache;
+import com.yahoo.elide.core.hibernate.hql.RelationBatchLoader;
 import com.yahoo.elide.core.hibernate.hql.RelationshipImpl;
 import com.yahoo.elide.core.hibernate.hql.RootCollectionFetchQueryBuilder;
 import com.yahoo.elide.core.hibernate.hql.RootCollectionPageTotalsQueryBuilder;
+import com.yahoo.elide.core.hibernate.hql.SinglePassPageTotals;
+import com.yahoo.elide.core.hibernate.hql.SparseFieldProjection;
 import com.yahoo.elide.core.hibernate.hql.SubCollectionFetchQueryBuilder;
+import com.yahoo.elide.core.hibernate.hql.SubCollectionIdFetchQueryBuilder;
 import com.yahoo.elide.core.hibernate.hql.SubCollectionPageTotalsQueryBuilder;
 import com.yahoo.elide.core.pagination.Pagination;
 import com.yahoo.elide.core.sort.Sorting;
@@ -30,25 +36,35 @@ import org.hibernate.ObjectNotFoundException;
 import org.hibernate.ScrollMode;
 import org.hibernate.Session;
 import org.hibernate.collection.internal.AbstractPersistentCollection;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.proxy.HibernateProxy;
 import org.hibernate.resource.transaction.spi.TransactionStatus;
 
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Hibernate Transaction implementation.
  */
 public class HibernateTransaction implements DataStoreTransaction {
-
     private final Session session;
     private final SessionWrapper sessionWrapper;
+    private final RelationBatchLoader relationLoader;
     private final LinkedHashSet<Runnable> deferredTasks = new LinkedHashSet<>();
     private final boolean isScrollEnabled;
     private final ScrollMode scrollMode;
+    private final boolean readOnly;
+    private final boolean previousDefaultReadOnly;
+    private final FlushMode previousFlushMode;
+    private final Set<Class<?>> writtenTypes = new HashSet<>();
+    private PageTotalsCache pageTotalsCache = PageTotalsCache.DISABLED;
 
     /**
      * Constructor.
@@ -58,24 +74,57 @@ public class HibernateTransaction implements DataStoreTransaction {
      * @param scrollMode Scroll mode to use if scrolling enabled
      */
     protected HibernateTransaction(Session session, boolean isScrollEnabled, ScrollMode scrollMode) {
+        this(session, isScrollEnabled, scrollMode, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * A read-only transaction loads every entity and query result read-only and never flushes the session, so
+     * Hibernate keeps no snapshots for dirty checking. Saves, deletes and creates are rejected. The session's
+     * previous settings are restored when the transaction ends.
+     *
+     * @param session Hibernate session
+     * @param isScrollEnabled Whether or not scrolling is enabled
+     * @param scrollMode Scroll mode to use if scrolling enabled
+     * @param readOnly Whether the transaction only reads
+     */
+    protected HibernateTransaction(Session session, boolean isScrollEnabled, ScrollMode scrollMode,
+                                   boolean readOnly) {
         this.session = session;
-        this.sessionWrapper = new SessionWrapper(session);
+        this.sessionWrapper = new SessionWrapper(session, readOnly);
+        this.relationLoader = new RelationBatchLoader(sessionWrapper,
+                query -> ((QueryWrapper) query).getQuery().list());
         this.isScrollEnabled = isScrollEnabled;
         this.scrollMode = scrollMode;
+        this.readOnly = readOnly;
+        this.previousDefaultReadOnly = session.isDefaultReadOnly();
+        this.previousFlushMode = session.getFlushMode();
+        if (readOnly) {
+            session.setDefaultReadOnly(true);
+            session.setFlushMode(FlushMode.MANUAL);
+        }
     }
 
     @Override
     public void delete(Object object, RequestScope scope) {
+        checkWritable("delete");
+        writtenTypes.add(object.getClass());
         deferredTasks.add(() -> session.delete(object));
     }
 
     @Override
     public void save(Object object, RequestScope scope) {
+        checkWritable("save");
+        writtenTypes.add(object.getClass());
         deferredTasks.add(() -> session.saveOrUpdate(object));
     }
 
     @Override
     public void flush(RequestScope requestScope) {
+        if (readOnly) {
+            return;
+        }
         try {
             deferredTasks.forEach(Runnable::run);
             deferredTasks.clear();
@@ -93,16 +142,38 @@ public class HibernateTransaction implements DataStoreTransaction {
         try {
             this.flush(scope);
             this.session.getTransaction().commit();
+            pageTotalsCache.invalidate(writtenTypes);
+            writtenTypes.clear();
         } catch (HibernateException e) {
             throw new TransactionException(e);
+        } finally {
+            restoreSession();
+        }
+    }
+
+    /**
+     * Undo the session settings of a read-only transaction, in case the session outlives it.
+     */
+    private void restoreSession() {
+        if (readOnly && session.isOpen()) {
+            session.setDefaultReadOnly(previousDefaultReadOnly);
+            session.setFlushMode(previousFlushMode);
         }
     }
 
     @Override
     public void createObject(Object entity, RequestScope scope) {
+        checkWritable("create");
+        writtenTypes.add(entity.getClass());
         deferredTasks.add(() -> session.persist(entity));
     }
 
+    private void checkWritable(String operation) {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Read-only transactions cannot " + operation);
+        }
+    }
+
     /**
      * load a single record with id and filter.
      *
@@ -119,28 +190,11 @@ public class HibernateTransaction implements DataStoreTransaction {
 
         try {
             EntityDictionary dictionary = scope.getDictionary();
-            Class<?> idType = dictionary.getIdType(entityClass);
-            String idField = dictionary.getIdFieldName(entityClass);
-
-            //Construct a predicate that selects an individual element of the relationship's parent (Author.id = 3).
-            FilterPredicate idExpression = new FilterPredicate(
-                    new FilterPredicate.PathElement(
-                            entityClass,
-                            idType,
-                            idField),
-                    Operator.IN,
-                    Collections.singletonList(id));
-
-            FilterExpression joinedExpression;
-            if (filterExpression.isPresent()) {
-                joinedExpression = new AndFilterExpression(filterExpression.get(), idExpression);
-            } else {
-                joinedExpression = idExpression;
-            }
-
             QueryWrapper query = (QueryWrapper)
                     new RootCollectionFetchQueryBuilder(entityClass, dictionary, sessionWrapper)
-                    .withPossibleFilterExpression(Optional.of(joinedExpression))
+                    .withPossibleFilterExpression(Optional.of(
+                            withIdExpression(entityClass, id, filterExpression, dictionary)))
+                    .withFetchJoins(FetchJoinPlanner.forRoot(entityClass, scope))
                     .build();
 
             return query.getQuery().uniqueResult();
@@ -149,6 +203,37 @@ public class HibernateTransaction implements DataStoreTransaction {
         }
     }
 
+    /**
+     * Joins a predicate selecting a single object by id with an optional filter expression.
+     *
+     * @param entityClass class of query object
+     * @param id id of the query object
+     * @param filterExpression optional security and request filters
+     * @param dictionary the entity dictionary
+     * @return the joined filter expression
+     */
+    static FilterExpression withIdExpression(Class<?> entityClass,
+                                             Serializable id,
+                                             Optional<FilterExpression> filterExpression,
+                                             EntityDictionary dictionary) {
+        Class<?> idType = dictionary.getIdType(entityClass);
+        String idField = dictionary.getIdFieldName(entityClass);
+
+        //Construct a predicate that selects an individual element of the relationship's parent (Author.id = 3).
+        FilterPredicate idExpression = new FilterPredicate(
+                new FilterPredicate.PathElement(
+                        entityClass,
+                        idType,
+                        idField),
+                Operator.IN,
+                Collections.singletonList(id));
+
+        if (filterExpression.isPresent()) {
+            return new AndFilterExpression(filterExpression.get(), idExpression);
+        }
+        return idExpression;
+    }
+
     @Override
     public Iterable<Object> loadObjects(
             Class<?> entityClass,
@@ -157,24 +242,41 @@ public class HibernateTransaction implements DataStoreTransaction {
             Optional<Pagination> pagination,
             RequestScope scope) {
 
-        pagination.ifPresent(p -> {
-            if (p.isGenerateTotals()) {
-                p.setPageTotals(getTotalRecords(entityClass, filterExpression, scope.getDictionary()));
-            }
-        });
+        // Totals strategies other than a count query read the totals off the page fetch
+        Optional<SinglePassPageTotals> totals = SinglePassPageTotals.forFetch(pagination, this::hasTotalsFunction);
+        if (!totals.isPresent()) {
+            pagination.ifPresent(p -> {
+                if (p.isGenerateTotals() && !pageTotalsCache.setEstimatedPageTotals(p, entityClass, filterExpression)) {
+                    p.setPageTotals(getTotalRecords(entityClass, filterExpression, scope.getDictionary()));
+                }
+            });
+        }
 
+        // Entities that are only read can be loaded partially
+        Optional<SparseFieldProjection> projection = readOnly
+                ? SparseFieldProjection.forRead(entityClass, scope)
+                : Optional.empty();
         final QueryWrapper query = (QueryWrapper)
                 new RootCollectionFetchQueryBuilder(entityClass, scope.getDictionary(), sessionWrapper)
+                        .withPossibleProjection(projection.map(SparseFieldProjection::getFields))
+                        .withPossibleTotalsFunction(totals.flatMap(SinglePassPageTotals::getTotalsFunction))
+                        .withLookahead(totals.map(SinglePassPageTotals::isLookahead).orElse(false))
                         .withPossibleFilterExpression(filterExpression)
                         .withPossibleSorting(sorting)
                         .withPossiblePagination(pagination)
+                        .withFetchJoins(FetchJoinPlanner.forRoot(entityClass, scope))
                         .build();
 
-
-        if (isScrollEnabled) {
-            return new ScrollableIterator<>(query.getQuery().scroll());
+        Iterable<Object> rows;
+        if (totals.isPresent()) {
+            rows = totals.get().apply(query.getQuery().list(),
+                    () -> getTotalRecords(entityClass, filterExpression, scope.getDictionary()));
+        } else {
+            rows = isScrollEnabled
+                    ? new ScrollableIterator<>(query.getQuery().scroll())
+                    : query.getQuery().list();
         }
-        return query.getQuery().list();
+        return projection.isPresent() ? projection.get().toEntities(rows) : rows;
     }
 
     @Override
@@ -196,7 +298,7 @@ public class HibernateTransaction implements DataStoreTransaction {
                 Class<?> relationClass = dictionary.getParameterizedType(entity, relationName);
 
                 RelationshipImpl relationship = new RelationshipImpl(
-                        entity.getClass(),
+                        dictionary.lookupEntityClass(entity.getClass()),
                         relationClass,
                         relationName,
                         entity,
@@ -223,6 +325,56 @@ public class HibernateTransaction implements DataStoreTransaction {
         return val;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public Collection<Object> getRelationIds(
+            DataStoreTransaction relationTx,
+            Object entity,
+            String relationName,
+            Optional<FilterExpression> filterExpression,
+            RequestScope scope) {
+
+        EntityDictionary dictionary = scope.getDictionary();
+        Object val = com.yahoo.elide.core.PersistentResource.getValue(entity, relationName, scope);
+        if (val instanceof AbstractPersistentCollection
+                && (filterExpression.isPresent() || !((AbstractPersistentCollection) val).wasInitialized())) {
+            Class<?> relationClass = dictionary.getParameterizedType(entity, relationName);
+
+            RelationshipImpl relationship = new RelationshipImpl(
+                    dictionary.lookupEntityClass(entity.getClass()),
+                    relationClass,
+                    relationName,
+                    entity,
+                    (Collection) val);
+
+            final QueryWrapper query = (QueryWrapper)
+                    new SubCollectionIdFetchQueryBuilder(relationship, dictionary, sessionWrapper)
+                            .withPossibleFilterExpression(filterExpression)
+                            .build();
+
+            return query.getQuery().list();
+        }
+        if (val instanceof HibernateProxy) {
+            // The id of a lazy to-one is known without initializing the proxy
+            return Collections.singletonList(((HibernateProxy) val).getHibernateLazyInitializer().getIdentifier());
+        }
+        return DataStoreTransaction.super.getRelationIds(relationTx, entity, relationName, filterExpression, scope);
+    }
+
+    @Override
+    public Map<Object, Object> getRelations(
+            DataStoreTransaction relationTx,
+            Collection<?> entities,
+            String relationName,
+            Optional<FilterExpression> filterExpression,
+            RequestScope scope) {
+        return relationLoader.getRelations(entities, relationName, filterExpression, scope,
+                val -> val instanceof AbstractPersistentCollection
+                        && (filterExpression.isPresent() || !((AbstractPersistentCollection) val).wasInitialized()),
+                entity -> getRelation(relationTx, entity, relationName, filterExpression,
+                        Optional.empty(), Optional.empty(), scope));
+    }
+
     /**
      * Returns the total record count for a root entity and an optional filter expression.
      * @param entityClass The entity type to count
@@ -234,14 +386,13 @@ public class HibernateTransaction implements DataStoreTransaction {
     private <T> Long getTotalRecords(Class<T> entityClass,
                                      Optional<FilterExpression> filterExpression,
                                      EntityDictionary dictionary) {
-
-
-        QueryWrapper query = (QueryWrapper)
-                new RootCollectionPageTotalsQueryBuilder(entityClass, dictionary, sessionWrapper)
-                .withPossibleFilterExpression(filterExpression)
-                .build();
-
-        return (Long) query.getQuery().uniqueResult();
+        return pageTotalsCache.getTotal(entityClass, filterExpression, writtenTypes, () -> {
+            QueryWrapper query = (QueryWrapper)
+                    new RootCollectionPageTotalsQueryBuilder(entityClass, dictionary, sessionWrapper)
+                    .withPossibleFilterExpression(filterExpression)
+                    .build();
+            return (Long) query.getQuery().uniqueResult();
+        });
     }
 
     /**
@@ -255,17 +406,38 @@ public class HibernateTransaction implements DataStoreTransaction {
     private <T> Long getTotalRecords(AbstractHQLQueryBuilder.Relationship relationship,
                                      Optional<FilterExpression> filterExpression,
                                      EntityDictionary dictionary) {
+        String parentId = dictionary.getId(relationship.getParent());
+        return pageTotalsCache.getTotal(relationship, parentId, filterExpression, writtenTypes, () -> {
+            QueryWrapper query = (QueryWrapper)
+                    new SubCollectionPageTotalsQueryBuilder(relationship, dictionary, sessionWrapper)
+                    .withPossibleFilterExpression(filterExpression)
+                    .build();
+            return (Long) query.getQuery().uniqueResult();
+        });
+    }
 
-        QueryWrapper query = (QueryWrapper)
-                new SubCollectionPageTotalsQueryBuilder(relationship, dictionary, sessionWrapper)
-                .withPossibleFilterExpression(filterExpression)
-                .build();
+    /**
+     * Sets the cache of the page totals this transaction counts. The totals of the types it writes are invalidated
+     * when it commits.
+     *
+     * @param pageTotalsCache the cache shared by the transactions of a store
+     */
+    void setPageTotalsCache(PageTotalsCache pageTotalsCache) {
+        this.pageTotalsCache = pageTotalsCache;
+    }
 
-        return (Long) query.getQuery().uniqueResult();
+    /**
+     * Whether the session factory has the SQL function that selects windowed page totals.
+     * @return true if the function is registered
+     */
+    private boolean hasTotalsFunction() {
+        return ((SessionFactoryImplementor) session.getSessionFactory()).getSqlFunctionRegistry()
+                .hasFunction(SinglePassPageTotals.TOTALS_FUNCTION);
     }
 
     @Override
     public void close() throws IOException {
+        restoreSession();
         if (session.isOpen() && session.getTransaction().getStatus() == TransactionStatus.ACTIVE) {
             session.getTransaction().rollback();
             throw new IOException("Transaction not closed");
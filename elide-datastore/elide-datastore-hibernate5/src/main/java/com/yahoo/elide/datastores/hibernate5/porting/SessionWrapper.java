@@ -22,20 +22,37 @@ public class SessionWrapper implements Session {
     @Getter
     private org.hibernate.Session session;
 
+    private final boolean readOnly;
+
     public SessionWrapper(org.hibernate.Session session) {
+        this(session, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param session Hibernate session
+     * @param readOnly Whether the entities loaded by the created queries are read-only
+     */
+    public SessionWrapper(org.hibernate.Session session, boolean readOnly) {
         this.session = session;
+        this.readOnly = readOnly;
     }
 
     @Override
     public Query createQuery(String queryText) {
         logQuery(queryText);
-        return new QueryWrapper(session.createQuery(queryText));
+        return wrap(session.createQuery(queryText));
     }
 
     @Override
     public Query createFilter(Collection collection, String queryText) {
         logQuery(queryText);
-        return new QueryWrapper(session.createFilter(collection, queryText));
+        return wrap(session.createFilter(collection, queryText));
+    }
+
+    private Query wrap(org.hibernate.Query query) {
+        return new QueryWrapper(readOnly ? query.setReadOnly(true) : query);
     }
 
     private static void logQuery(String queryText) {
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.datastores.hibernate5.porting;
+
+import com.yahoo.elide.core.hibernate.Query;
+import com.yahoo.elide.core.hibernate.Session;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+
+/**
+ * Wraps a Hibernate 5 StatelessSession allowing most data store logic
+ * to not directly depend on a specific version of Hibernate.
+ *
+ * Stateless sessions have no collection filters, so only query builders that use
+ * {@link #createQuery(String)} can be used with it.
+ */
+@Slf4j
+public class StatelessSessionWrapper implements Session {
+
+    @Getter
+    private org.hibernate.StatelessSession session;
+
+    public StatelessSessionWrapper(org.hibernate.StatelessSession session) {
+        this.session = session;
+    }
+
+    @Override
+    public Query createQuery(String queryText) {
+        log.debug("HQL Query: {}", queryText);
+        return new QueryWrapper(session.createQuery(queryText));
+    }
+
+    @Override
+    public Query createFilter(Collection collection, String queryText) {
+        throw new UnsupportedOperationException("Stateless sessions do not support collection filters");
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright 2017, Oath Inc.
+ * Licensed under the Apache License, Version 2.0
+ * See LICENSE file in project root for terms.
+ */
+package com.yahoo.elide.datastores.hibernate5;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.yahoo.elide.ElideSettingsBuilder;
+import com.yahoo.elide.core.DataStoreTransaction;
+import com.yahoo.elide.core.EntityDictionary;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.exceptions.InvalidOperationException;
+import com.yahoo.elide.core.pagination.Pagination;
+import com.yahoo.elide.core.sort.Sorting;
+import com.yahoo.elide.security.User;
+import example.Author;
+import example.Book;
+import example.Chapter;
+import example.Publisher;
+import org.hibernate.FlushMode;
+import org.hibernate.Query;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.collection.internal.PersistentBag;
+import org.hibernate.jpa.HibernateEntityManager;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.hibernate.resource.transaction.spi.TransactionStatus;
+import org.mockito.ArgumentCaptor;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+
+/**
+ * Read-only and stateless read transactions, run against mocked sessions.
+ */
+public class HibernateReadModeTest {
+    private EntityDictionary dictionary;
+    private Query query;
+    private Transaction transaction;
+    private Session session;
+    private StatelessSession statelessSession;
+
+    @BeforeMethod
+    public void setup() {
+        dictionary = new EntityDictionary(new HashMap<>());
+        dictionary.bindEntity(Author.class);
+        dictionary.bindEntity(Book.class);
+        dictionary.bindEntity(Chapter.class);
+        dictionary.bindEntity(Publisher.class);
+
+        // Every setter of the query returns the query itself
+        query = mock(Query.class, invocation -> Query.class.isAssignableFrom(invocation.getMethod().getReturnType())
+                ? invocation.getMock()
+                : RETURNS_DEFAULTS.answer(invocation));
+
+        transaction = mock(Transaction.class);
+        when(transaction.getStatus()).thenReturn(TransactionStatus.COMMITTED);
+
+        session = mock(Session.class);
+        when(session.isOpen()).thenReturn(true);
+        when(session.isDefaultReadOnly()).thenReturn(false);
+        when(session.getFlushMode()).thenReturn(FlushMode.AUTO);
+        when(session.getTransaction()).thenReturn(transaction);
+        when(session.createQuery(anyString())).thenReturn(query);
+        when(session.createFilter(any(), anyString())).thenReturn(query);
+
+        statelessSession = mock(StatelessSession.class);
+        when(statelessSession.getTransaction()).thenReturn(transaction);
+        when(statelessSession.createQuery(anyString())).thenReturn(query);
+    }
+
+    @Test
+    public void testReadOnlyRootCollection() {
+        Book book = new Book();
+        doReturn(Collections.singletonList(book)).when(query).list();
+
+        HibernateTransaction tx = new HibernateTransaction(session, false, null, true);
+        Iterable<Object> books = tx.loadObjects(Book.class, Optional.empty(), Optional.empty(), Optional.empty(),
+                scope(new MultivaluedHashMap<>()));
+
+        Assert.assertEquals(books, Collections.singletonList(book));
+        verify(query).setReadOnly(true);
+    }
+
+    @Test
+    public void testStatelessRootCollection() {
+        Book book = new Book();
+        doReturn(Collections.singletonList(book)).when(query).list();
+
+        HibernateStatelessTransaction tx = new HibernateStatelessTransaction(statelessSession, false);
+        Iterable<Object> books = tx.loadObjects(Book.class, Optional.empty(), Optional.empty(), Optional.empty(),
+                scope(new MultivaluedHashMap<>()));
+
+        Assert.assertEquals(books, Collections.singletonList(book));
+        verify(statelessSession).beginTransaction();
+    }
+
+    @Test
+    public void testIncludedToOneIsFetchJoined() {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.add("include", "publisher");
+        doReturn(Collections.emptyList()).when(query).list();
+
+        new HibernateStatelessTransaction(statelessSession, false).loadObjects(Book.class, Optional.empty(),
+                Optional.empty(), Optional.empty(), scope(queryParams));
+
+        ArgumentCaptor<String> hql = ArgumentCaptor.forClass(String.class);
+        verify(statelessSession).createQuery(hql.capture());
+        Assert.assertTrue(hql.getValue().contains("JOIN FETCH example_Book.publisher"), hql.getValue());
+    }
+
+    @Test
+    public void testReadOnlyRelationshipsAreBatched() {
+        Author first = author(1L);
+        Author second = author(2L);
+        Book book = new Book();
+        doReturn(Collections.singletonList(new Object[] {first, book})).when(query).list();
+
+        HibernateTransaction tx = new HibernateTransaction(session, false, null, true);
+        Map<Object, Object> relations = tx.getRelations(tx, Arrays.asList(first, second), "books",
+                Optional.empty(), scope(new MultivaluedHashMap<>()));
+
+        Assert.assertEquals(relations.get(first), Collections.singletonList(book));
+        Assert.assertEquals(relations.get(second), Collections.emptyList());
+        verify(session, times(1)).createQuery(anyString());
+        verify(query).setReadOnly(true);
+    }
+
+    @Test
+    public void testReadOnlyRelationshipPagination() {
+        Author author = author(1L);
+        Book book = new Book();
+        doReturn(Collections.singletonList(book)).when(query).list();
+        doReturn(3L).when(query).uniqueResult();
+
+        Pagination pagination = pagination(1, 1);
+        HibernateTransaction tx = new HibernateTransaction(session, false, null, true);
+        Object books = tx.getRelation(tx, author, "books", Optional.empty(), Optional.empty(),
+                Optional.of(pagination), scope(new MultivaluedHashMap<>()));
+
+        Assert.assertEquals(books, Collections.singletonList(book));
+        Assert.assertEquals(pagination.getPageTotals(), 3L);
+        verify(query).setFirstResult(1);
+        verify(query).setMaxResults(1);
+    }
+
+    @Test
+    public void testStatelessRelationshipsAreBatched() {
+        Author first = author(1L);
+        Author second = author(2L);
+        Book book = new Book();
+        Book other = new Book();
+        doReturn(Arrays.asList(new Object[] {second, other}, new Object[] {first, book})).when(query).list();
+
+        HibernateStatelessTransaction tx = new HibernateStatelessTransaction(statelessSession, false);
+        Map<Object, Object> relations = tx.getRelations(tx, Arrays.asList(first, second), "books",
+                Optional.empty(), scope(new MultivaluedHashMap<>()));
+
+        Assert.assertEquals(relations.get(first), Collections.singletonList(book));
+        Assert.assertEquals(relations.get(second), Collections.singletonList(other));
+        verify(statelessSession, times(1)).createQuery(anyString());
+    }
+
+    @Test
+    public void testStatelessRelationshipPagination() {
+        Author author = author(1L);
+        List<Book> books = Arrays.asList(new Book(), new Book(), new Book());
+        doReturn(Arrays.asList(new Object[] {author, books.get(0)}, new Object[] {author, books.get(1)},
+                new Object[] {author, books.get(2)})).when(query).list();
+
+        Pagination pagination = pagination(1, 1);
+        HibernateStatelessTransaction tx = new HibernateStatelessTransaction(statelessSession, false);
+        Object page = tx.getRelation(tx, author, "books", Optional.empty(), Optional.empty(),
+                Optional.of(pagination), scope(new MultivaluedHashMap<>()));
+
+        Assert.assertEquals(page, Collections.singletonList(books.get(1)));
+        Assert.assertEquals(pagination.getPageTotals(), 3L);
+        // The page is cut from the fetched members, not by the query
+        verify(query, never()).setFirstResult(1);
+    }
+
+    @Test
+    public void testStatelessRelationshipCannotBeSorted() {
+        Author author = author(1L);
+        Sorting sorting = new Sorting(Collections.singletonMap("title", Sorting.SortOrder.asc));
+
+        HibernateStatelessTransaction tx = new HibernateStatelessTransaction(statelessSession, false);
+        Assert.expectThrows(InvalidOperationException.class, () -> tx.getRelation(tx, author, "books",
+                Optional.empty(), Optional.of(sorting), Optional.empty(), scope(new MultivaluedHashMap<>())));
+    }
+
+    @Test
+    public void testStatelessProxyIsLoadedById() {
+        Publisher publisher = new Publisher();
+        LazyInitializer initializer = mock(LazyInitializer.class);
+        when(initializer.isUninitialized()).thenReturn(true);
+        when(initializer.getEntityName()).thenReturn(Publisher.class.getName());
+        when(initializer.getIdentifier()).thenReturn(7L);
+        Publisher proxy = mock(Publisher.class, withSettings().extraInterfaces(HibernateProxy.class));
+        when(((HibernateProxy) proxy).getHibernateLazyInitializer()).thenReturn(initializer);
+        when(statelessSession.get(Publisher.class.getName(), 7L)).thenReturn(publisher);
+        Book book = new Book();
+        book.setPublisher(proxy);
+
+        HibernateStatelessTransaction tx = new HibernateStatelessTransaction(statelessSession, false);
+        Object loaded = tx.getRelation(tx, book, "publisher", Optional.empty(), Optional.empty(),
+                Optional.empty(), scope(new MultivaluedHashMap<>()));
+
+        Assert.assertSame(loaded, publisher);
+        Assert.assertEquals(tx.getRelationIds(tx, book, "publisher", Optional.empty(),
+                scope(new MultivaluedHashMap<>())), Collections.singletonList(7L));
+    }
+
+    @Test
+    public void testWritesAreRejected() {
+        RequestScope scope = scope(new MultivaluedHashMap<>());
+        for (DataStoreTransaction tx : Arrays.asList(new HibernateTransaction(session, false, null, true),
+                new HibernateStatelessTransaction(statelessSession, false))) {
+            Book book = new Book();
+            Assert.expectThrows(UnsupportedOperationException.class, () -> tx.createObject(book, scope));
+            Assert.expectThrows(UnsupportedOperationException.class, () -> tx.save(book, scope));
+            Assert.expectThrows(UnsupportedOperationException.class, () -> tx.delete(book, scope));
+        }
+    }
+
+    @Test
+    public void testReadOnlySessionIsRestoredOnCommit() {
+        HibernateTransaction tx = new HibernateTransaction(session, false, null, true);
+        verify(session).setDefaultReadOnly(true);
+        verify(session).setFlushMode(FlushMode.MANUAL);
+
+        tx.commit(null);
+
+        verify(transaction).commit();
+        verify(session, never()).flush();
+        verify(session).setDefaultReadOnly(false);
+        verify(session).setFlushMode(FlushMode.AUTO);
+    }
+
+    @Test
+    public void testReadOnlySessionIsRestoredOnClose() throws Exception {
+        HibernateTransaction tx = new HibernateTransaction(session, false, null, true);
+
+        tx.close();
+
+        verify(session).setDefaultReadOnly(false);
+        verify(session).setFlushMode(FlushMode.AUTO);
+    }
+
+    @Test
+    public void testStatelessSessionIsClosedOnce() throws Exception {
+        HibernateStatelessTransaction tx = new HibernateStatelessTransaction(statelessSession, false);
+
+        tx.commit(null);
+        tx.close();
+
+        verify(transaction).commit();
+        verify(statelessSession, times(1)).close();
+    }
+
+    @Test
+    public void testEntityManagerStoreReusesSessionAcrossReadModes() throws Exception {
+        HibernateEntityManager entityManager = mock(HibernateEntityManager.class);
+        when(entityManager.getSession()).thenReturn(session);
+
+        HibernateStore store = new HibernateStore.Builder(entityManager)
+                .withScrollEnabled(false)
+                .withReadMode(HibernateStore.ReadMode.READ_ONLY)
+                .build();
+        for (int i = 0; i < 2; i++) {
+            DataStoreTransaction tx = store.beginReadTransaction();
+            Assert.expectThrows(UnsupportedOperationException.class, () -> tx.save(new Book(), null));
+            tx.commit(null);
+            tx.close();
+        }
+
+        verify(session, times(2)).clear();
+        verify(session, times(2)).setDefaultReadOnly(true);
+        verify(session, times(2)).setFlushMode(FlushMode.MANUAL);
+        verify(session, times(4)).setDefaultReadOnly(false);
+        verify(session, times(4)).setFlushMode(FlushMode.AUTO);
+
+        // A regular transaction on the same session writes again
+        DataStoreTransaction tx = store.beginTransaction();
+        tx.save(new Book(), null);
+        tx.commit(null);
+        verify(session).saveOrUpdate(any());
+    }
+
+    @Test
+    public void testEntityManagerStoreOpensStatelessSession() throws Exception {
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        when(sessionFactory.openStatelessSession()).thenReturn(statelessSession);
+        when(session.getSessionFactory()).thenReturn(sessionFactory);
+        HibernateEntityManager entityManager = mock(HibernateEntityManager.class);
+        when(entityManager.getSession()).thenReturn(session);
+
+        HibernateStore store = new HibernateStore.Builder(entityManager)
+                .withReadMode(HibernateStore.ReadMode.STATELESS)
+                .build();
+        try (DataStoreTransaction tx = store.beginReadTransaction()) {
+            Assert.assertTrue(tx instanceof HibernateStatelessTransaction);
+            tx.commit(null);
+        }
+
+        verify(statelessSession).close();
+        verify(session, never()).beginTransaction();
+    }
+
+    private RequestScope scope(MultivaluedMap<String, String> queryParams) {
+        return new RequestScope(null, null, null, new User(1), queryParams,
+                new ElideSettingsBuilder(null).withEntityDictionary(dictionary).build());
+    }
+
+    private Pagination pagination(int offset, int limit) {
+        MultivaluedMap<String, String> queryParams = new MultivaluedHashMap<>();
+        queryParams.add(Pagination.PAGE_OFFSET_KEY, String.valueOf(offset));
+        queryParams.add(Pagination.PAGE_LIMIT_KEY, String.valueOf(limit));
+        queryParams.add(Pagination.PAGE_TOTALS_KEY, "");
+        return Pagination.parseQueryParams(queryParams, new ElideSettingsBuilder(null).build())
+                .evaluate(Book.class);
+    }
+
+    private static Author author(long id) {
+        Author author = new Author();
+        author.setId(id);
+        // An uninitialized collection, as on an entity loaded by Hibernate
+        author.setBooks(new PersistentBag());
+        return author;
+    }
+}
@@ -23,8 +23,10 @@ import lombok.extern.slf4j.Slf4j;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -204,6 +206,44 @@ public abstract class MultiplexTransaction implements DataStoreTransaction {
                 relationName, filterExpression, sorting, pagination, scope);
     }
 
+    @Override
+    public Collection<Object> getRelationIds(DataStoreTransaction relationTx,
+                                             Object entity,
+                                             String relationName,
+                                             Optional<FilterExpression> filterExpression,
+                                             RequestScope scope) {
+        relationTx = getRelationTransaction(entity, relationName);
+        DataStoreTransaction entityTransaction = getTransaction(entity.getClass());
+
+        // Bridged relationships are loaded through getRelation
+        if (entityTransaction != relationTx && relationTx instanceof BridgeableTransaction) {
+            return DataStoreTransaction.super.getRelationIds(relationTx, entity, relationName,
+                    filterExpression, scope);
+        }
+        return entityTransaction.getRelationIds(relationTx, entity, relationName, filterExpression, scope);
+    }
+
+    @Override
+    public Map<Object, Object> getRelations(DataStoreTransaction relationTx,
+                                            Collection<?> entities,
+                                            String relationName,
+                                            Optional<FilterExpression> filterExpression,
+                                            RequestScope scope) {
+        if (entities.isEmpty()) {
+            return new IdentityHashMap<>();
+        }
+        Object first = entities.iterator().next();
+        relationTx = getRelationTransaction(first, relationName);
+        DataStoreTransaction entityTransaction = getTransaction(first.getClass());
+
+        // Bridged relationships are loaded one entity at a time
+        if (entityTransaction != relationTx && relationTx instanceof BridgeableTransaction) {
+            return DataStoreTransaction.super.getRelations(relationTx, entities, relationName,
+                    filterExpression, scope);
+        }
+        return entityTransaction.getRelations(relationTx, entities, relationName, filterExpression, scope);
+    }
+
     @Override
     public void updateToManyRelation(DataStoreTransaction relationTx,
                                      Object entity, String relationName,
@@ -19,7 +19,7 @@ public class InMemoryLogger extends AuditLogger {
 
     @Override
     public void commit(RequestScope requestScope) throws IOException {
-        for (LogMessage message : messages.get()) {
+        for (LogMessage message : getMessages(requestScope)) {
             if (message.getChangeSpec().isPresent()) {
                 logMessages.add(changeSpecToString(message.getChangeSpec().get()));
             }